@@ -0,0 +1,31 @@
+package com.enterprise.ecommerce.gateway.config;
+
+import com.enterprise.ecommerce.common.security.JwtUtil;
+import com.enterprise.ecommerce.common.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * JWT verification configuration for API Gateway
+ */
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtUtil jwtUtil() {
+        return new JwtUtil();
+    }
+
+    /**
+     * Cache of verified tokens shared by all requests of this instance
+     */
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(JwtUtil jwtUtil,
+                                                 @Value("${app.gateway.auth.verified-token-cache.max-entries:100000}") int maxEntries,
+                                                 @Value("${app.gateway.auth.verified-token-cache.ttl-ms:60000}") long ttlMillis) {
+        return new VerifiedTokenCache(jwtUtil, maxEntries, Duration.ofMillis(ttlMillis));
+    }
+}
@@ -0,0 +1,144 @@
+package com.enterprise.ecommerce.gateway.security;
+
+import com.enterprise.ecommerce.common.security.TokenClaims;
+import com.enterprise.ecommerce.common.security.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies JWTs once at the edge
+ * <p>
+ * Signature and expiry are checked through the shared {@link VerifiedTokenCache}, so a
+ * token is parsed once per instance and not again for {@code verified-token-cache.ttl-ms}
+ * or past its expiry. A verified token is
+ * still refused once its user's tokens were revoked: user-service publishes each user's
+ * token epoch to Redis when it moves, and tokens stamped with an older epoch are
+ * refused. Published epochs are cached for {@code token-epoch.cache-ttl-ms}. When Redis
+ * cannot be reached the epoch of a token is unknown, and with {@code token-epoch.fail-closed}
+ * the token is neither accepted nor refused but reported as
+ * {@link EpochsUnavailableException}; otherwise revocation is left to the services.
+ */
+@Component
+@Slf4j
+public class EdgeTokenVerifier {
+
+    static final String EPOCH_KEY_PREFIX = "auth:token-epoch:";
+
+    private final ConcurrentMap<Long, CachedEpoch> epochs = new ConcurrentHashMap<>();
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final int maxEntries;
+    private final long epochTtlNanos;
+    private final boolean failClosed;
+    private final Counter verified;
+    private final Counter invalid;
+    private final Counter revoked;
+
+    public EdgeTokenVerifier(VerifiedTokenCache verifiedTokenCache,
+                             @Value("${app.gateway.auth.verified-token-cache.max-entries:100000}") int maxEntries,
+                             @Value("${app.gateway.auth.token-epoch.cache-ttl-ms:5000}") long epochTtlMillis,
+                             @Value("${app.gateway.auth.token-epoch.fail-closed:true}") boolean failClosed,
+                             ReactiveStringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.redisTemplate = redisTemplate;
+        this.maxEntries = maxEntries;
+        this.epochTtlNanos = TimeUnit.MILLISECONDS.toNanos(epochTtlMillis);
+        this.failClosed = failClosed;
+        this.verified = outcomeCounter(meterRegistry, "verified");
+        this.invalid = outcomeCounter(meterRegistry, "invalid");
+        this.revoked = outcomeCounter(meterRegistry, "revoked");
+    }
+
+    private record CachedEpoch(long epoch, long expiresAt) {
+    }
+
+    /**
+     * Raised when a token verified but whether it was revoked cannot be told
+     */
+    static class EpochsUnavailableException extends RuntimeException {
+        EpochsUnavailableException(Throwable cause) {
+            super("Token epochs unavailable", cause);
+        }
+    }
+
+    /**
+     * Verify a bearer token; empty when it is malformed, forged, expired or revoked, and
+     * failing with {@link EpochsUnavailableException} when revocation cannot be checked
+     */
+    public Mono<VerifiedToken> verify(String jwt) {
+        VerifiedToken token = verifySignature(jwt);
+        if (token == null) {
+            return Mono.empty();
+        }
+        return publishedEpoch(token.userId())
+                .flatMap(epoch -> {
+                    // Epochs only move forward, so a token stamped at or after the published one is current
+                    if (token.epoch() >= epoch) {
+                        return Mono.just(token);
+                    }
+                    revoked.increment();
+                    log.debug("Rejected revoked token of user {}", token.userId());
+                    return Mono.empty();
+                });
+    }
+
+    private VerifiedToken verifySignature(String jwt) {
+        TokenClaims claims;
+        try {
+            claims = verifiedTokenCache.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalid.increment();
+            log.debug("Rejected invalid JWT: {}", e.getMessage());
+            return null;
+        }
+        if (claims.userId() == null) {
+            invalid.increment();
+            return null;
+        }
+        verified.increment();
+        return new VerifiedToken(claims.userId(), claims.username(), claims.role(), claims.epoch());
+    }
+
+    private Mono<Long> publishedEpoch(Long userId) {
+        long now = System.nanoTime();
+        CachedEpoch entry = epochs.get(userId);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            return Mono.just(entry.epoch());
+        }
+        return redisTemplate.opsForValue().get(EPOCH_KEY_PREFIX + userId)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .doOnNext(epoch -> {
+                    if (epochs.size() >= maxEntries) {
+                        epochs.values().removeIf(cachedEpoch -> now - cachedEpoch.expiresAt() >= 0);
+                    }
+                    epochs.put(userId, new CachedEpoch(epoch, now + epochTtlNanos));
+                })
+                .onErrorResume(e -> {
+                    if (failClosed) {
+                        log.warn("Token epochs unavailable, refusing tokens of user {}: {}", userId, e.getMessage());
+                        return Mono.error(new EpochsUnavailableException(e));
+                    }
+                    log.warn("Token epochs unavailable, leaving revocation to the services: {}", e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.auth.tokens")
+                .description("Bearer tokens checked at the edge")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.enterprise.ecommerce.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Signs the identity headers forwarded to the services
+ * <p>
+ * The headers and the signed payload, {@code userId \n username \n roles \n epoch \n issuedAt}
+ * under HMAC-SHA256, must match what {@code GatewayIdentityVerifier} in the common
+ * module checks.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    static final String USER_ID_HEADER = "X-User-Id";
+    static final String USER_NAME_HEADER = "X-User-Name";
+    static final String USER_ROLES_HEADER = "X-User-Roles";
+    static final String TOKEN_EPOCH_HEADER = "X-User-Token-Epoch";
+    static final String ISSUED_AT_HEADER = "X-Identity-Issued-At";
+    static final String SIGNATURE_HEADER = "X-Identity-Signature";
+
+    /**
+     * Headers a client must never be able to set itself
+     */
+    static final List<String> IDENTITY_HEADERS = List.of(
+            USER_ID_HEADER, USER_NAME_HEADER, USER_ROLES_HEADER, TOKEN_EPOCH_HEADER, ISSUED_AT_HEADER,
+            SIGNATURE_HEADER);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityHeaderSigner(@Value("${app.gateway.auth.identity-secret}") String secret) {
+        if (secret.length() < 32) {
+            throw new IllegalStateException("Gateway identity secret must be at least 32 characters");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * Add the signed identity of a verified token to outgoing request headers
+     */
+    public void sign(HttpHeaders headers, VerifiedToken token) {
+        String userId = String.valueOf(token.userId());
+        String roles = token.role() != null ? token.role() : "";
+        String epoch = String.valueOf(token.epoch());
+        String issuedAt = String.valueOf(System.currentTimeMillis());
+        String payload = userId + "\n" + token.username() + "\n" + roles + "\n" + epoch + "\n" + issuedAt;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+
+        headers.set(USER_ID_HEADER, userId);
+        headers.set(USER_NAME_HEADER, token.username());
+        headers.set(USER_ROLES_HEADER, roles);
+        headers.set(TOKEN_EPOCH_HEADER, epoch);
+        headers.set(ISSUED_AT_HEADER, issuedAt);
+        headers.set(SIGNATURE_HEADER, Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+    }
+}
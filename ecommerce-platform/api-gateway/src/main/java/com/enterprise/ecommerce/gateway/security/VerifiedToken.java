@@ -0,0 +1,12 @@
+package com.enterprise.ecommerce.gateway.security;
+
+/**
+ * Identity carried by a JWT whose signature and expiry were checked at the edge
+ *
+ * @param userId    the user's id
+ * @param username  the token subject
+ * @param role      the user's role, without the {@code ROLE_} prefix
+ * @param epoch     the user's token epoch when the token was issued
+ */
+public record VerifiedToken(Long userId, String username, String role, long epoch) {
+}
@@ -0,0 +1,45 @@
+package com.enterprise.ecommerce.cart.config;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.ProductUpdatedEvent;
+import com.enterprise.ecommerce.common.kafka.JsonListenerContainerFactories;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for product events and checkout commands.
+ * Product events are delivered to the listener in batches.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:cart-service}")
+    private String groupId;
+
+    @Value("${app.cart.price-refresh.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductUpdatedEvent> productEventsListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductUpdatedEvent> factory = JsonListenerContainerFactories.create(
+                bootstrapServers, groupId, ProductUpdatedEvent.class,
+                Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CheckoutCommand> checkoutCommandListenerContainerFactory() {
+        return JsonListenerContainerFactories.create(bootstrapServers, groupId, CheckoutCommand.class);
+    }
+}
@@ -32,8 +32,10 @@ public class RedisCacheConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new GenericJackson2JsonRedisSerializer()));
 
+        // Evictions inside a transaction are applied after commit, so readers cannot re-cache pre-commit state
         return RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(config)
+                .transactionAware()
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.enterprise.ecommerce.cart.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry for methods annotated with
+ * {@link com.enterprise.ecommerce.cart.service.RetryOnConflict}.
+ * <p>
+ * Ordered ahead of the transaction interceptor so every attempt runs in its own
+ * transaction. Attempts are spaced by exponential backoff with full jitter so that
+ * colliding requests do not collide again in lockstep. Retried are stale versions and
+ * unique-key violations, such as two first adds racing to create the same cart or line.
+ */
+@Aspect
+@Component
+@Order(0)
+public class RetryOnConflictAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryOnConflictAspect.class);
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public RetryOnConflictAspect(@Value("${app.cart.retry.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.cart.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                                 @Value("${app.cart.retry.max-backoff-ms:100}") long maxBackoffMillis,
+                                 MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retries = Counter.builder("cart.mutation.conflicts")
+                .description("Cart mutations that lost a concurrent update race")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("cart.mutation.conflicts")
+                .description("Cart mutations that lost a concurrent update race")
+                .tag("outcome", "exhausted")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.enterprise.ecommerce.cart.service.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    logger.warn("{} still conflicting after {} attempts", joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+                retries.increment();
+                logger.debug("{} conflicted on attempt {}, retrying: {}",
+                        joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+                if (!backoff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the failure is a lost race: a stale version, or a unique key taken by a
+     * concurrent insert. Hibernate reports the latter as a plain
+     * {@link DataIntegrityViolationException}, so it is recognised by its SQLState.
+     */
+    static boolean isConflict(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof DuplicateKeyException) {
+            return true;
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            for (Throwable cause = e.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+                if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
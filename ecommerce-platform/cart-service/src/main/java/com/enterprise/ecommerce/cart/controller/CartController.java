@@ -1,7 +1,8 @@
 package com.enterprise.ecommerce.cart.controller;
 
 import com.enterprise.ecommerce.cart.dto.*;
-import com.enterprise.ecommerce.cart.service.CartService;
+import com.enterprise.ecommerce.cart.service.CartOperations;
+import com.enterprise.ecommerce.cart.service.CartPricingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -24,10 +25,12 @@ public class CartController {
 
     private static final Logger logger = LoggerFactory.getLogger(CartController.class);
 
-    private final CartService cartService;
+    private final CartOperations cartService;
+    private final CartPricingService cartPricingService;
 
-    public CartController(CartService cartService) {
+    public CartController(CartOperations cartService, CartPricingService cartPricingService) {
         this.cartService = cartService;
+        this.cartPricingService = cartPricingService;
     }
 
     @Operation(summary = "Get user's cart", description = "Retrieve the shopping cart for the specified user")
@@ -88,7 +91,7 @@ public class CartController {
     public ResponseEntity<CartResponse> updateCartItem(
             @Parameter(description = "User ID", required = true) 
             @PathVariable Long userId,
-            @Parameter(description = "Cart item ID", required = true) 
+            @Parameter(description = "Cart item ID; the product ID when the Redis cart store is enabled", required = true) 
             @PathVariable Long itemId,
             @Valid @RequestBody UpdateCartItemRequest request) {
         
@@ -115,7 +118,7 @@ public class CartController {
     public ResponseEntity<CartResponse> removeFromCart(
             @Parameter(description = "User ID", required = true) 
             @PathVariable Long userId,
-            @Parameter(description = "Cart item ID", required = true) 
+            @Parameter(description = "Cart item ID; the product ID when the Redis cart store is enabled", required = true) 
             @PathVariable Long itemId) {
         
         logger.info("DELETE request to remove item: {} from cart for user: {}", itemId, userId);
@@ -172,4 +175,27 @@ public class CartController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Quote cart", description = "Price the user's cart with tax, shipping and promotions for a destination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cart quoted successfully")
+    })
+    @GetMapping("/user/{userId}/quote")
+    public ResponseEntity<CartQuoteResponse> quoteCart(
+            @Parameter(description = "User ID", required = true) 
+            @PathVariable Long userId,
+            @Parameter(description = "Promo code") @RequestParam(required = false) String promoCode,
+            @Parameter(description = "Destination country") @RequestParam(required = false) String country,
+            @Parameter(description = "Destination state or province") @RequestParam(required = false) String state) {
+        
+        logger.info("GET request to quote cart for user: {}", userId);
+        
+        try {
+            CartQuoteResponse quote = cartPricingService.quoteCart(userId, promoCode, country, state);
+            return ResponseEntity.ok(quote);
+        } catch (Exception e) {
+            logger.error("Error quoting cart for user: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
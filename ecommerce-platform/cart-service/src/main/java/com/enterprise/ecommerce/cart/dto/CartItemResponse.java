@@ -15,6 +15,7 @@ public class CartItemResponse {
     private BigDecimal price;
     private Integer quantity;
     private BigDecimal subtotal;
+    private Boolean available;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -32,6 +33,7 @@ public class CartItemResponse {
         private BigDecimal price;
         private Integer quantity;
         private BigDecimal subtotal;
+        private Boolean available;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
 
@@ -70,6 +72,11 @@ public class CartItemResponse {
             return this;
         }
 
+        public Builder available(Boolean available) {
+            this.available = available;
+            return this;
+        }
+
         public Builder createdAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
             return this;
@@ -89,6 +96,7 @@ public class CartItemResponse {
             response.price = this.price;
             response.quantity = this.quantity;
             response.subtotal = this.subtotal;
+            response.available = this.available;
             response.createdAt = this.createdAt;
             response.updatedAt = this.updatedAt;
             return response;
@@ -156,6 +164,14 @@ public class CartItemResponse {
         this.subtotal = subtotal;
     }
 
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -181,6 +197,7 @@ public class CartItemResponse {
                 ", price=" + price +
                 ", quantity=" + quantity +
                 ", subtotal=" + subtotal +
+                ", available=" + available +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.enterprise.ecommerce.cart.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for the priced view of a cart: tax, shipping and promotions as they would be charged
+ * at checkout for the given destination and promo code
+ */
+public class CartQuoteResponse {
+
+    private Long userId;
+    private Integer totalItems;
+    private BigDecimal subtotal;
+    private BigDecimal discountAmount;
+    private BigDecimal shippingAmount;
+    private BigDecimal taxAmount;
+    private BigDecimal totalAmount;
+    private List<String> appliedDiscounts;
+
+    // Constructors
+    public CartQuoteResponse() {}
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(Integer totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getShippingAmount() {
+        return shippingAmount;
+    }
+
+    public void setShippingAmount(BigDecimal shippingAmount) {
+        this.shippingAmount = shippingAmount;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public List<String> getAppliedDiscounts() {
+        return appliedDiscounts;
+    }
+
+    public void setAppliedDiscounts(List<String> appliedDiscounts) {
+        this.appliedDiscounts = appliedDiscounts;
+    }
+
+    @Override
+    public String toString() {
+        return "CartQuoteResponse{" +
+                "userId=" + userId +
+                ", totalItems=" + totalItems +
+                ", subtotal=" + subtotal +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
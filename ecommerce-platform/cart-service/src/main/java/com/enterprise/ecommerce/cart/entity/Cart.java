@@ -41,6 +41,14 @@ public class Cart {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Time of the user's last change; system writes such as repricing leave it alone */
+    @Column(name = "last_activity_at", nullable = false)
+    private LocalDateTime lastActivityAt = LocalDateTime.now();
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public Cart() {}
 
@@ -105,6 +113,22 @@ public class Cart {
         this.updatedAt = updatedAt;
     }
 
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Business methods
     public void addItem(CartItem item) {
         items.add(item);
@@ -41,6 +41,9 @@ public class CartItem {
     @Column(name = "subtotal", precision = 10, scale = 2)
     private BigDecimal subtotal;
 
+    @Column(name = "available", nullable = false)
+    private Boolean available = true;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -49,6 +52,10 @@ public class CartItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public CartItem() {}
 
@@ -127,6 +134,14 @@ public class CartItem {
         this.subtotal = subtotal;
     }
 
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -143,6 +158,14 @@ public class CartItem {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Business methods
     public void calculateSubtotal() {
         if (price != null && quantity != null) {
@@ -172,6 +195,7 @@ public class CartItem {
                 ", price=" + price +
                 ", quantity=" + quantity +
                 ", subtotal=" + subtotal +
+                ", available=" + available +
                 '}';
     }
 }
\ No newline at end of file
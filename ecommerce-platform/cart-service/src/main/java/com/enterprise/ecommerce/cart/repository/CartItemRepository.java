@@ -2,10 +2,13 @@ package com.enterprise.ecommerce.cart.repository;
 
 import com.enterprise.ecommerce.cart.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,13 +34,43 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT COUNT(ci) FROM CartItem ci WHERE ci.cart.id = :cartId")
     Long countByCartId(@Param("cartId") Long cartId);
 
+    /**
+     * Count items across several carts
+     */
+    @Query("SELECT COUNT(ci) FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    long countByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+
     /**
      * Delete all cart items by cart ID
      */
     void deleteByCartId(Long cartId);
 
+    /**
+     * Delete all cart items by cart ID in a single statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteAllByCartIdInBulk(@Param("cartId") Long cartId);
+
+    /**
+     * Atomically add to a line's quantity, provided its price is still the one the caller saw
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CartItem ci SET ci.quantity = ci.quantity + :quantity, " +
+           "ci.subtotal = ci.price * (ci.quantity + :quantity), ci.version = ci.version + 1 " +
+           "WHERE ci.id = :itemId AND ci.price = :price")
+    int incrementQuantity(@Param("itemId") Long itemId,
+                          @Param("quantity") int quantity,
+                          @Param("price") BigDecimal price);
+
     /**
      * Find cart items by product ID
      */
     List<CartItem> findByProductId(Long productId);
+
+    /**
+     * Find cart items for several products, with their carts loaded
+     */
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.cart WHERE ci.productId IN :productIds")
+    List<CartItem> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.enterprise.ecommerce.cart.repository;
 
 import com.enterprise.ecommerce.cart.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,4 +38,61 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      * Delete cart by user ID
      */
     void deleteByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Atomically move the cart totals by the given deltas after a user change, bump the
+     * cart version and record the activity
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = c.totalAmount + :amountDelta, " +
+           "c.totalItems = c.totalItems + :itemsDelta, c.version = c.version + 1, " +
+           "c.lastActivityAt = LOCAL DATETIME WHERE c.id = :cartId")
+    int adjustTotals(@Param("cartId") Long cartId,
+                     @Param("amountDelta") BigDecimal amountDelta,
+                     @Param("itemsDelta") int itemsDelta);
+
+    /**
+     * Atomically move the cart total after a system reprice and bump the cart version,
+     * leaving the last activity alone so repricing does not keep idle carts alive
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = c.totalAmount + :amountDelta, c.version = c.version + 1 " +
+           "WHERE c.id = :cartId")
+    int repriceTotal(@Param("cartId") Long cartId, @Param("amountDelta") BigDecimal amountDelta);
+
+    /**
+     * Atomically reset the cart totals, bump the cart version and record the activity
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = 0, c.totalItems = 0, c.version = c.version + 1, " +
+           "c.lastActivityAt = LOCAL DATETIME WHERE c.id = :cartId")
+    int resetTotals(@Param("cartId") Long cartId);
+
+    /**
+     * Lock a batch of carts whose users have not touched them for the given ages, oldest
+     * first, skipping carts in use. Empty carts use their own, usually shorter, idle age.
+     */
+    @Query(value = "SELECT c.id AS id, c.user_id AS userId FROM carts c " +
+            "WHERE c.last_activity_at < LOCALTIMESTAMP - :emptyIdleSeconds * INTERVAL '1 second' " +
+            "AND (c.last_activity_at < LOCALTIMESTAMP - :idleSeconds * INTERVAL '1 second' OR c.total_items = 0) " +
+            "ORDER BY c.last_activity_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<IdleCart> lockIdleCarts(@Param("idleSeconds") long idleSeconds,
+                                 @Param("emptyIdleSeconds") long emptyIdleSeconds,
+                                 @Param("limit") int limit);
+
+    /**
+     * Delete carts by ID; their items are removed by the foreign key cascade
+     */
+    @Modifying
+    @Query(value = "DELETE FROM carts WHERE id IN (:cartIds)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("cartIds") Collection<Long> cartIds);
+
+    /**
+     * Cart identity returned by the idle cart scan
+     */
+    interface IdleCart {
+        Long getId();
+
+        Long getUserId();
+    }
+}
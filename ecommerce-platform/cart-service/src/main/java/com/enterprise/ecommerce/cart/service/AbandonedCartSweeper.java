@@ -0,0 +1,184 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.repository.CartItemRepository;
+import com.enterprise.ecommerce.cart.repository.CartRepository;
+import com.enterprise.ecommerce.cart.store.RedisLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reclaims carts that have been idle past a configurable age.
+ * <p>
+ * Idle carts are found through the last_activity_at index, which only user changes move,
+ * and deleted in bounded batches, one short transaction per batch, with a pause between
+ * batches to cap the delete rate on the primary. Rows are locked with SKIP LOCKED, so carts being modified are left alone, and a
+ * Redis lease keeps concurrent instances from sweeping at the same time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.sweeper.enabled", havingValue = "true")
+public class AbandonedCartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    private static final String LEASE_KEY = "cart:sweeper:lease";
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLease lease;
+
+    private final Counter cartsReclaimed;
+    private final Counter itemsReclaimed;
+    private final Counter leaseContended;
+    private final Timer sweepTimer;
+
+    @Value("${app.cart.sweeper.idle-ttl-seconds:2592000}")
+    private long idleTtlSeconds;
+
+    @Value("${app.cart.sweeper.empty-idle-ttl-seconds:86400}")
+    private long emptyIdleTtlSeconds;
+
+    @Value("${app.cart.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cart.sweeper.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.cart.sweeper.max-carts-per-second:1000}")
+    private int maxCartsPerSecond;
+
+    public AbandonedCartSweeper(CartRepository cartRepository,
+                                CartItemRepository cartItemRepository,
+                                CacheManager cacheManager,
+                                StringRedisTemplate redisTemplate,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cart.sweeper.lease-ttl-seconds:120}") long leaseTtlSeconds) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lease = new RedisLease(redisTemplate, LEASE_KEY, Duration.ofSeconds(leaseTtlSeconds));
+
+        this.cartsReclaimed = Counter.builder("cart.sweeper.reclaimed")
+                .description("Rows deleted by the abandoned-cart sweeper")
+                .tag("table", "carts")
+                .register(meterRegistry);
+        this.itemsReclaimed = Counter.builder("cart.sweeper.reclaimed")
+                .description("Rows deleted by the abandoned-cart sweeper")
+                .tag("table", "cart_items")
+                .register(meterRegistry);
+        this.leaseContended = Counter.builder("cart.sweeper.lease.contended")
+                .description("Sweeper runs skipped because another instance held the lease")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("cart.sweeper.run")
+                .description("Duration of abandoned-cart sweeper runs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delete idle carts, one rate-limited batch at a time
+     */
+    @Scheduled(fixedDelayString = "${app.cart.sweeper.interval-ms:300000}",
+               initialDelayString = "${app.cart.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!lease.tryAcquire()) {
+            leaseContended.increment();
+            logger.debug("Cart sweeper lease held by another instance, skipping run");
+            return;
+        }
+        try {
+            sweepTimer.record(this::sweepBatches);
+        } catch (RuntimeException e) {
+            logger.error("Abandoned cart sweep failed", e);
+        } finally {
+            lease.release();
+        }
+    }
+
+    private void sweepBatches() {
+        long minBatchNanos = maxCartsPerSecond > 0 ? Duration.ofSeconds(1).toNanos() * batchSize / maxCartsPerSecond : 0;
+        long totalCarts = 0;
+        long totalItems = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            long batchStart = System.nanoTime();
+            BatchResult result = transactionTemplate.execute(status -> deleteBatch());
+            if (result == null || result.carts() == 0) {
+                break;
+            }
+
+            evictCaches(result.userIds());
+            cartsReclaimed.increment(result.carts());
+            itemsReclaimed.increment(result.items());
+            totalCarts += result.carts();
+            totalItems += result.items();
+
+            if (result.carts() < batchSize) {
+                break;
+            }
+            if (!throttle(minBatchNanos - (System.nanoTime() - batchStart)) || !lease.renew()) {
+                logger.warn("Cart sweeper stopping early; lease lost or interrupted");
+                break;
+            }
+        }
+
+        if (totalCarts > 0) {
+            logger.info("Cart sweeper reclaimed {} carts and {} cart items", totalCarts, totalItems);
+        }
+    }
+
+    private BatchResult deleteBatch() {
+        List<CartRepository.IdleCart> idleCarts =
+                cartRepository.lockIdleCarts(idleTtlSeconds, emptyIdleTtlSeconds, batchSize);
+        if (idleCarts.isEmpty()) {
+            return new BatchResult(List.of(), 0, 0);
+        }
+
+        List<Long> cartIds = idleCarts.stream().map(CartRepository.IdleCart::getId).toList();
+        long items = cartItemRepository.countByCartIdIn(cartIds);
+        int carts = cartRepository.deleteAllByIdIn(cartIds);
+        return new BatchResult(idleCarts.stream().map(CartRepository.IdleCart::getUserId).toList(), carts, items);
+    }
+
+    private void evictCaches(List<Long> userIds) {
+        for (String cacheName : List.of("carts", "cartCounts")) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                userIds.forEach(cache::evict);
+            }
+        }
+    }
+
+    private boolean throttle(long pauseNanos) {
+        if (pauseNanos <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(pauseNanos).toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record BatchResult(List<Long> userIds, int carts, long items) {
+    }
+}
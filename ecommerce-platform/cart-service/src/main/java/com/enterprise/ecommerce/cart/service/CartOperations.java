@@ -0,0 +1,25 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.dto.AddToCartRequest;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.cart.dto.UpdateCartItemRequest;
+
+/**
+ * Cart operations exposed through the REST API.
+ * Implemented by {@link CartService} on top of JPA and by {@link RedisCartService}
+ * on top of the Redis cart store.
+ */
+public interface CartOperations {
+
+    CartResponse getCartByUserId(Long userId);
+
+    CartResponse addToCart(Long userId, AddToCartRequest request);
+
+    CartResponse updateCartItem(Long userId, Long itemId, UpdateCartItemRequest request);
+
+    CartResponse removeFromCart(Long userId, Long itemId);
+
+    void clearCart(Long userId);
+
+    Long getCartItemCount(Long userId);
+}
@@ -0,0 +1,126 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.entity.CartItem;
+import com.enterprise.ecommerce.cart.repository.CartItemRepository;
+import com.enterprise.ecommerce.cart.repository.CartRepository;
+import com.enterprise.ecommerce.common.events.ProductUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies product price, name and availability changes to persisted cart lines
+ */
+@Service
+public class CartPriceRefreshService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartPriceRefreshService.class);
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+
+    public CartPriceRefreshService(CartRepository cartRepository, CartItemRepository cartItemRepository) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    /**
+     * Collapse a batch of product events to the latest state per product
+     */
+    public static Map<Long, ProductUpdatedEvent> latestByProduct(List<ProductUpdatedEvent> events) {
+        Map<Long, ProductUpdatedEvent> latest = new HashMap<>();
+        for (ProductUpdatedEvent event : events) {
+            Long productId = parseProductId(event.getProductId());
+            if (productId != null) {
+                // Later events in a partition supersede earlier ones for the same product
+                latest.put(productId, event);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Price the customer pays for the product, including any active discount
+     */
+    public static BigDecimal sellingPrice(ProductUpdatedEvent event) {
+        return event.getEffectivePrice() != null ? event.getEffectivePrice() : event.getPrice();
+    }
+
+    /**
+     * Whether the product can currently be bought
+     */
+    public static boolean isAvailable(ProductUpdatedEvent event) {
+        return event.isAvailable() && (event.getStockQuantity() == null || event.getStockQuantity() > 0);
+    }
+
+    /**
+     * Update all cart lines holding the given products and return the changed products per user.
+     * Line changes are flushed as JDBC batches and cart totals are moved by the price difference
+     * with one update per cart instead of reloading every cart.
+     */
+    @RetryOnConflict
+    @Transactional
+    public Map<Long, Set<Long>> applyProductUpdates(Map<Long, ProductUpdatedEvent> updates) {
+        if (updates.isEmpty()) {
+            return Map.of();
+        }
+
+        List<CartItem> lines = cartItemRepository.findByProductIdIn(updates.keySet());
+        Map<Long, BigDecimal> totalDeltas = new HashMap<>();
+        Map<Long, Set<Long>> changedLines = new HashMap<>();
+
+        for (CartItem line : lines) {
+            ProductUpdatedEvent event = updates.get(line.getProductId());
+            BigDecimal oldSubtotal = line.getSubtotal() != null ? line.getSubtotal() : BigDecimal.ZERO;
+            boolean available = isAvailable(event);
+            boolean changed = false;
+
+            BigDecimal price = sellingPrice(event);
+            if (price != null && price.compareTo(line.getPrice()) != 0) {
+                line.setPrice(price);
+                totalDeltas.merge(line.getCart().getId(), line.getSubtotal().subtract(oldSubtotal), BigDecimal::add);
+                changed = true;
+            }
+            if (event.getName() != null && !event.getName().equals(line.getProductName())) {
+                line.setProductName(event.getName());
+                changed = true;
+            }
+            if (!Boolean.valueOf(available).equals(line.getAvailable())) {
+                line.setAvailable(available);
+                changed = true;
+            }
+
+            if (changed) {
+                changedLines.computeIfAbsent(line.getCart().getUserId(), userId -> new HashSet<>())
+                        .add(line.getProductId());
+            }
+        }
+
+        // Write the line updates as JDBC batches, then move each cart total in place
+        cartItemRepository.flush();
+        totalDeltas.forEach(cartRepository::repriceTotal);
+
+        logger.info("Refreshed {} products across {} carts", updates.size(), changedLines.size());
+        return changedLines;
+    }
+
+    private static Long parseProductId(String productId) {
+        if (productId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(productId);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring product event with invalid product ID: {}", productId);
+            return null;
+        }
+    }
+}
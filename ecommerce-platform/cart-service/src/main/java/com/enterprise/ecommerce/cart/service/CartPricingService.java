@@ -0,0 +1,60 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.dto.CartItemResponse;
+import com.enterprise.ecommerce.cart.dto.CartQuoteResponse;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.pricing.Basket;
+import com.enterprise.ecommerce.pricing.BasketLine;
+import com.enterprise.ecommerce.pricing.Money;
+import com.enterprise.ecommerce.pricing.PriceQuote;
+import com.enterprise.ecommerce.pricing.PricingEngine;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prices carts with the same rules order-service applies at checkout.
+ * Items that are currently unavailable are left out, as they cannot be ordered.
+ */
+@Service
+public class CartPricingService {
+
+    private final CartOperations cartOperations;
+    private final PricingEngine pricingEngine;
+
+    public CartPricingService(CartOperations cartOperations, PricingEngine pricingEngine) {
+        this.cartOperations = cartOperations;
+        this.pricingEngine = pricingEngine;
+    }
+
+    /**
+     * Quote the user's cart for a destination and optional promo code
+     */
+    public CartQuoteResponse quoteCart(Long userId, String promoCode, String country, String state) {
+        CartResponse cart = cartOperations.getCartByUserId(userId);
+
+        List<BasketLine> lines = new ArrayList<>(cart.getItems().size());
+        int totalItems = 0;
+        for (CartItemResponse item : cart.getItems()) {
+            if (Boolean.FALSE.equals(item.getAvailable())) {
+                continue;
+            }
+            lines.add(new BasketLine(item.getProductId(), item.getQuantity(), Money.toMinorUnits(item.getPrice())));
+            totalItems += item.getQuantity();
+        }
+        PriceQuote quote = pricingEngine.price(new Basket(lines, country, state,
+                promoCode != null ? List.of(promoCode) : List.of()));
+
+        CartQuoteResponse response = new CartQuoteResponse();
+        response.setUserId(userId);
+        response.setTotalItems(totalItems);
+        response.setSubtotal(quote.subtotalAmount());
+        response.setDiscountAmount(quote.discountAmount());
+        response.setShippingAmount(quote.shippingAmount());
+        response.setTaxAmount(quote.taxAmount());
+        response.setTotalAmount(quote.totalAmount());
+        response.setAppliedDiscounts(quote.appliedDiscounts());
+        return response;
+    }
+}
@@ -9,9 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -39,7 +41,7 @@ class UnauthorizedCartAccessException extends RuntimeException {
  */
 @Service
 @Transactional
-public class CartService {
+public class CartService implements CartOperations {
 
     private static final Logger logger = LoggerFactory.getLogger(CartService.class);
 
@@ -79,59 +81,56 @@ public class CartService {
     /**
      * Add item to cart
      */
+    @RetryOnConflict
     @CacheEvict(value = {"carts", "cartCounts"}, key = "#userId")
     public CartResponse addToCart(Long userId, AddToCartRequest request) {
         logger.info("Adding item to cart for user: {}, productId: {}, quantity: {}", 
                    userId, request.getProductId(), request.getQuantity());
 
-        // Get or create cart
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElse(new Cart(userId));
-        
-        if (cart.getId() == null) {
-            cart = cartRepository.save(cart);
-        }
-
         // Get product details
         ProductClient.ProductResponse product = productClient.getProductById(request.getProductId());
         if (product == null) {
             throw new ProductNotFoundException("Product not found: " + request.getProductId());
         }
 
+        // Get or create cart; a concurrent first add loses on the unique user index and is retried
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> cartRepository.saveAndFlush(new Cart(userId)));
+
         // Check if item already exists in cart
         Optional<CartItem> existingItem = cartItemRepository
                 .findByCartIdAndProductId(cart.getId(), request.getProductId());
 
+        BigDecimal amountDelta;
         if (existingItem.isPresent()) {
-            // Update quantity
+            // Increase quantity in place at the price the line holds
             CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + request.getQuantity());
-            item.calculateSubtotal();
-            cartItemRepository.save(item);
+            if (cartItemRepository.incrementQuantity(item.getId(), request.getQuantity(), item.getPrice()) == 0) {
+                throw new ObjectOptimisticLockingFailureException(CartItem.class, item.getId());
+            }
+            amountDelta = item.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
         } else {
-            // Add new item
+            // Add new item; a concurrent add of the same product loses on the unique line index
             CartItem newItem = new CartItem(
                 product.getId(),
                 product.getName(),
-                product.getPrice(),
+                product.getSellingPrice(),
                 request.getQuantity()
             );
             newItem.setProductImageUrl(product.getImageUrl());
             newItem.setCart(cart);
-            cartItemRepository.save(newItem);
+            cartItemRepository.saveAndFlush(newItem);
+            amountDelta = newItem.getSubtotal();
         }
 
-        // Recalculate cart totals
-        cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
-        cart.recalculateTotal();
-        cartRepository.save(cart);
-
-        return mapToCartResponse(cart);
+        cartRepository.adjustTotals(cart.getId(), amountDelta, request.getQuantity());
+        return mapToCartResponse(cartRepository.findByUserIdWithItems(userId).orElseThrow());
     }
 
     /**
      * Update cart item quantity
      */
+    @RetryOnConflict
     @CacheEvict(value = {"carts", "cartCounts"}, key = "#userId")
     public CartResponse updateCartItem(Long userId, Long itemId, UpdateCartItemRequest request) {
         logger.info("Updating cart item: {} for user: {}, new quantity: {}", 
@@ -149,21 +148,19 @@ public class CartService {
             throw new UnauthorizedCartAccessException("Unauthorized access to cart item");
         }
 
+        BigDecimal oldSubtotal = item.getSubtotal();
+        int itemsDelta = request.getQuantity() - item.getQuantity();
         item.setQuantity(request.getQuantity());
-        item.calculateSubtotal();
-        cartItemRepository.save(item);
-
-        // Recalculate cart totals
-        Cart cart = item.getCart();
-        cart.recalculateTotal();
-        cartRepository.save(cart);
 
+        // The versioned line update is flushed ahead of the totals update
+        cartRepository.adjustTotals(item.getCart().getId(), item.getSubtotal().subtract(oldSubtotal), itemsDelta);
         return mapToCartResponse(cartRepository.findByUserIdWithItems(userId).orElseThrow());
     }
 
     /**
      * Remove item from cart
      */
+    @RetryOnConflict
     @CacheEvict(value = {"carts", "cartCounts"}, key = "#userId")
     public CartResponse removeFromCart(Long userId, Long itemId) {
         logger.info("Removing item: {} from cart for user: {}", itemId, userId);
@@ -180,29 +177,26 @@ public class CartService {
             throw new UnauthorizedCartAccessException("Unauthorized access to cart item");
         }
 
+        // The versioned delete is flushed ahead of the totals update
         cartItemRepository.delete(item);
-
-        // Recalculate cart totals
-        Cart cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
-        cart.recalculateTotal();
-        cartRepository.save(cart);
-
-        return mapToCartResponse(cart);
+        cartRepository.adjustTotals(item.getCart().getId(), item.getSubtotal().negate(), -item.getQuantity());
+        return mapToCartResponse(cartRepository.findByUserIdWithItems(userId).orElseThrow());
     }
 
     /**
      * Clear cart
      */
+    @RetryOnConflict
     @CacheEvict(value = {"carts", "cartCounts"}, key = "#userId")
     public void clearCart(Long userId) {
         logger.info("Clearing cart for user: {}", userId);
 
         Optional<Cart> cartOpt = cartRepository.findByUserId(userId);
         if (cartOpt.isPresent()) {
-            Cart cart = cartOpt.get();
-            cartItemRepository.deleteByCartId(cart.getId());
-            cart.clearItems();
-            cartRepository.save(cart);
+            // Resetting the totals first locks the cart row, so concurrent additions apply after the clear
+            Long cartId = cartOpt.get().getId();
+            cartRepository.resetTotals(cartId);
+            cartItemRepository.deleteAllByCartIdInBulk(cartId);
         }
     }
 
@@ -250,6 +244,7 @@ public class CartService {
         response.setPrice(item.getPrice());
         response.setQuantity(item.getQuantity());
         response.setSubtotal(item.getSubtotal());
+        response.setAvailable(item.getAvailable());
         response.setCreatedAt(item.getCreatedAt());
         response.setUpdatedAt(item.getUpdatedAt());
         return response;
@@ -0,0 +1,55 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clears the cart of a user when the checkout saga of one of their orders reaches the
+ * cart step. Clearing is idempotent and has no compensation: a cart is a convenience
+ * copy of the order lines, so a failed checkout leaves the order to be retried instead.
+ */
+@Component
+@Lazy(false)
+public class CheckoutCommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutCommandListener.class);
+
+    private final CartOperations cartOperations;
+    private final KafkaProducerService kafkaProducerService;
+
+    public CheckoutCommandListener(CartOperations cartOperations, KafkaProducerService kafkaProducerService) {
+        this.cartOperations = cartOperations;
+        this.kafkaProducerService = kafkaProducerService;
+    }
+
+    /**
+     * Handle a checkout command addressed to the cart step
+     */
+    @KafkaListener(topics = CheckoutCommand.TOPIC, containerFactory = "checkoutCommandListenerContainerFactory")
+    public void onCheckoutCommand(CheckoutCommand command) {
+        if (command == null || command.getStep() != CheckoutCommand.Step.CLEAR_CART) {
+            return;
+        }
+
+        CheckoutReply reply;
+        if (command.getAction() == CheckoutCommand.Action.COMPENSATE) {
+            reply = CheckoutReply.succeeded(command);
+        } else {
+            try {
+                cartOperations.clearCart(Long.valueOf(command.getUserId()));
+                reply = CheckoutReply.succeeded(command);
+            } catch (RuntimeException e) {
+                logger.warn("Could not clear cart of user {} for order {}: {}",
+                        command.getUserId(), command.getOrderId(), e.getMessage());
+                reply = CheckoutReply.failed(command, e.getMessage());
+            }
+        }
+        kafkaProducerService.sendMessage(CheckoutReply.TOPIC, command.getOrderId(), reply);
+    }
+}
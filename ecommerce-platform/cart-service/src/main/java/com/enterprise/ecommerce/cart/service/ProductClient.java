@@ -1,77 +1,306 @@
 package com.enterprise.ecommerce.cart.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.RestClientException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Client for communicating with Product Service
+ * <p>
+ * Lookups are non-blocking: concurrent lookups arriving within a short window are
+ * coalesced into one call to the product batch endpoint over a pooled HTTP connection,
+ * and results are kept in a short-lived local cache. Request and lookup latencies are
+ * published as Micrometer histograms.
  */
 @Component
 public class ProductClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductClient.class);
 
-    @Value("${app.services.product-service.url:http://localhost:8082}")
-    private String productServiceUrl;
+    private final String productServiceUrl;
+    private final String productsApiPath;
+    private final Duration requestTimeout;
+    private final long batchWindowMillis;
+    private final int maxBatchSize;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
 
-    @Value("${app.services.product-service.api-path:/api/products/}")
-    private String productsApiPath;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService batchScheduler;
+    private final Map<Long, CachedProduct> cache = new ConcurrentHashMap<>();
 
-    private final RestTemplate restTemplate;
+    private final Timer requestTimer;
+    private final Timer failedRequestTimer;
+    private final Timer cachedLookupTimer;
+    private final Timer remoteLookupTimer;
 
-    public ProductClient() {
-        this.restTemplate = new RestTemplate();
+    private final Object batchLock = new Object();
+    private Map<Long, CompletableFuture<ProductResponse>> pendingLookups = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public ProductClient(@Value("${app.services.product-service.url:http://localhost:8082}") String productServiceUrl,
+                         @Value("${app.services.product-service.api-path:/api/products/}") String productsApiPath,
+                         @Value("${app.services.product-service.connect-timeout-ms:500}") long connectTimeoutMillis,
+                         @Value("${app.services.product-service.read-timeout-ms:2000}") long readTimeoutMillis,
+                         @Value("${app.services.product-service.http2:false}") boolean http2,
+                         @Value("${app.services.product-service.batch-window-ms:5}") long batchWindowMillis,
+                         @Value("${app.services.product-service.max-batch-size:100}") int maxBatchSize,
+                         @Value("${app.services.product-service.cache-ttl-ms:30000}") long cacheTtlMillis,
+                         @Value("${app.services.product-service.cache-max-entries:10000}") int cacheMaxEntries,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.productServiceUrl = productServiceUrl;
+        this.productsApiPath = productsApiPath;
+        this.requestTimeout = Duration.ofMillis(readTimeoutMillis);
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis);
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.objectMapper = objectMapper;
+
+        // The JDK client keeps a keep-alive connection pool and completes responses asynchronously
+        this.httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-client-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.requestTimer = requestTimer(meterRegistry, "success");
+        this.failedRequestTimer = requestTimer(meterRegistry, "failure");
+        this.cachedLookupTimer = lookupTimer(meterRegistry, "cache");
+        this.remoteLookupTimer = lookupTimer(meterRegistry, "remote");
     }
 
     /**
      * Get product by ID from Product Service
+     * Returns null when the product does not exist or the service is unavailable
      */
     public ProductResponse getProductById(Long productId) {
         try {
-            String url = productServiceUrl + productsApiPath + productId;
-            logger.info("Fetching product from: {}", url);
-            
-            return restTemplate.getForObject(url, ProductResponse.class);
-        } catch (RestClientException e) {
-            String errorMessage = String.format("Failed to fetch product details for ID: %d from product service at URL: %s. Cause: %s", 
-                                               productId, productServiceUrl + productsApiPath + productId, e.getMessage());
-            logger.error(errorMessage, e);
-            // Handle the RestClientException by logging and returning null or default response
+            return getProductAsync(productId)
+                    .get(requestTimeout.toMillis() + batchWindowMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Product fetch operation was interrupted", e);
+        } catch (ExecutionException | TimeoutException e) {
             logger.warn("Product service unavailable, returning null for product ID: {}", productId);
             return null;
-        } catch (Exception e) {
-            String errorMessage = String.format("Unexpected error while fetching product details for ID: %d from product service at URL: %s. Error type: %s", 
-                                               productId, productServiceUrl + productsApiPath + productId, e.getClass().getSimpleName());
-            logger.error(errorMessage, e);
-            
-            // Handle different types of unexpected exceptions
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-                throw new IllegalStateException("Product fetch operation was interrupted", e);
-            } else if (e instanceof SecurityException) {
-                throw new IllegalStateException("Security error while accessing product service", e);
-            } else {
-                // For all other unexpected exceptions, wrap with additional context
-                String enhancedMessage = errorMessage + ". Original cause: " + (e.getMessage() != null ? e.getMessage() : "Unknown error");
-                throw new IllegalStateException(enhancedMessage, e);
+        }
+    }
+
+    /**
+     * Get product by ID without blocking; completes with null when the product does not exist
+     */
+    public CompletableFuture<ProductResponse> getProductAsync(Long productId) {
+        long start = System.nanoTime();
+        CachedProduct cached = cache.get(productId);
+        if (cached != null && cached.expiresAtNanos - start > 0) {
+            cachedLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return CompletableFuture.completedFuture(cached.product);
+        }
+
+        CompletableFuture<ProductResponse> lookup;
+        Map<Long, CompletableFuture<ProductResponse>> fullBatch = null;
+        synchronized (batchLock) {
+            lookup = pendingLookups.computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (pendingLookups.size() >= maxBatchSize) {
+                fullBatch = takePendingLookups();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = batchScheduler.schedule(this::flushPendingLookups, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            fetchBatch(fullBatch);
+        }
+
+        return lookup.whenComplete((product, ex) ->
+                remoteLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Get several products without blocking; products that do not exist are absent from the result
+     */
+    public CompletableFuture<Map<Long, ProductResponse>> getProductsAsync(Collection<Long> productIds) {
+        Map<Long, CompletableFuture<ProductResponse>> lookups = new HashMap<>();
+        for (Long productId : productIds) {
+            lookups.computeIfAbsent(productId, this::getProductAsync);
+        }
+        return CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<Long, ProductResponse> products = new HashMap<>();
+                    lookups.forEach((id, lookup) -> {
+                        ProductResponse product = lookup.join();
+                        if (product != null) {
+                            products.put(id, product);
+                        }
+                    });
+                    return products;
+                });
+    }
+
+    /**
+     * Drop locally cached products so the next lookup goes to Product Service
+     */
+    public void evict(Collection<Long> productIds) {
+        productIds.forEach(cache::remove);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchScheduler.shutdownNow();
+    }
+
+    private void flushPendingLookups() {
+        Map<Long, CompletableFuture<ProductResponse>> batch;
+        synchronized (batchLock) {
+            batch = takePendingLookups();
+        }
+        if (!batch.isEmpty()) {
+            fetchBatch(batch);
+        }
+    }
+
+    private Map<Long, CompletableFuture<ProductResponse>> takePendingLookups() {
+        Map<Long, CompletableFuture<ProductResponse>> batch = pendingLookups;
+        pendingLookups = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void fetchBatch(Map<Long, CompletableFuture<ProductResponse>> batch) {
+        URI uri = UriComponentsBuilder.fromUriString(productServiceUrl)
+                .path(productsApiPath)
+                .pathSegment("batch")
+                .queryParam("ids", new ArrayList<>(batch.keySet()).toArray())
+                .build()
+                .toUri();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        logger.debug("Fetching {} products from: {}", batch.size(), uri);
+        long start = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::parseProducts)
+                .whenComplete((products, ex) -> {
+                    if (ex != null) {
+                        failedRequestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        logger.warn("Failed to fetch products {} from product service: {}", batch.keySet(), ex.getMessage());
+                        batch.values().forEach(lookup -> lookup.completeExceptionally(ex));
+                        return;
+                    }
+                    requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    long expiresAt = System.nanoTime() + cacheTtlNanos;
+                    for (ProductResponse product : products) {
+                        cacheProduct(product, expiresAt);
+                        CompletableFuture<ProductResponse> lookup = batch.get(product.getId());
+                        if (lookup != null) {
+                            lookup.complete(product);
+                        }
+                    }
+                    // Ids the product service did not return do not exist
+                    batch.values().forEach(lookup -> lookup.complete(null));
+                });
+    }
+
+    private List<ProductResponse> parseProducts(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Product service responded with status " + response.statusCode());
+        }
+        try {
+            JsonNode data = objectMapper.readTree(response.body()).path("data");
+            if (!data.isArray()) {
+                return List.of();
+            }
+            List<ProductResponse> products = new ArrayList<>(data.size());
+            for (JsonNode node : data) {
+                products.add(objectMapper.treeToValue(node, ProductResponse.class));
+            }
+            return products;
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed product service response", e);
+        }
+    }
+
+    private void cacheProduct(ProductResponse product, long expiresAtNanos) {
+        if (cache.size() >= cacheMaxEntries) {
+            long now = System.nanoTime();
+            cache.values().removeIf(entry -> entry.expiresAtNanos - now <= 0);
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
             }
         }
+        cache.put(product.getId(), new CachedProduct(product, expiresAtNanos));
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("cart.product.client.requests")
+                .description("Latency of product service batch requests")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("cart.product.client.lookups")
+                .description("Latency of single product lookups, including batching delay")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record CachedProduct(ProductResponse product, long expiresAtNanos) {
     }
 
     /**
      * Product response DTO
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductResponse {
         private Long id;
         private String name;
         private String description;
         private BigDecimal price;
+        private BigDecimal effectivePrice;
         private String imageUrl;
         private String category;
         private Integer stockQuantity;
@@ -115,6 +344,22 @@ public class ProductClient {
             this.price = price;
         }
 
+        public BigDecimal getEffectivePrice() {
+            return effectivePrice;
+        }
+
+        public void setEffectivePrice(BigDecimal effectivePrice) {
+            this.effectivePrice = effectivePrice;
+        }
+
+        /**
+         * Price the customer pays, including any active discount; the same price the
+         * order is charged at checkout
+         */
+        public BigDecimal getSellingPrice() {
+            return effectivePrice != null ? effectivePrice : price;
+        }
+
         public String getImageUrl() {
             return imageUrl;
         }
@@ -147,4 +392,4 @@ public class ProductClient {
             this.active = active;
         }
     }
-}
\ No newline at end of file
+}
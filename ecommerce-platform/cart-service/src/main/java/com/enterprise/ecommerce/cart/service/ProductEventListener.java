@@ -0,0 +1,77 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.store.RedisCartStore;
+import com.enterprise.ecommerce.common.events.ProductUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps cart prices and availability in line with the product catalog.
+ * Consumes product events in batches, updates the affected cart lines and evicts only
+ * the cached carts of the users holding those products.
+ */
+@Component
+@Lazy(false)
+public class ProductEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventListener.class);
+
+    private final CartPriceRefreshService priceRefreshService;
+    private final ProductClient productClient;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<RedisCartStore> cartStore;
+
+    public ProductEventListener(CartPriceRefreshService priceRefreshService,
+                                ProductClient productClient,
+                                CacheManager cacheManager,
+                                ObjectProvider<RedisCartStore> cartStore) {
+        this.priceRefreshService = priceRefreshService;
+        this.productClient = productClient;
+        this.cacheManager = cacheManager;
+        this.cartStore = cartStore;
+    }
+
+    /**
+     * Handle a batch of product update events
+     */
+    @KafkaListener(topics = "product-events", containerFactory = "productEventsListenerContainerFactory")
+    public void onProductEvents(List<ProductUpdatedEvent> events) {
+        // Records that failed to deserialize arrive as nulls
+        List<ProductUpdatedEvent> validEvents = events.stream().filter(Objects::nonNull).toList();
+        Map<Long, ProductUpdatedEvent> updates = CartPriceRefreshService.latestByProduct(validEvents);
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        productClient.evict(updates.keySet());
+        Map<Long, Set<Long>> changedLines = priceRefreshService.applyProductUpdates(updates);
+
+        RedisCartStore store = cartStore.getIfAvailable();
+        if (store != null) {
+            changedLines.forEach((userId, productIds) -> {
+                for (Long productId : productIds) {
+                    ProductUpdatedEvent event = updates.get(productId);
+                    store.refreshLine(userId, productId, CartPriceRefreshService.sellingPrice(event), event.getName(),
+                            CartPriceRefreshService.isAvailable(event));
+                }
+            });
+        }
+
+        Cache carts = cacheManager.getCache("carts");
+        if (carts != null) {
+            changedLines.keySet().forEach(carts::evict);
+        }
+        logger.debug("Applied {} product events to {} carts", validEvents.size(), changedLines.size());
+    }
+}
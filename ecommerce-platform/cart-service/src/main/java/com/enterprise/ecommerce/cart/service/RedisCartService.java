@@ -0,0 +1,83 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.dto.AddToCartRequest;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.cart.dto.UpdateCartItemRequest;
+import com.enterprise.ecommerce.cart.store.RedisCartStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cart service backed by the Redis cart store.
+ * Cart state lives in Redis and reaches Postgres through write-behind, so requests
+ * neither open a database transaction nor go through the Spring cache.
+ * Cart item ids are the product ids of the lines.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.cart.redis-store.enabled", havingValue = "true")
+public class RedisCartService implements CartOperations {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCartService.class);
+
+    private final RedisCartStore cartStore;
+    private final ProductClient productClient;
+
+    public RedisCartService(RedisCartStore cartStore, ProductClient productClient) {
+        this.cartStore = cartStore;
+        this.productClient = productClient;
+    }
+
+    @Override
+    public CartResponse getCartByUserId(Long userId) {
+        return cartStore.getCart(userId);
+    }
+
+    @Override
+    public CartResponse addToCart(Long userId, AddToCartRequest request) {
+        logger.debug("Adding item to cart for user: {}, productId: {}, quantity: {}",
+                    userId, request.getProductId(), request.getQuantity());
+
+        ProductClient.ProductResponse product = productClient.getProductById(request.getProductId());
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found: " + request.getProductId());
+        }
+
+        return cartStore.addItem(userId, product.getId(), request.getQuantity(), product.getSellingPrice(),
+                product.getName(), product.getImageUrl());
+    }
+
+    @Override
+    public CartResponse updateCartItem(Long userId, Long itemId, UpdateCartItemRequest request) {
+        if (itemId == null) {
+            throw new CartItemNotFoundException("Cart item ID cannot be null");
+        }
+
+        return cartStore.updateQuantity(userId, itemId, request.getQuantity())
+                .orElseThrow(() -> new CartItemNotFoundException("Cart item not found: " + itemId));
+    }
+
+    @Override
+    public CartResponse removeFromCart(Long userId, Long itemId) {
+        if (itemId == null) {
+            throw new CartItemNotFoundException("Cart item ID cannot be null");
+        }
+
+        return cartStore.removeItem(userId, itemId)
+                .orElseThrow(() -> new CartItemNotFoundException("Cart item not found: " + itemId));
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        logger.debug("Clearing cart for user: {}", userId);
+        cartStore.clear(userId);
+    }
+
+    @Override
+    public Long getCartItemCount(Long userId) {
+        return cartStore.getLineCount(userId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.enterprise.ecommerce.cart.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional cart mutation that is re-run in a fresh transaction when it loses
+ * an optimistic-locking or unique-key race against a concurrent mutation of the same cart.
+ * The number of attempts and the backoff are set under {@code app.cart.retry}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
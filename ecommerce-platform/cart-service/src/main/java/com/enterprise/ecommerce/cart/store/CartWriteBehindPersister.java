@@ -0,0 +1,123 @@
+package com.enterprise.ecommerce.cart.store;
+
+import com.enterprise.ecommerce.cart.dto.CartItemResponse;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.cart.entity.Cart;
+import com.enterprise.ecommerce.cart.entity.CartItem;
+import com.enterprise.ecommerce.cart.repository.CartItemRepository;
+import com.enterprise.ecommerce.cart.repository.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronously persists live Redis carts to Postgres.
+ * <p>
+ * Drains the dirty-user set written by the cart scripts and copies each cart's current
+ * state into the carts and cart_items tables, one transaction per cart. Popping from the
+ * set is atomic, so several instances can drain it side by side. Carts that fail to
+ * persist are put back for the next run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.redis-store.enabled", havingValue = "true")
+public class CartWriteBehindPersister {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartWriteBehindPersister.class);
+
+    private final RedisCartStore cartStore;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.cart.redis-store.write-behind.batch-size:200}")
+    private int batchSize;
+
+    public CartWriteBehindPersister(RedisCartStore cartStore,
+                                    CartRepository cartRepository,
+                                    CartItemRepository cartItemRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.cartStore = cartStore;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Persist carts changed since the previous run
+     */
+    @Scheduled(fixedDelayString = "${app.cart.redis-store.write-behind.interval-ms:1000}")
+    public void flush() {
+        List<Long> userIds = cartStore.popDirtyUsers(batchSize);
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        int persisted = 0;
+        for (Long userId : userIds) {
+            try {
+                CartResponse liveCart = cartStore.findLiveCart(userId);
+                if (liveCart == null) {
+                    // Expired from Redis; the last persisted copy stays authoritative
+                    continue;
+                }
+                Long cartId = transactionTemplate.execute(status -> persist(liveCart));
+                if (liveCart.getId() == null && cartId != null) {
+                    cartStore.recordCartId(userId, cartId);
+                }
+                persisted++;
+            } catch (RuntimeException e) {
+                logger.warn("Write-behind failed for cart of user {}, requeueing: {}", userId, e.getMessage());
+                cartStore.markDirty(userId);
+            }
+        }
+        logger.debug("Write-behind persisted {} of {} carts", persisted, userIds.size());
+    }
+
+    private Long persist(CartResponse liveCart) {
+        Cart cart = cartRepository.findByUserIdWithItems(liveCart.getUserId())
+                .orElseGet(() -> cartRepository.save(new Cart(liveCart.getUserId())));
+
+        Map<Long, CartItem> persistedItems = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            persistedItems.put(item.getProductId(), item);
+        }
+
+        for (CartItemResponse line : liveCart.getItems()) {
+            CartItem item = persistedItems.remove(line.getProductId());
+            if (item == null) {
+                item = new CartItem(line.getProductId(), line.getProductName(), line.getPrice(), line.getQuantity());
+                item.setProductImageUrl(line.getProductImageUrl());
+                item.setAvailable(line.getAvailable());
+                cart.addItem(item);
+            } else {
+                item.setProductName(line.getProductName());
+                item.setPrice(line.getPrice());
+                item.setQuantity(line.getQuantity());
+                item.setAvailable(line.getAvailable());
+            }
+        }
+
+        if (!persistedItems.isEmpty()) {
+            List<CartItem> removed = new ArrayList<>(persistedItems.values());
+            cart.getItems().removeAll(removed);
+            cartItemRepository.deleteAll(removed);
+        }
+
+        cart.recalculateTotal();
+        // The live cart's updatedAt only moves on user changes, not on line refreshes
+        if (liveCart.getUpdatedAt() != null) {
+            cart.setLastActivityAt(liveCart.getUpdatedAt());
+        }
+        return cartRepository.save(cart).getId();
+    }
+}
@@ -0,0 +1,368 @@
+package com.enterprise.ecommerce.cart.store;
+
+import com.enterprise.ecommerce.cart.dto.CartItemResponse;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.cart.entity.Cart;
+import com.enterprise.ecommerce.cart.entity.CartItem;
+import com.enterprise.ecommerce.cart.repository.CartRepository;
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Redis-native storage engine for live carts.
+ * <p>
+ * Each cart is a hash at {@code cart:<userId>} holding the cart totals and one group of
+ * fields per product line. Mutations run as Lua scripts that update the line and the
+ * totals atomically and return the resulting cart, so a mutation costs one round trip.
+ * Carts missing from Redis are read through from Postgres; mutated carts are recorded in
+ * a dirty set that {@link CartWriteBehindPersister} drains back to Postgres.
+ * <p>
+ * Money is held in minor units (cents). Cart line ids are the product ids, which are
+ * unique within a cart, so with this store the item ids of the cart API are product ids
+ * rather than the ids of persisted cart items.
+ * <p>
+ * Every mutation script touches both the cart hash and the shared dirty set, so the store
+ * requires a single Redis node (optionally with replicas or Sentinel); it refuses to start
+ * against Redis Cluster, where such scripts fail with CROSSSLOT.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.redis-store.enabled", havingValue = "true")
+public class RedisCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCartStore.class);
+
+    static final String DIRTY_SET_KEY = "cart:dirty";
+    private static final String CART_KEY_PREFIX = "cart:";
+
+    private static final String STATUS_OK = "OK";
+    private static final String STATUS_COLD = "COLD";
+    // A cart can expire again between hydration and the retried script
+    private static final int MAX_HYDRATIONS = 2;
+
+    private static final String QUANTITY = "q:";
+    private static final String PRICE = "p:";
+    private static final String NAME = "n:";
+    private static final String IMAGE = "i:";
+    private static final String AVAILABLE = "a:";
+    private static final String CREATED = "c:";
+    private static final String UPDATED = "u:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_SCRIPT = script("cart-add.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> UPDATE_SCRIPT = script("cart-update.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REMOVE_SCRIPT = script("cart-remove.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HYDRATE_SCRIPT = script("cart-hydrate.lua", List.class);
+    private static final RedisScript<Long> CLEAR_SCRIPT = script("cart-clear.lua", Long.class);
+    private static final RedisScript<Long> SET_ID_SCRIPT = script("cart-set-id.lua", Long.class);
+    private static final RedisScript<Long> REFRESH_LINE_SCRIPT = script("cart-refresh-line.lua", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartRepository cartRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.cart.redis-store.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate,
+                          CartRepository cartRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${spring.data.redis.cluster.nodes:}") String clusterNodes) {
+        if (!clusterNodes.isBlank()) {
+            throw new IllegalStateException("The Redis cart store requires a single Redis node, not Redis Cluster");
+        }
+        this.redisTemplate = redisTemplate;
+        this.cartRepository = cartRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the live cart for a user, loading it from Postgres on a miss
+     */
+    public CartResponse getCart(Long userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(cartKey(userId));
+        if (fields.isEmpty()) {
+            return toCartResponse(userId, hydrate(userId));
+        }
+        return toCartResponse(userId, fields);
+    }
+
+    /**
+     * Get the number of distinct lines in a user's cart
+     */
+    public Long getLineCount(Long userId) {
+        Object lines = redisTemplate.opsForHash().get(cartKey(userId), "lines");
+        if (lines == null) {
+            lines = hydrate(userId).get("lines");
+        }
+        return Long.valueOf(lines.toString());
+    }
+
+    /**
+     * Add a product line, or increase its quantity when already present
+     */
+    public CartResponse addItem(Long userId, Long productId, int quantity, BigDecimal price,
+                                String productName, String imageUrl) {
+        List<String> args = List.of(
+                userId.toString(), productId.toString(), Integer.toString(quantity),
+                Long.toString(toCents(price)),
+                productName != null ? productName : "",
+                imageUrl != null ? imageUrl : "",
+                Long.toString(System.currentTimeMillis()), Long.toString(ttlSeconds));
+        return mutate(userId, ADD_SCRIPT, args).orElseThrow(() -> cartUnavailable(userId));
+    }
+
+    /**
+     * Set the quantity of a line; empty when the cart has no such line
+     */
+    public Optional<CartResponse> updateQuantity(Long userId, Long productId, int quantity) {
+        List<String> args = List.of(
+                userId.toString(), productId.toString(), Integer.toString(quantity),
+                Long.toString(System.currentTimeMillis()), Long.toString(ttlSeconds));
+        return mutate(userId, UPDATE_SCRIPT, args);
+    }
+
+    /**
+     * Remove a line; empty when the cart has no such line
+     */
+    public Optional<CartResponse> removeItem(Long userId, Long productId) {
+        List<String> args = List.of(
+                userId.toString(), productId.toString(),
+                Long.toString(System.currentTimeMillis()), Long.toString(ttlSeconds));
+        return mutate(userId, REMOVE_SCRIPT, args);
+    }
+
+    /**
+     * Empty a user's cart
+     */
+    public void clear(Long userId) {
+        redisTemplate.execute(CLEAR_SCRIPT, List.of(cartKey(userId), DIRTY_SET_KEY),
+                userId.toString(), Long.toString(System.currentTimeMillis()), Long.toString(ttlSeconds));
+    }
+
+    /**
+     * Apply a product's current price, name and availability to a live cart line.
+     * Returns false when the user has no live cart containing the product.
+     */
+    public boolean refreshLine(Long userId, Long productId, BigDecimal price, String productName, boolean available) {
+        Long updated = redisTemplate.execute(REFRESH_LINE_SCRIPT, List.of(cartKey(userId), DIRTY_SET_KEY),
+                userId.toString(), productId.toString(), Long.toString(toCents(price)),
+                productName != null ? productName : "", available ? "1" : "0");
+        return updated != null && updated == 1L;
+    }
+
+    /**
+     * Read the live cart without falling back to Postgres; null when not in Redis
+     */
+    CartResponse findLiveCart(Long userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(cartKey(userId));
+        return fields.isEmpty() ? null : toCartResponse(userId, fields);
+    }
+
+    /**
+     * Take up to {@code count} users whose carts changed since they were last persisted
+     */
+    List<Long> popDirtyUsers(int count) {
+        List<String> members = redisTemplate.opsForSet().pop(DIRTY_SET_KEY, count);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    /**
+     * Queue users for another write-behind attempt
+     */
+    void markDirty(Long userId) {
+        redisTemplate.opsForSet().add(DIRTY_SET_KEY, userId.toString());
+    }
+
+    /**
+     * Record the persisted cart id on the live cart
+     */
+    void recordCartId(Long userId, Long cartId) {
+        redisTemplate.execute(SET_ID_SCRIPT, List.of(cartKey(userId)), cartId.toString());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Optional<CartResponse> mutate(Long userId, RedisScript<List> script, List<String> args) {
+        List<String> keys = List.of(cartKey(userId), DIRTY_SET_KEY);
+        Object[] argv = args.toArray();
+
+        List<String> reply = redisTemplate.execute(script, keys, argv);
+        for (int i = 0; i < MAX_HYDRATIONS && reply != null && STATUS_COLD.equals(reply.get(0)); i++) {
+            hydrate(userId);
+            reply = redisTemplate.execute(script, keys, argv);
+        }
+        if (reply != null && STATUS_COLD.equals(reply.get(0))) {
+            throw cartUnavailable(userId);
+        }
+        if (reply == null || !STATUS_OK.equals(reply.get(0))) {
+            return Optional.empty();
+        }
+        return Optional.of(toCartResponse(userId, toFieldMap(reply, 1)));
+    }
+
+    private static ServiceUnavailableException cartUnavailable(Long userId) {
+        return new ServiceUnavailableException("cart-service", "Cart of user " + userId + " could not be loaded, retry later");
+    }
+
+    /**
+     * Load the persisted cart into Redis, unless a live copy appeared meanwhile
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> hydrate(Long userId) {
+        List<String> args = readOnlyTransaction.execute(status -> {
+            List<String> values = new ArrayList<>();
+            values.add(Long.toString(ttlSeconds));
+            Optional<Cart> cart = cartRepository.findByUserIdWithItems(userId);
+            long now = System.currentTimeMillis();
+            if (cart.isEmpty()) {
+                addField(values, "userId", userId.toString());
+                addField(values, "createdAt", Long.toString(now));
+                addField(values, "updatedAt", Long.toString(now));
+                addField(values, "lines", "0");
+                addField(values, "totalItems", "0");
+                addField(values, "totalCents", "0");
+                return values;
+            }
+            appendCartFields(values, cart.get(), now);
+            return values;
+        });
+        logger.debug("Hydrating cart for user {} from database", userId);
+
+        List<String> reply = redisTemplate.execute(HYDRATE_SCRIPT, List.of(cartKey(userId)), args.toArray());
+        return toFieldMap(reply, 0);
+    }
+
+    private void appendCartFields(List<String> values, Cart cart, long now) {
+        long totalCents = 0;
+        int totalItems = 0;
+        addField(values, "userId", cart.getUserId().toString());
+        addField(values, "cartId", cart.getId().toString());
+        addField(values, "createdAt", Long.toString(toMillis(cart.getCreatedAt(), now)));
+        addField(values, "updatedAt", Long.toString(toMillis(cart.getLastActivityAt(), now)));
+        for (CartItem item : cart.getItems()) {
+            String pid = item.getProductId().toString();
+            long priceCents = toCents(item.getPrice());
+            addField(values, QUANTITY + pid, item.getQuantity().toString());
+            addField(values, PRICE + pid, Long.toString(priceCents));
+            addField(values, NAME + pid, item.getProductName());
+            addField(values, IMAGE + pid, item.getProductImageUrl() != null ? item.getProductImageUrl() : "");
+            addField(values, AVAILABLE + pid, Boolean.FALSE.equals(item.getAvailable()) ? "0" : "1");
+            addField(values, CREATED + pid, Long.toString(toMillis(item.getCreatedAt(), now)));
+            addField(values, UPDATED + pid, Long.toString(toMillis(item.getUpdatedAt(), now)));
+            totalCents += priceCents * item.getQuantity();
+            totalItems += item.getQuantity();
+        }
+        addField(values, "lines", Integer.toString(cart.getItems().size()));
+        addField(values, "totalItems", Integer.toString(totalItems));
+        addField(values, "totalCents", Long.toString(totalCents));
+    }
+
+    private CartResponse toCartResponse(Long userId, Map<String, String> fields) {
+        List<CartItemResponse> items = new ArrayList<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (!field.getKey().startsWith(QUANTITY)) {
+                continue;
+            }
+            String pid = field.getKey().substring(QUANTITY.length());
+            BigDecimal price = fromCents(Long.parseLong(fields.get(PRICE + pid)));
+            int quantity = Integer.parseInt(field.getValue());
+            String imageUrl = fields.get(IMAGE + pid);
+            items.add(CartItemResponse.builder()
+                    .id(Long.valueOf(pid))
+                    .productId(Long.valueOf(pid))
+                    .productName(fields.get(NAME + pid))
+                    .productImageUrl(imageUrl == null || imageUrl.isEmpty() ? null : imageUrl)
+                    .price(price)
+                    .quantity(quantity)
+                    .subtotal(price.multiply(BigDecimal.valueOf(quantity)))
+                    .available(!"0".equals(fields.get(AVAILABLE + pid)))
+                    .createdAt(toDateTime(fields.get(CREATED + pid)))
+                    .updatedAt(toDateTime(fields.get(UPDATED + pid)))
+                    .build());
+        }
+        items.sort(Comparator.comparing(CartItemResponse::getCreatedAt,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        String cartId = fields.get("cartId");
+        return new CartResponse(
+                cartId != null ? Long.valueOf(cartId) : null,
+                userId,
+                fromCents(Long.parseLong(fields.getOrDefault("totalCents", "0"))),
+                Integer.valueOf(fields.getOrDefault("totalItems", "0")),
+                items,
+                toDateTime(fields.get("createdAt")),
+                toDateTime(fields.get("updatedAt"))
+        );
+    }
+
+    private static Map<String, String> toFieldMap(List<String> flattened, int offset) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = offset; i + 1 < flattened.size(); i += 2) {
+            fields.put(flattened.get(i), flattened.get(i + 1));
+        }
+        return fields;
+    }
+
+    private static void addField(List<String> values, String field, String value) {
+        values.add(field);
+        values.add(value);
+    }
+
+    static String cartKey(Long userId) {
+        return CART_KEY_PREFIX + userId;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long toMillis(LocalDateTime dateTime, long fallback) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : fallback;
+    }
+
+    private static LocalDateTime toDateTime(String millis) {
+        if (millis == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZoneId.systemDefault());
+    }
+
+    private static <T> RedisScript<T> script(String name, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("redis/" + name));
+        script.setResultType(resultType);
+        return script;
+    }
+}
@@ -0,0 +1,63 @@
+package com.enterprise.ecommerce.cart.store;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Time-bounded exclusive lease held in Redis.
+ * <p>
+ * Lets one instance at a time run a background job. The lease expires on its own if the
+ * holder dies, so a holder doing long work must renew it, and renewal or release only
+ * succeed while the caller still owns the key.
+ */
+public class RedisLease {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = script("lease-renew.lua");
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("lease-release.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+
+    public RedisLease(StringRedisTemplate redisTemplate, String key, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Take the lease if no other instance holds it
+     */
+    public boolean tryAcquire() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, ttl));
+    }
+
+    /**
+     * Extend the lease; false when it has expired or been taken over
+     */
+    public boolean renew() {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), owner, Long.toString(ttl.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    /**
+     * Give the lease up early so another instance can take it
+     */
+    public void release() {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), owner);
+    }
+
+    private static RedisScript<Long> script(String name) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("redis/" + name));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
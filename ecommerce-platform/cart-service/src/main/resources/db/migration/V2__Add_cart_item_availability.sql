@@ -0,0 +1,2 @@
+-- Track product availability on cart lines, refreshed from product events
+ALTER TABLE cart_items ADD COLUMN available BOOLEAN NOT NULL DEFAULT TRUE;
@@ -0,0 +1,2 @@
+-- Supports the abandoned-cart sweeper's scan for idle carts
+CREATE INDEX idx_carts_updated_at ON carts(updated_at);
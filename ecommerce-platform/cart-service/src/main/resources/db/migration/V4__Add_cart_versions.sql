@@ -0,0 +1,3 @@
+-- Optimistic locking versions for concurrent cart mutations
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cart_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Time of the user's last change to the cart. Unlike updated_at, which the trigger bumps on
+-- every row update, it is left alone by system writes such as repricing, so the
+-- abandoned-cart sweeper only removes carts their users stopped touching.
+ALTER TABLE carts ADD COLUMN last_activity_at TIMESTAMP;
+UPDATE carts SET last_activity_at = COALESCE(updated_at, created_at);
+ALTER TABLE carts ALTER COLUMN last_activity_at SET NOT NULL;
+ALTER TABLE carts ALTER COLUMN last_activity_at SET DEFAULT CURRENT_TIMESTAMP;
+
+DROP INDEX idx_carts_updated_at;
+CREATE INDEX idx_carts_last_activity_at ON carts(last_activity_at);
@@ -0,0 +1,32 @@
+-- Adds a product line to a cart hash, or increments its quantity, and keeps
+-- the cart totals in step.
+-- KEYS[1] cart hash, KEYS[2] dirty-user set
+-- ARGV: userId, productId, quantity, priceCents, productName, imageUrl, nowMillis, ttlSeconds
+local cart = KEYS[1]
+if redis.call('EXISTS', cart) == 0 then
+    return {'COLD'}
+end
+
+local pid = ARGV[2]
+local qty = tonumber(ARGV[3])
+local price = tonumber(ARGV[4])
+local now = ARGV[7]
+
+if redis.call('HEXISTS', cart, 'q:' .. pid) == 1 then
+    -- existing lines keep the price they were added at
+    price = tonumber(redis.call('HGET', cart, 'p:' .. pid))
+else
+    redis.call('HSET', cart, 'p:' .. pid, ARGV[4], 'n:' .. pid, ARGV[5], 'i:' .. pid, ARGV[6], 'a:' .. pid, 1, 'c:' .. pid, now)
+    redis.call('HINCRBY', cart, 'lines', 1)
+end
+
+redis.call('HINCRBY', cart, 'q:' .. pid, qty)
+redis.call('HSET', cart, 'u:' .. pid, now, 'updatedAt', now)
+redis.call('HINCRBY', cart, 'totalItems', qty)
+redis.call('HINCRBY', cart, 'totalCents', string.format('%d', qty * price))
+redis.call('EXPIRE', cart, tonumber(ARGV[8]))
+redis.call('SADD', KEYS[2], ARGV[1])
+
+local state = redis.call('HGETALL', cart)
+table.insert(state, 1, 'OK')
+return state
@@ -0,0 +1,17 @@
+-- Replaces a cart with an empty one, keeping its identity, so the
+-- write-behind can clear the persisted lines as well.
+-- KEYS[1] cart hash, KEYS[2] dirty-user set
+-- ARGV: userId, nowMillis, ttlSeconds
+local cart = KEYS[1]
+local cartId = redis.call('HGET', cart, 'cartId')
+local createdAt = redis.call('HGET', cart, 'createdAt') or ARGV[2]
+
+redis.call('DEL', cart)
+redis.call('HSET', cart, 'userId', ARGV[1], 'createdAt', createdAt, 'updatedAt', ARGV[2],
+        'lines', 0, 'totalItems', 0, 'totalCents', 0)
+if cartId then
+    redis.call('HSET', cart, 'cartId', cartId)
+end
+redis.call('EXPIRE', cart, tonumber(ARGV[3]))
+redis.call('SADD', KEYS[2], ARGV[1])
+return 1
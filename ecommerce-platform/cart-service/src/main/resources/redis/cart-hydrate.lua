@@ -0,0 +1,12 @@
+-- Loads a cart hash from its persisted state unless a live copy already exists,
+-- and returns whichever copy wins.
+-- KEYS[1] cart hash
+-- ARGV: ttlSeconds, followed by field/value pairs
+local cart = KEYS[1]
+if redis.call('EXISTS', cart) == 0 then
+    for i = 2, #ARGV, 2 do
+        redis.call('HSET', cart, ARGV[i], ARGV[i + 1])
+    end
+    redis.call('EXPIRE', cart, tonumber(ARGV[1]))
+end
+return redis.call('HGETALL', cart)
@@ -0,0 +1,18 @@
+-- Applies a product's current price, name and availability to a cart line
+-- and moves the cart total by the price difference.
+-- KEYS[1] cart hash, KEYS[2] dirty-user set
+-- ARGV: userId, productId, priceCents, productName, available (1/0)
+local cart = KEYS[1]
+local pid = ARGV[2]
+local qty = redis.call('HGET', cart, 'q:' .. pid)
+if not qty then
+    return 0
+end
+
+local oldPrice = tonumber(redis.call('HGET', cart, 'p:' .. pid))
+local newPrice = tonumber(ARGV[3])
+
+redis.call('HSET', cart, 'p:' .. pid, ARGV[3], 'n:' .. pid, ARGV[4], 'a:' .. pid, ARGV[5])
+redis.call('HINCRBY', cart, 'totalCents', string.format('%d', (newPrice - oldPrice) * tonumber(qty)))
+redis.call('SADD', KEYS[2], ARGV[1])
+return 1
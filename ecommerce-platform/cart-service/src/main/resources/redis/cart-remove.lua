@@ -0,0 +1,28 @@
+-- Removes a cart line and subtracts it from the totals.
+-- KEYS[1] cart hash, KEYS[2] dirty-user set
+-- ARGV: userId, productId, nowMillis, ttlSeconds
+local cart = KEYS[1]
+if redis.call('EXISTS', cart) == 0 then
+    return {'COLD'}
+end
+
+local pid = ARGV[2]
+local qty = redis.call('HGET', cart, 'q:' .. pid)
+if not qty then
+    return {'MISSING'}
+end
+
+local price = tonumber(redis.call('HGET', cart, 'p:' .. pid))
+qty = tonumber(qty)
+
+redis.call('HDEL', cart, 'q:' .. pid, 'p:' .. pid, 'n:' .. pid, 'i:' .. pid, 'a:' .. pid, 'c:' .. pid, 'u:' .. pid)
+redis.call('HINCRBY', cart, 'lines', -1)
+redis.call('HINCRBY', cart, 'totalItems', -qty)
+redis.call('HINCRBY', cart, 'totalCents', string.format('%d', -qty * price))
+redis.call('HSET', cart, 'updatedAt', ARGV[3])
+redis.call('EXPIRE', cart, tonumber(ARGV[4]))
+redis.call('SADD', KEYS[2], ARGV[1])
+
+local state = redis.call('HGETALL', cart)
+table.insert(state, 1, 'OK')
+return state
@@ -0,0 +1,8 @@
+-- Records the persisted cart id on a live cart hash without resurrecting an expired one.
+-- KEYS[1] cart hash
+-- ARGV: cartId
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    redis.call('HSET', KEYS[1], 'cartId', ARGV[1])
+    return 1
+end
+return 0
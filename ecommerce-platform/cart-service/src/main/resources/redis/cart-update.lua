@@ -0,0 +1,28 @@
+-- Sets the quantity of an existing cart line and applies the delta to the totals.
+-- KEYS[1] cart hash, KEYS[2] dirty-user set
+-- ARGV: userId, productId, quantity, nowMillis, ttlSeconds
+local cart = KEYS[1]
+if redis.call('EXISTS', cart) == 0 then
+    return {'COLD'}
+end
+
+local pid = ARGV[2]
+local old = redis.call('HGET', cart, 'q:' .. pid)
+if not old then
+    return {'MISSING'}
+end
+
+local qty = tonumber(ARGV[3])
+local delta = qty - tonumber(old)
+local price = tonumber(redis.call('HGET', cart, 'p:' .. pid))
+local now = ARGV[4]
+
+redis.call('HSET', cart, 'q:' .. pid, qty, 'u:' .. pid, now, 'updatedAt', now)
+redis.call('HINCRBY', cart, 'totalItems', delta)
+redis.call('HINCRBY', cart, 'totalCents', string.format('%d', delta * price))
+redis.call('EXPIRE', cart, tonumber(ARGV[5]))
+redis.call('SADD', KEYS[2], ARGV[1])
+
+local state = redis.call('HGETALL', cart)
+table.insert(state, 1, 'OK')
+return state
@@ -0,0 +1,7 @@
+-- Releases a lease only while it is still held by the caller.
+-- KEYS[1] lease key
+-- ARGV: owner
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,84 @@
+package com.enterprise.ecommerce.cart.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which failures the retry treats as lost races, using the exceptions Spring ORM
+ * produces for Hibernate rather than a database.
+ */
+class RetryOnConflictAspectTest {
+
+    private RetryOnConflictAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new RetryOnConflictAspect(3, 0, 0, new SimpleMeterRegistry());
+        joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn("CartService.addToCart(..)");
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void retriesUniqueViolationOfConcurrentInsert() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(uniqueViolation("idx_cart_items_cart_product")).thenReturn("cart");
+
+        assertEquals("cart", aspect.retryOnConflict(joinPoint));
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void retriesStaleVersion() throws Throwable {
+        when(joinPoint.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException("Cart", 1L))
+                .thenReturn("cart");
+
+        assertEquals("cart", aspect.retryOnConflict(joinPoint));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Throwable {
+        DataIntegrityViolationException violation = uniqueViolation("idx_carts_user_id");
+        when(joinPoint.proceed()).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> aspect.retryOnConflict(joinPoint)));
+        verify(joinPoint, times(3)).proceed();
+    }
+
+    @Test
+    void doesNotRetryOtherIntegrityViolations() throws Throwable {
+        SQLException notNull = new SQLException("null value in column \"quantity\"", "23502");
+        when(joinPoint.proceed()).thenThrow(new DataIntegrityViolationException("not-null",
+                new ConstraintViolationException("could not execute statement", notNull, "insert", null)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> aspect.retryOnConflict(joinPoint));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    /**
+     * What Spring ORM raises when Hibernate hits a PostgreSQL unique index
+     */
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        SQLException duplicate = new SQLException("duplicate key value violates unique constraint \"" + constraint + "\"", "23505");
+        return new DataIntegrityViolationException("could not execute statement [" + constraint + "]",
+                new ConstraintViolationException("could not execute statement", duplicate, "insert", constraint));
+    }
+}
@@ -0,0 +1,197 @@
+package com.enterprise.ecommerce.cart.service;
+
+import com.enterprise.ecommerce.cart.config.RetryOnConflictAspect;
+import com.enterprise.ecommerce.cart.dto.AddToCartRequest;
+import com.enterprise.ecommerce.cart.dto.CartResponse;
+import com.enterprise.ecommerce.cart.dto.UpdateCartItemRequest;
+import com.enterprise.ecommerce.cart.entity.Cart;
+import com.enterprise.ecommerce.cart.entity.CartItem;
+import com.enterprise.ecommerce.cart.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers a single cart from many threads and checks that the cart totals always agree
+ * with its lines.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = CartServiceConcurrencyTest.TestConfig.class)
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "app.cart.retry.max-attempts=20"
+})
+class CartServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 25;
+    private static final List<Long> PRODUCT_IDS = List.of(1L, 2L, 3L);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableJpaRepositories(basePackageClasses = CartRepository.class)
+    @EntityScan(basePackageClasses = Cart.class)
+    @Import({CartService.class, RetryOnConflictAspect.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Test
+    void concurrentAddsAreNeitherLostNorDoubleCounted() throws Exception {
+        long userId = 1001L;
+        stubProducts();
+
+        runConcurrently(thread -> () -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Long productId = PRODUCT_IDS.get((thread + i) % PRODUCT_IDS.size());
+                cartService.addToCart(userId, new AddToCartRequest(productId, 1));
+            }
+            return null;
+        });
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, cart.getTotalItems());
+        assertEquals(PRODUCT_IDS.size(), cart.getItems().size());
+        assertTotalsMatchLines(cart);
+    }
+
+    @Test
+    void concurrentMixedMutationsKeepTotalsInLineWithItems() throws Exception {
+        long userId = 1002L;
+        stubProducts();
+        CartResponse seeded = cartService.addToCart(userId, new AddToCartRequest(PRODUCT_IDS.get(0), 1));
+        Long sharedLineId = seeded.getItems().get(0).getId();
+        AtomicInteger exhausted = new AtomicInteger();
+
+        runConcurrently(thread -> () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                try {
+                    if (random.nextBoolean()) {
+                        cartService.updateCartItem(userId, sharedLineId, new UpdateCartItemRequest(random.nextInt(1, 10)));
+                    } else {
+                        Long productId = PRODUCT_IDS.get(random.nextInt(1, PRODUCT_IDS.size()));
+                        cartService.addToCart(userId, new AddToCartRequest(productId, random.nextInt(1, 4)));
+                    }
+                } catch (OptimisticLockingFailureException e) {
+                    // Retries ran out; the mutation was rolled back as a whole
+                    exhausted.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
+        assertTotalsMatchLines(cart);
+        assertTrue(exhausted.get() < THREADS * OPERATIONS_PER_THREAD, "every mutation exhausted its retries");
+    }
+
+    private void stubProducts() {
+        when(productClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            Long productId = invocation.getArgument(0);
+            ProductClient.ProductResponse product = new ProductClient.ProductResponse();
+            product.setId(productId);
+            product.setName("Product " + productId);
+            product.setPrice(new BigDecimal("2.50").multiply(BigDecimal.valueOf(productId)));
+            product.setStockQuantity(1000);
+            product.setActive(true);
+            return product;
+        });
+    }
+
+    private void runConcurrently(IntFunction<Callable<Void>> work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> task = work.apply(t);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertTotalsMatchLines(Cart cart) {
+        int lineQuantity = cart.getItems().stream().mapToInt(CartItem::getQuantity).sum();
+        BigDecimal lineAmount = cart.getItems().stream()
+                .map(CartItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(lineQuantity, cart.getTotalItems());
+        assertEquals(0, lineAmount.compareTo(cart.getTotalAmount()),
+                "cart total " + cart.getTotalAmount() + " differs from line total " + lineAmount);
+    }
+}
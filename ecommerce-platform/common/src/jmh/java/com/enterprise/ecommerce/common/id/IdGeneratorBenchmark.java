@@ -0,0 +1,57 @@
+package com.enterprise.ecommerce.common.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SnowflakeIdGenerator} order numbers with the previous
+ * timestamp-plus-random-UUID order numbers, on one thread and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public String snowflake() {
+        return generator.nextId("ORD-");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return generator.nextId("ORD-");
+    }
+
+    @Benchmark
+    public String timestampUuid() {
+        return timestampUuidOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timestampUuidContended() {
+        return timestampUuidOrderNumber();
+    }
+
+    private static String timestampUuidOrderNumber() {
+        return "ORD-" + System.currentTimeMillis() + "-" +
+               UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
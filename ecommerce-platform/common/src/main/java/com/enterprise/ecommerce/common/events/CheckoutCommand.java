@@ -0,0 +1,52 @@
+package com.enterprise.ecommerce.common.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Command sent by the order checkout saga to the service that owns a step.
+ * Participants must handle a command more than once without repeating its effect,
+ * because the saga re-sends commands that are not answered in time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutCommand {
+
+    public static final String TOPIC = "checkout-commands";
+
+    private String orderId;
+    private Step step;
+    private Action action;
+    private String userId;
+    private BigDecimal amount;
+    private String currency;
+    private String paymentMethod;
+    private List<Item> items;
+    private int attempt;
+    private LocalDateTime issuedAt;
+
+    public enum Step {
+        RESERVE_STOCK, REQUEST_PAYMENT, CLEAR_CART
+    }
+
+    public enum Action {
+        EXECUTE, COMPENSATE
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,64 @@
+package com.enterprise.ecommerce.common.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of a {@link CheckoutCommand}, sent back to the order checkout saga
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutReply {
+
+    public static final String TOPIC = "checkout-replies";
+
+    private String orderId;
+    private CheckoutCommand.Step step;
+    private CheckoutCommand.Action action;
+    private boolean success;
+    private String reason;
+    private List<PricedItem> items;
+    private String paymentId;
+    private LocalDateTime repliedAt;
+
+    /**
+     * Catalog data of a reserved product, used to price the order
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PricedItem {
+        private String productId;
+        private String productName;
+        private String imageUrl;
+        private BigDecimal unitPrice;
+    }
+
+    public static CheckoutReply succeeded(CheckoutCommand command) {
+        return of(command, true, null);
+    }
+
+    public static CheckoutReply failed(CheckoutCommand command, String reason) {
+        return of(command, false, reason);
+    }
+
+    private static CheckoutReply of(CheckoutCommand command, boolean success, String reason) {
+        return CheckoutReply.builder()
+                .orderId(command.getOrderId())
+                .step(command.getStep())
+                .action(command.getAction())
+                .success(success)
+                .reason(reason)
+                .repliedAt(LocalDateTime.now())
+                .build();
+    }
+}
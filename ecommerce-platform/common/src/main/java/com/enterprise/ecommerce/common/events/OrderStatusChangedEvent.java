@@ -0,0 +1,24 @@
+package com.enterprise.ecommerce.common.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event fired when an order moves to a new status
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private String orderId;
+    private String orderNumber;
+    private String userId;
+    private String previousStatus;
+    private String status;
+    private LocalDateTime changedAt;
+}
@@ -20,6 +20,8 @@ public class ProductUpdatedEvent {
     private String name;
     private String description;
     private BigDecimal price;
+    /** Price including any active discount; what carts and orders charge */
+    private BigDecimal effectivePrice;
     private Integer stockQuantity;
     private String category;
     private boolean available;
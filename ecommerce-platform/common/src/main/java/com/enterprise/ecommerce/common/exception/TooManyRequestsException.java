@@ -0,0 +1,21 @@
+package com.enterprise.ecommerce.common.exception;
+
+/**
+ * Exception thrown when a request is turned away because the service is at capacity;
+ * the client may retry after {@link #getRetryAfterSeconds()}
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private static final String ERROR_CODE = "TOO_MANY_REQUESTS";
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(ERROR_CODE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.enterprise.ecommerce.common.export;
+
+import java.util.function.Function;
+
+/**
+ * Named column of an export and how to read its value from a record
+ *
+ * @param <T> the type of exported records
+ */
+public record ExportColumn<T>(String name, Function<? super T, ?> value) {
+
+    public static <T> ExportColumn<T> of(String name, Function<? super T, ?> value) {
+        return new ExportColumn<>(name, value);
+    }
+}
@@ -0,0 +1,40 @@
+package com.enterprise.ecommerce.common.export;
+
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Formats of streamed data exports
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Parse a format name, ignoring case
+     */
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidRequestException("Unsupported export format: " + name);
+        }
+    }
+}
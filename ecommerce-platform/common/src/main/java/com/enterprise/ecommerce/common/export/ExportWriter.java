@@ -0,0 +1,117 @@
+package com.enterprise.ecommerce.common.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes records one at a time as CSV or newline-delimited JSON.
+ * <p>
+ * Nothing is retained between records, so an export of any size runs in constant memory.
+ * Output is flushed every {@value #FLUSH_EVERY} records so that the client receives the
+ * export as it is produced.
+ *
+ * @param <T> the type of exported records
+ */
+public class ExportWriter<T> implements Closeable {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ExportFormat format;
+    private final List<ExportColumn<T>> columns;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private long count;
+
+    public ExportWriter(ExportFormat format, List<ExportColumn<T>> columns, OutputStream output,
+                        ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } else {
+            this.generator = null;
+            writeCsvHeader();
+        }
+    }
+
+    /**
+     * Write one record
+     */
+    public void write(T record) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeFieldName(column.name());
+                generator.writeObject(column.value().apply(record));
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(columns.get(i).value().apply(record));
+            }
+            writer.write("\r\n");
+        }
+        if (++count % FLUSH_EVERY == 0) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Number of records written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(columns.get(i).name());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        // Keep spreadsheet applications from evaluating free text as a formula
+        if (value instanceof CharSequence && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
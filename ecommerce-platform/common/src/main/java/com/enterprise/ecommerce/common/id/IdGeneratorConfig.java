@@ -0,0 +1,57 @@
+package com.enterprise.ecommerce.common.id;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * ID generator configuration, enabled with {@code app.id-generator.enabled} in services
+ * that generate IDs.
+ * The worker id is taken from {@code app.id-generator.worker-id} when set, and leased
+ * from Redis otherwise.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.id-generator", name = "enabled", havingValue = "true")
+@Slf4j
+public class IdGeneratorConfig {
+
+    @Value("${app.id-generator.worker-id:-1}")
+    private int workerId;
+
+    @Value("${app.id-generator.lease-ttl-seconds:60}")
+    private long leaseTtlSeconds;
+
+    @Value("${spring.application.name:application}")
+    private String serviceName;
+
+    private RedisWorkerIdLease workerIdLease;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if (workerId >= 0) {
+            log.info("Using configured ID generator worker id {}", workerId);
+            return new SnowflakeIdGenerator(workerId);
+        }
+
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            throw new IllegalStateException("Set app.id-generator.worker-id or configure Redis to lease a worker id");
+        }
+        workerIdLease = RedisWorkerIdLease.acquire(template, serviceName, Duration.ofSeconds(leaseTtlSeconds));
+        return new SnowflakeIdGenerator(workerIdLease.getWorkerId(), workerIdLease::isHeld);
+    }
+
+    @PreDestroy
+    public void releaseWorkerId() {
+        if (workerIdLease != null) {
+            workerIdLease.close();
+        }
+    }
+}
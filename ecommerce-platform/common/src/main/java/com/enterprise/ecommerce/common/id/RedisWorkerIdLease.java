@@ -0,0 +1,145 @@
+package com.enterprise.ecommerce.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker id for {@link SnowflakeIdGenerator} leased from Redis.
+ * <p>
+ * Each running instance of a service claims a free id with {@code SET NX} under a key
+ * scoped to the service name and keeps it alive by renewing the expiry in the background.
+ * An instance that stops renewing gives up its id once the lease expires.
+ * <p>
+ * The lease counts as lost once Redis reports another owner, or once a full TTL has passed
+ * since the last renewal Redis confirmed; from then on {@link #isHeld()} is false until a
+ * later renewal claims the same id again.
+ */
+@Slf4j
+public class RedisWorkerIdLease implements AutoCloseable {
+
+    private static final String KEY_PREFIX = "id-generator:worker:";
+
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+    private final String owner;
+    private final int workerId;
+    private final Duration ttl;
+    private final ScheduledExecutorService renewer;
+    private volatile boolean lost;
+    // System.nanoTime() at which the last confirmed renewal was sent
+    private volatile long renewedAt;
+
+    private RedisWorkerIdLease(StringRedisTemplate redisTemplate, String key, String owner, int workerId,
+                               Duration ttl, long claimedAt) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+        this.owner = owner;
+        this.workerId = workerId;
+        this.ttl = ttl;
+        this.renewedAt = claimedAt;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-id-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(1, ttl.toMillis() / 3);
+        renewer.scheduleAtFixedRate(this::renew, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Claim a free worker id for the given service
+     * @throws IllegalStateException when every worker id is taken
+     */
+    public static RedisWorkerIdLease acquire(StringRedisTemplate redisTemplate, String serviceName, Duration ttl) {
+        String owner = instanceName() + ":" + UUID.randomUUID();
+        // Instances start probing at different ids so that they rarely contend for the same key
+        int start = Math.floorMod(owner.hashCode(), SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+        for (int i = 0; i <= SnowflakeIdGenerator.MAX_WORKER_ID; i++) {
+            int workerId = (start + i) % (SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+            String key = KEY_PREFIX + serviceName + ":" + workerId;
+            long claimedAt = System.nanoTime();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, ttl))) {
+                log.info("Leased ID generator worker id {} for {}", workerId, serviceName);
+                return new RedisWorkerIdLease(redisTemplate, key, owner, workerId, ttl, claimedAt);
+            }
+        }
+        throw new IllegalStateException("No free ID generator worker id for " + serviceName);
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Whether this instance still holds the worker id
+     */
+    public boolean isHeld() {
+        return !lost && System.nanoTime() - renewedAt < ttl.toNanos();
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), owner);
+        } catch (RuntimeException e) {
+            log.debug("Could not release worker id {}: {}", workerId, e.getMessage());
+        }
+    }
+
+    private void renew() {
+        long sentAt = System.nanoTime();
+        try {
+            if (lost) {
+                reclaim(sentAt);
+                return;
+            }
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), owner, String.valueOf(ttl.toMillis()));
+            if (renewed != null && renewed != 0) {
+                renewedAt = sentAt;
+                return;
+            }
+            // The key expired or was taken over; claim it again if it is free
+            lost = true;
+            log.error("Lost the lease on ID generator worker id {}; not issuing IDs until it is re-acquired", workerId);
+            reclaim(sentAt);
+        } catch (RuntimeException e) {
+            log.warn("Could not renew ID generator worker id {}: {}", workerId, e.getMessage());
+        }
+    }
+
+    private void reclaim(long sentAt) {
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, ttl))) {
+            renewedAt = sentAt;
+            lost = false;
+            log.info("Re-acquired the lease on ID generator worker id {}", workerId);
+        }
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + ManagementFactory.getRuntimeMXBean().getName();
+        } catch (UnknownHostException e) {
+            return ManagementFactory.getRuntimeMXBean().getName();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.enterprise.ecommerce.common.id;
+
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ID generator in the style of Snowflake.
+ * <p>
+ * An ID packs, from the most significant bit: a zero sign bit, 41 bits of milliseconds
+ * since {@link #EPOCH}, a 10-bit worker id and a 12-bit sequence. IDs of one worker are
+ * strictly increasing, and IDs of all workers sort by creation time to the millisecond,
+ * which keeps inserts into unique indexes on the right-hand edge.
+ * <p>
+ * The last issued timestamp and sequence share one {@link AtomicLong}, so concurrent
+ * callers never block: each attempt either wins the compare-and-set or retries with the
+ * fresh state. When the sequence of a millisecond runs out, or the wall clock moves
+ * backwards, the generator keeps counting from its last timestamp instead of waiting, so
+ * it runs slightly ahead of the clock until the clock catches up.
+ * <p>
+ * A generator whose worker id is leased refuses to issue IDs while the lease is not held,
+ * since another instance may then be issuing IDs with the same worker id.
+ */
+@Slf4j
+public class SnowflakeIdGenerator {
+
+    /** Start of the timestamp range: 2024-01-01T00:00:00Z; lasts about 69 years */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+    private static final long CLOCK_WARNING_MILLIS = 1000;
+    private static final long CLOCK_WARNING_INTERVAL_NANOS = 10_000_000_000L;
+
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BASE32_LENGTH = 13;
+
+    private final long workerBits;
+    private final LongSupplier clock;
+    private final BooleanSupplier workerIdHeld;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+    private volatile long lastClockWarning = System.nanoTime() - CLOCK_WARNING_INTERVAL_NANOS;
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis, () -> true);
+    }
+
+    /**
+     * Generator for a leased worker id; {@code workerIdHeld} tells whether the lease is still held
+     */
+    public SnowflakeIdGenerator(int workerId, BooleanSupplier workerIdHeld) {
+        this(workerId, System::currentTimeMillis, workerIdHeld);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock, BooleanSupplier workerIdHeld) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.workerIdHeld = workerIdHeld;
+    }
+
+    /**
+     * Generate the next ID
+     * @throws ServiceUnavailableException while the lease on the worker id is lost
+     */
+    public long nextId() {
+        if (!workerIdHeld.getAsBoolean()) {
+            throw new ServiceUnavailableException("id-generator",
+                    "ID generator worker id " + workerIdOf(workerBits) + " is not leased, retry later");
+        }
+        long now = clock.getAsLong() - EPOCH;
+        for (;;) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                if (lastTimestamp - now > CLOCK_WARNING_MILLIS) {
+                    warnClockBehind(lastTimestamp - now);
+                }
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | workerBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Generate the next ID rendered as the prefix followed by its 13-character base32 form
+     */
+    public String nextId(String prefix) {
+        return prefix + toBase32(nextId());
+    }
+
+    private void warnClockBehind(long millis) {
+        long now = System.nanoTime();
+        if (now - lastClockWarning >= CLOCK_WARNING_INTERVAL_NANOS) {
+            lastClockWarning = now;
+            log.warn("System clock is {} ms behind the last issued ID timestamp", millis);
+        }
+    }
+
+    /**
+     * Render an ID as 13 Crockford base32 characters; the rendering sorts like the ID
+     */
+    public static String toBase32(long id) {
+        char[] chars = new char[BASE32_LENGTH];
+        for (int i = BASE32_LENGTH - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Milliseconds since the Unix epoch at which an ID was generated
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * Worker that generated an ID
+     */
+    public static int workerIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_WORKER_ID);
+    }
+}
@@ -0,0 +1,421 @@
+package com.enterprise.ecommerce.common.idempotency;
+
+import com.enterprise.ecommerce.common.dto.ErrorResponse;
+import com.enterprise.ecommerce.common.security.GatewayIdentity;
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes the configured endpoints safe to retry with an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key executes; its response is stored and replayed to any
+ * request repeating the key. Duplicates arriving while the first request is still running
+ * wait for its outcome instead of executing again: on the same instance they wait on the
+ * in-memory entry, across instances they poll the shared Redis record. Reusing a key for
+ * a different request body is rejected. Server errors are not stored, so a request that
+ * failed can be retried with the same key.
+ * <p>
+ * Keys are scoped to the caller, so the filter runs after the Spring Security filter
+ * chain, where a service has one, to see the authenticated principal.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true")
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String[]> endpoints = new ArrayList<>();
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyFilter(@Value("${app.idempotency.endpoints:}") String[] endpoints,
+                             @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                             @Value("${app.idempotency.in-flight-ttl-seconds:30}") long inFlightTtlSeconds,
+                             @Value("${app.idempotency.local-ttl-seconds:300}") long localTtlSeconds,
+                             @Value("${app.idempotency.local-max-entries:10000}") int localMaxEntries,
+                             @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis,
+                             @Value("${spring.application.name:application}") String serviceName,
+                             ObjectProvider<StringRedisTemplate> redisTemplate,
+                             ObjectProvider<MeterRegistry> meterRegistry,
+                             ObjectProvider<GatewayIdentityVerifier> gatewayIdentityVerifier,
+                             ObjectMapper objectMapper) {
+        for (String endpoint : endpoints) {
+            String[] parts = endpoint.trim().split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Idempotent endpoint must be '<METHOD> <path pattern>': " + endpoint);
+            }
+            this.endpoints.add(new String[] {parts[0].toUpperCase(Locale.ROOT), parts[1]});
+        }
+        this.store = new IdempotencyStore(redisTemplate.getIfAvailable(), objectMapper, serviceName,
+                Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(inFlightTtlSeconds),
+                Duration.ofSeconds(localTtlSeconds), localMaxEntries);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.gatewayIdentityVerifier = gatewayIdentityVerifier.getIfAvailable();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String[] endpoint : endpoints) {
+            if (endpoint[0].equals(request.getMethod()) && pathMatcher.match(endpoint[1], path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (!StringUtils.hasText(idempotencyKey) || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY",
+                    IDEMPOTENCY_KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest);
+        String key = scope(request) + ":" + idempotencyKey;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+
+        for (;;) {
+            IdempotencyStore.LocalEntry entry = new IdempotencyStore.LocalEntry(fingerprint);
+            IdempotencyStore.LocalEntry existing = store.claimLocal(key, entry);
+            if (existing == null) {
+                executeAsOwner(key, entry, cachedRequest, response, chain, deadline);
+                return;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                rejectMismatch(request, response);
+                return;
+            }
+            IdempotencyRecord record;
+            try {
+                record = existing.result.get(remainingMillis(deadline), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                rejectInFlight(request, response);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectInFlight(request, response);
+                return;
+            } catch (ExecutionException e) {
+                record = null;
+            }
+            if (record != null) {
+                replay(record, response, "replayed_local");
+                return;
+            }
+            // The first request ended without a stored response; this one may now run
+        }
+    }
+
+    private void executeAsOwner(String key, IdempotencyStore.LocalEntry entry, CachedBodyRequest request,
+                                HttpServletResponse response, FilterChain chain, long deadline)
+            throws ServletException, IOException {
+        IdempotencyRecord result = null;
+        String owner = UUID.randomUUID().toString();
+        try {
+            IdempotencyRecord remote = awaitRemote(key, entry.fingerprint, owner, deadline);
+            if (remote != null) {
+                if (!remote.getFingerprint().equals(entry.fingerprint)) {
+                    rejectMismatch(request, response);
+                } else if (remote.isCompleted()) {
+                    result = remote;
+                    replay(remote, response, "replayed_remote");
+                } else {
+                    rejectInFlight(request, response);
+                }
+                return;
+            }
+
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            boolean stored = false;
+            try {
+                chain.doFilter(request, cachingResponse);
+                if (isReplayable(cachingResponse.getStatus())) {
+                    result = new IdempotencyRecord(IdempotencyRecord.State.COMPLETED, entry.fingerprint,
+                            cachingResponse.getStatus(), cachingResponse.getContentType(),
+                            cachingResponse.getHeader(HttpHeaders.LOCATION), cachingResponse.getContentAsByteArray(),
+                            null);
+                    store.completeRemote(key, result);
+                    stored = true;
+                }
+                count("executed");
+            } finally {
+                if (!stored) {
+                    store.releaseRemote(key, entry.fingerprint, owner);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        } finally {
+            store.completeLocal(key, entry, result);
+        }
+    }
+
+    /**
+     * Claim the key in Redis; while another instance holds it in flight, poll until it
+     * completes or the deadline passes. Returns null when this request owns the key.
+     */
+    private IdempotencyRecord awaitRemote(String key, String fingerprint, String owner, long deadline) {
+        IdempotencyRecord record = store.claimRemote(key, fingerprint, owner);
+        long pollMillis = MIN_POLL_MILLIS;
+        while (record != null && !record.isCompleted() && record.getFingerprint().equals(fingerprint)) {
+            long remaining = remainingMillis(deadline);
+            if (remaining <= 0) {
+                return record;
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return record;
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+            record = store.getRemote(key);
+            if (record == null) {
+                // The other instance failed and released the key
+                record = store.claimRemote(key, fingerprint, owner);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Whether a response is final for its key. Server errors and statuses that ask the
+     * client to try again are not stored.
+     */
+    private static boolean isReplayable(int status) {
+        return status >= 200 && status < 500
+                && status != HttpStatus.REQUEST_TIMEOUT.value()
+                && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_EARLY.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response, String outcome) throws IOException {
+        count(outcome);
+        response.setStatus(record.getStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, record.getLocation());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = record.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void rejectMismatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        count("mismatch");
+        writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+    }
+
+    private void rejectInFlight(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        count("in_flight");
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeError(request, response, HttpStatus.CONFLICT, "IDEMPOTENT_REQUEST_IN_PROGRESS",
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String errorCode, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(errorCode, message, request.getRequestURI()));
+    }
+
+    private void count(String outcome) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+        }
+    }
+
+    /**
+     * Scope of a key: the authenticated principal, else the user the gateway asserted in
+     * signed headers, else a digest of the Authorization header. Only requests carrying no
+     * credentials at all share the anonymous scope, where keys of different clients can
+     * collide.
+     */
+    private String scope(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        if (gatewayIdentityVerifier != null) {
+            Optional<GatewayIdentity> identity = gatewayIdentityVerifier.verify(request);
+            if (identity.isPresent()) {
+                return "user:" + identity.get().userId();
+            }
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(authorization)) {
+            return "credentials:" + sha256(authorization.getBytes(StandardCharsets.UTF_8));
+        }
+        return "anonymous";
+    }
+
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * Request whose body has been read up front, so that it can be both fingerprinted and
+     * handed to the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory, so it is available at once
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
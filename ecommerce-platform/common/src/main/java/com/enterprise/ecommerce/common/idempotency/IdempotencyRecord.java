@@ -0,0 +1,36 @@
+package com.enterprise.ecommerce.common.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored state of a request made with an idempotency key: either still in flight, or
+ * completed together with the response to replay
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public enum State {
+        IN_FLIGHT, COMPLETED
+    }
+
+    private State state;
+    private String fingerprint;
+    private int status;
+    private String contentType;
+    private String location;
+    private byte[] body;
+    // Claim token of the request holding an in-flight record
+    private String owner;
+
+    public static IdempotencyRecord inFlight(String fingerprint, String owner) {
+        return new IdempotencyRecord(State.IN_FLIGHT, fingerprint, 0, null, null, null, owner);
+    }
+
+    public boolean isCompleted() {
+        return state == State.COMPLETED;
+    }
+}
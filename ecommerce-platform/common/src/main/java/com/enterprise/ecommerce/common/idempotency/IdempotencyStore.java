@@ -0,0 +1,196 @@
+package com.enterprise.ecommerce.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Two-level store of idempotent requests.
+ * <p>
+ * The local map holds one entry per key for requests handled by this instance: the first
+ * request owns the entry, and duplicates wait on its future and replay its outcome
+ * without leaving the JVM. Redis shares in-flight markers and completed responses
+ * between instances. When Redis is unavailable the store degrades to local-only.
+ * <p>
+ * An in-flight marker carries a token of the request that claimed it and is only released
+ * by that request. The marker is not renewed, so its TTL must exceed the longest time a
+ * request can run; past it another instance may claim the key and execute a duplicate.
+ */
+@Slf4j
+class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final ConcurrentMap<String, LocalEntry> local = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String keyPrefix;
+    private final Duration completedTtl;
+    private final Duration inFlightTtl;
+    private final long localTtlNanos;
+    private final int maxLocalEntries;
+
+    IdempotencyStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String serviceName,
+                     Duration completedTtl, Duration inFlightTtl, Duration localTtl, int maxLocalEntries) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.keyPrefix = KEY_PREFIX + serviceName + ":";
+        this.completedTtl = completedTtl;
+        this.inFlightTtl = inFlightTtl;
+        this.localTtlNanos = localTtl.toNanos();
+        this.maxLocalEntries = maxLocalEntries;
+    }
+
+    /**
+     * Local entry of a key: the request that owns it completes the future with the
+     * response to replay, or with null when its outcome must not be replayed
+     */
+    static final class LocalEntry {
+        final String fingerprint;
+        final CompletableFuture<IdempotencyRecord> result = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        LocalEntry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    /**
+     * Register a local entry for the key; returns null when the caller now owns the key,
+     * or the live entry of an earlier request
+     */
+    LocalEntry claimLocal(String key, LocalEntry entry) {
+        for (;;) {
+            LocalEntry existing = local.putIfAbsent(key, entry);
+            if (existing == null) {
+                if (local.size() > maxLocalEntries) {
+                    purgeExpired();
+                }
+                return null;
+            }
+            if (!existing.isExpired(System.nanoTime())) {
+                return existing;
+            }
+            local.remove(key, existing);
+        }
+    }
+
+    /**
+     * Finish a locally owned entry; a completed response stays cached for replay
+     */
+    void completeLocal(String key, LocalEntry entry, IdempotencyRecord record) {
+        if (record != null && local.size() <= maxLocalEntries) {
+            entry.expiresAt = System.nanoTime() + localTtlNanos;
+        } else {
+            local.remove(key, entry);
+        }
+        entry.result.complete(record);
+    }
+
+    /**
+     * Mark the key in flight in Redis under the owner token; returns null when this request
+     * now owns the key, or the record left by an earlier request
+     */
+    IdempotencyRecord claimRemote(String key, String fingerprint, String owner) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            Boolean claimed = redisTemplate.opsForValue()
+                    .setIfAbsent(keyPrefix + key, write(IdempotencyRecord.inFlight(fingerprint, owner)), inFlightTtl);
+            if (Boolean.TRUE.equals(claimed)) {
+                return null;
+            }
+            IdempotencyRecord existing = getRemote(key);
+            // The earlier request finished between the two calls and left nothing behind
+            return existing != null ? existing : claimRemote(key, fingerprint, owner);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable, deduplicating locally only: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the Redis record of a key, or null when there is none
+     */
+    IdempotencyRecord getRemote(String key) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(keyPrefix + key);
+            return value != null ? read(value) : null;
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the completed response of a remotely owned key
+     */
+    void completeRemote(String key, IdempotencyRecord record) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + key, write(record), completedTtl);
+        } catch (DataAccessException e) {
+            log.warn("Could not store idempotent response for key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the in-flight marker of a remotely owned key so that the request can be retried;
+     * a marker that expired and was claimed by another request is left alone
+     */
+    void releaseRemote(String key, String fingerprint, String owner) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(keyPrefix + key),
+                    write(IdempotencyRecord.inFlight(fingerprint, owner)));
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        local.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize idempotency record", e);
+        }
+    }
+
+    private IdempotencyRecord read(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read idempotency record", e);
+        }
+    }
+}
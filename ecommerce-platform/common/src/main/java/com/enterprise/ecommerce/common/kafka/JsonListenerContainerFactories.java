@@ -0,0 +1,59 @@
+package com.enterprise.ecommerce.common.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds listener container factories for a single JSON payload type.
+ * Events are published without type headers, so consumers fix the payload type here.
+ * Records that cannot be deserialized reach the listener as null instead of blocking
+ * the partition.
+ */
+public final class JsonListenerContainerFactories {
+
+    private static final String EVENTS_PACKAGE = "com.enterprise.ecommerce.common.events";
+
+    private JsonListenerContainerFactories() {
+    }
+
+    /**
+     * Create a record listener factory that commits each record once the listener returns
+     */
+    public static <T> ConcurrentKafkaListenerContainerFactory<String, T> create(String bootstrapServers,
+                                                                                String groupId,
+                                                                                Class<T> valueType) {
+        return create(bootstrapServers, groupId, valueType, Map.of());
+    }
+
+    /**
+     * Create a record listener factory with additional consumer properties
+     */
+    public static <T> ConcurrentKafkaListenerContainerFactory<String, T> create(String bootstrapServers,
+                                                                                String groupId,
+                                                                                Class<T> valueType,
+                                                                                Map<String, Object> consumerOverrides) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.putAll(consumerOverrides);
+
+        JsonDeserializer<T> jsonDeserializer = new JsonDeserializer<>(valueType, false);
+        jsonDeserializer.addTrustedPackages(EVENTS_PACKAGE);
+
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(jsonDeserializer)));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        return factory;
+    }
+}
@@ -6,7 +6,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Kafka producer service for publishing events
@@ -49,4 +52,43 @@ public class KafkaProducerService {
     public void sendMessage(String topic, Object message) {
         sendMessage(topic, null, message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Send a batch of keyed messages to Kafka topic
+     * <p>
+     * Records are handed to the producer back to back so they share produce requests, and
+     * the outcome is logged once for the whole batch instead of once per message.
+     * @param topic the topic name
+     * @param messages the message payloads
+     * @param keyMapper derives the message key from a payload
+     * @return future completing once every message was acknowledged or failed
+     */
+    @SuppressWarnings({"null", "nullness"})
+    public <T> CompletableFuture<Void> sendMessages(String topic, List<T> messages, Function<? super T, String> keyMapper) {
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < messages.size(); i++) {
+            T message = messages.get(i);
+            try {
+                futures[i] = kafkaTemplate.send(topic, keyMapper.apply(message), message)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                failures.incrementAndGet();
+                            }
+                        });
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                futures[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        return CompletableFuture.allOf(futures)
+                .handle((ignored, ex) -> {
+                    if (failures.get() == 0) {
+                        log.info("Batch of {} messages sent successfully to topic: {}", messages.size(), topic);
+                    } else {
+                        log.error("Failed to send {} of {} messages to topic: {}", failures.get(), messages.size(), topic);
+                    }
+                    return null;
+                });
+    }
+}
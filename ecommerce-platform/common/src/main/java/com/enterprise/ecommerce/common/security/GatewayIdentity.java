@@ -0,0 +1,15 @@
+package com.enterprise.ecommerce.common.security;
+
+import java.util.List;
+
+/**
+ * Identity of a caller as asserted by the API gateway after it verified the caller's JWT
+ *
+ * @param userId    the user's id
+ * @param username  the user's name
+ * @param roles     the user's roles, without the {@code ROLE_} prefix
+ * @param epoch     the token epoch of the JWT the gateway verified, for services that can
+ *                  check it against the user's current epoch
+ */
+public record GatewayIdentity(Long userId, String username, List<String> roles, long epoch) {
+}
@@ -0,0 +1,113 @@
+package com.enterprise.ecommerce.common.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checks the identity headers the API gateway adds to requests it authenticated
+ * <p>
+ * The gateway verifies the caller's JWT once and forwards the user id, name and roles
+ * with an HMAC-SHA256 signature over them and the time of signing, so a service can
+ * trust the caller without verifying the JWT again. The signature is computed over
+ * {@code userId \n username \n roles \n epoch \n issuedAt} with a secret shared with the
+ * gateway, and assertions older than {@code maxAge} are refused to limit replay. The
+ * epoch is the token epoch of the verified JWT, so a service that knows the user's
+ * current epoch can still refuse a revoked token the gateway let through.
+ * <p>
+ * When disabled, no request is considered to carry an identity.
+ */
+@Slf4j
+public class GatewayIdentityVerifier {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+    public static final String TOKEN_EPOCH_HEADER = "X-User-Token-Epoch";
+    public static final String ISSUED_AT_HEADER = "X-Identity-Issued-At";
+    public static final String SIGNATURE_HEADER = "X-Identity-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final long maxAgeMillis;
+    private final ThreadLocal<Mac> mac;
+
+    public GatewayIdentityVerifier(boolean enabled, String secret, Duration maxAge) {
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAge.toMillis();
+        if (enabled && (secret == null || secret.length() < 32)) {
+            throw new IllegalStateException("Gateway identity secret must be at least 32 characters");
+        }
+        SecretKeySpec key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM) : null;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the identity the gateway asserted for a request; empty when the request carries
+     * none, or one that is unsigned, forged or stale
+     */
+    public Optional<GatewayIdentity> verify(HttpServletRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (signature == null) {
+            return Optional.empty();
+        }
+
+        String userId = request.getHeader(USER_ID_HEADER);
+        String username = request.getHeader(USER_NAME_HEADER);
+        String roles = request.getHeader(USER_ROLES_HEADER);
+        String epoch = request.getHeader(TOKEN_EPOCH_HEADER);
+        String issuedAt = request.getHeader(ISSUED_AT_HEADER);
+        if (userId == null || username == null || roles == null || epoch == null || issuedAt == null) {
+            log.warn("Rejected incomplete gateway identity for {}", request.getRequestURI());
+            return Optional.empty();
+        }
+
+        try {
+            long age = System.currentTimeMillis() - Long.parseLong(issuedAt);
+            if (Math.abs(age) > maxAgeMillis) {
+                log.warn("Rejected gateway identity of user {} signed {} ms ago", userId, age);
+                return Optional.empty();
+            }
+            byte[] expected = sign(userId + "\n" + username + "\n" + roles + "\n" + epoch + "\n" + issuedAt);
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature))) {
+                log.warn("Rejected gateway identity of user {} with a bad signature", userId);
+                return Optional.empty();
+            }
+            List<String> roleList = roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+            return Optional.of(new GatewayIdentity(Long.valueOf(userId), username, roleList, Long.parseLong(epoch)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected malformed gateway identity: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
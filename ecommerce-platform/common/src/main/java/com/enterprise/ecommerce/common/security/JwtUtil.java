@@ -1,12 +1,14 @@
 package com.enterprise.ecommerce.common.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,18 +16,50 @@ import java.util.function.Function;
 
 /**
  * JWT Utility class for token generation and validation
+ * <p>
+ * The signing key and the parser are derived from the secret once and shared; both are
+ * immutable and thread-safe.
  */
 @Component
 public class JwtUtil {
 
+    static final String ROLE_CLAIM = "role";
+    static final String USER_ID_CLAIM = "userId";
+    static final String EPOCH_CLAIM = "epoch";
+
     @Value("${jwt.secret:mySecretKey}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long expiration;
 
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    /**
+     * Verify the signature and expiry of a token and read its identity, parsing it once
+     * @throws io.jsonwebtoken.JwtException when the token is malformed, forged or expired
+     */
+    public TokenClaims verify(String token) {
+        return TokenClaims.from(extractAllClaims(token));
     }
 
     public String extractUsername(String token) {
@@ -42,21 +76,24 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(String username, String role, Long userId) {
+        return generateToken(username, role, userId, 0L);
     }
 
-    public String generateToken(String username, String role, Long userId) {
+    /**
+     * Generate a token stamped with the user's current token epoch; it stops being
+     * accepted once the epoch is moved on
+     */
+    public String generateToken(String username, String role, Long userId, long epoch) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
-        claims.put("userId", userId);
+        claims.put(ROLE_CLAIM, role);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(EPOCH_CLAIM, epoch);
         return createToken(claims, username);
     }
 
@@ -70,16 +107,19 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Check that a token is genuine, unexpired and issued to the user; expiry is
+     * enforced while parsing, so an expired token fails with an exception
+     */
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return username.equals(extractUsername(token));
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractClaim(token, claims -> claims.get(ROLE_CLAIM, String.class));
     }
 
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return extractClaim(token, claims -> claims.get(USER_ID_CLAIM, Long.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.enterprise.ecommerce.common.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT
+ *
+ * @param username   the token subject
+ * @param userId     the user's id, or null for tokens issued without one
+ * @param role       the user's role, without the {@code ROLE_} prefix
+ * @param epoch      the user's token epoch when the token was issued
+ * @param expiresAt  when the token expires, or null for tokens without expiry
+ */
+public record TokenClaims(String username, Long userId, String role, long epoch, Instant expiresAt) {
+
+    static TokenClaims from(Claims claims) {
+        Long epoch = claims.get(JwtUtil.EPOCH_CLAIM, Long.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get(JwtUtil.USER_ID_CLAIM, Long.class),
+                claims.get(JwtUtil.ROLE_CLAIM, String.class),
+                epoch != null ? epoch : 0L,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.ecommerce.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small in-memory cache of verified JWTs
+ * <p>
+ * A client sends the same token with every request until it expires, so the signature
+ * check and claim parsing are done once per token and instance rather than once per
+ * request. Entries are keyed by the SHA-256 of the token, so bearer tokens are not held
+ * in memory, and live for at most {@code ttl} and never past the token's expiry. Only
+ * successful verifications are cached. When the cache is full and nothing has expired,
+ * new tokens are verified without being cached.
+ * <p>
+ * Revocation is not the cache's concern: callers check the claims, such as the token
+ * epoch, on every request.
+ */
+public class VerifiedTokenCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final JwtUtil jwtUtil;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, int maxEntries, Duration ttl) {
+        this.jwtUtil = jwtUtil;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    private record Entry(TokenClaims claims, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Verify a token, reusing an earlier verification of the same token
+     * @throws io.jsonwebtoken.JwtException when the token is malformed, forged or expired
+     */
+    public TokenClaims verify(String token) {
+        String key = hash(token);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired(now)) {
+                return entry.claims();
+            }
+            entries.remove(key, entry);
+        }
+
+        TokenClaims claims = jwtUtil.verify(token);
+        long lifetime = ttlNanos;
+        if (claims.expiresAt() != null) {
+            lifetime = Math.min(lifetime,
+                    TimeUnit.MILLISECONDS.toNanos(claims.expiresAt().toEpochMilli() - System.currentTimeMillis()));
+        }
+        if (entries.size() >= maxEntries) {
+            purgeExpired(now);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(key, new Entry(claims, now + lifetime));
+        }
+        return claims;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
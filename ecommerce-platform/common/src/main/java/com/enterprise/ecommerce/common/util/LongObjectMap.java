@@ -0,0 +1,122 @@
+package com.enterprise.ecommerce.common.util;
+
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing hash map keyed by primitive {@code long}.
+ * <p>
+ * Avoids boxing every key and allocating an entry object per mapping, which matters when
+ * grouping many rows by id on a request path. Uses linear probing over a power-of-two
+ * table. Not thread-safe; removal is not supported.
+ *
+ * @param <V> the type of mapped values
+ */
+public class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Get the value mapped to the key, or null when absent
+     */
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Get the value mapped to the key, or the default when absent
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        int slot = findSlot(key);
+        return values[slot] != null ? (V) values[slot] : defaultValue;
+    }
+
+    /**
+     * Map the key to a non-null value and return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = findSlot(key);
+        V previous = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previous == null && ++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return previous;
+    }
+
+    /**
+     * Get the value mapped to the key, creating and storing it first when absent
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public boolean containsKey(long key) {
+        return values[findSlot(key)] != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int findSlot(long key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int mix(long key) {
+        // Sequential database ids must not cluster in neighbouring slots
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -16,7 +17,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  */
 @SpringBootApplication(scanBasePackages = {
     "com.enterprise.ecommerce.order",
-    "com.enterprise.ecommerce.common"
+    "com.enterprise.ecommerce.common",
+    "com.enterprise.ecommerce.pricing"
 }, exclude = {
     BatchAutoConfiguration.class,
     LdapAutoConfiguration.class,
@@ -26,6 +28,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableJpaRepositories
 @EnableTransactionManagement
 @EnableCaching
+@EnableScheduling
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,26 @@
+package com.enterprise.ecommerce.order.config;
+
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.kafka.JsonListenerContainerFactories;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Kafka consumer configuration for checkout replies
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:order-service}")
+    private String groupId;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CheckoutReply> checkoutReplyListenerContainerFactory() {
+        return JsonListenerContainerFactories.create(bootstrapServers, groupId, CheckoutReply.class);
+    }
+}
@@ -1,18 +1,35 @@
 package com.enterprise.ecommerce.order.controller;
 
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.export.ExportFormat;
 import com.enterprise.ecommerce.order.dto.*;
 import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.entity.RollupGranularity;
+import com.enterprise.ecommerce.order.service.OrderAnalyticsService;
+import com.enterprise.ecommerce.order.service.OrderBulkStatusService;
+import com.enterprise.ecommerce.order.service.OrderExportService;
+import com.enterprise.ecommerce.order.service.CheckoutProgressNotifier;
+import com.enterprise.ecommerce.order.service.CheckoutSagaService;
 import com.enterprise.ecommerce.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -25,9 +42,24 @@ import java.util.Optional;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CheckoutSagaService checkoutSagaService;
+    private final CheckoutProgressNotifier checkoutProgressNotifier;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderExportService orderExportService;
+    private final OrderBulkStatusService orderBulkStatusService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           CheckoutSagaService checkoutSagaService,
+                           CheckoutProgressNotifier checkoutProgressNotifier,
+                           OrderAnalyticsService orderAnalyticsService,
+                           OrderExportService orderExportService,
+                           OrderBulkStatusService orderBulkStatusService) {
         this.orderService = orderService;
+        this.checkoutSagaService = checkoutSagaService;
+        this.checkoutProgressNotifier = checkoutProgressNotifier;
+        this.orderAnalyticsService = orderAnalyticsService;
+        this.orderExportService = orderExportService;
+        this.orderBulkStatusService = orderBulkStatusService;
     }
 
     /**
@@ -44,6 +76,37 @@ public class OrderController {
         }
     }
 
+    /**
+     * Place an order through the asynchronous checkout
+     */
+    @PostMapping("/checkout")
+    @Operation(summary = "Accept an order and complete checkout asynchronously")
+    public ResponseEntity<CheckoutStatusResponse> checkout(@Valid @RequestBody CreateOrderRequest request) {
+        CheckoutStatusResponse status = checkoutSagaService.startCheckout(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + status.getOrderId() + "/checkout"))
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(status);
+    }
+
+    /**
+     * Get checkout progress of an order
+     */
+    @GetMapping("/{orderId}/checkout")
+    @Operation(summary = "Get checkout progress of an order")
+    public ResponseEntity<CheckoutStatusResponse> getCheckoutStatus(@PathVariable Long orderId) {
+        return ResponseEntity.ok(checkoutSagaService.getStatus(orderId));
+    }
+
+    /**
+     * Stream checkout progress of an order as server-sent events
+     */
+    @GetMapping(value = "/{orderId}/checkout/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream checkout progress of an order")
+    public SseEmitter streamCheckoutStatus(@PathVariable Long orderId) {
+        return checkoutProgressNotifier.subscribe(checkoutSagaService.getStatus(orderId));
+    }
+
     /**
      * Get order by ID
      */
@@ -71,10 +134,14 @@ public class OrderController {
      * Get all orders (admin endpoint)
      */
     @GetMapping
-    @Operation(summary = "Get all orders")
+    @Operation(summary = "Get all orders, optionally only those created in [from, to)")
     public ResponseEntity<Page<OrderResponse>> getAllOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @PageableDefault(size = 20) Pageable pageable) {
-        Page<OrderResponse> orders = orderService.getAllOrders(pageable);
+        Page<OrderResponse> orders = hasRange(from, to)
+                ? orderService.getOrdersCreatedBetween(from, to, pageable)
+                : orderService.getAllOrders(pageable);
         return ResponseEntity.ok(orders);
     }
 
@@ -82,11 +149,15 @@ public class OrderController {
      * Get orders by status
      */
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get orders by status")
+    @Operation(summary = "Get orders by status, optionally only those created in [from, to)")
     public ResponseEntity<Page<OrderResponse>> getOrdersByStatus(
             @PathVariable OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             @PageableDefault(size = 20) Pageable pageable) {
-        Page<OrderResponse> orders = orderService.getOrdersByStatus(status, pageable);
+        Page<OrderResponse> orders = hasRange(from, to)
+                ? orderService.getOrdersByStatus(status, from, to, pageable)
+                : orderService.getOrdersByStatus(status, pageable);
         return ResponseEntity.ok(orders);
     }
 
@@ -106,6 +177,16 @@ public class OrderController {
         }
     }
 
+    /**
+     * Move many orders to the same status
+     */
+    @PutMapping("/status")
+    @Operation(summary = "Update the status of many orders at once")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(orderBulkStatusService.updateStatuses(request));
+    }
+
     /**
      * Cancel order
      */
@@ -122,6 +203,41 @@ public class OrderController {
         }
     }
 
+    /**
+     * Get order analytics for a time range
+     */
+    @GetMapping("/analytics")
+    @Operation(summary = "Get order revenue, average order value and status funnel for a time range")
+    public ResponseEntity<OrderAnalyticsResponse> getAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) RollupGranularity interval) {
+        return ResponseEntity.ok(orderAnalyticsService.getAnalytics(from, to, interval));
+    }
+
+    /**
+     * Stream all orders created in a time range as a file download
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export orders created in [from, to) as CSV or NDJSON")
+    public void exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("Export range must have a start before its end");
+        }
+
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("orders-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + exportFormat.getFileExtension())
+                .build()
+                .toString());
+        orderExportService.exportOrders(from, to, exportFormat, response.getOutputStream());
+    }
+
     /**
      * Get order status options
      */
@@ -139,4 +255,14 @@ public class OrderController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Order Service is running");
     }
-}
\ No newline at end of file
+
+    /**
+     * A creation-time range lets the database read only the partitions it spans
+     */
+    private static boolean hasRange(LocalDateTime from, LocalDateTime to) {
+        if ((from == null) != (to == null)) {
+            throw new InvalidRequestException("Parameters 'from' and 'to' must be given together");
+        }
+        return from != null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.enterprise.ecommerce.order.dto;
+
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * DTO for moving many orders to the same status
+ */
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "Order IDs cannot be empty")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+
+    private String notes;
+
+    // Constructors
+    public BulkStatusUpdateRequest() {}
+
+    public BulkStatusUpdateRequest(List<Long> orderIds, OrderStatus status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
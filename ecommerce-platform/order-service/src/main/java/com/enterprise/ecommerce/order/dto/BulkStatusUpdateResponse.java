@@ -0,0 +1,123 @@
+package com.enterprise.ecommerce.order.dto;
+
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk status update
+ */
+public class BulkStatusUpdateResponse {
+
+    private OrderStatus status;
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private List<Rejection> rejected = new ArrayList<>();
+
+    // Constructors
+    public BulkStatusUpdateResponse() {}
+
+    public BulkStatusUpdateResponse(OrderStatus status, int requested) {
+        this.status = status;
+        this.requested = requested;
+    }
+
+    // Getters and Setters
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    /**
+     * Orders that were already in the requested status
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public List<Rejection> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(List<Rejection> rejected) {
+        this.rejected = rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkStatusUpdateResponse{" +
+                "status=" + status +
+                ", requested=" + requested +
+                ", updated=" + updated +
+                ", unchanged=" + unchanged +
+                ", rejected=" + rejected.size() +
+                '}';
+    }
+
+    /**
+     * An order left unchanged because it could not make the transition
+     */
+    public static class Rejection {
+
+        private Long orderId;
+        private OrderStatus currentStatus;
+        private String reason;
+
+        public Rejection() {}
+
+        public Rejection(Long orderId, OrderStatus currentStatus, String reason) {
+            this.orderId = orderId;
+            this.currentStatus = currentStatus;
+            this.reason = reason;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        public OrderStatus getCurrentStatus() {
+            return currentStatus;
+        }
+
+        public void setCurrentStatus(OrderStatus currentStatus) {
+            this.currentStatus = currentStatus;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.enterprise.ecommerce.order.dto;
+
+import com.enterprise.ecommerce.order.entity.CheckoutState;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * DTO for the progress of an asynchronous checkout
+ */
+public class CheckoutStatusResponse {
+
+    private Long orderId;
+    private String orderNumber;
+    private CheckoutState state;
+    private boolean finished;
+    private OrderStatus orderStatus;
+    private BigDecimal totalAmount;
+    private String paymentId;
+    private String failureReason;
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public CheckoutState getState() {
+        return state;
+    }
+
+    public void setState(CheckoutState state) {
+        this.state = state;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CheckoutStatusResponse that = (CheckoutStatusResponse) o;
+        return finished == that.finished &&
+                Objects.equals(orderId, that.orderId) &&
+                state == that.state &&
+                orderStatus == that.orderStatus &&
+                Objects.equals(totalAmount, that.totalAmount) &&
+                Objects.equals(paymentId, that.paymentId) &&
+                Objects.equals(failureReason, that.failureReason);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, state, finished, orderStatus, totalAmount, paymentId, failureReason);
+    }
+}
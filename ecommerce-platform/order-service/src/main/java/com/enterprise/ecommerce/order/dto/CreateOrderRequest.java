@@ -5,6 +5,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -28,8 +29,14 @@ public class CreateOrderRequest {
     @PositiveOrZero(message = "Discount amount must be positive or zero")
     private BigDecimal discountAmount;
 
+    @Size(max = 50, message = "Promo code must not exceed 50 characters")
+    private String promoCode;
+
     private String notes;
 
+    // Payment method name as known to Payment Service; required for saga checkout
+    private String paymentMethod;
+
     // Constructors
     public CreateOrderRequest() {}
 
@@ -72,6 +79,14 @@ public class CreateOrderRequest {
         this.discountAmount = discountAmount;
     }
 
+    public String getPromoCode() {
+        return promoCode;
+    }
+
+    public void setPromoCode(String promoCode) {
+        this.promoCode = promoCode;
+    }
+
     public String getNotes() {
         return notes;
     }
@@ -80,6 +95,14 @@ public class CreateOrderRequest {
         this.notes = notes;
     }
 
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
     @Override
     public String toString() {
         return "CreateOrderRequest{" +
@@ -0,0 +1,69 @@
+package com.enterprise.ecommerce.order.dto;
+
+import com.enterprise.ecommerce.order.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for order analytics over a time range
+ */
+public class OrderAnalyticsResponse {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private RollupGranularity interval;
+    private OrderMetrics totals;
+    private List<OrderMetrics> intervals;
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public RollupGranularity getInterval() {
+        return interval;
+    }
+
+    public void setInterval(RollupGranularity interval) {
+        this.interval = interval;
+    }
+
+    public OrderMetrics getTotals() {
+        return totals;
+    }
+
+    public void setTotals(OrderMetrics totals) {
+        this.totals = totals;
+    }
+
+    public List<OrderMetrics> getIntervals() {
+        return intervals;
+    }
+
+    public void setIntervals(List<OrderMetrics> intervals) {
+        this.intervals = intervals;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderAnalyticsResponse{" +
+                "from=" + from +
+                ", to=" + to +
+                ", interval=" + interval +
+                ", totals=" + totals +
+                '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.enterprise.ecommerce.order.dto;
+
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for aggregated order metrics of a time range
+ */
+public class OrderMetrics {
+
+    private LocalDateTime start;
+    private long orderCount;
+    private BigDecimal revenue;
+    private BigDecimal taxAmount;
+    private BigDecimal shippingAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal averageOrderValue;
+    private BigDecimal cancelledAmount;
+    private BigDecimal refundedAmount;
+    private BigDecimal netRevenue;
+    private Map<OrderStatus, Long> statusTransitions;
+
+    // Getters and Setters
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getShippingAmount() {
+        return shippingAmount;
+    }
+
+    public void setShippingAmount(BigDecimal shippingAmount) {
+        this.shippingAmount = shippingAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getAverageOrderValue() {
+        return averageOrderValue;
+    }
+
+    public void setAverageOrderValue(BigDecimal averageOrderValue) {
+        this.averageOrderValue = averageOrderValue;
+    }
+
+    public BigDecimal getCancelledAmount() {
+        return cancelledAmount;
+    }
+
+    public void setCancelledAmount(BigDecimal cancelledAmount) {
+        this.cancelledAmount = cancelledAmount;
+    }
+
+    public BigDecimal getRefundedAmount() {
+        return refundedAmount;
+    }
+
+    public void setRefundedAmount(BigDecimal refundedAmount) {
+        this.refundedAmount = refundedAmount;
+    }
+
+    public BigDecimal getNetRevenue() {
+        return netRevenue;
+    }
+
+    public void setNetRevenue(BigDecimal netRevenue) {
+        this.netRevenue = netRevenue;
+    }
+
+    public Map<OrderStatus, Long> getStatusTransitions() {
+        return statusTransitions;
+    }
+
+    public void setStatusTransitions(Map<OrderStatus, Long> statusTransitions) {
+        this.statusTransitions = statusTransitions;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderMetrics{" +
+                "start=" + start +
+                ", orderCount=" + orderCount +
+                ", revenue=" + revenue +
+                ", averageOrderValue=" + averageOrderValue +
+                ", netRevenue=" + netRevenue +
+                ", statusTransitions=" + statusTransitions +
+                '}';
+    }
+}
@@ -20,6 +20,7 @@ public class OrderResponse {
     private BigDecimal taxAmount;
     private BigDecimal shippingAmount;
     private BigDecimal discountAmount;
+    private String promoCode;
     private ShippingAddress shippingAddress;
     private List<OrderItemResponse> items;
     private String notes;
@@ -99,6 +100,14 @@ public class OrderResponse {
         this.discountAmount = discountAmount;
     }
 
+    public String getPromoCode() {
+        return promoCode;
+    }
+
+    public void setPromoCode(String promoCode) {
+        this.promoCode = promoCode;
+    }
+
     public ShippingAddress getShippingAddress() {
         return shippingAddress;
     }
@@ -0,0 +1,164 @@
+package com.enterprise.ecommerce.order.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity for a closed order moved out of the live order partitions.
+ * The whole order and its items are kept as one compressed document; the other columns
+ * serve lookups without decompressing it.
+ */
+@Entity
+@Table(name = "orders_archive")
+public class ArchivedOrder implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_number", nullable = false, unique = true)
+    private String orderNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "total_amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "document", nullable = false)
+    private byte[] document;
+
+    /**
+     * Archived orders are only ever inserted once, so saving one never needs to look it up first
+     */
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public ArchivedOrder() {}
+
+    public ArchivedOrder(Order order, byte[] document) {
+        this.id = order.getId();
+        this.orderNumber = order.getOrderNumber();
+        this.userId = order.getUserId();
+        this.status = order.getStatus();
+        this.totalAmount = order.getTotalAmount();
+        this.createdAt = order.getCreatedAt();
+        this.archivedAt = LocalDateTime.now();
+        this.document = document;
+    }
+
+    // Getters and Setters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public byte[] getDocument() {
+        return document;
+    }
+
+    public void setDocument(byte[] document) {
+        this.document = document;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedOrder that = (ArchivedOrder) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedOrder{" +
+                "id=" + id +
+                ", orderNumber='" + orderNumber + '\'' +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.enterprise.ecommerce.order.entity;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand.Action;
+import com.enterprise.ecommerce.common.events.CheckoutCommand.Step;
+
+/**
+ * States of the checkout saga.
+ * Each open state waits for the reply to one command; compensations undo completed
+ * steps in reverse order. Clearing the cart is not compensated and does not fail checkout.
+ */
+public enum CheckoutState {
+    RESERVING_STOCK(Step.RESERVE_STOCK, Action.EXECUTE),
+    REQUESTING_PAYMENT(Step.REQUEST_PAYMENT, Action.EXECUTE),
+    CLEARING_CART(Step.CLEAR_CART, Action.EXECUTE),
+    CANCELLING_PAYMENT(Step.REQUEST_PAYMENT, Action.COMPENSATE),
+    RELEASING_STOCK(Step.RESERVE_STOCK, Action.COMPENSATE),
+    COMPLETED(null, null),
+    FAILED(null, null);
+
+    private final Step step;
+    private final Action action;
+
+    CheckoutState(Step step, Action action) {
+        this.step = step;
+        this.action = action;
+    }
+
+    public Step getStep() {
+        return step;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public boolean isTerminal() {
+        return step == null;
+    }
+
+    /**
+     * Whether this state waits for the reply to the given command
+     */
+    public boolean awaits(Step replyStep, Action replyAction) {
+        return step == replyStep && action == replyAction;
+    }
+
+    /**
+     * Next state once the awaited command succeeded
+     */
+    public CheckoutState onSuccess() {
+        switch (this) {
+            case RESERVING_STOCK:
+                return REQUESTING_PAYMENT;
+            case REQUESTING_PAYMENT:
+                return CLEARING_CART;
+            case CLEARING_CART:
+                return COMPLETED;
+            case CANCELLING_PAYMENT:
+                return RELEASING_STOCK;
+            case RELEASING_STOCK:
+                return FAILED;
+            default:
+                return this;
+        }
+    }
+
+    /**
+     * Next state once the participant refused the awaited command
+     */
+    public CheckoutState onFailure() {
+        switch (this) {
+            case RESERVING_STOCK:
+                // Reservation is all-or-nothing, so nothing is held
+                return FAILED;
+            case REQUESTING_PAYMENT:
+                return RELEASING_STOCK;
+            default:
+                return onTimeout();
+        }
+    }
+
+    /**
+     * Next state once the awaited command went unanswered for all attempts.
+     * The step may or may not have taken effect, so it is compensated as well.
+     */
+    public CheckoutState onTimeout() {
+        switch (this) {
+            case RESERVING_STOCK:
+                return RELEASING_STOCK;
+            case REQUESTING_PAYMENT:
+                return CANCELLING_PAYMENT;
+            case CLEARING_CART:
+                return COMPLETED;
+            case CANCELLING_PAYMENT:
+                return RELEASING_STOCK;
+            case RELEASING_STOCK:
+                return FAILED;
+            default:
+                return this;
+        }
+    }
+}
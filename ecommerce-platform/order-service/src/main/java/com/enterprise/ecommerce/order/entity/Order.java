@@ -43,6 +43,9 @@ public class Order {
     @Column(name = "discount_amount", precision = 12, scale = 2)
     private BigDecimal discountAmount = BigDecimal.ZERO;
 
+    @Column(name = "promo_code", length = 50)
+    private String promoCode;
+
     @Embedded
     private ShippingAddress shippingAddress;
 
@@ -69,6 +72,12 @@ public class Order {
     @Column(name = "notes")
     private String notes;
 
+    /**
+     * Set on orders read back from the archive, which are read-only
+     */
+    @Transient
+    private boolean archived;
+
     // Constructors
     public Order() {}
 
@@ -143,6 +152,14 @@ public class Order {
         this.discountAmount = discountAmount;
     }
 
+    public String getPromoCode() {
+        return promoCode;
+    }
+
+    public void setPromoCode(String promoCode) {
+        this.promoCode = promoCode;
+    }
+
     public ShippingAddress getShippingAddress() {
         return shippingAddress;
     }
@@ -207,6 +224,14 @@ public class Order {
         this.notes = notes;
     }
 
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     // Business methods
     public void addItem(OrderItem item) {
         items.add(item);
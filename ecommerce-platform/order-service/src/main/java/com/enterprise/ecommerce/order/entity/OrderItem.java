@@ -22,6 +22,12 @@ public class OrderItem {
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
+    /**
+     * Creation time of the order; order items are partitioned with their order by it
+     */
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+
     @Column(name = "product_id", nullable = false)
     private Long productId;
 
@@ -72,6 +78,14 @@ public class OrderItem {
         this.order = order;
     }
 
+    public LocalDateTime getOrderCreatedAt() {
+        return orderCreatedAt;
+    }
+
+    public void setOrderCreatedAt(LocalDateTime orderCreatedAt) {
+        this.orderCreatedAt = orderCreatedAt;
+    }
+
     public Long getProductId() {
         return productId;
     }
@@ -131,6 +145,13 @@ public class OrderItem {
     }
 
     // Business methods
+    @PrePersist
+    void copyOrderCreatedAt() {
+        if (orderCreatedAt == null && order != null) {
+            orderCreatedAt = order.getCreatedAt();
+        }
+    }
+
     public void calculateSubtotal() {
         if (unitPrice != null && quantity != null) {
             this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
@@ -0,0 +1,257 @@
+package com.enterprise.ecommerce.order.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity holding pre-aggregated order metrics for one time bucket.
+ * Order metrics are counted in the bucket the order was placed in; status counts in the
+ * bucket the order entered that status. Rows are only ever added to and merged, through
+ * {@link com.enterprise.ecommerce.order.repository.OrderRollupRepository}.
+ */
+@Entity
+@Table(name = "order_rollups")
+@IdClass(OrderRollup.Key.class)
+public class OrderRollup {
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false)
+    private RollupGranularity granularity;
+
+    /**
+     * Spreads concurrent writes to the current bucket over several rows
+     */
+    @Id
+    @Column(name = "shard", nullable = false)
+    private short shard;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "revenue", precision = 16, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "tax_amount", precision = 16, scale = 2, nullable = false)
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    @Column(name = "shipping_amount", precision = 16, scale = 2, nullable = false)
+    private BigDecimal shippingAmount = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", precision = 16, scale = 2, nullable = false)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "confirmed_count", nullable = false)
+    private long confirmedCount;
+
+    @Column(name = "processing_count", nullable = false)
+    private long processingCount;
+
+    @Column(name = "shipped_count", nullable = false)
+    private long shippedCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "cancelled_amount", precision = 16, scale = 2, nullable = false)
+    private BigDecimal cancelledAmount = BigDecimal.ZERO;
+
+    @Column(name = "refunded_count", nullable = false)
+    private long refundedCount;
+
+    @Column(name = "refunded_amount", precision = 16, scale = 2, nullable = false)
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+
+    // Constructors
+    public OrderRollup() {}
+
+    public OrderRollup(LocalDateTime bucketStart, RollupGranularity granularity, short shard) {
+        this.bucketStart = bucketStart;
+        this.granularity = granularity;
+        this.shard = shard;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public short getShard() {
+        return shard;
+    }
+
+    public void setShard(short shard) {
+        this.shard = shard;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getShippingAmount() {
+        return shippingAmount;
+    }
+
+    public void setShippingAmount(BigDecimal shippingAmount) {
+        this.shippingAmount = shippingAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public long getConfirmedCount() {
+        return confirmedCount;
+    }
+
+    public void setConfirmedCount(long confirmedCount) {
+        this.confirmedCount = confirmedCount;
+    }
+
+    public long getProcessingCount() {
+        return processingCount;
+    }
+
+    public void setProcessingCount(long processingCount) {
+        this.processingCount = processingCount;
+    }
+
+    public long getShippedCount() {
+        return shippedCount;
+    }
+
+    public void setShippedCount(long shippedCount) {
+        this.shippedCount = shippedCount;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public void setDeliveredCount(long deliveredCount) {
+        this.deliveredCount = deliveredCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public void setCancelledCount(long cancelledCount) {
+        this.cancelledCount = cancelledCount;
+    }
+
+    public BigDecimal getCancelledAmount() {
+        return cancelledAmount;
+    }
+
+    public void setCancelledAmount(BigDecimal cancelledAmount) {
+        this.cancelledAmount = cancelledAmount;
+    }
+
+    public long getRefundedCount() {
+        return refundedCount;
+    }
+
+    public void setRefundedCount(long refundedCount) {
+        this.refundedCount = refundedCount;
+    }
+
+    public BigDecimal getRefundedAmount() {
+        return refundedAmount;
+    }
+
+    public void setRefundedAmount(BigDecimal refundedAmount) {
+        this.refundedAmount = refundedAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderRollup{" +
+                "bucketStart=" + bucketStart +
+                ", granularity=" + granularity +
+                ", shard=" + shard +
+                ", orderCount=" + orderCount +
+                ", revenue=" + revenue +
+                '}';
+    }
+
+    /**
+     * Composite key of a rollup row
+     */
+    public static class Key implements Serializable {
+
+        private LocalDateTime bucketStart;
+        private RollupGranularity granularity;
+        private short shard;
+
+        public Key() {}
+
+        public Key(LocalDateTime bucketStart, RollupGranularity granularity, short shard) {
+            this.bucketStart = bucketStart;
+            this.granularity = granularity;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return shard == key.shard &&
+                    Objects.equals(bucketStart, key.bucketStart) &&
+                    granularity == key.granularity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketStart, granularity, shard);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.enterprise.ecommerce.order.entity;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enumeration for order status
  */
@@ -10,5 +15,37 @@ public enum OrderStatus {
     SHIPPED,
     DELIVERED,
     CANCELLED,
-    REFUNDED
-}
\ No newline at end of file
+    REFUNDED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, PROCESSING, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(PROCESSING, SHIPPED, CANCELLED));
+        TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.of(REFUNDED));
+        TRANSITIONS.put(CANCELLED, EnumSet.of(REFUNDED));
+        TRANSITIONS.put(REFUNDED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    /**
+     * Whether a bulk update may move an order in this status to the given status
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    /**
+     * Statuses an order may move to this status from
+     */
+    public Set<OrderStatus> getAllowedSources() {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((source, targets) -> {
+            if (targets.contains(this)) {
+                sources.add(source);
+            }
+        });
+        return sources;
+    }
+}
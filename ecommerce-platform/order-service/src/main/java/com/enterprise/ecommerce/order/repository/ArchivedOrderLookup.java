@@ -0,0 +1,30 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Order queries that also reach orders moved to the archive.
+ * Archived orders come back as read-only {@link Order}s with their items loaded and
+ * {@link Order#isArchived()} set.
+ */
+public interface ArchivedOrderLookup {
+
+    /**
+     * Find an archived order by ID
+     */
+    Optional<Order> findArchivedById(Long orderId);
+
+    /**
+     * Check whether an order has been archived
+     */
+    boolean isArchived(Long orderId);
+
+    /**
+     * Find the live and archived orders of a user, newest first
+     */
+    Page<Order> findByUserIdIncludingArchived(Long userId, Pageable pageable);
+}
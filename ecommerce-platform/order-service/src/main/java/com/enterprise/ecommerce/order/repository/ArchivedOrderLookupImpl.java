@@ -0,0 +1,91 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.ArchivedOrder;
+import com.enterprise.ecommerce.order.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link ArchivedOrderLookup}, mixed into {@link OrderRepository}
+ */
+class ArchivedOrderLookupImpl implements ArchivedOrderLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveCodec codec;
+
+    ArchivedOrderLookupImpl(ArchivedOrderRepository archivedOrderRepository, OrderArchiveCodec codec) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.codec = codec;
+    }
+
+    @Override
+    public Optional<Order> findArchivedById(Long orderId) {
+        return archivedOrderRepository.findById(orderId).map(codec::restore);
+    }
+
+    @Override
+    public boolean isArchived(Long orderId) {
+        return archivedOrderRepository.existsById(orderId);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Order> findByUserIdIncludingArchived(Long userId, Pageable pageable) {
+        // Page over the ids of both stores first, then load each order from its own store
+        Query idQuery = entityManager.createNativeQuery(
+                "SELECT o.id, o.archived FROM (" +
+                "SELECT id, created_at, FALSE AS archived FROM orders WHERE user_id = :userId " +
+                "UNION ALL " +
+                "SELECT id, created_at, TRUE AS archived FROM orders_archive WHERE user_id = :userId" +
+                ") o ORDER BY o.created_at DESC, o.id DESC")
+                .setParameter("userId", userId);
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Object[]> rows = idQuery.getResultList();
+
+        List<Long> liveIds = new ArrayList<>();
+        List<Long> archivedIds = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long id = ((Number) row[0]).longValue();
+            (Boolean.TRUE.equals(row[1]) ? archivedIds : liveIds).add(id);
+        }
+
+        Map<Long, Order> orders = new HashMap<>();
+        if (!liveIds.isEmpty()) {
+            entityManager.createQuery("SELECT o FROM Order o WHERE o.id IN :ids", Order.class)
+                    .setParameter("ids", liveIds)
+                    .getResultList()
+                    .forEach(order -> orders.put(order.getId(), order));
+        }
+        for (ArchivedOrder archivedOrder : archivedOrderRepository.findAllById(archivedIds)) {
+            orders.put(archivedOrder.getId(), codec.restore(archivedOrder));
+        }
+
+        List<Order> content = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Order order = orders.get(((Number) row[0]).longValue());
+            if (order != null) {
+                content.add(order);
+            }
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> ((Number) entityManager.createNativeQuery(
+                "SELECT (SELECT COUNT(*) FROM orders WHERE user_id = :userId) " +
+                "+ (SELECT COUNT(*) FROM orders_archive WHERE user_id = :userId)")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue());
+    }
+}
@@ -0,0 +1,31 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for ArchivedOrder entity
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Stream archived orders created within a range, oldest first, fetching rows from a
+     * database cursor in batches. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedOrder a WHERE a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt, a.id")
+    Stream<ArchivedOrder> streamCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,25 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.CheckoutSaga;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for CheckoutSaga entity
+ */
+@Repository
+public interface CheckoutSagaRepository extends JpaRepository<CheckoutSaga, Long> {
+
+    /**
+     * Find open sagas whose current step has not been answered in time
+     */
+    @Query("SELECT s.orderId FROM CheckoutSaga s WHERE s.state NOT IN ('COMPLETED', 'FAILED') " +
+           "AND s.stepDeadline < :now ORDER BY s.stepDeadline")
+    List<Long> findOverdueOrderIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,156 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.ArchivedOrder;
+import com.enterprise.ecommerce.order.entity.Order;
+import com.enterprise.ecommerce.order.entity.OrderItem;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.entity.ShippingAddress;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Converts orders to and from their compressed archive document
+ */
+@Component
+public class OrderArchiveCodec {
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public OrderArchiveCodec(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(OrderDocument.class);
+        this.reader = objectMapper.readerFor(OrderDocument.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Archive an order with its items
+     */
+    public ArchivedOrder archive(Order order, List<OrderItem> items) {
+        OrderDocument document = new OrderDocument();
+        document.id = order.getId();
+        document.orderNumber = order.getOrderNumber();
+        document.userId = order.getUserId();
+        document.status = order.getStatus();
+        document.totalAmount = order.getTotalAmount();
+        document.taxAmount = order.getTaxAmount();
+        document.shippingAmount = order.getShippingAmount();
+        document.discountAmount = order.getDiscountAmount();
+        document.promoCode = order.getPromoCode();
+        document.shippingAddress = order.getShippingAddress();
+        document.notes = order.getNotes();
+        document.createdAt = order.getCreatedAt();
+        document.updatedAt = order.getUpdatedAt();
+        document.shippedAt = order.getShippedAt();
+        document.deliveredAt = order.getDeliveredAt();
+        document.cancelledAt = order.getCancelledAt();
+        document.items = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            ItemDocument itemDocument = new ItemDocument();
+            itemDocument.id = item.getId();
+            itemDocument.productId = item.getProductId();
+            itemDocument.productName = item.getProductName();
+            itemDocument.productImageUrl = item.getProductImageUrl();
+            itemDocument.unitPrice = item.getUnitPrice();
+            itemDocument.quantity = item.getQuantity();
+            itemDocument.subtotal = item.getSubtotal();
+            itemDocument.createdAt = item.getCreatedAt();
+            document.items.add(itemDocument);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive order " + order.getId(), e);
+        }
+        return new ArchivedOrder(order, bytes.toByteArray());
+    }
+
+    /**
+     * Restore a read-only order, items included, from its archive document
+     */
+    public Order restore(ArchivedOrder archivedOrder) {
+        OrderDocument document;
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(archivedOrder.getDocument()))) {
+            document = reader.readValue(gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived order " + archivedOrder.getId(), e);
+        }
+
+        Order order = new Order(document.orderNumber, document.userId, document.totalAmount);
+        order.setId(document.id);
+        order.setStatus(document.status);
+        order.setTaxAmount(document.taxAmount);
+        order.setShippingAmount(document.shippingAmount);
+        order.setDiscountAmount(document.discountAmount);
+        order.setPromoCode(document.promoCode);
+        order.setShippingAddress(document.shippingAddress);
+        order.setNotes(document.notes);
+        order.setCreatedAt(document.createdAt);
+        order.setUpdatedAt(document.updatedAt);
+        order.setShippedAt(document.shippedAt);
+        order.setDeliveredAt(document.deliveredAt);
+        order.setCancelledAt(document.cancelledAt);
+        order.setArchived(true);
+        for (ItemDocument itemDocument : document.items) {
+            OrderItem item = new OrderItem(itemDocument.productId, itemDocument.productName,
+                    itemDocument.unitPrice, itemDocument.quantity);
+            item.setId(itemDocument.id);
+            item.setProductImageUrl(itemDocument.productImageUrl);
+            item.setSubtotal(itemDocument.subtotal);
+            item.setCreatedAt(itemDocument.createdAt);
+            item.setOrderCreatedAt(document.createdAt);
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+
+    static class OrderDocument {
+        public Long id;
+        public String orderNumber;
+        public Long userId;
+        public OrderStatus status;
+        public BigDecimal totalAmount;
+        public BigDecimal taxAmount;
+        public BigDecimal shippingAmount;
+        public BigDecimal discountAmount;
+        public String promoCode;
+        public ShippingAddress shippingAddress;
+        public String notes;
+        public LocalDateTime createdAt;
+        public LocalDateTime updatedAt;
+        public LocalDateTime shippedAt;
+        public LocalDateTime deliveredAt;
+        public LocalDateTime cancelledAt;
+        public List<ItemDocument> items = new ArrayList<>();
+    }
+
+    static class ItemDocument {
+        public Long id;
+        public Long productId;
+        public String productName;
+        public String productImageUrl;
+        public BigDecimal unitPrice;
+        public Integer quantity;
+        public BigDecimal subtotal;
+        public LocalDateTime createdAt;
+    }
+}
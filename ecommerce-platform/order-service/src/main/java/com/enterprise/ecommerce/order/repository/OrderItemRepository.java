@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +21,27 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     List<OrderItem> findByOrderId(Long orderId);
 
+    /**
+     * Find order items for several orders in one query
+     */
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<OrderItem> findByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Find order items of an order, reading only the partition of its creation time
+     */
+    List<OrderItem> findByOrderIdAndOrderCreatedAt(Long orderId, LocalDateTime orderCreatedAt);
+
+    /**
+     * Find order items for several orders created within a range in one query, reading
+     * only the partitions of that range
+     */
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id IN :orderIds " +
+           "AND oi.orderCreatedAt BETWEEN :from AND :to")
+    List<OrderItem> findByOrderIdInCreatedBetween(@Param("orderIds") Collection<Long> orderIds,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
     /**
      * Find order items by product ID
      */
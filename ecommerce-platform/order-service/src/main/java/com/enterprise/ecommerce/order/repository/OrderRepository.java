@@ -2,22 +2,35 @@ package com.enterprise.ecommerce.order.repository;
 
 import com.enterprise.ecommerce.order.entity.Order;
 import com.enterprise.ecommerce.order.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity
+ * <p>
+ * The orders table is range-partitioned by {@code created_at}; queries bounded on it only
+ * read the partitions of that range.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, ArchivedOrderLookup {
 
     /**
      * Find order by order number
@@ -49,11 +62,36 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
+    /**
+     * Find orders created within a range, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt DESC")
+    Page<Order> findCreatedBetween(@Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable pageable);
+
+    /**
+     * Find orders by status created within a range, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+           "ORDER BY o.createdAt DESC")
+    Page<Order> findByStatusCreatedBetween(@Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           Pageable pageable);
+
     /**
      * Find order by user ID and order ID
      */
     Optional<Order> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Find an order by ID, locking it against concurrent status changes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
+
     /**
      * Find orders created between dates
      */
@@ -61,6 +99,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                      @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Stream orders created within a range, oldest first, fetching rows from a database
+     * cursor in batches. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    Stream<Order> streamCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
      * Find orders by user ID with items loaded
      */
@@ -76,4 +125,82 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * Check if order exists by order number
      */
     boolean existsByOrderNumber(String orderNumber);
-}
\ No newline at end of file
+
+    /**
+     * Lock a batch of orders in the given statuses created before the cutoff, oldest first,
+     * skipping orders locked by concurrent writers
+     */
+    @Query(value = "SELECT * FROM orders WHERE created_at < :cutoff AND status IN (:statuses) " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Order> lockOrdersCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                        @Param("statuses") Collection<String> statuses,
+                                        @Param("limit") int limit);
+
+    /**
+     * Delete orders created before the cutoff by ID; their items are removed by the
+     * foreign key cascade
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM orders WHERE id IN (:orderIds) AND created_at < :cutoff", nativeQuery = true)
+    int deleteCreatedBefore(@Param("orderIds") Collection<Long> orderIds, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Get the fields needed to validate and record a status change for a set of orders
+     */
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.userId AS userId, o.status AS status, " +
+           "o.totalAmount AS totalAmount, o.createdAt AS createdAt FROM Order o WHERE o.id IN :orderIds")
+    List<OrderStatusSnapshot> findStatusSnapshots(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Move orders to a new status in one statement, stamping the matching shipped, delivered
+     * or cancelled time and appending the note, if any. Only orders still in the status they
+     * were read in are changed; the bounds on created_at limit the partitions scanned.
+     *
+     * @return the IDs of the orders that were changed
+     */
+    @Query(value = "UPDATE orders SET status = :status, updated_at = :now, " +
+            "shipped_at = CASE WHEN :status = 'SHIPPED' THEN :now ELSE shipped_at END, " +
+            "delivered_at = CASE WHEN :status = 'DELIVERED' THEN :now ELSE delivered_at END, " +
+            "cancelled_at = CASE WHEN :status = 'CANCELLED' THEN :now ELSE cancelled_at END, " +
+            "notes = CASE WHEN CAST(:note AS TEXT) IS NULL THEN notes " +
+            "             WHEN notes IS NULL THEN CAST(:note AS TEXT) " +
+            "             ELSE notes || CHR(10) || CAST(:note AS TEXT) END " +
+            "WHERE id IN (:orderIds) AND created_at BETWEEN :oldest AND :newest AND status = :expectedStatus " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> transitionStatus(@Param("orderIds") Collection<Long> orderIds,
+                                @Param("oldest") LocalDateTime oldest,
+                                @Param("newest") LocalDateTime newest,
+                                @Param("expectedStatus") String expectedStatus,
+                                @Param("status") String status,
+                                @Param("note") String note,
+                                @Param("now") LocalDateTime now);
+
+    /**
+     * Create the monthly partitions of orders and order items for the given months
+     */
+    @Query(value = "SELECT create_order_partitions(:firstMonth, :months)", nativeQuery = true)
+    int createPartitions(@Param("firstMonth") LocalDate firstMonth, @Param("months") int months);
+
+    /**
+     * Drop the monthly partitions ending on or before the given date that hold no orders
+     */
+    @Query(value = "SELECT drop_empty_order_partitions(:before)", nativeQuery = true)
+    int dropEmptyPartitions(@Param("before") LocalDate before);
+
+    /**
+     * Projection of an order's identity, status and total
+     */
+    interface OrderStatusSnapshot {
+        Long getId();
+
+        String getOrderNumber();
+
+        Long getUserId();
+
+        OrderStatus getStatus();
+
+        BigDecimal getTotalAmount();
+
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,135 @@
+package com.enterprise.ecommerce.order.repository;
+
+import com.enterprise.ecommerce.order.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for pre-aggregated order metrics.
+ * Every order is counted in exactly one rollup row at a time: writes add to a bucket, and
+ * compaction moves rows into a coarser bucket in a single statement.
+ */
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollup.Key> {
+
+    String COLUMNS = "order_count, revenue, tax_amount, shipping_amount, discount_amount, " +
+            "confirmed_count, processing_count, shipped_count, delivered_count, " +
+            "cancelled_count, cancelled_amount, refunded_count, refunded_amount";
+
+    String MERGE = "ON CONFLICT (bucket_start, granularity, shard) DO UPDATE SET " +
+            "order_count = order_rollups.order_count + EXCLUDED.order_count, " +
+            "revenue = order_rollups.revenue + EXCLUDED.revenue, " +
+            "tax_amount = order_rollups.tax_amount + EXCLUDED.tax_amount, " +
+            "shipping_amount = order_rollups.shipping_amount + EXCLUDED.shipping_amount, " +
+            "discount_amount = order_rollups.discount_amount + EXCLUDED.discount_amount, " +
+            "confirmed_count = order_rollups.confirmed_count + EXCLUDED.confirmed_count, " +
+            "processing_count = order_rollups.processing_count + EXCLUDED.processing_count, " +
+            "shipped_count = order_rollups.shipped_count + EXCLUDED.shipped_count, " +
+            "delivered_count = order_rollups.delivered_count + EXCLUDED.delivered_count, " +
+            "cancelled_count = order_rollups.cancelled_count + EXCLUDED.cancelled_count, " +
+            "cancelled_amount = order_rollups.cancelled_amount + EXCLUDED.cancelled_amount, " +
+            "refunded_count = order_rollups.refunded_count + EXCLUDED.refunded_count, " +
+            "refunded_amount = order_rollups.refunded_amount + EXCLUDED.refunded_amount";
+
+    String SUMS = "CAST(COALESCE(SUM(order_count), 0) AS BIGINT) AS orderCount, " +
+            "COALESCE(SUM(revenue), 0) AS revenue, " +
+            "COALESCE(SUM(tax_amount), 0) AS taxAmount, " +
+            "COALESCE(SUM(shipping_amount), 0) AS shippingAmount, " +
+            "COALESCE(SUM(discount_amount), 0) AS discountAmount, " +
+            "CAST(COALESCE(SUM(confirmed_count), 0) AS BIGINT) AS confirmedCount, " +
+            "CAST(COALESCE(SUM(processing_count), 0) AS BIGINT) AS processingCount, " +
+            "CAST(COALESCE(SUM(shipped_count), 0) AS BIGINT) AS shippedCount, " +
+            "CAST(COALESCE(SUM(delivered_count), 0) AS BIGINT) AS deliveredCount, " +
+            "CAST(COALESCE(SUM(cancelled_count), 0) AS BIGINT) AS cancelledCount, " +
+            "COALESCE(SUM(cancelled_amount), 0) AS cancelledAmount, " +
+            "CAST(COALESCE(SUM(refunded_count), 0) AS BIGINT) AS refundedCount, " +
+            "COALESCE(SUM(refunded_amount), 0) AS refundedAmount";
+
+    /**
+     * Add the metrics of the given row to its bucket, creating the bucket when absent
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (bucket_start, granularity, shard, " + COLUMNS + ") VALUES (" +
+            ":#{#delta.bucketStart}, :#{#delta.granularity.name()}, :#{#delta.shard}, " +
+            ":#{#delta.orderCount}, :#{#delta.revenue}, :#{#delta.taxAmount}, :#{#delta.shippingAmount}, " +
+            ":#{#delta.discountAmount}, :#{#delta.confirmedCount}, :#{#delta.processingCount}, " +
+            ":#{#delta.shippedCount}, :#{#delta.deliveredCount}, :#{#delta.cancelledCount}, " +
+            ":#{#delta.cancelledAmount}, :#{#delta.refundedCount}, :#{#delta.refundedAmount}) " +
+            MERGE, nativeQuery = true)
+    int add(@Param("delta") OrderRollup delta);
+
+    /**
+     * Move all buckets of one granularity that start before the cutoff into the buckets of
+     * a coarser granularity. Rows are deleted and merged in the same statement, so
+     * concurrent compactions cannot count a row twice.
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM order_rollups " +
+            "WHERE granularity = :fromGranularity AND bucket_start < :cutoff RETURNING *) " +
+            "INSERT INTO order_rollups (bucket_start, granularity, shard, " + COLUMNS + ") " +
+            "SELECT date_trunc(:toUnit, bucket_start), :toGranularity, 0, " +
+            "SUM(order_count), SUM(revenue), SUM(tax_amount), SUM(shipping_amount), SUM(discount_amount), " +
+            "SUM(confirmed_count), SUM(processing_count), SUM(shipped_count), SUM(delivered_count), " +
+            "SUM(cancelled_count), SUM(cancelled_amount), SUM(refunded_count), SUM(refunded_amount) " +
+            "FROM moved GROUP BY 1 " + MERGE, nativeQuery = true)
+    int compact(@Param("fromGranularity") String fromGranularity,
+                @Param("toGranularity") String toGranularity,
+                @Param("toUnit") String toUnit,
+                @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Sum all buckets starting within the range
+     */
+    @Query(value = "SELECT CAST(:from AS TIMESTAMP) AS bucketStart, " + SUMS + " FROM order_rollups " +
+            "WHERE bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    RollupTotals sumBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sum the buckets starting within the range per interval of the given unit
+     */
+    @Query(value = "SELECT date_trunc(:unit, bucket_start) AS bucketStart, " + SUMS + " FROM order_rollups " +
+            "WHERE bucket_start >= :from AND bucket_start < :to GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<RollupTotals> sumBetweenPerInterval(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("unit") String unit);
+
+    /**
+     * Summed metrics of a set of buckets
+     */
+    interface RollupTotals {
+        LocalDateTime getBucketStart();
+
+        Long getOrderCount();
+
+        BigDecimal getRevenue();
+
+        BigDecimal getTaxAmount();
+
+        BigDecimal getShippingAmount();
+
+        BigDecimal getDiscountAmount();
+
+        Long getConfirmedCount();
+
+        Long getProcessingCount();
+
+        Long getShippedCount();
+
+        Long getDeliveredCount();
+
+        Long getCancelledCount();
+
+        BigDecimal getCancelledAmount();
+
+        Long getRefundedCount();
+
+        BigDecimal getRefundedAmount();
+    }
+}
@@ -0,0 +1,115 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.order.dto.CheckoutStatusResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Pushes checkout progress to clients subscribed through server-sent events.
+ * A status is sent only when it differs from the last one sent for the order, and the
+ * stream is completed once checkout has finished.
+ */
+@Component
+@Slf4j
+public class CheckoutProgressNotifier {
+
+    private final long timeoutMillis;
+    private final ConcurrentMap<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+
+    public CheckoutProgressNotifier(@Value("${app.checkout.progress.sse-timeout-ms:60000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Open an event stream for an order, starting with its current status
+     */
+    public SseEmitter subscribe(CheckoutStatusResponse current) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        if (current.isFinished()) {
+            if (send(emitter, current)) {
+                emitter.complete();
+            }
+            return emitter;
+        }
+
+        Long orderId = current.getOrderId();
+        subscribers.compute(orderId, (id, existing) -> {
+            Subscribers subs = existing != null ? existing : new Subscribers();
+            subs.emitters.add(emitter);
+            return subs;
+        });
+        Runnable unsubscribe = () -> unsubscribe(orderId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        send(emitter, current);
+        return emitter;
+    }
+
+    /**
+     * Orders that have at least one open event stream
+     */
+    public Set<Long> watchedOrderIds() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    /**
+     * Send a status to the subscribers of its order if it changed
+     */
+    public void publish(CheckoutStatusResponse status) {
+        Subscribers subs = subscribers.get(status.getOrderId());
+        if (subs == null) {
+            return;
+        }
+        synchronized (subs) {
+            if (status.equals(subs.lastSent)) {
+                return;
+            }
+            subs.lastSent = status;
+        }
+
+        for (SseEmitter emitter : subs.emitters) {
+            if (send(emitter, status) && status.isFinished()) {
+                emitter.complete();
+            }
+        }
+        if (status.isFinished()) {
+            subscribers.remove(status.getOrderId(), subs);
+        }
+    }
+
+    private void unsubscribe(Long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, subs) -> {
+            subs.emitters.remove(emitter);
+            return subs.emitters.isEmpty() ? null : subs;
+        });
+    }
+
+    private boolean send(SseEmitter emitter, CheckoutStatusResponse status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("checkout")
+                    .id(status.getState().name())
+                    .data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the completion callback removes the emitter
+            log.debug("Dropping checkout event stream for order {}: {}", status.getOrderId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscribers {
+        private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+        private CheckoutStatusResponse lastSent;
+    }
+}
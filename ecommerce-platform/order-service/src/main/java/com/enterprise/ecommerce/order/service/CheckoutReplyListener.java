@@ -0,0 +1,29 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds replies from checkout participants into the checkout saga.
+ * Replies are keyed by order ID, so the replies of one order are applied in order.
+ */
+@Component
+@Lazy(false)
+public class CheckoutReplyListener {
+
+    private final CheckoutSagaService sagaService;
+
+    public CheckoutReplyListener(CheckoutSagaService sagaService) {
+        this.sagaService = sagaService;
+    }
+
+    @KafkaListener(topics = CheckoutReply.TOPIC, containerFactory = "checkoutReplyListenerContainerFactory")
+    public void onCheckoutReply(CheckoutReply reply) {
+        // Records that failed to deserialize arrive as null
+        if (reply != null) {
+            sagaService.handleReply(reply);
+        }
+    }
+}
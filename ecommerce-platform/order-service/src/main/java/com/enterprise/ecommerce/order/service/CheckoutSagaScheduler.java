@@ -0,0 +1,51 @@
+package com.enterprise.ecommerce.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Periodic checkout saga housekeeping.
+ * Re-sends commands whose replies are overdue, and refreshes open progress streams so that
+ * clients connected to this instance see steps completed on other instances.
+ */
+@Component
+@Slf4j
+public class CheckoutSagaScheduler {
+
+    private final CheckoutSagaService sagaService;
+    private final CheckoutProgressNotifier progressNotifier;
+    private final int batchSize;
+
+    public CheckoutSagaScheduler(CheckoutSagaService sagaService,
+                                 CheckoutProgressNotifier progressNotifier,
+                                 @Value("${app.checkout.saga.timeout-batch-size:100}") int batchSize) {
+        this.sagaService = sagaService;
+        this.progressNotifier = progressNotifier;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.checkout.saga.scan-interval-ms:1000}")
+    public void handleOverdueSteps() {
+        for (Long orderId : sagaService.findOverdueOrderIds(batchSize)) {
+            try {
+                sagaService.handleTimeout(orderId);
+            } catch (OptimisticLockingFailureException e) {
+                // A reply or another instance moved the saga on first
+                log.debug("Checkout of order {} changed while handling its timeout", orderId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.checkout.progress.refresh-interval-ms:1000}")
+    public void refreshProgressStreams() {
+        Set<Long> orderIds = progressNotifier.watchedOrderIds();
+        if (!orderIds.isEmpty()) {
+            sagaService.getStatuses(orderIds).forEach(progressNotifier::publish);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.events.OrderPlacedEvent;
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
+import com.enterprise.ecommerce.common.id.SnowflakeIdGenerator;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import com.enterprise.ecommerce.order.dto.CheckoutStatusResponse;
+import com.enterprise.ecommerce.order.dto.CreateOrderRequest;
+import com.enterprise.ecommerce.order.entity.CheckoutSaga;
+import com.enterprise.ecommerce.order.entity.CheckoutState;
+import com.enterprise.ecommerce.order.entity.Order;
+import com.enterprise.ecommerce.order.entity.OrderItem;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.repository.CheckoutSagaRepository;
+import com.enterprise.ecommerce.order.repository.OrderItemRepository;
+import com.enterprise.ecommerce.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Orchestrates asynchronous checkout.
+ * <p>
+ * The request thread only stores the order as PENDING and starts the saga. Stock
+ * reservation, payment request and cart clearing then run as commands on Kafka, each
+ * answered by a reply that moves the saga on. A refused step, or one left unanswered
+ * after all attempts, rolls back the completed steps in reverse order and cancels the
+ * order. Commands are sent only after the state change that issues them has committed.
+ */
+@Service
+@Transactional
+@Slf4j
+public class CheckoutSagaService {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final CheckoutSagaRepository sagaRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final CheckoutProgressNotifier progressNotifier;
+    private final CacheManager cacheManager;
+    private final SnowflakeIdGenerator idGenerator;
+    private final OrderAnalyticsService analyticsService;
+    private final OrderPricing orderPricing;
+    private final Duration stepTimeout;
+    private final int maxAttempts;
+
+    public CheckoutSagaService(OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               CheckoutSagaRepository sagaRepository,
+                               KafkaProducerService kafkaProducerService,
+                               CheckoutProgressNotifier progressNotifier,
+                               CacheManager cacheManager,
+                               SnowflakeIdGenerator idGenerator,
+                               OrderAnalyticsService analyticsService,
+                               OrderPricing orderPricing,
+                               @Value("${app.checkout.saga.step-timeout-ms:10000}") long stepTimeoutMillis,
+                               @Value("${app.checkout.saga.max-attempts:3}") int maxAttempts) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.sagaRepository = sagaRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.progressNotifier = progressNotifier;
+        this.cacheManager = cacheManager;
+        this.idGenerator = idGenerator;
+        this.analyticsService = analyticsService;
+        this.orderPricing = orderPricing;
+        this.stepTimeout = Duration.ofMillis(stepTimeoutMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Accept an order for asynchronous checkout
+     */
+    public CheckoutStatusResponse startCheckout(CreateOrderRequest request) {
+        if (request.getPaymentMethod() == null || request.getPaymentMethod().trim().isEmpty()) {
+            throw new InvalidRequestException("Payment method is required for checkout");
+        }
+
+        Order order = new Order();
+        order.setOrderNumber(idGenerator.nextId(OrderService.ORDER_NUMBER_PREFIX));
+        order.setUserId(request.getUserId());
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress(request.getShippingAddress());
+        order.setNotes(request.getNotes());
+        order.setPromoCode(OrderPricing.normalizePromoCode(request.getPromoCode()));
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+
+        List<OrderItem> items = request.getItems().stream()
+                .map(itemRequest -> {
+                    OrderItem item = new OrderItem(itemRequest.getProductId(), itemRequest.getProductName(),
+                            itemRequest.getUnitPrice(), itemRequest.getQuantity());
+                    item.setProductImageUrl(itemRequest.getProductImageUrl());
+                    return item;
+                })
+                .toList();
+
+        // Provisional amounts; the items are repriced from the catalog once stock is reserved
+        orderPricing.applyTotals(order, items, request.getDiscountAmount());
+
+        Order savedOrder = orderRepository.save(order);
+        items.forEach(item -> item.setOrder(savedOrder));
+        orderItemRepository.saveAll(items);
+
+        CheckoutSaga saga = new CheckoutSaga(savedOrder.getId(),
+                request.getPaymentMethod().trim().toUpperCase(Locale.ROOT));
+        enterState(saga, savedOrder, items, CheckoutState.RESERVING_STOCK);
+        sagaRepository.save(saga);
+
+        log.info("Accepted order {} for checkout", savedOrder.getOrderNumber());
+        return toStatus(saga, savedOrder);
+    }
+
+    /**
+     * Get the checkout progress of an order
+     */
+    @Transactional(readOnly = true)
+    public CheckoutStatusResponse getStatus(Long orderId) {
+        CheckoutSaga saga = sagaRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("No checkout found for order: " + orderId));
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        return toStatus(saga, order);
+    }
+
+    /**
+     * Get the checkout progress of several orders; orders without a checkout are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<CheckoutStatusResponse> getStatuses(Collection<Long> orderIds) {
+        Map<Long, Order> orders = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return sagaRepository.findAllById(orderIds).stream()
+                .filter(saga -> orders.containsKey(saga.getOrderId()))
+                .map(saga -> toStatus(saga, orders.get(saga.getOrderId())))
+                .toList();
+    }
+
+    /**
+     * Apply the reply of a participant; replies the saga is no longer waiting for are ignored
+     */
+    public void handleReply(CheckoutReply reply) {
+        Long orderId = Long.valueOf(reply.getOrderId());
+        CheckoutSaga saga = sagaRepository.findById(orderId).orElse(null);
+        if (saga == null || !saga.getState().awaits(reply.getStep(), reply.getAction())) {
+            log.debug("Ignoring stale checkout reply {} {} for order {}", reply.getStep(), reply.getAction(), orderId);
+            return;
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+
+        CheckoutState next;
+        if (reply.isSuccess()) {
+            if (saga.getState() == CheckoutState.RESERVING_STOCK) {
+                applyCatalogPrices(order, items, reply.getItems());
+            } else if (saga.getState() == CheckoutState.REQUESTING_PAYMENT) {
+                saga.setPaymentId(reply.getPaymentId());
+            }
+            next = saga.getState().onSuccess();
+        } else {
+            log.info("Checkout of order {} refused at {}: {}", orderId, saga.getState(), reply.getReason());
+            next = saga.getState().onFailure();
+            recordFailure(saga, next, reply.getReason());
+        }
+        transition(saga, order, items, next);
+    }
+
+    /**
+     * Find open sagas whose current step is overdue
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findOverdueOrderIds(int limit) {
+        return sagaRepository.findOverdueOrderIds(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Re-send the command of an overdue step, or give up on the step once all attempts are used
+     */
+    public void handleTimeout(Long orderId) {
+        CheckoutSaga saga = sagaRepository.findById(orderId).orElse(null);
+        if (saga == null || saga.getState().isTerminal() || saga.getStepDeadline().isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+
+        if (saga.getAttempts() < maxAttempts) {
+            saga.setAttempts(saga.getAttempts() + 1);
+            saga.setStepDeadline(LocalDateTime.now().plus(stepTimeout));
+            sendAfterCommit(saga, order, items);
+            log.info("Re-sending {} for order {} (attempt {})", saga.getState(), orderId, saga.getAttempts());
+            return;
+        }
+
+        log.warn("Checkout of order {} got no reply at {} after {} attempts", orderId, saga.getState(), saga.getAttempts());
+        CheckoutState next = saga.getState().onTimeout();
+        recordFailure(saga, next, "No reply from " + saga.getState().getStep() + " step");
+        transition(saga, order, items, next);
+    }
+
+    // Private helper methods
+
+    private void transition(CheckoutSaga saga, Order order, List<OrderItem> items, CheckoutState next) {
+        enterState(saga, order, items, next);
+
+        if (next == CheckoutState.COMPLETED) {
+            // The order counts as placed only now, at its final catalog-priced totals
+            analyticsService.recordPlaced(order);
+            OrderPlacedEvent event = OrderService.toOrderPlacedEvent(order, items);
+            afterCommit(() -> kafkaProducerService.sendMessage("order-events", event.getOrderId(), event));
+            log.info("Checkout of order {} completed", order.getOrderNumber());
+        } else if (next == CheckoutState.FAILED) {
+            order.updateStatus(OrderStatus.CANCELLED);
+            String note = "Checkout failed: " + (saga.getFailureReason() != null ? saga.getFailureReason() : "unknown reason");
+            order.setNotes(order.getNotes() != null ? order.getNotes() + "\n" + note : note);
+            log.info("Checkout of order {} failed: {}", order.getOrderNumber(), saga.getFailureReason());
+        }
+
+        afterCommit(() -> {
+            Cache orders = cacheManager.getCache("orders");
+            if (orders != null) {
+                orders.evict(order.getId());
+            }
+        });
+    }
+
+    private void enterState(CheckoutSaga saga, Order order, List<OrderItem> items, CheckoutState state) {
+        saga.setState(state);
+        saga.setAttempts(state.isTerminal() ? saga.getAttempts() : 1);
+        saga.setStepDeadline(LocalDateTime.now().plus(stepTimeout));
+        if (!state.isTerminal()) {
+            sendAfterCommit(saga, order, items);
+        }
+
+        CheckoutStatusResponse status = toStatus(saga, order);
+        afterCommit(() -> progressNotifier.publish(status));
+    }
+
+    private void recordFailure(CheckoutSaga saga, CheckoutState next, String reason) {
+        // A cart that could not be cleared does not fail the checkout
+        if (next != CheckoutState.COMPLETED && saga.getFailureReason() == null) {
+            saga.setFailureReason(reason);
+        }
+    }
+
+    private void applyCatalogPrices(Order order, List<OrderItem> items, List<CheckoutReply.PricedItem> pricedItems) {
+        if (pricedItems == null || pricedItems.isEmpty()) {
+            return;
+        }
+        BigDecimal manualDiscount = orderPricing.manualDiscount(order, items);
+        Map<String, CheckoutReply.PricedItem> byProductId = pricedItems.stream()
+                .collect(Collectors.toMap(CheckoutReply.PricedItem::getProductId, Function.identity(), (a, b) -> a));
+        for (OrderItem item : items) {
+            CheckoutReply.PricedItem priced = byProductId.get(item.getProductId().toString());
+            if (priced != null && priced.getUnitPrice() != null) {
+                item.setUnitPrice(priced.getUnitPrice());
+                item.setProductName(priced.getProductName());
+                item.setProductImageUrl(priced.getImageUrl());
+            }
+        }
+        orderPricing.applyTotals(order, items, manualDiscount);
+    }
+
+    private void sendAfterCommit(CheckoutSaga saga, Order order, List<OrderItem> items) {
+        CheckoutCommand command = CheckoutCommand.builder()
+                .orderId(order.getId().toString())
+                .step(saga.getState().getStep())
+                .action(saga.getState().getAction())
+                .userId(order.getUserId().toString())
+                .amount(order.getTotalAmount())
+                .currency("USD")
+                .paymentMethod(saga.getPaymentMethod())
+                .items(items.stream()
+                        .map(item -> CheckoutCommand.Item.builder()
+                                .productId(item.getProductId().toString())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .toList())
+                .attempt(saga.getAttempts())
+                .issuedAt(LocalDateTime.now())
+                .build();
+        afterCommit(() -> kafkaProducerService.sendMessage(CheckoutCommand.TOPIC, command.getOrderId(), command));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private CheckoutStatusResponse toStatus(CheckoutSaga saga, Order order) {
+        CheckoutStatusResponse response = new CheckoutStatusResponse();
+        response.setOrderId(order.getId());
+        response.setOrderNumber(order.getOrderNumber());
+        response.setState(saga.getState());
+        response.setFinished(saga.getState().isTerminal());
+        response.setOrderStatus(order.getStatus());
+        response.setTotalAmount(order.getTotalAmount());
+        response.setPaymentId(saga.getPaymentId());
+        response.setFailureReason(saga.getFailureReason());
+        response.setUpdatedAt(LocalDateTime.now());
+        return response;
+    }
+}
@@ -0,0 +1,227 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.order.dto.OrderAnalyticsResponse;
+import com.enterprise.ecommerce.order.dto.OrderMetrics;
+import com.enterprise.ecommerce.order.entity.Order;
+import com.enterprise.ecommerce.order.entity.OrderRollup;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.entity.RollupGranularity;
+import com.enterprise.ecommerce.order.repository.OrderRepository;
+import com.enterprise.ecommerce.order.repository.OrderRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for order analytics
+ * <p>
+ * Order writes add their metrics to per-minute rollup buckets in the same transaction, so
+ * the rollups never drift from the orders table. Old minute buckets are compacted into hour
+ * buckets and old hour buckets into day buckets. A query over any range sums the buckets
+ * starting within it, whatever their granularity; ranges are therefore resolved to the
+ * minute for recent data and to the hour or day for older data.
+ */
+@Service
+@Transactional
+@Slf4j
+public class OrderAnalyticsService {
+
+    private final OrderRollupRepository rollupRepository;
+    private final int shards;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final int maxIntervals;
+
+    public OrderAnalyticsService(OrderRollupRepository rollupRepository,
+                                 @Value("${app.analytics.rollup-shards:8}") int shards,
+                                 @Value("${app.analytics.minute-retention-hours:48}") long minuteRetentionHours,
+                                 @Value("${app.analytics.hour-retention-days:35}") long hourRetentionDays,
+                                 @Value("${app.analytics.max-intervals:2000}") int maxIntervals) {
+        this.rollupRepository = rollupRepository;
+        this.shards = Math.max(1, Math.min(shards, Short.MAX_VALUE));
+        this.minuteRetention = Duration.ofHours(minuteRetentionHours);
+        this.hourRetention = Duration.ofDays(hourRetentionDays);
+        this.maxIntervals = maxIntervals;
+    }
+
+    /**
+     * Count a newly placed order; joins the transaction that places it
+     */
+    public void recordPlaced(Order order) {
+        OrderRollup delta = newDelta(order);
+        delta.setOrderCount(1);
+        delta.setRevenue(amountOf(order.getTotalAmount()));
+        delta.setTaxAmount(amountOf(order.getTaxAmount()));
+        delta.setShippingAmount(amountOf(order.getShippingAmount()));
+        delta.setDiscountAmount(amountOf(order.getDiscountAmount()));
+        rollupRepository.add(delta);
+    }
+
+    /**
+     * Count an order entering a new status; joins the transaction that changes it
+     */
+    public void recordStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+
+        OrderRollup delta = newDelta(order.getId());
+        if (addStatusChange(delta, newStatus, order.getTotalAmount())) {
+            rollupRepository.add(delta);
+        }
+    }
+
+    /**
+     * Count many orders entering the same status with one upsert per shard; joins the
+     * transaction that changes them
+     */
+    public void recordStatusChanges(Collection<OrderRepository.OrderStatusSnapshot> orders, OrderStatus newStatus) {
+        OrderRollup[] deltas = new OrderRollup[shards];
+        for (OrderRepository.OrderStatusSnapshot order : orders) {
+            if (order.getStatus() == newStatus) {
+                continue;
+            }
+            int shard = shardOf(order.getId());
+            if (deltas[shard] == null) {
+                deltas[shard] = newDelta(order.getId());
+            }
+            if (!addStatusChange(deltas[shard], newStatus, order.getTotalAmount())) {
+                return;
+            }
+        }
+        for (OrderRollup delta : deltas) {
+            if (delta != null) {
+                rollupRepository.add(delta);
+            }
+        }
+    }
+
+    /**
+     * Get order metrics for a time range, optionally broken down per interval
+     */
+    @Transactional(readOnly = true)
+    public OrderAnalyticsResponse getAnalytics(LocalDateTime from, LocalDateTime to, RollupGranularity interval) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidRequestException("Analytics range must have a start before its end");
+        }
+        if (interval != null && interval.getUnit().between(interval.truncate(from), to) > maxIntervals) {
+            throw new InvalidRequestException("Analytics range spans more than " + maxIntervals + " "
+                    + interval.name().toLowerCase() + " intervals; use a coarser interval");
+        }
+
+        OrderAnalyticsResponse response = new OrderAnalyticsResponse();
+        response.setFrom(from);
+        response.setTo(to);
+        response.setInterval(interval);
+        response.setTotals(toMetrics(rollupRepository.sumBetween(from, to)));
+        if (interval != null) {
+            response.setIntervals(rollupRepository.sumBetweenPerInterval(from, to, interval.sqlUnit()).stream()
+                    .map(this::toMetrics)
+                    .toList());
+        }
+        return response;
+    }
+
+    /**
+     * Fold minute buckets older than the minute retention into hour buckets, and hour
+     * buckets older than the hour retention into day buckets
+     */
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        // Cutoffs fall on coarse bucket boundaries so a coarse bucket is never left half-merged
+        LocalDateTime minuteCutoff = now.minus(minuteRetention).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hourCutoff = now.minus(hourRetention).truncatedTo(ChronoUnit.DAYS);
+
+        int hours = rollupRepository.compact(RollupGranularity.MINUTE.name(), RollupGranularity.HOUR.name(),
+                RollupGranularity.HOUR.sqlUnit(), minuteCutoff);
+        int days = rollupRepository.compact(RollupGranularity.HOUR.name(), RollupGranularity.DAY.name(),
+                RollupGranularity.DAY.sqlUnit(), hourCutoff);
+        if (hours > 0 || days > 0) {
+            log.info("Compacted order rollups into {} hour and {} day buckets", hours, days);
+        }
+    }
+
+    // Private helper methods
+
+    private OrderRollup newDelta(Order order) {
+        return newDelta(order.getId());
+    }
+
+    private OrderRollup newDelta(long orderId) {
+        LocalDateTime bucketStart = RollupGranularity.MINUTE.truncate(LocalDateTime.now());
+        return new OrderRollup(bucketStart, RollupGranularity.MINUTE, (short) shardOf(orderId));
+    }
+
+    private int shardOf(long orderId) {
+        return Math.floorMod(orderId, shards);
+    }
+
+    /**
+     * Add one order entering the status to the delta; false for statuses that are not counted
+     */
+    private static boolean addStatusChange(OrderRollup delta, OrderStatus newStatus, BigDecimal totalAmount) {
+        switch (newStatus) {
+            case CONFIRMED -> delta.setConfirmedCount(delta.getConfirmedCount() + 1);
+            case PROCESSING -> delta.setProcessingCount(delta.getProcessingCount() + 1);
+            case SHIPPED -> delta.setShippedCount(delta.getShippedCount() + 1);
+            case DELIVERED -> delta.setDeliveredCount(delta.getDeliveredCount() + 1);
+            case CANCELLED -> {
+                delta.setCancelledCount(delta.getCancelledCount() + 1);
+                delta.setCancelledAmount(delta.getCancelledAmount().add(amountOf(totalAmount)));
+            }
+            case REFUNDED -> {
+                delta.setRefundedCount(delta.getRefundedCount() + 1);
+                delta.setRefundedAmount(delta.getRefundedAmount().add(amountOf(totalAmount)));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OrderMetrics toMetrics(OrderRollupRepository.RollupTotals totals) {
+        OrderMetrics metrics = new OrderMetrics();
+        metrics.setStart(totals.getBucketStart());
+        metrics.setOrderCount(totals.getOrderCount());
+        metrics.setRevenue(totals.getRevenue());
+        metrics.setTaxAmount(totals.getTaxAmount());
+        metrics.setShippingAmount(totals.getShippingAmount());
+        metrics.setDiscountAmount(totals.getDiscountAmount());
+        metrics.setCancelledAmount(totals.getCancelledAmount());
+        metrics.setRefundedAmount(totals.getRefundedAmount());
+        metrics.setNetRevenue(totals.getRevenue()
+                .subtract(totals.getCancelledAmount())
+                .subtract(totals.getRefundedAmount()));
+        metrics.setAverageOrderValue(totals.getOrderCount() > 0
+                ? totals.getRevenue().divide(BigDecimal.valueOf(totals.getOrderCount()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+
+        Map<OrderStatus, Long> transitions = new EnumMap<>(OrderStatus.class);
+        transitions.put(OrderStatus.PENDING, totals.getOrderCount());
+        transitions.put(OrderStatus.CONFIRMED, totals.getConfirmedCount());
+        transitions.put(OrderStatus.PROCESSING, totals.getProcessingCount());
+        transitions.put(OrderStatus.SHIPPED, totals.getShippedCount());
+        transitions.put(OrderStatus.DELIVERED, totals.getDeliveredCount());
+        transitions.put(OrderStatus.CANCELLED, totals.getCancelledCount());
+        transitions.put(OrderStatus.REFUNDED, totals.getRefundedCount());
+        metrics.setStatusTransitions(transitions);
+        return metrics;
+    }
+
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,96 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.util.LongObjectMap;
+import com.enterprise.ecommerce.order.entity.ArchivedOrder;
+import com.enterprise.ecommerce.order.entity.Order;
+import com.enterprise.ecommerce.order.entity.OrderItem;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.repository.ArchivedOrderRepository;
+import com.enterprise.ecommerce.order.repository.OrderArchiveCodec;
+import com.enterprise.ecommerce.order.repository.OrderItemRepository;
+import com.enterprise.ecommerce.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for order storage housekeeping: monthly partitions and the archive of closed orders
+ */
+@Service
+@Transactional
+@Slf4j
+public class OrderArchiveService {
+
+    /**
+     * Statuses an order no longer leaves, other than for a refund of a delivered order
+     */
+    static final List<String> CLOSED_STATUSES = List.of(
+            OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name(), OrderStatus.REFUNDED.name());
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveCodec codec;
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               OrderArchiveCodec codec) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.codec = codec;
+    }
+
+    /**
+     * Move one batch of closed orders created before the cutoff to the archive
+     *
+     * @return the number of orders archived
+     */
+    public int archiveClosedOrders(LocalDateTime cutoff, int batchSize) {
+        List<Order> orders = orderRepository.lockOrdersCreatedBefore(cutoff, CLOSED_STATUSES, batchSize);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        LocalDateTime oldest = orders.get(0).getCreatedAt();
+        LongObjectMap<List<OrderItem>> itemsByOrderId = new LongObjectMap<>(orders.size());
+        for (OrderItem item : orderItemRepository.findByOrderIdInCreatedBetween(orderIds, oldest, cutoff)) {
+            itemsByOrderId.computeIfAbsent(item.getOrder().getId(), orderId -> new ArrayList<>()).add(item);
+        }
+
+        List<ArchivedOrder> archived = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            archived.add(codec.archive(order, itemsByOrderId.getOrDefault(order.getId(), List.of())));
+        }
+        archivedOrderRepository.saveAll(archived);
+        orderRepository.deleteCreatedBefore(orderIds, cutoff);
+        return orders.size();
+    }
+
+    /**
+     * Make sure the partitions for the current month and the given number of months after it exist
+     */
+    public void createPartitions(int monthsAhead) {
+        int created = orderRepository.createPartitions(LocalDate.now().withDayOfMonth(1), monthsAhead + 1);
+        if (created > 0) {
+            log.info("Created {} monthly order partitions", created);
+        }
+    }
+
+    /**
+     * Drop the monthly partitions ending on or before the given date that no longer hold orders
+     */
+    public void dropEmptyPartitions(LocalDate before) {
+        int dropped = orderRepository.dropEmptyPartitions(before);
+        if (dropped > 0) {
+            log.info("Dropped {} empty monthly order partitions before {}", dropped, before);
+        }
+    }
+}
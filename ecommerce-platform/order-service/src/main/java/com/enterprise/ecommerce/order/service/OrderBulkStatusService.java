@@ -0,0 +1,200 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.events.OrderStatusChangedEvent;
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import com.enterprise.ecommerce.common.util.LongObjectMap;
+import com.enterprise.ecommerce.order.dto.BulkStatusUpdateRequest;
+import com.enterprise.ecommerce.order.dto.BulkStatusUpdateResponse;
+import com.enterprise.ecommerce.order.entity.OrderStatus;
+import com.enterprise.ecommerce.order.repository.OrderRepository;
+import com.enterprise.ecommerce.order.repository.OrderRepository.OrderStatusSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for moving many orders to the same status at once
+ * <p>
+ * Orders are processed in chunks, each in its own short transaction: one query reads the
+ * current statuses, transitions are validated in memory, and one UPDATE per status read
+ * moves the valid orders guarded on that status, so concurrent changes are not
+ * overwritten. Once a chunk commits its cache entries are evicted with a single Redis
+ * DEL and its status-change events are handed to Kafka as one batch.
+ */
+@Service
+@Slf4j
+public class OrderBulkStatusService {
+
+    private static final String ORDERS_CACHE = "orders";
+    private static final String ORDER_EVENTS_TOPIC = "order-events";
+
+    private final OrderRepository orderRepository;
+    private final OrderAnalyticsService analyticsService;
+    private final KafkaProducerService kafkaProducerService;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOrders;
+    private final int batchSize;
+
+    public OrderBulkStatusService(OrderRepository orderRepository,
+                                  OrderAnalyticsService analyticsService,
+                                  KafkaProducerService kafkaProducerService,
+                                  CacheManager cacheManager,
+                                  StringRedisTemplate redisTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.orders.bulk-status.max-orders:20000}") int maxOrders,
+                                  @Value("${app.orders.bulk-status.batch-size:1000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.analyticsService = analyticsService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOrders = maxOrders;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Move the requested orders to the requested status; orders that cannot make the
+     * transition are reported and left unchanged
+     */
+    public BulkStatusUpdateResponse updateStatuses(BulkStatusUpdateRequest request) {
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        orderIds.remove(null);
+        if (orderIds.size() > maxOrders) {
+            throw new InvalidRequestException("At most " + maxOrders + " orders can be updated at once");
+        }
+
+        OrderStatus status = request.getStatus();
+        String note = request.getNotes() != null && !request.getNotes().isBlank() ? request.getNotes() : null;
+        BulkStatusUpdateResponse response = new BulkStatusUpdateResponse(status, orderIds.size());
+        for (int from = 0; from < orderIds.size(); from += batchSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + batchSize, orderIds.size()));
+            transactionTemplate.executeWithoutResult(tx -> updateChunk(chunk, status, note, response));
+        }
+
+        log.info("Bulk status update to {}: {} requested, {} updated, {} unchanged, {} rejected",
+                status, response.getRequested(), response.getUpdated(), response.getUnchanged(),
+                response.getRejected().size());
+        return response;
+    }
+
+    private void updateChunk(List<Long> orderIds, OrderStatus status, String note, BulkStatusUpdateResponse response) {
+        LongObjectMap<OrderStatusSnapshot> snapshots = new LongObjectMap<>(orderIds.size());
+        for (OrderStatusSnapshot snapshot : orderRepository.findStatusSnapshots(orderIds)) {
+            snapshots.put(snapshot.getId(), snapshot);
+        }
+
+        List<Long> transitionIds = new ArrayList<>(orderIds.size());
+        Map<OrderStatus, List<Long>> idsByStatus = new EnumMap<>(OrderStatus.class);
+        LocalDateTime oldest = null;
+        LocalDateTime newest = null;
+        for (Long orderId : orderIds) {
+            OrderStatusSnapshot snapshot = snapshots.get(orderId);
+            if (snapshot == null) {
+                response.getRejected().add(new BulkStatusUpdateResponse.Rejection(orderId, null,
+                        "Order not found or archived"));
+            } else if (snapshot.getStatus() == status) {
+                response.setUnchanged(response.getUnchanged() + 1);
+            } else if (!snapshot.getStatus().canTransitionTo(status)) {
+                response.getRejected().add(new BulkStatusUpdateResponse.Rejection(orderId, snapshot.getStatus(),
+                        "Cannot move from " + snapshot.getStatus() + " to " + status));
+            } else {
+                transitionIds.add(orderId);
+                idsByStatus.computeIfAbsent(snapshot.getStatus(), source -> new ArrayList<>()).add(orderId);
+                LocalDateTime createdAt = snapshot.getCreatedAt();
+                oldest = oldest == null || createdAt.isBefore(oldest) ? createdAt : oldest;
+                newest = newest == null || createdAt.isAfter(newest) ? createdAt : newest;
+            }
+        }
+        if (transitionIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> updatedIds = new HashSet<>(transitionIds.size());
+        for (Map.Entry<OrderStatus, List<Long>> group : idsByStatus.entrySet()) {
+            updatedIds.addAll(orderRepository.transitionStatus(
+                    group.getValue(), oldest, newest, group.getKey().name(), status.name(), note, now));
+        }
+
+        List<OrderStatusSnapshot> updated = new ArrayList<>(updatedIds.size());
+        for (Long orderId : transitionIds) {
+            if (updatedIds.contains(orderId)) {
+                updated.add(snapshots.get(orderId));
+            } else {
+                response.getRejected().add(new BulkStatusUpdateResponse.Rejection(orderId, null,
+                        "Order was changed concurrently"));
+            }
+        }
+        response.setUpdated(response.getUpdated() + updated.size());
+        analyticsService.recordStatusChanges(updated, status);
+
+        List<OrderStatusChangedEvent> events = updated.stream()
+                .map(order -> OrderStatusChangedEvent.builder()
+                        .orderId(order.getId().toString())
+                        .orderNumber(order.getOrderNumber())
+                        .userId(order.getUserId().toString())
+                        .previousStatus(order.getStatus().name())
+                        .status(status.name())
+                        .changedAt(now)
+                        .build())
+                .toList();
+        List<Long> evictIds = updated.stream().map(OrderStatusSnapshot::getId).toList();
+        afterCommit(() -> {
+            evictCachedOrders(evictIds);
+            kafkaProducerService.sendMessages(ORDER_EVENTS_TOPIC, events, OrderStatusChangedEvent::getOrderId);
+        });
+    }
+
+    /**
+     * Remove the cached responses of the orders, in one round trip when the cache is Redis
+     */
+    private void evictCachedOrders(List<Long> orderIds) {
+        Cache cache = cacheManager.getCache(ORDERS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            orderIds.forEach(cache::evict);
+            return;
+        }
+
+        String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(ORDERS_CACHE);
+        List<String> keys = orderIds.stream().map(orderId -> prefix + orderId).toList();
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            // Entries expire with the cache TTL; a failed eviction must not fail the update
+            log.warn("Could not evict {} cached orders: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
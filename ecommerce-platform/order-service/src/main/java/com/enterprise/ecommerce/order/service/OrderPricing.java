@@ -0,0 +1,80 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.order.entity.Order;
+import com.enterprise.ecommerce.order.entity.OrderItem;
+import com.enterprise.ecommerce.order.entity.ShippingAddress;
+import com.enterprise.ecommerce.pricing.Basket;
+import com.enterprise.ecommerce.pricing.BasketLine;
+import com.enterprise.ecommerce.pricing.Money;
+import com.enterprise.ecommerce.pricing.PriceQuote;
+import com.enterprise.ecommerce.pricing.PricingEngine;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Order amount calculation shared by synchronous and saga checkout
+ * <p>
+ * Tax, shipping and promotions come from the pricing rules; a discount amount given with
+ * the order request is taken off the total on top of them.
+ */
+@Component
+class OrderPricing {
+
+    private final PricingEngine pricingEngine;
+
+    OrderPricing(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    /**
+     * Set the tax, shipping, discount and total amounts of an order from its items
+     */
+    void applyTotals(Order order, List<OrderItem> items, BigDecimal manualDiscount) {
+        PriceQuote quote = pricingEngine.price(toBasket(order, items, manualDiscount));
+
+        order.setTotalAmount(quote.totalAmount());
+        order.setTaxAmount(quote.taxAmount());
+        order.setShippingAmount(quote.shippingAmount());
+        order.setDiscountAmount(quote.discountAmount());
+    }
+
+    /**
+     * Promo code as stored on the order: trimmed and upper-cased, or null when blank
+     */
+    static String normalizePromoCode(String promoCode) {
+        if (promoCode == null || promoCode.isBlank()) {
+            return null;
+        }
+        return promoCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Part of an order's discount that was requested rather than granted by a rule, so the
+     * order can be repriced without counting its promotions twice
+     */
+    BigDecimal manualDiscount(Order order, List<OrderItem> items) {
+        if (order.getDiscountAmount() == null) {
+            return BigDecimal.ZERO;
+        }
+        PriceQuote quote = pricingEngine.price(toBasket(order, items, null));
+        return order.getDiscountAmount().subtract(quote.promotionDiscountAmount()).max(BigDecimal.ZERO);
+    }
+
+    private static Basket toBasket(Order order, List<OrderItem> items, BigDecimal manualDiscount) {
+        List<BasketLine> lines = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            lines.add(new BasketLine(item.getProductId(), item.getQuantity(), Money.toMinorUnits(item.getUnitPrice())));
+        }
+        ShippingAddress address = order.getShippingAddress();
+        List<String> promoCodes = order.getPromoCode() != null ? List.of(order.getPromoCode()) : List.of();
+        return new Basket(lines,
+                address != null ? address.getCountry() : null,
+                address != null ? address.getState() : null,
+                promoCodes,
+                Money.toMinorUnits(manualDiscount));
+    }
+}
@@ -0,0 +1,31 @@
+package com.enterprise.ecommerce.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compacts old order rollup buckets into coarser ones.
+ * Safe to run on every instance: each compaction moves its rows in a single statement.
+ */
+@Component
+@Slf4j
+public class OrderRollupCompactor {
+
+    private final OrderAnalyticsService analyticsService;
+
+    public OrderRollupCompactor(OrderAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.compaction-interval-ms:300000}",
+               initialDelayString = "${app.analytics.compaction-interval-ms:300000}")
+    public void compactRollups() {
+        try {
+            analyticsService.compact();
+        } catch (DataAccessException e) {
+            log.warn("Order rollup compaction failed: {}", e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.enterprise.ecommerce.common.exception.InvalidRequestException;
 import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
 import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
 import com.enterprise.ecommerce.common.events.OrderPlacedEvent;
+import com.enterprise.ecommerce.common.events.OrderStatusChangedEvent;
+import com.enterprise.ecommerce.common.id.SnowflakeIdGenerator;
+import com.enterprise.ecommerce.common.util.LongObjectMap;
 import com.enterprise.ecommerce.order.dto.*;
 import com.enterprise.ecommerce.order.entity.Order;
 import com.enterprise.ecommerce.order.entity.OrderItem;
@@ -17,14 +20,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Service for order management
@@ -37,29 +43,38 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final RestTemplate restTemplate;
+    private final ProductClient productClient;
     private final KafkaProducerService kafkaProducerService;
+    private final SnowflakeIdGenerator idGenerator;
+    private final OrderAnalyticsService analyticsService;
+    private final OrderPricing orderPricing;
 
-    // Tax and shipping constants
-    private static final BigDecimal TAX_RATE = BigDecimal.valueOf(0.08); // 8% tax
-    private static final BigDecimal SHIPPING_RATE = BigDecimal.valueOf(9.99);
-    private static final BigDecimal FREE_SHIPPING_THRESHOLD = BigDecimal.valueOf(100.00);
+    static final String ORDER_NUMBER_PREFIX = "ORD-";
 
     public OrderService(OrderRepository orderRepository, 
                        OrderItemRepository orderItemRepository,
                        RestTemplate restTemplate,
-                       KafkaProducerService kafkaProducerService) {
+                       ProductClient productClient,
+                       KafkaProducerService kafkaProducerService,
+                       SnowflakeIdGenerator idGenerator,
+                       OrderAnalyticsService analyticsService,
+                       OrderPricing orderPricing) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.restTemplate = restTemplate;
+        this.productClient = productClient;
         this.kafkaProducerService = kafkaProducerService;
+        this.idGenerator = idGenerator;
+        this.analyticsService = analyticsService;
+        this.orderPricing = orderPricing;
     }
 
     /**
      * Create a new order
      */
     public OrderResponse createOrder(CreateOrderRequest request) {
-        // Validate cart items exist and get product details
-        validateAndEnrichOrderItems(request.getItems());
+        // Validate products and price the items from the catalog in one lookup
+        List<OrderItem> orderItems = validateAndEnrichOrderItems(request.getItems());
 
         // Create order entity
         Order order = new Order();
@@ -68,52 +83,26 @@ public class OrderService {
         order.setStatus(OrderStatus.PENDING);
         order.setShippingAddress(request.getShippingAddress());
         order.setNotes(request.getNotes());
+        order.setPromoCode(OrderPricing.normalizePromoCode(request.getPromoCode()));
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
 
         // Calculate amounts
-        BigDecimal subtotal = calculateSubtotal(request.getItems());
-        BigDecimal taxAmount = calculateTax(subtotal);
-        BigDecimal shippingAmount = calculateShipping(subtotal);
-        BigDecimal discountAmount = request.getDiscountAmount() != null ? 
-            request.getDiscountAmount() : BigDecimal.ZERO;
-        BigDecimal totalAmount = subtotal.add(taxAmount).add(shippingAmount).subtract(discountAmount);
-
-        order.setTotalAmount(totalAmount);
-        order.setTaxAmount(taxAmount);
-        order.setShippingAmount(shippingAmount);
-        order.setDiscountAmount(discountAmount);
+        orderPricing.applyTotals(order, orderItems, request.getDiscountAmount());
 
         // Save order
         Order savedOrder = orderRepository.save(order);
 
-        // Create and save order items
-        List<OrderItem> orderItems = createOrderItems(savedOrder, request.getItems());
-        if (orderItems != null && !orderItems.isEmpty()) {
-            orderItemRepository.saveAll(orderItems);
-        }
+        // Save order items
+        orderItems.forEach(item -> item.setOrder(savedOrder));
+        orderItemRepository.saveAll(orderItems);
+        analyticsService.recordPlaced(savedOrder);
 
         // Clear user's cart (call cart service)
         clearUserCart(request.getUserId());
 
         // Publish order placed event
-        OrderPlacedEvent event = OrderPlacedEvent.builder()
-                .orderId(savedOrder.getId().toString())
-                .userId(savedOrder.getUserId().toString())
-                .totalAmount(savedOrder.getTotalAmount())
-                .currency("USD")
-                .items(orderItems != null ? orderItems.stream()
-                        .map((OrderItem item) -> OrderPlacedEvent.OrderItem.builder()
-                                .productId(item.getProductId().toString())
-                                .productName(item.getProductName())
-                                .quantity(item.getQuantity())
-                                .unitPrice(item.getUnitPrice())
-                                .totalPrice(item.getSubtotal())
-                                .build())
-                        .toList() : List.of())
-                .orderedAt(savedOrder.getCreatedAt())
-                .build();
-
+        OrderPlacedEvent event = toOrderPlacedEvent(savedOrder, orderItems);
         kafkaProducerService.sendMessage("order-events", savedOrder.getId().toString(), event);
         log.info("Published OrderPlacedEvent for order: {}", savedOrder.getId());
 
@@ -132,22 +121,20 @@ public class OrderService {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
-            List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+            List<OrderItem> items = orderItemRepository.findByOrderIdAndOrderCreatedAt(orderId, order.getCreatedAt());
             return Optional.of(convertToOrderResponse(order, items));
         }
-        return Optional.empty();
+        return orderRepository.findArchivedById(orderId)
+                .map(order -> convertToOrderResponse(order, order.getItems()));
     }
 
     /**
-     * Get orders by user ID
+     * Get orders by user ID, archived orders included
      */
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByUserId(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return orders.map(order -> {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            return convertToOrderResponse(order, items);
-        });
+        Page<Order> orders = orderRepository.findByUserIdIncludingArchived(userId, pageable);
+        return convertToOrderResponses(orders);
     }
 
     /**
@@ -156,10 +143,16 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrders(Pageable pageable) {
         Page<Order> orders = orderRepository.findAllByOrderByCreatedAtDesc(pageable);
-        return orders.map(order -> {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            return convertToOrderResponse(order, items);
-        });
+        return convertToOrderResponses(orders);
+    }
+
+    /**
+     * Get orders created within a range
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getOrdersCreatedBetween(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        Page<Order> orders = orderRepository.findCreatedBetween(from, to, pageable);
+        return convertToOrderResponses(orders);
     }
 
     /**
@@ -170,8 +163,7 @@ public class OrderService {
         if (orderId == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        Order order = findLiveOrder(orderId);
 
         OrderStatus oldStatus = order.getStatus();
         order.setStatus(request.getStatus());
@@ -209,7 +201,8 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        analyticsService.recordStatusChange(savedOrder, oldStatus, request.getStatus());
+        List<OrderItem> items = orderItemRepository.findByOrderIdAndOrderCreatedAt(orderId, savedOrder.getCreatedAt());
 
         // Send status update notification (integrate with notification service)
         sendStatusUpdateNotification(savedOrder, oldStatus, request.getStatus());
@@ -225,13 +218,13 @@ public class OrderService {
         if (orderId == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        Order order = findLiveOrder(orderId);
 
         if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
             throw new InvalidRequestException("Cannot cancel order with status: " + order.getStatus());
         }
 
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         order.setCancelledAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
@@ -242,7 +235,9 @@ public class OrderService {
         }
 
         Order savedOrder = orderRepository.save(order);
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        analyticsService.recordStatusChange(savedOrder, oldStatus, OrderStatus.CANCELLED);
+        List<OrderItem> items = orderItemRepository.findByOrderIdAndOrderCreatedAt(orderId, savedOrder.getCreatedAt());
+        sendStatusUpdateNotification(savedOrder, oldStatus, OrderStatus.CANCELLED);
 
         return convertToOrderResponse(savedOrder, items);
     }
@@ -253,56 +248,84 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         Page<Order> orders = orderRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
-        return orders.map(order -> {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-            return convertToOrderResponse(order, items);
-        });
+        return convertToOrderResponses(orders);
+    }
+
+    /**
+     * Get orders by status created within a range
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getOrdersByStatus(OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                                 Pageable pageable) {
+        Page<Order> orders = orderRepository.findByStatusCreatedBetween(status, from, to, pageable);
+        return convertToOrderResponses(orders);
     }
 
     // Private helper methods
 
-    private void validateAndEnrichOrderItems(List<OrderItemRequest> items) {
+    private List<OrderItem> validateAndEnrichOrderItems(List<OrderItemRequest> items) {
+        Map<Long, ProductClient.ProductSummary> products = productClient.getProductsByIds(
+                items.stream().map(OrderItemRequest::getProductId).toList());
+
+        // The same product may appear on several lines; stock is checked against the total
+        Map<Long, Integer> requestedQuantities = new HashMap<>();
         for (OrderItemRequest item : items) {
-            // Validate product exists (call product service)
-            try {
-                String productUrl = "http://product-service/api/products/" + item.getProductId();
-                restTemplate.getForObject(productUrl, Object.class);
-            } catch (Exception e) {
+            requestedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        List<OrderItem> orderItems = new ArrayList<>(items.size());
+        for (OrderItemRequest item : items) {
+            ProductClient.ProductSummary product = products.get(item.getProductId());
+            if (product == null) {
                 throw new ResourceNotFoundException("Product not found with id: " + item.getProductId());
             }
-        }
-    }
+            if (!Boolean.TRUE.equals(product.getActive())) {
+                throw new InvalidRequestException("Product is not available: " + item.getProductId());
+            }
+            if (requestedQuantities.get(item.getProductId()) > product.getOrderableQuantity()) {
+                throw new InvalidRequestException("Insufficient stock for product: " + item.getProductId());
+            }
 
-    private BigDecimal calculateSubtotal(List<OrderItemRequest> items) {
-        return items.stream()
-                .map(OrderItemRequest::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Items are priced from the catalog; client-supplied prices are not trusted
+            BigDecimal unitPrice = product.getSellingPrice();
+            if (item.getUnitPrice() != null && item.getUnitPrice().compareTo(unitPrice) != 0) {
+                log.debug("Repricing product {} from requested {} to catalog {}", 
+                         item.getProductId(), item.getUnitPrice(), unitPrice);
+            }
+            OrderItem orderItem = new OrderItem(product.getId(), product.getName(), unitPrice, item.getQuantity());
+            orderItem.setProductImageUrl(product.getImageUrl());
+            orderItems.add(orderItem);
+        }
+        return orderItems;
     }
 
-    private BigDecimal calculateTax(BigDecimal subtotal) {
-        return subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+    private Order findLiveOrder(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId).orElseThrow(() -> orderRepository.isArchived(orderId)
+                ? new InvalidRequestException("Order " + orderId + " is archived and can no longer be changed")
+                : new ResourceNotFoundException("Order not found with id: " + orderId));
     }
 
-    private BigDecimal calculateShipping(BigDecimal subtotal) {
-        return subtotal.compareTo(FREE_SHIPPING_THRESHOLD) >= 0 ? 
-            BigDecimal.ZERO : SHIPPING_RATE;
+    static OrderPlacedEvent toOrderPlacedEvent(Order order, List<OrderItem> orderItems) {
+        return OrderPlacedEvent.builder()
+                .orderId(order.getId().toString())
+                .userId(order.getUserId().toString())
+                .totalAmount(order.getTotalAmount())
+                .currency("USD")
+                .items(orderItems.stream()
+                        .map((OrderItem item) -> OrderPlacedEvent.OrderItem.builder()
+                                .productId(item.getProductId().toString())
+                                .productName(item.getProductName())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .totalPrice(item.getSubtotal())
+                                .build())
+                        .toList())
+                .orderedAt(order.getCreatedAt())
+                .build();
     }
 
     private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + 
-               UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
-    private List<OrderItem> createOrderItems(Order order, List<OrderItemRequest> itemRequests) {
-        return itemRequests.stream().map(request -> {
-            OrderItem item = new OrderItem();
-            item.setOrder(order);
-            item.setProductId(request.getProductId());
-            item.setQuantity(request.getQuantity());
-            item.setUnitPrice(request.getUnitPrice());
-            item.setSubtotal(request.getSubtotal());
-            return item;
-        }).toList();
+        return idGenerator.nextId(ORDER_NUMBER_PREFIX);
     }
 
     private void clearUserCart(Long userId) {
@@ -318,6 +341,54 @@ public class OrderService {
     private void sendStatusUpdateNotification(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
         // Complete integration with notification service
         log.info("Order {} status changed from {} to {}", order.getOrderNumber(), oldStatus, newStatus);
+
+        // Consumers such as the product stock settle on the change, so it is only published once committed
+        OrderStatusChangedEvent event = OrderStatusChangedEvent.builder()
+                .orderId(order.getId().toString())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId().toString())
+                .previousStatus(oldStatus.name())
+                .status(newStatus.name())
+                .changedAt(order.getUpdatedAt())
+                .build();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                kafkaProducerService.sendMessage("order-events", event.getOrderId(), event);
+            }
+        });
+    }
+
+    /**
+     * Convert a page of orders, loading the items of all orders on the page in one query
+     */
+    private Page<OrderResponse> convertToOrderResponses(Page<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders.map(order -> convertToOrderResponse(order, List.of()));
+        }
+
+        // Archived orders carry their items; the items of live orders are read from the
+        // partitions spanned by the page
+        List<Long> orderIds = new ArrayList<>();
+        LocalDateTime oldest = null;
+        LocalDateTime newest = null;
+        for (Order order : orders) {
+            if (!order.isArchived()) {
+                orderIds.add(order.getId());
+                oldest = oldest == null || order.getCreatedAt().isBefore(oldest) ? order.getCreatedAt() : oldest;
+                newest = newest == null || order.getCreatedAt().isAfter(newest) ? order.getCreatedAt() : newest;
+            }
+        }
+        LongObjectMap<List<OrderItem>> itemsByOrderId = new LongObjectMap<>(orderIds.size());
+        if (!orderIds.isEmpty()) {
+            for (OrderItem item : orderItemRepository.findByOrderIdInCreatedBetween(orderIds, oldest, newest)) {
+                itemsByOrderId.computeIfAbsent(item.getOrder().getId(), orderId -> new ArrayList<>()).add(item);
+            }
+        }
+
+        return orders.map(order -> convertToOrderResponse(order, order.isArchived()
+                ? order.getItems()
+                : itemsByOrderId.getOrDefault(order.getId(), List.of())));
     }
 
     private OrderResponse convertToOrderResponse(Order order, List<OrderItem> items) {
@@ -334,6 +405,7 @@ public class OrderService {
         response.setTaxAmount(order.getTaxAmount());
         response.setShippingAmount(order.getShippingAmount());
         response.setDiscountAmount(order.getDiscountAmount());
+        response.setPromoCode(order.getPromoCode());
         response.setShippingAddress(order.getShippingAddress());
         response.setNotes(order.getNotes());
         response.setCreatedAt(order.getCreatedAt());
@@ -0,0 +1,81 @@
+package com.enterprise.ecommerce.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Periodic order storage housekeeping.
+ * Creates monthly partitions ahead of time, archives closed orders older than the archive
+ * age, and drops the old partitions archiving has emptied. Safe to run on every instance.
+ */
+@Component
+@Slf4j
+public class OrderStorageMaintainer {
+
+    private final OrderArchiveService archiveService;
+    private final int monthsAhead;
+    private final boolean archiveEnabled;
+    private final int archiveAfterMonths;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderStorageMaintainer(OrderArchiveService archiveService,
+                                  @Value("${app.orders.partitions.months-ahead:3}") int monthsAhead,
+                                  @Value("${app.orders.archive.enabled:true}") boolean archiveEnabled,
+                                  @Value("${app.orders.archive.after-months:12}") int archiveAfterMonths,
+                                  @Value("${app.orders.archive.batch-size:500}") int batchSize,
+                                  @Value("${app.orders.archive.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.archiveService = archiveService;
+        this.monthsAhead = monthsAhead;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.partitions.maintenance-interval-ms:3600000}")
+    public void maintainPartitions() {
+        try {
+            archiveService.createPartitions(monthsAhead);
+            if (archiveEnabled) {
+                archiveService.dropEmptyPartitions(archiveCutoff().toLocalDate().withDayOfMonth(1));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Order partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.archive.interval-ms:600000}",
+               initialDelayString = "${app.orders.archive.interval-ms:600000}")
+    public void archiveClosedOrders() {
+        if (!archiveEnabled) {
+            return;
+        }
+        LocalDateTime cutoff = archiveCutoff();
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = archiveService.archiveClosedOrders(cutoff, batchSize);
+                archived += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Order archiving failed: {}", e.getMessage());
+        }
+        if (archived > 0) {
+            log.info("Archived {} closed orders created before {}", archived, cutoff);
+        }
+    }
+
+    private LocalDateTime archiveCutoff() {
+        return LocalDate.now().minusMonths(archiveAfterMonths).atStartOfDay();
+    }
+}
@@ -0,0 +1,164 @@
+package com.enterprise.ecommerce.order.service;
+
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client for resolving order products against Product Service
+ * <p>
+ * All products of an order are fetched through the product batch endpoint. Orders larger
+ * than one batch are split into chunks that are requested concurrently, and the whole
+ * lookup is bounded by a single deadline, so validation costs about one round trip
+ * regardless of order size.
+ */
+@Component
+@Slf4j
+public class ProductClient {
+
+    private static final String SERVICE_NAME = "product-service";
+
+    private final String productServiceUrl;
+    private final String productsApiPath;
+    private final Duration deadline;
+    private final int maxBatchSize;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public ProductClient(@Value("${app.services.product-service.url:http://localhost:8082}") String productServiceUrl,
+                         @Value("${app.services.product-service.api-path:/api/products/}") String productsApiPath,
+                         @Value("${app.services.product-service.connect-timeout-ms:500}") long connectTimeoutMillis,
+                         @Value("${app.services.product-service.deadline-ms:2000}") long deadlineMillis,
+                         @Value("${app.services.product-service.max-batch-size:200}") int maxBatchSize,
+                         ObjectMapper objectMapper) {
+        this.productServiceUrl = productServiceUrl;
+        this.productsApiPath = productsApiPath;
+        this.deadline = Duration.ofMillis(deadlineMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    /**
+     * Get products by ID; products that do not exist are absent from the result
+     */
+    public Map<Long, ProductSummary> getProductsByIds(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        List<CompletableFuture<List<ProductSummary>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            chunks.add(fetchChunk(ids.subList(from, Math.min(from + maxBatchSize, ids.size()))));
+        }
+
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SERVICE_NAME, e);
+        } catch (ExecutionException | TimeoutException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            log.warn("Product lookup for {} products failed: {}", ids.size(), e.toString());
+            throw new ServiceUnavailableException(SERVICE_NAME, e);
+        }
+
+        Map<Long, ProductSummary> products = new HashMap<>();
+        for (CompletableFuture<List<ProductSummary>> chunk : chunks) {
+            chunk.join().forEach(product -> products.put(product.getId(), product));
+        }
+        return products;
+    }
+
+    private CompletableFuture<List<ProductSummary>> fetchChunk(List<Long> ids) {
+        URI uri = UriComponentsBuilder.fromUriString(productServiceUrl)
+                .path(productsApiPath)
+                .pathSegment("batch")
+                .queryParam("ids", ids.toArray())
+                .build()
+                .toUri();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(deadline)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Product batch lookup returned HTTP " + response.statusCode());
+                    }
+                    return parseProducts(response.body());
+                });
+    }
+
+    private List<ProductSummary> parseProducts(byte[] body) {
+        try {
+            JsonNode data = objectMapper.readTree(body).path("data");
+            List<ProductSummary> products = new ArrayList<>(data.size());
+            for (JsonNode node : data) {
+                products.add(objectMapper.treeToValue(node, ProductSummary.class));
+            }
+            return products;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable product batch response", e);
+        }
+    }
+
+    /**
+     * Product fields needed to price and validate an order line
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ProductSummary {
+        private Long id;
+        private String name;
+        private String imageUrl;
+        private BigDecimal price;
+        private BigDecimal effectivePrice;
+        private Integer stockQuantity;
+        private Integer availableQuantity;
+        private Boolean active;
+
+        /**
+         * Price the customer pays, including any active discount
+         */
+        public BigDecimal getSellingPrice() {
+            return effectivePrice != null ? effectivePrice : price;
+        }
+
+        /**
+         * Units that can still be ordered
+         */
+        public int getOrderableQuantity() {
+            if (availableQuantity != null) {
+                return availableQuantity;
+            }
+            return stockQuantity != null ? stockQuantity : 0;
+        }
+    }
+}
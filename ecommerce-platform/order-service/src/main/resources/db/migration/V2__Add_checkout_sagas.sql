@@ -0,0 +1,17 @@
+-- State of orders placed through the asynchronous checkout saga
+CREATE TABLE checkout_sagas (
+    order_id BIGINT PRIMARY KEY,
+    state VARCHAR(30) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    payment_id VARCHAR(100),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    step_deadline TIMESTAMP NOT NULL,
+    failure_reason TEXT,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Only sagas still waiting on a step are scanned for overdue replies
+CREATE INDEX idx_checkout_sagas_open_deadline ON checkout_sagas(step_deadline)
+    WHERE state NOT IN ('COMPLETED', 'FAILED');
@@ -0,0 +1,195 @@
+-- Range-partition orders and order_items by order creation time, one partition per month.
+-- Every unique constraint of a partitioned table must include the partition key, so ids
+-- and order numbers are unique together with created_at; both are generated unique anyway.
+-- Order items carry their order's created_at so that they land in the matching partition
+-- and item lookups by order can be pruned.
+
+DROP TRIGGER IF EXISTS update_orders_updated_at ON orders;
+
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE order_items_unpartitioned RENAME CONSTRAINT order_items_pkey TO order_items_unpartitioned_pkey;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER TABLE orders_unpartitioned RENAME CONSTRAINT orders_pkey TO orders_unpartitioned_pkey;
+ALTER TABLE orders_unpartitioned RENAME CONSTRAINT orders_order_number_key TO orders_unpartitioned_order_number_key;
+
+DROP INDEX idx_orders_user_id;
+DROP INDEX idx_orders_status;
+DROP INDEX idx_orders_created_at;
+DROP INDEX idx_order_items_order_id;
+DROP INDEX idx_order_items_product_id;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL DEFAULT nextval('orders_id_seq'),
+    order_number VARCHAR(50) NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    total_amount DECIMAL(12,2) NOT NULL,
+    tax_amount DECIMAL(12,2) DEFAULT 0.00,
+    shipping_amount DECIMAL(12,2) DEFAULT 0.00,
+    discount_amount DECIMAL(12,2) DEFAULT 0.00,
+
+    -- Shipping address fields
+    shipping_first_name VARCHAR(100),
+    shipping_last_name VARCHAR(100),
+    shipping_street_address VARCHAR(255),
+    shipping_city VARCHAR(100),
+    shipping_state VARCHAR(100),
+    shipping_postal_code VARCHAR(20),
+    shipping_country VARCHAR(100),
+    shipping_phone VARCHAR(20),
+
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    shipped_at TIMESTAMP,
+    delivered_at TIMESTAMP,
+    cancelled_at TIMESTAMP,
+
+    PRIMARY KEY (id, created_at),
+    UNIQUE (order_number, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    id BIGINT NOT NULL DEFAULT nextval('order_items_id_seq'),
+    order_id BIGINT NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    product_image_url VARCHAR(500),
+    unit_price DECIMAL(10,2) NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    subtotal DECIMAL(10,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (id, order_created_at),
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+ALTER SEQUENCE order_items_id_seq OWNED BY order_items.id;
+
+-- Indexes are created on every partition; list queries read the newest partitions first
+-- and stop once a page is filled
+CREATE INDEX idx_orders_user_id_created_at ON orders(user_id, created_at DESC);
+CREATE INDEX idx_orders_status_created_at ON orders(status, created_at DESC);
+CREATE INDEX idx_orders_created_at ON orders(created_at DESC);
+CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX idx_order_items_product_id ON order_items(product_id);
+
+-- Rows outside every monthly partition land here instead of failing the insert; the
+-- partition maintenance job keeps months ahead created so this stays empty
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- Create the monthly partitions of both tables for the given number of months from the
+-- given month on; existing partitions are left alone. Returns the number created.
+CREATE OR REPLACE FUNCTION create_order_partitions(first_month DATE, months INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    month_end DATE;
+    suffix TEXT;
+    created INTEGER := 0;
+BEGIN
+    -- Serialize concurrent callers on different instances
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+    FOR i IN 0 .. months - 1 LOOP
+        month_start := (date_trunc('month', first_month) + make_interval(months => i))::DATE;
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        suffix := to_char(month_start, 'YYYY_MM');
+        IF to_regclass('orders_' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                           'orders_' || suffix, month_start, month_end);
+            EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                           'order_items_' || suffix, month_start, month_end);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drop the monthly partitions that end on or before the given date and hold no orders.
+-- Returns the number of months dropped.
+CREATE OR REPLACE FUNCTION drop_empty_order_partitions(before DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    suffix TEXT;
+    has_rows BOOLEAN;
+    dropped INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('order_partitions'));
+    FOR partition_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'orders'::regclass AND c.relname ~ '^orders_[0-9]{4}_[0-9]{2}$'
+        ORDER BY c.relname
+    LOOP
+        suffix := substring(partition_name FROM 8);
+        CONTINUE WHEN (to_date(suffix, 'YYYY_MM') + INTERVAL '1 month')::DATE > before;
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', partition_name) INTO has_rows;
+        CONTINUE WHEN has_rows;
+        EXECUTE format('ALTER TABLE order_items DETACH PARTITION %I', 'order_items_' || suffix);
+        EXECUTE format('DROP TABLE %I', 'order_items_' || suffix);
+        EXECUTE format('ALTER TABLE orders DETACH PARTITION %I', partition_name);
+        EXECUTE format('DROP TABLE %I', partition_name);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for all existing orders and the next three months
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_unpartitioned), LOCALTIMESTAMP))::DATE;
+    elapsed INTERVAL := age(date_trunc('month', LOCALTIMESTAMP), first_month);
+BEGIN
+    PERFORM create_order_partitions(first_month,
+            (EXTRACT(YEAR FROM elapsed) * 12 + EXTRACT(MONTH FROM elapsed))::INTEGER + 4);
+END;
+$$;
+
+INSERT INTO orders (id, order_number, user_id, status, total_amount, tax_amount, shipping_amount,
+                    discount_amount, shipping_first_name, shipping_last_name, shipping_street_address,
+                    shipping_city, shipping_state, shipping_postal_code, shipping_country, shipping_phone,
+                    notes, created_at, updated_at, shipped_at, delivered_at, cancelled_at)
+SELECT id, order_number, user_id, status, total_amount, tax_amount, shipping_amount,
+       discount_amount, shipping_first_name, shipping_last_name, shipping_street_address,
+       shipping_city, shipping_state, shipping_postal_code, shipping_country, shipping_phone,
+       notes, created_at, updated_at, shipped_at, delivered_at, cancelled_at
+FROM orders_unpartitioned;
+
+INSERT INTO order_items (id, order_id, order_created_at, product_id, product_name, product_image_url,
+                         unit_price, quantity, subtotal, created_at)
+SELECT i.id, i.order_id, o.created_at, i.product_id, i.product_name, i.product_image_url,
+       i.unit_price, i.quantity, i.subtotal, i.created_at
+FROM order_items_unpartitioned i
+JOIN orders_unpartitioned o ON o.id = i.order_id;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+CREATE TRIGGER update_orders_updated_at
+    BEFORE UPDATE ON orders
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Closed orders past the archive age, moved out of the partitions. Each order is kept as
+-- one gzip-compressed JSON document with its items; the columns beside it serve lookups.
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    order_number VARCHAR(50) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(12,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    document BYTEA NOT NULL
+);
+
+-- The document is compressed already; keep the database from compressing it again
+ALTER TABLE orders_archive ALTER COLUMN document SET STORAGE EXTERNAL;
+
+CREATE INDEX idx_orders_archive_user_id_created_at ON orders_archive(user_id, created_at DESC);
+CREATE INDEX idx_orders_archive_created_at ON orders_archive(created_at);
@@ -0,0 +1,2 @@
+-- Promo code entered at checkout; kept so orders can be repriced against the pricing rules
+ALTER TABLE orders ADD COLUMN promo_code VARCHAR(50);
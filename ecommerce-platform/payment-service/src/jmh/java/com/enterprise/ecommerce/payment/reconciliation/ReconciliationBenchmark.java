@@ -0,0 +1,87 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of reconciling a synthetic settlement file of {@code rows} transactions,
+ * split into segments merged on {@code threads} threads. Payments come from
+ * {@link SettlementDataGenerator} rather than the database, so this measures file
+ * reading and merging; divide {@code rows} by the time per operation for rows per
+ * second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class ReconciliationBenchmark {
+
+    @Param({"2000000"})
+    private long rows;
+
+    @Param({"1", "4", "8"})
+    private int threads;
+
+    private SettlementDataGenerator generator;
+    private Path file;
+    private SettlementFile settlementFile;
+    private ExecutorService pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        generator = new SettlementDataGenerator(rows);
+        file = Files.createTempFile("settlement-benchmark", ".csv");
+        generator.writeSettlementFile(file);
+        settlementFile = SettlementFile.open(file);
+        pool = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        settlementFile.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long reconcile() throws Exception {
+        LongAdder mismatches = new LongAdder();
+        List<Future<ReconciliationStats>> results = new ArrayList<>();
+        for (SettlementFile.Segment segment : settlementFile.split(threads * 4)) {
+            results.add(pool.submit(() -> {
+                SettlementMerger merger = new SettlementMerger(mismatch -> mismatches.increment());
+                return merger.merge(settlementFile.read(segment, merger::reportMalformed),
+                        generator.payments(segment.fromKey(), segment.toKey()));
+            }));
+        }
+        ReconciliationStats total = new ReconciliationStats();
+        for (Future<ReconciliationStats> result : results) {
+            total.add(result.get());
+        }
+        return total.getMatched() + mismatches.sum();
+    }
+}
@@ -0,0 +1,200 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Synthetic settlement files and the payments they settle
+ * <p>
+ * Transaction {@code i} has the id {@code TXN-} followed by {@code i} as twelve hex
+ * digits, so ids sort in the order they are generated, and its amount is derived from
+ * {@code i}. Payments are computed rather than stored, so any transaction id range can
+ * be streamed without holding millions of rows in memory. A small, fixed share of the
+ * transactions is made to disagree:
+ * <ul>
+ *     <li>0.1% are settled without a payment</li>
+ *     <li>0.1% are paid but not settled</li>
+ *     <li>0.1% are settled for a different amount</li>
+ *     <li>0.05% are settled twice</li>
+ * </ul>
+ * Running {@link #main} writes a settlement file and a CSV of the payments that can be
+ * loaded into the payments table with {@code \copy}, for an end-to-end run.
+ */
+public class SettlementDataGenerator {
+
+    private static final String PREFIX = "TXN-";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final long transactions;
+
+    public SettlementDataGenerator(long transactions) {
+        this.transactions = transactions;
+    }
+
+    /**
+     * Usage: {@code SettlementDataGenerator <transactions> <output-directory> [settlement-date]}
+     */
+    public static void main(String[] args) throws IOException {
+        long transactions = Long.parseLong(args[0]);
+        Path directory = Paths.get(args[1]);
+        LocalDate date = args.length > 2 ? LocalDate.parse(args[2]) : LocalDate.now().minusDays(1);
+        Files.createDirectories(directory);
+
+        SettlementDataGenerator generator = new SettlementDataGenerator(transactions);
+        Path settlement = directory.resolve("settlement-" + date + ".csv");
+        generator.writeSettlementFile(settlement);
+        Path payments = directory.resolve("payments-" + date + ".csv");
+        generator.writePaymentsCsv(payments, date);
+        System.out.printf("Wrote %s and %s%n", settlement, payments);
+        System.out.printf("Load with: \\copy payments(payment_id, order_id, user_id, amount, currency, payment_method, "
+                + "payment_status, transaction_id, processed_at, created_at, updated_at) FROM '%s' CSV%n", payments);
+    }
+
+    public static String transactionId(long index) {
+        char[] id = new char[PREFIX.length() + 12];
+        PREFIX.getChars(0, PREFIX.length(), id, 0);
+        for (int i = id.length - 1; i >= PREFIX.length(); i--, index >>>= 4) {
+            id[i] = HEX[(int) (index & 0xF)];
+        }
+        return new String(id);
+    }
+
+    /**
+     * Write the settlement file, with a header row, sorted by transaction id
+     */
+    public void writeSettlementFile(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("transaction_id,amount,currency,settled_at\n");
+            for (long i = 0; i < transactions; i++) {
+                Kind kind = kind(i);
+                if (kind == Kind.UNSETTLED) {
+                    continue;
+                }
+                BigDecimal amount = kind == Kind.AMOUNT_DIFFERS ? amount(i).add(BigDecimal.ONE) : amount(i);
+                String row = transactionId(i) + "," + amount + ",USD,2024-01-01T00:00:00\n";
+                out.write(row);
+                if (kind == Kind.DUPLICATED) {
+                    out.write(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the payments as CSV matching the column list printed by {@link #main}
+     */
+    public void writePaymentsCsv(Path file, LocalDate date) throws IOException {
+        String timestamp = date + " 12:00:00";
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            Iterator<SettledPayment> payments = payments("", SettlementFile.MAX_KEY);
+            while (payments.hasNext()) {
+                SettledPayment payment = payments.next();
+                out.write("PAY-SIM-" + payment.getId() + "," + payment.getId() + ",1," + payment.getAmount()
+                        + ",USD,CREDIT_CARD,COMPLETED," + payment.getTransactionId() + ","
+                        + timestamp + "," + timestamp + "," + timestamp + "\n");
+            }
+        }
+    }
+
+    /**
+     * Payments with transaction ids in [fromKey, toKey), in transaction id order
+     */
+    public Iterator<SettledPayment> payments(String fromKey, String toKey) {
+        long from = indexAtOrAfter(fromKey);
+        long to = indexAtOrAfter(toKey);
+        return new Iterator<>() {
+            private long next = skipUnpaid(from);
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public SettledPayment next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                long index = next;
+                next = skipUnpaid(next + 1);
+                return new GeneratedPayment(index + 1, transactionId(index), amount(index));
+            }
+
+            private long skipUnpaid(long index) {
+                while (index < to && kind(index) == Kind.UNPAID) {
+                    index++;
+                }
+                return index;
+            }
+        };
+    }
+
+    private long indexAtOrAfter(String key) {
+        if (key.isEmpty()) {
+            return 0;
+        }
+        if (!key.startsWith(PREFIX)) {
+            return transactions;
+        }
+        return Math.min(transactions, Long.parseLong(key.substring(PREFIX.length()), 16));
+    }
+
+    private static BigDecimal amount(long index) {
+        return BigDecimal.valueOf(100 + mix(index) % 100_000, 2);
+    }
+
+    private static Kind kind(long index) {
+        long bucket = (mix(index) >>> 20) % 10_000;
+        if (bucket < 10) {
+            return Kind.UNPAID;
+        } else if (bucket < 20) {
+            return Kind.UNSETTLED;
+        } else if (bucket < 30) {
+            return Kind.AMOUNT_DIFFERS;
+        } else if (bucket < 35) {
+            return Kind.DUPLICATED;
+        }
+        return Kind.MATCHING;
+    }
+
+    private static long mix(long index) {
+        long h = index * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 31)) & Long.MAX_VALUE;
+    }
+
+    private enum Kind {
+        MATCHING, UNPAID, UNSETTLED, AMOUNT_DIFFERS, DUPLICATED
+    }
+
+    private record GeneratedPayment(Long id, String transactionId, BigDecimal amount) implements SettledPayment {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        @Override
+        public String getCurrency() {
+            return "USD";
+        }
+    }
+}
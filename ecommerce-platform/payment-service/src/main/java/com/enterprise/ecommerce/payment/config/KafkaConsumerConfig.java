@@ -0,0 +1,44 @@
+package com.enterprise.ecommerce.payment.config;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.kafka.JsonListenerContainerFactories;
+import com.enterprise.ecommerce.payment.dto.OrderEventMessage;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for checkout commands and order events
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:payment-service}")
+    private String groupId;
+
+    @Value("${app.payments.order-projection.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEventMessage> orderEventsListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEventMessage> factory = JsonListenerContainerFactories.create(
+                bootstrapServers, groupId, OrderEventMessage.class,
+                Map.of(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CheckoutCommand> checkoutCommandListenerContainerFactory() {
+        return JsonListenerContainerFactories.create(bootstrapServers, groupId, CheckoutCommand.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.enterprise.ecommerce.payment.config;
+
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for Payment Service
+ */
+@Configuration
+public class PaymentConfig {
+
+    /**
+     * RestTemplate resolving service names such as order-service through discovery
+     */
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate() {
+        return new RestTemplate();
+    }
+
+    /**
+     * Checks identities asserted by the API gateway, which scope Idempotency-Key values
+     * to the calling user
+     */
+    @Bean
+    public GatewayIdentityVerifier gatewayIdentityVerifier(
+            @Value("${app.security.gateway-identity.enabled:false}") boolean enabled,
+            @Value("${app.security.gateway-identity.secret:}") String secret,
+            @Value("${app.security.gateway-identity.max-age-ms:30000}") long maxAgeMillis) {
+        return new GatewayIdentityVerifier(enabled, secret, Duration.ofMillis(maxAgeMillis));
+    }
+}
@@ -1,21 +1,33 @@
 package com.enterprise.ecommerce.payment.controller;
 
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import com.enterprise.ecommerce.common.export.ExportFormat;
+import com.enterprise.ecommerce.payment.dto.PaymentEventResponse;
 import com.enterprise.ecommerce.payment.dto.PaymentResponse;
 import com.enterprise.ecommerce.payment.dto.ProcessPaymentRequest;
 import com.enterprise.ecommerce.payment.entity.PaymentMethod;
 import com.enterprise.ecommerce.payment.entity.PaymentStatus;
+import com.enterprise.ecommerce.payment.service.AsyncPaymentProcessor;
+import com.enterprise.ecommerce.payment.service.PaymentExportService;
 import com.enterprise.ecommerce.payment.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,20 +41,27 @@ import java.util.Optional;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final AsyncPaymentProcessor asyncPaymentProcessor;
+    private final PaymentExportService paymentExportService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, AsyncPaymentProcessor asyncPaymentProcessor,
+                             PaymentExportService paymentExportService) {
         this.paymentService = paymentService;
+        this.asyncPaymentProcessor = asyncPaymentProcessor;
+        this.paymentExportService = paymentExportService;
     }
 
     /**
-     * Process a payment
+     * Process a payment; the payment is accepted as PROCESSING and its outcome is
+     * available from the returned location
      */
     @PostMapping("/process")
     @Operation(summary = "Process a payment")
     public ResponseEntity<PaymentResponse> processPayment(@Valid @RequestBody ProcessPaymentRequest request) {
         try {
-            PaymentResponse payment = paymentService.processPayment(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+            return accepted(asyncPaymentProcessor.submit(request));
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -102,6 +121,29 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    /**
+     * Stream all payments created in a time range as a file download
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export payments created in [from, to) as CSV or NDJSON")
+    public void exportPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("Export range must have a start before its end");
+        }
+
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("payments-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + exportFormat.getFileExtension())
+                .build()
+                .toString());
+        paymentExportService.exportPayments(from, to, exportFormat, response.getOutputStream());
+    }
+
     /**
      * Refund a payment
      */
@@ -119,6 +161,24 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Get the ledger of a payment
+     */
+    @GetMapping("/{paymentId}/events")
+    @Operation(summary = "Get the ledger of a payment")
+    public ResponseEntity<List<PaymentEventResponse>> getPaymentEvents(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(paymentService.getPaymentEvents(paymentId));
+    }
+
+    /**
+     * Rebuild the snapshot of a payment from its ledger
+     */
+    @PostMapping("/{paymentId}/events/replay")
+    @Operation(summary = "Rebuild the snapshot of a payment from its ledger")
+    public ResponseEntity<PaymentResponse> replayPaymentEvents(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(paymentService.rebuildPaymentSnapshot(paymentId));
+    }
+
     /**
      * Cancel a payment
      */
@@ -142,8 +202,9 @@ public class PaymentController {
     @Operation(summary = "Retry a failed payment")
     public ResponseEntity<PaymentResponse> retryPayment(@PathVariable Long paymentId) {
         try {
-            PaymentResponse payment = paymentService.retryPayment(paymentId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+            return accepted(asyncPaymentProcessor.retry(paymentId));
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -175,4 +236,10 @@ public class PaymentController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Payment Service is running");
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<PaymentResponse> accepted(PaymentResponse payment) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/" + payment.getId()))
+                .body(payment);
+    }
+}
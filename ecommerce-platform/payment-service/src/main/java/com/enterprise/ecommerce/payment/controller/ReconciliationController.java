@@ -0,0 +1,64 @@
+package com.enterprise.ecommerce.payment.controller;
+
+import com.enterprise.ecommerce.payment.entity.ReconciliationMismatch;
+import com.enterprise.ecommerce.payment.entity.ReconciliationRun;
+import com.enterprise.ecommerce.payment.service.ReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+/**
+ * REST controller for settlement reconciliation
+ */
+@RestController
+@RequestMapping("/api/payments/reconciliations")
+@Tag(name = "Reconciliation", description = "Settlement file reconciliation API")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Start reconciling the settlement file of a date from the settlement inbox
+     */
+    @PostMapping
+    @Operation(summary = "Start a settlement reconciliation")
+    public ResponseEntity<ReconciliationRun> startReconciliation(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String file) {
+        ReconciliationRun run = reconciliationService.start(date, file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/reconciliations/" + run.getId()))
+                .body(run);
+    }
+
+    /**
+     * Get a reconciliation run
+     */
+    @GetMapping("/{runId}")
+    @Operation(summary = "Get a reconciliation run")
+    public ResponseEntity<ReconciliationRun> getRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(reconciliationService.getRun(runId));
+    }
+
+    /**
+     * Get the discrepancies found by a reconciliation run
+     */
+    @GetMapping("/{runId}/mismatches")
+    @Operation(summary = "Get reconciliation mismatches")
+    public ResponseEntity<Page<ReconciliationMismatch>> getMismatches(@PathVariable Long runId,
+                                                                      @PageableDefault(size = 100) Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.getMismatches(runId, pageable));
+    }
+}
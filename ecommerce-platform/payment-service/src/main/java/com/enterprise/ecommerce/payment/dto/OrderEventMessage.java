@@ -0,0 +1,74 @@
+package com.enterprise.ecommerce.payment.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Order event as read from the order-events topic
+ * <p>
+ * The topic carries both OrderPlacedEvent and OrderStatusChangedEvent without type
+ * headers. Both are read into this class, keeping only the fields the order
+ * projection needs: a placed event carries a total, a status change carries a status.
+ */
+public class OrderEventMessage {
+
+    private String orderId;
+    private String userId;
+    private BigDecimal totalAmount;
+    private String status;
+
+    // Constructors
+    public OrderEventMessage() {
+        // Default constructor for deserialization
+    }
+
+    public boolean isPlacedEvent() {
+        return totalAmount != null;
+    }
+
+    public boolean isStatusChange() {
+        return status != null;
+    }
+
+    // Getters and Setters
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEventMessage{" +
+                "orderId='" + orderId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
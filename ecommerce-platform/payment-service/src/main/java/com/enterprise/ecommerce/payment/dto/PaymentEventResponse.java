@@ -0,0 +1,83 @@
+package com.enterprise.ecommerce.payment.dto;
+
+import com.enterprise.ecommerce.payment.entity.PaymentEvent;
+import com.enterprise.ecommerce.payment.entity.PaymentEventType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for an entry of a payment's ledger
+ */
+public class PaymentEventResponse {
+
+    private int sequence;
+    private PaymentEventType type;
+    private BigDecimal amount;
+    private String transactionId;
+    private String detail;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PaymentEventResponse() {
+        // Default constructor for DTO - fields are set via setters
+    }
+
+    public PaymentEventResponse(PaymentEvent event) {
+        this.sequence = event.getSequence();
+        this.type = event.getType();
+        this.amount = event.getAmount();
+        this.transactionId = event.getTransactionId();
+        this.detail = event.getDetail();
+        this.createdAt = event.getCreatedAt();
+    }
+
+    // Getters and Setters
+    public int getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public PaymentEventType getType() {
+        return type;
+    }
+
+    public void setType(PaymentEventType type) {
+        this.type = type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -16,6 +16,7 @@ public class PaymentResponse {
     private Long orderId;
     private Long userId;
     private BigDecimal amount;
+    private BigDecimal refundedAmount;
     private PaymentStatus status;
     private PaymentMethod paymentMethod;
     private String transactionId;
@@ -70,6 +71,14 @@ public class PaymentResponse {
         this.amount = amount;
     }
 
+    public BigDecimal getRefundedAmount() {
+        return refundedAmount;
+    }
+
+    public void setRefundedAmount(BigDecimal refundedAmount) {
+        this.refundedAmount = refundedAmount;
+    }
+
     public PaymentStatus getStatus() {
         return status;
     }
@@ -60,6 +60,21 @@ public class Payment {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    @Column(name = "retry_count")
+    private int retryCount;
+
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+
+    @Column(name = "refunded_amount", precision = 12, scale = 2)
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+
+    @Column(name = "pending_refund_amount", precision = 12, scale = 2)
+    private BigDecimal pendingRefundAmount = BigDecimal.ZERO;
+
+    @Column(name = "ledger_version")
+    private int ledgerVersion;
+
     @NotNull
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -182,6 +197,46 @@ public class Payment {
         this.processedAt = processedAt;
     }
 
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public LocalDateTime getNextRetryAt() {
+        return nextRetryAt;
+    }
+
+    public void setNextRetryAt(LocalDateTime nextRetryAt) {
+        this.nextRetryAt = nextRetryAt;
+    }
+
+    public BigDecimal getRefundedAmount() {
+        return refundedAmount;
+    }
+
+    public void setRefundedAmount(BigDecimal refundedAmount) {
+        this.refundedAmount = refundedAmount;
+    }
+
+    public BigDecimal getPendingRefundAmount() {
+        return pendingRefundAmount;
+    }
+
+    public void setPendingRefundAmount(BigDecimal pendingRefundAmount) {
+        this.pendingRefundAmount = pendingRefundAmount;
+    }
+
+    public int getLedgerVersion() {
+        return ledgerVersion;
+    }
+
+    public void setLedgerVersion(int ledgerVersion) {
+        this.ledgerVersion = ledgerVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
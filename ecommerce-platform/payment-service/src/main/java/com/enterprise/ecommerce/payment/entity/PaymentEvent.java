@@ -0,0 +1,136 @@
+package com.enterprise.ecommerce.payment.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the append-only payment ledger; events are never updated or deleted
+ */
+@Entity
+@Table(name = "payment_events")
+public class PaymentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_id", updatable = false)
+    private Long paymentId;
+
+    @Column(name = "sequence", updatable = false)
+    private int sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", updatable = false)
+    private PaymentEventType type;
+
+    @Column(name = "amount", precision = 12, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", updatable = false)
+    private String transactionId;
+
+    @Column(name = "detail", updatable = false)
+    private String detail;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PaymentEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public PaymentEvent(PaymentEventType type, BigDecimal amount, String transactionId, String detail) {
+        this();
+        this.type = type;
+        this.amount = amount;
+        this.transactionId = transactionId;
+        this.detail = detail;
+    }
+
+    public static PaymentEvent of(PaymentEventType type) {
+        return new PaymentEvent(type, null, null, null);
+    }
+
+    public static PaymentEvent of(PaymentEventType type, String detail) {
+        return new PaymentEvent(type, null, null, detail);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public PaymentEventType getType() {
+        return type;
+    }
+
+    public void setType(PaymentEventType type) {
+        this.type = type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentEvent{" +
+                "paymentId=" + paymentId +
+                ", sequence=" + sequence +
+                ", type=" + type +
+                ", amount=" + amount +
+                '}';
+    }
+}
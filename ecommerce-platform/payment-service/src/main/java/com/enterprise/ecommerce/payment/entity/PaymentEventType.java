@@ -0,0 +1,26 @@
+package com.enterprise.ecommerce.payment.entity;
+
+/**
+ * Enum for the kinds of event recorded in the payment ledger
+ */
+public enum PaymentEventType {
+    IMPORTED("Payment state carried over from before the ledger existed"),
+    CREATED("Payment was recorded"),
+    PROCESSING("Payment was sent to the gateway for authorization"),
+    CAPTURED("Gateway authorized and captured the payment"),
+    FAILED("Gateway declined the payment or could not be reached"),
+    CANCELLED("Payment was cancelled"),
+    REFUND_REQUESTED("Refund amount was reserved before calling the gateway"),
+    REFUNDED("Gateway refunded the reserved amount"),
+    REFUND_FAILED("Gateway refused the refund; the reserved amount was released");
+
+    private final String description;
+
+    PaymentEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,120 @@
+package com.enterprise.ecommerce.payment.entity;
+
+import com.enterprise.ecommerce.payment.reconciliation.Mismatch;
+import com.enterprise.ecommerce.payment.reconciliation.MismatchType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Discrepancy found by a reconciliation run
+ */
+@Entity
+@Table(name = "reconciliation_mismatches")
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mismatch_type")
+    private MismatchType type;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(name = "payment_amount", precision = 12, scale = 2)
+    private BigDecimal paymentAmount;
+
+    @Column(name = "settled_amount", precision = 12, scale = 2)
+    private BigDecimal settledAmount;
+
+    @Column(name = "detail")
+    private String detail;
+
+    // Constructors
+    public ReconciliationMismatch() {
+    }
+
+    public ReconciliationMismatch(Long runId, Mismatch mismatch) {
+        this.runId = runId;
+        this.type = mismatch.type();
+        this.transactionId = mismatch.transactionId();
+        this.paymentId = mismatch.paymentId();
+        this.paymentAmount = mismatch.paymentAmount();
+        this.settledAmount = mismatch.settledAmount();
+        this.detail = mismatch.detail();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public MismatchType getType() {
+        return type;
+    }
+
+    public void setType(MismatchType type) {
+        this.type = type;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public BigDecimal getPaymentAmount() {
+        return paymentAmount;
+    }
+
+    public void setPaymentAmount(BigDecimal paymentAmount) {
+        this.paymentAmount = paymentAmount;
+    }
+
+    public BigDecimal getSettledAmount() {
+        return settledAmount;
+    }
+
+    public void setSettledAmount(BigDecimal settledAmount) {
+        this.settledAmount = settledAmount;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,161 @@
+package com.enterprise.ecommerce.payment.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One reconciliation of payments against a gateway settlement file
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "settlement_file")
+    private String settlementFile;
+
+    @Column(name = "settlement_date")
+    private LocalDate settlementDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ReconciliationStatus status;
+
+    @Column(name = "settlement_rows")
+    private long settlementRows;
+
+    @Column(name = "payment_rows")
+    private long paymentRows;
+
+    @Column(name = "matched_rows")
+    private long matchedRows;
+
+    @Column(name = "mismatch_count")
+    private long mismatchCount;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public ReconciliationRun() {
+    }
+
+    public ReconciliationRun(String settlementFile, LocalDate settlementDate) {
+        this.settlementFile = settlementFile;
+        this.settlementDate = settlementDate;
+        this.status = ReconciliationStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSettlementFile() {
+        return settlementFile;
+    }
+
+    public void setSettlementFile(String settlementFile) {
+        this.settlementFile = settlementFile;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public void setSettlementDate(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    public ReconciliationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReconciliationStatus status) {
+        this.status = status;
+    }
+
+    public long getSettlementRows() {
+        return settlementRows;
+    }
+
+    public void setSettlementRows(long settlementRows) {
+        this.settlementRows = settlementRows;
+    }
+
+    public long getPaymentRows() {
+        return paymentRows;
+    }
+
+    public void setPaymentRows(long paymentRows) {
+        this.paymentRows = paymentRows;
+    }
+
+    public long getMatchedRows() {
+        return matchedRows;
+    }
+
+    public void setMatchedRows(long matchedRows) {
+        this.matchedRows = matchedRows;
+    }
+
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+    public void setMismatchCount(long mismatchCount) {
+        this.mismatchCount = mismatchCount;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationRun{" +
+                "id=" + id +
+                ", settlementFile='" + settlementFile + '\'' +
+                ", settlementDate=" + settlementDate +
+                ", status=" + status +
+                ", matchedRows=" + matchedRows +
+                ", mismatchCount=" + mismatchCount +
+                '}';
+    }
+}
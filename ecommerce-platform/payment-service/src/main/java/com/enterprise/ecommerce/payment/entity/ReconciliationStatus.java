@@ -0,0 +1,10 @@
+package com.enterprise.ecommerce.payment.entity;
+
+/**
+ * Enum for settlement reconciliation run status
+ */
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
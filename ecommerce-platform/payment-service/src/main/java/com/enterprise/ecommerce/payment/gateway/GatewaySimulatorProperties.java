@@ -0,0 +1,78 @@
+package com.enterprise.ecommerce.payment.gateway;
+
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Behaviour of the {@link SimulatedPaymentGateway}, bound from
+ * {@code app.payments.gateway.simulator}
+ * <p>
+ * {@code defaults} applies to every payment method without an entry under
+ * {@code methods}; a method entry replaces the defaults as a whole.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.payments.gateway.simulator")
+public class GatewaySimulatorProperties {
+
+    /**
+     * How long a caller waits for the gateway before giving up
+     */
+    private long timeoutMs = 5000;
+
+    private Behavior defaults = new Behavior();
+
+    private Map<PaymentMethod, Behavior> methods = new EnumMap<>(PaymentMethod.class);
+
+    public Behavior behaviorFor(PaymentMethod paymentMethod) {
+        return methods.getOrDefault(paymentMethod, defaults);
+    }
+
+    /**
+     * Latency and outcome mix of one payment method
+     */
+    @Data
+    public static class Behavior {
+
+        private Latency latency = new Latency();
+
+        /**
+         * Share of calls the bank declines
+         */
+        private double declineRate = 0.05;
+
+        /**
+         * Share of calls that fail with a gateway error and may succeed when retried
+         */
+        private double errorRate = 0.01;
+
+        /**
+         * Share of calls that never answer and run into the timeout
+         */
+        private double hangRate = 0.0;
+    }
+
+    /**
+     * Latency distribution of one payment method
+     * <p>
+     * FIXED always takes {@code medianMs}. LOGNORMAL draws around {@code medianMs} with
+     * shape {@code sigma}. BIMODAL draws like LOGNORMAL, except that a
+     * {@code spikeRate} share of calls draw around {@code spikeMedianMs} instead.
+     */
+    @Data
+    public static class Latency {
+
+        private Distribution distribution = Distribution.LOGNORMAL;
+        private long medianMs = 200;
+        private double sigma = 0.5;
+        private double spikeRate = 0.02;
+        private long spikeMedianMs = 3000;
+    }
+
+    public enum Distribution {
+        FIXED, LOGNORMAL, BIMODAL
+    }
+}
@@ -0,0 +1,64 @@
+package com.enterprise.ecommerce.payment.gateway;
+
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Mock payment gateway: charges take one second and 90% of them succeed
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway.type", havingValue = "mock", matchIfMissing = true)
+@Slf4j
+public class MockPaymentGateway implements PaymentGateway {
+
+    @Override
+    public PaymentGatewayResponse charge(String paymentNumber, PaymentMethod paymentMethod, BigDecimal amount) {
+        // Mock payment gateway processing
+        // In real implementation, integrate with actual payment gateways like Stripe, PayPal, etc.
+        log.info("Processing payment {} through gateway with amount {}", paymentNumber, amount);
+
+        PaymentGatewayResponse response = new PaymentGatewayResponse();
+
+        try {
+            Thread.sleep(1000); // Simulate processing time
+
+            // Mock success/failure logic (90% success rate)
+            if (Math.random() < 0.9) {
+                response.setSuccess(true);
+                response.setTransactionId("TXN-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
+                response.setResponseMessage("Payment processed successfully");
+                response.setGatewayReference("GW-" + System.currentTimeMillis());
+            } else {
+                response.setSuccess(false);
+                response.setResponseMessage("Payment declined by bank");
+                response.setErrorCode("DECLINED");
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            response.setSuccess(false);
+            response.setResponseMessage("Payment processing timeout");
+            response.setErrorCode("TIMEOUT");
+        }
+
+        return response;
+    }
+
+    @Override
+    public PaymentGatewayResponse refund(String transactionId, PaymentMethod paymentMethod, BigDecimal amount, String reason) {
+        // Mock refund processing
+        log.info("Processing refund through gateway for transaction {} with amount {} and reason: {}",
+                transactionId, amount, reason);
+
+        PaymentGatewayResponse response = new PaymentGatewayResponse();
+        response.setSuccess(true);
+        response.setTransactionId("REFUND-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
+        response.setResponseMessage("Refund processed successfully");
+        return response;
+    }
+}
@@ -0,0 +1,25 @@
+package com.enterprise.ecommerce.payment.gateway;
+
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment provider that charges and refunds payments
+ * <p>
+ * Calls block until the provider answers or the call times out; a call that fails or
+ * times out is reported as an unsuccessful response rather than thrown. The
+ * implementation is chosen with {@code app.payments.gateway.type}.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charge a payment
+     */
+    PaymentGatewayResponse charge(String paymentNumber, PaymentMethod paymentMethod, BigDecimal amount);
+
+    /**
+     * Refund part or all of a charged payment
+     */
+    PaymentGatewayResponse refund(String transactionId, PaymentMethod paymentMethod, BigDecimal amount, String reason);
+}
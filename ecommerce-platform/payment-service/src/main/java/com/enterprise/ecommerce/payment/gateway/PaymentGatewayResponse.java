@@ -0,0 +1,33 @@
+package com.enterprise.ecommerce.payment.gateway;
+
+/**
+ * Outcome of a payment gateway call
+ */
+public class PaymentGatewayResponse {
+
+    private boolean success;
+    private String transactionId;
+    private String responseMessage;
+    private String errorCode;
+    private String gatewayReference;
+
+    public static PaymentGatewayResponse failure(String errorCode, String responseMessage) {
+        PaymentGatewayResponse response = new PaymentGatewayResponse();
+        response.setSuccess(false);
+        response.setErrorCode(errorCode);
+        response.setResponseMessage(responseMessage);
+        return response;
+    }
+
+    // Getters and setters
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+    public String getResponseMessage() { return responseMessage; }
+    public void setResponseMessage(String responseMessage) { this.responseMessage = responseMessage; }
+    public String getErrorCode() { return errorCode; }
+    public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
+    public String getGatewayReference() { return gatewayReference; }
+    public void setGatewayReference(String gatewayReference) { this.gatewayReference = gatewayReference; }
+}
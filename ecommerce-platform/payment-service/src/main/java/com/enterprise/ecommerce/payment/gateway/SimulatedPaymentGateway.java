@@ -0,0 +1,97 @@
+package com.enterprise.ecommerce.payment.gateway;
+
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process payment gateway with configurable latency and failures, for load and
+ * latency testing payment-service without a real provider
+ * <p>
+ * Every call draws a latency from the payment method's distribution and an outcome
+ * from its decline, error and hang rates. Calls whose latency exceeds the timeout, and
+ * calls that hang, block for the timeout and come back as TIMEOUT, so the caller sees
+ * what it would see from a slow provider.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway.type", havingValue = "simulator")
+@EnableConfigurationProperties(GatewaySimulatorProperties.class)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final GatewaySimulatorProperties properties;
+
+    public SimulatedPaymentGateway(GatewaySimulatorProperties properties) {
+        this.properties = properties;
+        log.info("Using simulated payment gateway with timeout {}ms", properties.getTimeoutMs());
+    }
+
+    @Override
+    public PaymentGatewayResponse charge(String paymentNumber, PaymentMethod paymentMethod, BigDecimal amount) {
+        return call(paymentMethod, "TXN-", "Payment processed successfully");
+    }
+
+    @Override
+    public PaymentGatewayResponse refund(String transactionId, PaymentMethod paymentMethod, BigDecimal amount, String reason) {
+        return call(paymentMethod, "REFUND-", "Refund processed successfully");
+    }
+
+    private PaymentGatewayResponse call(PaymentMethod paymentMethod, String transactionPrefix, String successMessage) {
+        GatewaySimulatorProperties.Behavior behavior = properties.behaviorFor(paymentMethod);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timeoutMs = properties.getTimeoutMs();
+
+        long latencyMs = random.nextDouble() < behavior.getHangRate()
+                ? Long.MAX_VALUE
+                : sampleLatency(behavior.getLatency(), random);
+        try {
+            Thread.sleep(Math.min(latencyMs, timeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PaymentGatewayResponse.failure("TIMEOUT", "Payment processing timeout");
+        }
+        if (latencyMs > timeoutMs) {
+            return PaymentGatewayResponse.failure("TIMEOUT", "Gateway did not answer within " + timeoutMs + "ms");
+        }
+
+        double outcome = random.nextDouble();
+        if (outcome < behavior.getErrorRate()) {
+            return PaymentGatewayResponse.failure("GATEWAY_ERROR", "Gateway temporarily unavailable");
+        }
+        if (outcome < behavior.getErrorRate() + behavior.getDeclineRate()) {
+            return PaymentGatewayResponse.failure("DECLINED", "Payment declined by bank");
+        }
+
+        PaymentGatewayResponse response = new PaymentGatewayResponse();
+        response.setSuccess(true);
+        response.setTransactionId(transactionPrefix + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
+        response.setResponseMessage(successMessage);
+        response.setGatewayReference("SIM-" + System.currentTimeMillis());
+        return response;
+    }
+
+    private static long sampleLatency(GatewaySimulatorProperties.Latency latency, ThreadLocalRandom random) {
+        switch (latency.getDistribution()) {
+            case FIXED:
+                return latency.getMedianMs();
+            case BIMODAL:
+                if (random.nextDouble() < latency.getSpikeRate()) {
+                    return logNormal(latency.getSpikeMedianMs(), latency.getSigma(), random);
+                }
+                return logNormal(latency.getMedianMs(), latency.getSigma(), random);
+            case LOGNORMAL:
+            default:
+                return logNormal(latency.getMedianMs(), latency.getSigma(), random);
+        }
+    }
+
+    private static long logNormal(long medianMs, double sigma, ThreadLocalRandom random) {
+        return Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+}
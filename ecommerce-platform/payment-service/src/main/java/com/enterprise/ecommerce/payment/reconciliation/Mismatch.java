@@ -0,0 +1,14 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * A discrepancy found while merging payments with a settlement file
+ */
+public record Mismatch(MismatchType type,
+                       String transactionId,
+                       Long paymentId,
+                       BigDecimal paymentAmount,
+                       BigDecimal settledAmount,
+                       String detail) {
+}
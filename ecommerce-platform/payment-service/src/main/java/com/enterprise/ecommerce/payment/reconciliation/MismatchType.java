@@ -0,0 +1,17 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+/**
+ * Kinds of discrepancy between payments and a settlement file
+ */
+public enum MismatchType {
+    /** Settled by the gateway, but no such payment */
+    MISSING_PAYMENT,
+    /** Payment completed, but not in the settlement file */
+    UNSETTLED_PAYMENT,
+    AMOUNT_MISMATCH,
+    CURRENCY_MISMATCH,
+    /** Transaction settled more than once */
+    DUPLICATE_SETTLEMENT,
+    /** Settlement row that could not be read */
+    MALFORMED_ROW
+}
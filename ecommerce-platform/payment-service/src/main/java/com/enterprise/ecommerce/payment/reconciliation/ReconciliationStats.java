@@ -0,0 +1,64 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+/**
+ * Row counts of a reconciliation, or of one partition of it
+ */
+public class ReconciliationStats {
+
+    private long settlementRows;
+    private long paymentRows;
+    private long matched;
+    private long mismatches;
+
+    void settlementRow() {
+        settlementRows++;
+    }
+
+    void paymentRow() {
+        paymentRows++;
+    }
+
+    void matched() {
+        matched++;
+    }
+
+    void mismatch() {
+        mismatches++;
+    }
+
+    /**
+     * Add the counts of another partition to this one
+     */
+    public synchronized void add(ReconciliationStats other) {
+        settlementRows += other.settlementRows;
+        paymentRows += other.paymentRows;
+        matched += other.matched;
+        mismatches += other.mismatches;
+    }
+
+    public long getSettlementRows() {
+        return settlementRows;
+    }
+
+    public long getPaymentRows() {
+        return paymentRows;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationStats{" +
+                "settlementRows=" + settlementRows +
+                ", paymentRows=" + paymentRows +
+                ", matched=" + matched +
+                ", mismatches=" + mismatches +
+                '}';
+    }
+}
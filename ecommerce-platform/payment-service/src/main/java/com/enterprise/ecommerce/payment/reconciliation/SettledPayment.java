@@ -0,0 +1,17 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment fields compared against a settlement file
+ */
+public interface SettledPayment {
+
+    Long getId();
+
+    String getTransactionId();
+
+    BigDecimal getAmount();
+
+    String getCurrency();
+}
@@ -0,0 +1,250 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Gateway settlement file, read through memory mapping
+ * <p>
+ * The file is CSV with the columns {@code transaction_id,amount,currency}, optionally
+ * followed by further columns that are ignored, and an optional header row. Fields are
+ * not quoted. Rows must be sorted by transaction id in byte order, which is how
+ * settlement exports are produced and what {@code sort -t, -k1,1} with
+ * {@code LC_ALL=C} yields.
+ * <p>
+ * Because the rows are sorted, the file can be cut into segments at row boundaries,
+ * each holding one contiguous range of transaction ids, and the segments can be
+ * reconciled independently and in parallel.
+ */
+public final class SettlementFile implements Closeable {
+
+    /**
+     * Upper bound of the transaction id range of the last segment; transaction ids are
+     * ASCII, so every one of them sorts below it
+     */
+    public static final String MAX_KEY = "\uffff";
+
+    private static final String HEADER_KEY = "transaction_id";
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+    private static final int MAX_KEY_BYTES = 255;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+
+    private SettlementFile(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    public static SettlementFile open(Path path) throws IOException {
+        return new SettlementFile(path, FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Cut the file into about {@code count} segments of similar size. A segment ends at
+     * a row boundary, and all rows of one transaction id fall into the same segment.
+     */
+    public List<Segment> split(int count) throws IOException {
+        long dataStart = size > 0 && HEADER_KEY.equals(keyAt(0)) ? nextLineStart(1) : 0;
+        int segments = (int) Math.max(Math.max(count, 1), (size - dataStart) / MAX_SEGMENT_BYTES + 1);
+
+        List<Long> starts = new ArrayList<>();
+        starts.add(dataStart);
+        for (int i = 1; i < segments; i++) {
+            long boundary = boundaryAfter(Math.max(dataStart, dataStart + (size - dataStart) * i / segments));
+            if (boundary > starts.get(starts.size() - 1) && boundary < size) {
+                starts.add(boundary);
+            }
+        }
+
+        List<Segment> result = new ArrayList<>(starts.size());
+        String fromKey = "";
+        for (int i = 0; i < starts.size(); i++) {
+            long end = i + 1 < starts.size() ? starts.get(i + 1) : size;
+            String toKey = i + 1 < starts.size() ? keyAt(end) : MAX_KEY;
+            result.add(new Segment(i, starts.get(i), end, fromKey, toKey));
+            fromKey = toKey;
+        }
+        return result;
+    }
+
+    /**
+     * Read the rows of a segment in file order; rows that cannot be parsed are passed to
+     * {@code malformedRows} with their byte offset and skipped
+     */
+    public Iterator<SettlementRecord> read(Segment segment, ObjLongConsumer<String> malformedRows) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segment.start(), segment.length());
+        return new SegmentReader(buffer, segment.start(), malformedRows);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A byte range of the file holding the transaction ids from {@code fromKey},
+     * inclusive, to {@code toKey}, exclusive
+     */
+    public record Segment(int index, long start, long end, String fromKey, String toKey) {
+
+        public long length() {
+            return end - start;
+        }
+    }
+
+    private long boundaryAfter(long position) throws IOException {
+        long lineStart = nextLineStart(position);
+        // Move past rows that continue the transaction id of the preceding row
+        while (lineStart < size && lineStart > 0 && keyAt(lineStart).equals(keyAt(previousLineStart(lineStart)))) {
+            lineStart = nextLineStart(lineStart + 1);
+        }
+        return lineStart;
+    }
+
+    private long nextLineStart(long position) throws IOException {
+        if (position <= 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long at = position - 1;
+        while (at < size) {
+            buffer.clear();
+            int read = channel.read(buffer, at);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    private long previousLineStart(long lineStart) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        for (long at = lineStart - 2; at >= 0; at--) {
+            buffer.clear();
+            channel.read(buffer, at);
+            if (buffer.get(0) == '\n') {
+                return at + 1;
+            }
+        }
+        return 0;
+    }
+
+    private String keyAt(long lineStart) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_KEY_BYTES + 1);
+        int read = Math.max(0, channel.read(buffer, lineStart));
+        int end = 0;
+        while (end < read && buffer.get(end) != ',' && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        return new String(buffer.array(), 0, end, StandardCharsets.ISO_8859_1);
+    }
+
+    private static final class SegmentReader implements Iterator<SettlementRecord> {
+
+        private final MappedByteBuffer buffer;
+        private final long base;
+        private final ObjLongConsumer<String> malformedRows;
+        private int position;
+        private SettlementRecord next;
+
+        SegmentReader(MappedByteBuffer buffer, long base, ObjLongConsumer<String> malformedRows) {
+            this.buffer = buffer;
+            this.base = base;
+            this.malformedRows = malformedRows;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public SettlementRecord next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            SettlementRecord current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            int limit = buffer.limit();
+            while (next == null && position < limit) {
+                int lineStart = position;
+                int newline = indexOf((byte) '\n', lineStart, limit);
+                int lineEnd = newline < 0 ? limit : newline;
+                position = lineEnd + 1;
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart) {
+                    next = parse(lineStart, lineEnd);
+                }
+            }
+        }
+
+        private SettlementRecord parse(int lineStart, int lineEnd) {
+            long offset = base + lineStart;
+            int amountStart = indexOf((byte) ',', lineStart, lineEnd) + 1;
+            int currencyStart = amountStart > 0 ? indexOf((byte) ',', amountStart, lineEnd) + 1 : 0;
+            if (amountStart <= 1 || currencyStart <= 0) {
+                malformedRows.accept("Expected transaction_id,amount,currency", offset);
+                return null;
+            }
+            int currencyEnd = indexOf((byte) ',', currencyStart, lineEnd);
+            String transactionId = text(lineStart, amountStart - 1);
+            String amount = text(amountStart, currencyStart - 1);
+            String currency = text(currencyStart, currencyEnd < 0 ? lineEnd : currencyEnd);
+            try {
+                return new SettlementRecord(transactionId, new BigDecimal(amount), currency, offset);
+            } catch (NumberFormatException e) {
+                malformedRows.accept("Invalid amount '" + amount + "' for " + transactionId, offset);
+                return null;
+            }
+        }
+
+        private int indexOf(byte value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private String text(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Sort-merge join of settlement rows with payments
+ * <p>
+ * Both inputs are sorted by transaction id, so each is read once, in step with the
+ * other, and memory use does not grow with their size. Discrepancies are passed to
+ * the sink as they are found.
+ */
+public class SettlementMerger {
+
+    private final Consumer<Mismatch> sink;
+    private final ReconciliationStats stats = new ReconciliationStats();
+
+    public SettlementMerger(Consumer<Mismatch> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Merge one transaction id range of the settlement file with the payments of the
+     * same range
+     */
+    public ReconciliationStats merge(Iterator<SettlementRecord> settlements, Iterator<? extends SettledPayment> payments) {
+        SettlementCursor settlement = new SettlementCursor(settlements);
+        SettledPayment payment = nextPayment(payments);
+        while (settlement.current != null || payment != null) {
+            int order = settlement.current == null ? 1
+                    : payment == null ? -1
+                    : settlement.current.transactionId().compareTo(payment.getTransactionId());
+            if (order < 0) {
+                SettlementRecord row = settlement.current;
+                report(new Mismatch(MismatchType.MISSING_PAYMENT, row.transactionId(), null, null, row.amount(),
+                        "Settled at byte " + row.offset() + " without a matching payment"));
+                settlement.advance();
+            } else if (order > 0) {
+                report(new Mismatch(MismatchType.UNSETTLED_PAYMENT, payment.getTransactionId(), payment.getId(),
+                        payment.getAmount(), null, "Payment not in settlement file"));
+                payment = nextPayment(payments);
+            } else {
+                compare(settlement.current, payment);
+                settlement.advance();
+                payment = nextPayment(payments);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Report a settlement row that could not be read
+     */
+    public void reportMalformed(String detail, long offset) {
+        report(new Mismatch(MismatchType.MALFORMED_ROW, null, null, null, null, detail + " at byte " + offset));
+    }
+
+    public ReconciliationStats getStats() {
+        return stats;
+    }
+
+    private void compare(SettlementRecord row, SettledPayment payment) {
+        if (row.amount().compareTo(payment.getAmount()) != 0) {
+            report(new Mismatch(MismatchType.AMOUNT_MISMATCH, row.transactionId(), payment.getId(),
+                    payment.getAmount(), row.amount(), null));
+        } else if (!row.currency().equalsIgnoreCase(payment.getCurrency())) {
+            report(new Mismatch(MismatchType.CURRENCY_MISMATCH, row.transactionId(), payment.getId(),
+                    payment.getAmount(), row.amount(),
+                    "Payment in " + payment.getCurrency() + ", settled in " + row.currency()));
+        } else {
+            stats.matched();
+        }
+    }
+
+    private SettledPayment nextPayment(Iterator<? extends SettledPayment> payments) {
+        if (!payments.hasNext()) {
+            return null;
+        }
+        stats.paymentRow();
+        return payments.next();
+    }
+
+    private void report(Mismatch mismatch) {
+        stats.mismatch();
+        sink.accept(mismatch);
+    }
+
+    /**
+     * Settlement rows in order, with repeated transaction ids reported and skipped
+     */
+    private final class SettlementCursor {
+
+        private final Iterator<SettlementRecord> rows;
+        private SettlementRecord current;
+        private String previousKey;
+
+        SettlementCursor(Iterator<SettlementRecord> rows) {
+            this.rows = rows;
+            advance();
+        }
+
+        void advance() {
+            current = null;
+            while (current == null && rows.hasNext()) {
+                SettlementRecord row = rows.next();
+                stats.settlementRow();
+                if (previousKey != null) {
+                    int order = row.transactionId().compareTo(previousKey);
+                    if (order < 0) {
+                        throw new IllegalStateException("Settlement file is not sorted by transaction_id at byte "
+                                + row.offset());
+                    }
+                    if (order == 0) {
+                        report(new Mismatch(MismatchType.DUPLICATE_SETTLEMENT, row.transactionId(), null, null,
+                                row.amount(), "Repeated at byte " + row.offset()));
+                        continue;
+                    }
+                }
+                previousKey = row.transactionId();
+                current = row;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.enterprise.ecommerce.payment.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a gateway settlement file
+ *
+ * @param transactionId gateway transaction id of the settled payment
+ * @param amount        settled amount
+ * @param currency      ISO currency code
+ * @param offset        byte offset of the row in the file, for reporting
+ */
+public record SettlementRecord(String transactionId, BigDecimal amount, String currency, long offset) {
+}
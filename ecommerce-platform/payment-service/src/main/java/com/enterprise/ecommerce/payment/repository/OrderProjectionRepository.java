@@ -0,0 +1,66 @@
+package com.enterprise.ecommerce.payment.repository;
+
+import com.enterprise.ecommerce.payment.entity.OrderProjection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for the local order projection
+ */
+@Repository
+public interface OrderProjectionRepository extends JpaRepository<OrderProjection, Long> {
+
+    /**
+     * Find an order and lock its row until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrderProjection o WHERE o.orderId = :orderId")
+    Optional<OrderProjection> findByIdForUpdate(@Param("orderId") Long orderId);
+
+    /**
+     * Record a placed order; an order already known keeps its status
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_projections (order_id, user_id, total_amount, status, updated_at) " +
+            "VALUES (:orderId, :userId, :totalAmount, :status, :now) " +
+            "ON CONFLICT (order_id) DO UPDATE SET user_id = EXCLUDED.user_id, " +
+            "total_amount = EXCLUDED.total_amount, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsertPlaced(@Param("orderId") Long orderId,
+                     @Param("userId") Long userId,
+                     @Param("totalAmount") BigDecimal totalAmount,
+                     @Param("status") String status,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Record an order as read from Order Service, replacing what is known about it
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_projections (order_id, user_id, total_amount, status, updated_at) " +
+            "VALUES (:orderId, :userId, :totalAmount, :status, :now) " +
+            "ON CONFLICT (order_id) DO UPDATE SET user_id = EXCLUDED.user_id, " +
+            "total_amount = EXCLUDED.total_amount, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int upsert(@Param("orderId") Long orderId,
+               @Param("userId") Long userId,
+               @Param("totalAmount") BigDecimal totalAmount,
+               @Param("status") String status,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Record a status change of a known order; unknown orders are left to be fetched
+     * on first use
+     */
+    @Modifying
+    @Query(value = "UPDATE order_projections SET status = :status, updated_at = :now WHERE order_id = :orderId",
+            nativeQuery = true)
+    int updateStatus(@Param("orderId") Long orderId, @Param("status") String status, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package com.enterprise.ecommerce.payment.repository;
+
+import com.enterprise.ecommerce.payment.entity.PaymentEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the append-only payment ledger
+ */
+@Repository
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    /**
+     * Find all events of a payment in the order they were recorded
+     */
+    List<PaymentEvent> findByPaymentIdOrderBySequence(Long paymentId);
+
+    /**
+     * Find the events of a payment recorded after the given sequence number
+     */
+    List<PaymentEvent> findByPaymentIdAndSequenceGreaterThanOrderBySequence(Long paymentId, int sequence);
+}
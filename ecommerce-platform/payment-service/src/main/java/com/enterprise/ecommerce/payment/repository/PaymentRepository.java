@@ -2,16 +2,23 @@ package com.enterprise.ecommerce.payment.repository;
 
 import com.enterprise.ecommerce.payment.entity.Payment;
 import com.enterprise.ecommerce.payment.entity.PaymentStatus;
+import com.enterprise.ecommerce.payment.reconciliation.SettledPayment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Payment entity
@@ -56,6 +63,37 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findPaymentsBetweenDates(@Param("startDate") LocalDateTime startDate, 
                                            @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Stream payments created within a range, oldest first, fetching rows from a database
+     * cursor in batches. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.createdAt >= :from AND p.createdAt < :to ORDER BY p.createdAt, p.id")
+    Stream<Payment> streamCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Stream the payments charged within a range whose transaction ids fall in
+     * [fromKey, toKey), ordered by transaction id in byte order, fetching rows from a
+     * database cursor in batches. Must be consumed inside a transaction and closed
+     * afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT id, transaction_id AS transactionId, amount, currency FROM payments " +
+            "WHERE transaction_id COLLATE \"C\" >= :fromKey AND transaction_id COLLATE \"C\" < :toKey " +
+            "AND payment_status IN ('COMPLETED', 'REFUNDED', 'PARTIALLY_REFUNDED') " +
+            "AND processed_at >= :from AND processed_at < :to " +
+            "ORDER BY transaction_id COLLATE \"C\"", nativeQuery = true)
+    Stream<SettledPayment> streamSettledPayments(@Param("fromKey") String fromKey,
+                                                 @Param("toKey") String toKey,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
     /**
      * Find payments by transaction ID
      */
@@ -78,8 +116,50 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findSuccessfulPaymentsByUserId(@Param("userId") Long userId);
 
     /**
-     * Find failed payments that can be retried
+     * Lock failed payments of a method whose retry is due, most overdue first. Rows
+     * locked by another instance are skipped, so concurrent schedulers claim disjoint
+     * batches.
+     */
+    @Query(value = "SELECT * FROM payments WHERE payment_status = 'FAILED' AND payment_method = :paymentMethod " +
+            "AND next_retry_at <= :now AND created_at > :cutoffDate " +
+            "ORDER BY next_retry_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Payment> findRetriableFailedPayments(@Param("paymentMethod") String paymentMethod,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("cutoffDate") LocalDateTime cutoffDate,
+                                              @Param("limit") int limit);
+
+    /**
+     * Lock payments that have been PROCESSING since before the cutoff, oldest first,
+     * skipping rows locked by another instance
+     */
+    @Query(value = "SELECT * FROM payments WHERE payment_status = 'PROCESSING' AND updated_at < :cutoff " +
+            "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Payment> findStaleProcessingPayments(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Count failed payments whose retry is due
+     */
+    @Query("SELECT COUNT(p) FROM Payment p WHERE p.status = 'FAILED' AND p.nextRetryAt <= :now AND p.createdAt > :cutoffDate")
+    long countDueRetries(@Param("now") LocalDateTime now, @Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * Write a snapshot folded up to {@code ledgerVersion} over the stored one, unless
+     * the stored one already covers that many events
      */
-    @Query("SELECT p FROM Payment p WHERE p.status = 'FAILED' AND p.createdAt > :cutoffDate")
-    List<Payment> findRetriableFailedPayments(@Param("cutoffDate") LocalDateTime cutoffDate);
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.transactionId = :transactionId, " +
+            "p.gatewayResponse = :gatewayResponse, p.failureReason = :failureReason, p.processedAt = :processedAt, " +
+            "p.refundedAmount = :refundedAmount, p.pendingRefundAmount = :pendingRefundAmount, " +
+            "p.ledgerVersion = :ledgerVersion, p.updatedAt = :updatedAt " +
+            "WHERE p.id = :id AND p.ledgerVersion < :ledgerVersion")
+    int updateSnapshot(@Param("id") Long id,
+                       @Param("status") PaymentStatus status,
+                       @Param("transactionId") String transactionId,
+                       @Param("gatewayResponse") String gatewayResponse,
+                       @Param("failureReason") String failureReason,
+                       @Param("processedAt") LocalDateTime processedAt,
+                       @Param("refundedAmount") BigDecimal refundedAmount,
+                       @Param("pendingRefundAmount") BigDecimal pendingRefundAmount,
+                       @Param("ledgerVersion") int ledgerVersion,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
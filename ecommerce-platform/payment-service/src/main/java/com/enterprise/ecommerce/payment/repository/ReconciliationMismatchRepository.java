@@ -0,0 +1,19 @@
+package com.enterprise.ecommerce.payment.repository;
+
+import com.enterprise.ecommerce.payment.entity.ReconciliationMismatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for discrepancies found by reconciliation runs
+ */
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+
+    /**
+     * Find the discrepancies of a run
+     */
+    Page<ReconciliationMismatch> findByRunIdOrderById(Long runId, Pageable pageable);
+}
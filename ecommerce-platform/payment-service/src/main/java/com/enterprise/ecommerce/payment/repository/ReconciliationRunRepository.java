@@ -0,0 +1,21 @@
+package com.enterprise.ecommerce.payment.repository;
+
+import com.enterprise.ecommerce.payment.entity.ReconciliationRun;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repository for settlement reconciliation runs
+ */
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    /**
+     * Find the runs of a settlement date, latest first
+     */
+    Page<ReconciliationRun> findBySettlementDateOrderByStartedAtDesc(LocalDate settlementDate, Pageable pageable);
+}
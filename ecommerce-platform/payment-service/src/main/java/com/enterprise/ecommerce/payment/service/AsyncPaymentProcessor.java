@@ -0,0 +1,205 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import com.enterprise.ecommerce.payment.dto.PaymentResponse;
+import com.enterprise.ecommerce.payment.dto.ProcessPaymentRequest;
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import com.enterprise.ecommerce.payment.gateway.PaymentGateway;
+import com.enterprise.ecommerce.payment.gateway.PaymentGatewayResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link PaymentGateway} calls off the request thread
+ * <p>
+ * A request only validates the payment and commits it as PROCESSING; the gateway call
+ * then runs on a dedicated pool that holds neither a servlet thread nor a database
+ * connection, and its outcome is committed by
+ * {@link PaymentService#completeGatewayPayment} in a short transaction of its own.
+ * The number of payments in flight is capped, and requests over the cap are turned
+ * away before anything is persisted.
+ */
+@Component
+@Slf4j
+public class AsyncPaymentProcessor {
+
+    private static final String SERVICE_NAME = "payment-gateway";
+
+    private final PaymentService paymentService;
+    private final PaymentGateway paymentGateway;
+    private final MeterRegistry meterRegistry;
+    private final Counter retriesSucceeded;
+    private final Counter retriesFailed;
+    private final Semaphore inFlight;
+    private final long admissionTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncPaymentProcessor(PaymentService paymentService,
+                                 PaymentGateway paymentGateway,
+                                 @Value("${app.payments.gateway.max-in-flight:500}") int maxInFlight,
+                                 @Value("${app.payments.gateway.admission-timeout-ms:100}") long admissionTimeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.paymentGateway = paymentGateway;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+
+        // One thread per admitted payment; idle threads are released after a minute
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-gateway-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.retriesSucceeded = Counter.builder("payments.retry.attempts")
+                .description("Gateway attempts at previously failed payments")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.retriesFailed = Counter.builder("payments.retry.attempts")
+                .description("Gateway attempts at previously failed payments")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("payments.gateway.in_flight", () -> maxInFlight - inFlight.availablePermits())
+                .description("Payments waiting on the payment gateway")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accept a payment for processing; the returned payment is still PROCESSING
+     */
+    public PaymentResponse submit(ProcessPaymentRequest request) {
+        acquire();
+        PaymentResponse payment;
+        try {
+            payment = paymentService.createProcessingPayment(request);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        dispatch(payment, false);
+        return payment;
+    }
+
+    /**
+     * Accept a new attempt at a failed payment
+     */
+    public PaymentResponse retry(Long paymentId) {
+        acquire();
+        PaymentResponse payment;
+        try {
+            payment = paymentService.claimForRetry(paymentId);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        dispatch(payment, true);
+        return payment;
+    }
+
+    /**
+     * Claim and dispatch up to {@code limit} due retries of a payment method, without
+     * waiting for in-flight slots; returns the number dispatched
+     */
+    public int retryDue(PaymentMethod paymentMethod, int limit) {
+        int slots = Math.min(limit, inFlight.availablePermits());
+        if (slots <= 0 || !inFlight.tryAcquire(slots)) {
+            return 0;
+        }
+        List<PaymentResponse> payments;
+        try {
+            payments = paymentService.claimDueRetries(paymentMethod, slots);
+        } catch (RuntimeException e) {
+            inFlight.release(slots);
+            throw e;
+        }
+        if (payments.size() < slots) {
+            inFlight.release(slots - payments.size());
+        }
+        payments.forEach(payment -> dispatch(payment, true));
+        return payments.size();
+    }
+
+    private void acquire() {
+        try {
+            if (!inFlight.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException(SERVICE_NAME, "Too many payments in progress, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SERVICE_NAME, e);
+        }
+    }
+
+    private void dispatch(PaymentResponse payment, boolean retry) {
+        try {
+            executor.execute(() -> {
+                try {
+                    PaymentGatewayResponse response = callGateway(payment);
+                    if (retry) {
+                        (response.isSuccess() ? retriesSucceeded : retriesFailed).increment();
+                    }
+                    complete(payment.getId(), response);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            complete(payment.getId(), PaymentGatewayResponse.failure("UNAVAILABLE", "Payment processing is shutting down"));
+        }
+    }
+
+    private void complete(Long paymentId, PaymentGatewayResponse gatewayResponse) {
+        try {
+            paymentService.completeGatewayPayment(paymentId, gatewayResponse);
+        } catch (RuntimeException e) {
+            // Left in PROCESSING until the StalePaymentSweeper fails it for retry
+            log.error("Failed to record gateway outcome for payment {}", paymentId, e);
+        }
+    }
+
+    private PaymentGatewayResponse callGateway(PaymentResponse payment) {
+        long start = System.nanoTime();
+        PaymentGatewayResponse response;
+        try {
+            response = paymentGateway.charge(payment.getPaymentNumber(), payment.getPaymentMethod(), payment.getAmount());
+        } catch (RuntimeException e) {
+            log.warn("Gateway call for payment {} failed: {}", payment.getPaymentNumber(), e.toString());
+            response = PaymentGatewayResponse.failure("GATEWAY_ERROR", "Payment gateway error");
+        }
+        Timer.builder("payments.gateway.calls")
+                .description("Payment gateway charge calls")
+                .tag("method", payment.getPaymentMethod().name())
+                .tag("outcome", response.isSuccess() ? "SUCCESS" : String.valueOf(response.getErrorCode()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} payments still waiting on the gateway at shutdown", executor.getActiveCount());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.exception.BusinessException;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import com.enterprise.ecommerce.payment.dto.PaymentResponse;
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Handles the payment step of the checkout saga
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class CheckoutCommandListener {
+
+    private final PaymentService paymentService;
+    private final KafkaProducerService kafkaProducerService;
+
+    public CheckoutCommandListener(PaymentService paymentService, KafkaProducerService kafkaProducerService) {
+        this.paymentService = paymentService;
+        this.kafkaProducerService = kafkaProducerService;
+    }
+
+    /**
+     * Handle a checkout command addressed to the payment step
+     */
+    @KafkaListener(topics = CheckoutCommand.TOPIC, containerFactory = "checkoutCommandListenerContainerFactory")
+    public void onCheckoutCommand(CheckoutCommand command) {
+        if (command == null || command.getStep() != CheckoutCommand.Step.REQUEST_PAYMENT) {
+            return;
+        }
+
+        Long orderId = Long.valueOf(command.getOrderId());
+        Long userId = Long.valueOf(command.getUserId());
+        CheckoutReply reply;
+        try {
+            PaymentMethod paymentMethod = PaymentMethod.valueOf(command.getPaymentMethod());
+            if (command.getAction() == CheckoutCommand.Action.COMPENSATE) {
+                paymentService.cancelCheckoutPayment(orderId, userId, command.getAmount(), paymentMethod, "Checkout rolled back");
+                reply = CheckoutReply.succeeded(command);
+            } else {
+                PaymentResponse payment = paymentService.requestCheckoutPayment(orderId, userId, command.getAmount(), paymentMethod);
+                reply = CheckoutReply.succeeded(command);
+                reply.setPaymentId(payment.getPaymentNumber());
+            }
+        } catch (BusinessException | IllegalArgumentException e) {
+            log.info("Payment request for order {} refused: {}", command.getOrderId(), e.getMessage());
+            reply = CheckoutReply.failed(command, e.getMessage());
+        }
+        kafkaProducerService.sendMessage(CheckoutReply.TOPIC, command.getOrderId(), reply);
+    }
+}
@@ -0,0 +1,38 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.payment.dto.OrderEventMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the local order projection in step with Order Service
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class OrderEventListener {
+
+    private final OrderProjectionService projectionService;
+
+    public OrderEventListener(OrderProjectionService projectionService) {
+        this.projectionService = projectionService;
+    }
+
+    /**
+     * Handle a batch of order events
+     */
+    @KafkaListener(topics = "order-events", containerFactory = "orderEventsListenerContainerFactory")
+    public void onOrderEvents(List<OrderEventMessage> events) {
+        // Records that failed to deserialize arrive as nulls
+        List<OrderEventMessage> validEvents = events.stream().filter(Objects::nonNull).toList();
+        if (!validEvents.isEmpty()) {
+            projectionService.applyEvents(validEvents);
+            log.debug("Applied {} order events to the order projection", validEvents.size());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.ServiceUnavailableException;
+import com.enterprise.ecommerce.payment.dto.OrderEventMessage;
+import com.enterprise.ecommerce.payment.entity.OrderProjection;
+import com.enterprise.ecommerce.payment.repository.OrderProjectionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local projection of orders for payment validation
+ * <p>
+ * Orders are recorded from order events as they are placed and change status, so
+ * validating a payment normally needs no call to Order Service. An order not in the
+ * projection yet, e.g. one placed before this service started consuming, is fetched
+ * from Order Service once and recorded.
+ */
+@Service
+@Transactional
+@Slf4j
+public class OrderProjectionService {
+
+    private static final String ORDER_SERVICE = "order-service";
+    private static final String PLACED_STATUS = "PENDING";
+
+    private final OrderProjectionRepository projectionRepository;
+    private final RestTemplate restTemplate;
+    private final Counter projectionHits;
+    private final Counter projectionMisses;
+
+    public OrderProjectionService(OrderProjectionRepository projectionRepository,
+                                  RestTemplate restTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.projectionRepository = projectionRepository;
+        this.restTemplate = restTemplate;
+        this.projectionHits = Counter.builder("payments.order.lookups")
+                .description("Order lookups for payment validation")
+                .tag("source", "projection")
+                .register(meterRegistry);
+        this.projectionMisses = Counter.builder("payments.order.lookups")
+                .description("Order lookups for payment validation")
+                .tag("source", ORDER_SERVICE)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find an order, from the projection when it is known there and from Order Service
+     * otherwise
+     */
+    public Optional<OrderProjection> findOrder(Long orderId) {
+        Optional<OrderProjection> projected = projectionRepository.findById(orderId);
+        if (projected.isPresent()) {
+            projectionHits.increment();
+            return projected;
+        }
+        projectionMisses.increment();
+
+        Optional<OrderProjection> fetched = fetchOrder(orderId);
+        fetched.ifPresent(order -> projectionRepository.upsert(order.getOrderId(), order.getUserId(),
+                order.getTotalAmount(), order.getStatus(), order.getUpdatedAt()));
+        return fetched;
+    }
+
+    /**
+     * Lock a known order until the end of the transaction, so that payments of the
+     * order are created one at a time
+     */
+    public void lockOrder(Long orderId) {
+        projectionRepository.findByIdForUpdate(orderId);
+    }
+
+    /**
+     * Record an order placed through the checkout saga, unless it is known already, and
+     * lock it like {@link #lockOrder}
+     */
+    public void lockCheckoutOrder(Long orderId, Long userId, BigDecimal totalAmount) {
+        projectionRepository.upsertPlaced(orderId, userId, totalAmount, PLACED_STATUS, LocalDateTime.now());
+        lockOrder(orderId);
+    }
+
+    /**
+     * Apply a batch of order events in order
+     */
+    public void applyEvents(List<OrderEventMessage> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderEventMessage event : events) {
+            if (event.getOrderId() == null) {
+                continue;
+            }
+            Long orderId = Long.valueOf(event.getOrderId());
+            if (event.isPlacedEvent() && event.getUserId() != null) {
+                projectionRepository.upsertPlaced(orderId, Long.valueOf(event.getUserId()),
+                        event.getTotalAmount(), PLACED_STATUS, now);
+            }
+            if (event.isStatusChange()) {
+                projectionRepository.updateStatus(orderId, event.getStatus(), now);
+            }
+        }
+    }
+
+    private Optional<OrderProjection> fetchOrder(Long orderId) {
+        JsonNode order;
+        try {
+            order = restTemplate.getForObject("http://order-service/api/orders/" + orderId, JsonNode.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        } catch (RestClientException e) {
+            log.warn("Order {} lookup failed: {}", orderId, e.getMessage());
+            throw new ServiceUnavailableException(ORDER_SERVICE, e);
+        }
+        if (order == null || !order.hasNonNull("userId") || !order.hasNonNull("totalAmount")) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrderProjection(orderId, order.get("userId").asLong(),
+                order.get("totalAmount").decimalValue(), order.path("status").asText(PLACED_STATUS)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.export.ExportColumn;
+import com.enterprise.ecommerce.common.export.ExportFormat;
+import com.enterprise.ecommerce.common.export.ExportWriter;
+import com.enterprise.ecommerce.payment.entity.Payment;
+import com.enterprise.ecommerce.payment.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming payment exports
+ * <p>
+ * Payments are read through a database cursor and written out one at a time; each entity
+ * is detached from the persistence context once written, so memory use does not grow with
+ * the size of the export.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class PaymentExportService {
+
+    private static final List<ExportColumn<Payment>> COLUMNS = List.of(
+            ExportColumn.of("id", Payment::getId),
+            ExportColumn.of("paymentNumber", Payment::getPaymentId),
+            ExportColumn.of("orderId", Payment::getOrderId),
+            ExportColumn.of("userId", Payment::getUserId),
+            ExportColumn.of("amount", Payment::getAmount),
+            ExportColumn.of("currency", Payment::getCurrency),
+            ExportColumn.of("status", Payment::getStatus),
+            ExportColumn.of("paymentMethod", Payment::getPaymentMethod),
+            ExportColumn.of("transactionId", Payment::getTransactionId),
+            ExportColumn.of("failureReason", Payment::getFailureReason),
+            ExportColumn.of("processedAt", Payment::getProcessedAt),
+            ExportColumn.of("createdAt", Payment::getCreatedAt),
+            ExportColumn.of("updatedAt", Payment::getUpdatedAt));
+
+    private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public PaymentExportService(PaymentRepository paymentRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.paymentRepository = paymentRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write all payments created in [from, to) to the output, oldest first
+     *
+     * @return the number of payments written
+     */
+    public long exportPayments(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream output)
+            throws IOException {
+        try (Stream<Payment> payments = paymentRepository.streamCreatedBetween(from, to);
+             ExportWriter<Payment> writer = new ExportWriter<>(format, COLUMNS, output, objectMapper)) {
+            Iterator<Payment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                Payment payment = iterator.next();
+                writer.write(payment);
+                entityManager.detach(payment);
+            }
+
+            log.info("Exported {} payments created between {} and {} as {}", writer.getCount(), from, to, format);
+            return writer.getCount();
+        }
+    }
+}
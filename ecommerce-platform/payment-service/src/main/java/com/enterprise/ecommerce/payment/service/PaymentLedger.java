@@ -0,0 +1,223 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
+import com.enterprise.ecommerce.payment.entity.Payment;
+import com.enterprise.ecommerce.payment.entity.PaymentEvent;
+import com.enterprise.ecommerce.payment.entity.PaymentStatus;
+import com.enterprise.ecommerce.payment.repository.PaymentEventRepository;
+import com.enterprise.ecommerce.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Append-only ledger of payment state changes
+ * <p>
+ * Every change of a payment is recorded as a {@link PaymentEvent} numbered per payment,
+ * and the payment's state is the fold of its events. The {@code payments} row is a
+ * snapshot of that fold tagged with the number of events it covers; reads are served
+ * from the snapshot, and the fold only replays events recorded after it.
+ * <p>
+ * Changes that rewrite the payment row anyway, such as recording a gateway outcome, go
+ * through {@link #record}. Refunds, which may arrive for one payment concurrently, go
+ * through {@link #append}: the event is inserted without locking the payment row, and
+ * two writers racing for the same sequence number are told apart by the unique key;
+ * the loser folds the winner's event in and tries again.
+ */
+@Component
+@Slf4j
+public class PaymentLedger {
+
+    private static final String PAYMENT_NOT_FOUND_MESSAGE = "Payment not found with id: ";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentEventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Counter conflictsRetried;
+    private final Counter conflictsExhausted;
+
+    public PaymentLedger(PaymentRepository paymentRepository,
+                         PaymentEventRepository eventRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.payments.ledger.max-attempts:5}") int maxAttempts,
+                         MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.conflictsRetried = Counter.builder("payments.ledger.conflicts")
+                .description("Ledger appends that lost the race for a sequence number")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.conflictsExhausted = Counter.builder("payments.ledger.conflicts")
+                .description("Ledger appends that lost the race for a sequence number")
+                .tag("outcome", "exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record events of a payment whose row is saved in the caller's transaction; the
+     * events are folded into the payment, which the caller persists as the new snapshot
+     */
+    public void record(Payment payment, PaymentEvent... events) {
+        catchUp(payment);
+        for (PaymentEvent event : events) {
+            insert(payment, event);
+        }
+    }
+
+    /**
+     * Append the event decided from the current state of a payment, in a transaction of
+     * its own, and return the state with the event folded in. The payment row is not
+     * written; see {@link #saveSnapshot}.
+     * <p>
+     * {@code decision} may be applied more than once when concurrent appends conflict,
+     * and should throw to refuse the change.
+     */
+    public Payment append(Long paymentId, Function<Payment, PaymentEvent> decision) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Payment payment = paymentRepository.findById(paymentId)
+                            .orElseThrow(() -> new ResourceNotFoundException(PAYMENT_NOT_FOUND_MESSAGE + paymentId));
+                    // The snapshot is folded forward in memory only
+                    entityManager.detach(payment);
+                    catchUp(payment);
+                    insert(payment, decision.apply(payment));
+                    return payment;
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    conflictsExhausted.increment();
+                    log.warn("Append to ledger of payment {} still conflicting after {} attempts", paymentId, attempt);
+                    throw e;
+                }
+                conflictsRetried.increment();
+                log.debug("Append to ledger of payment {} conflicted on attempt {}", paymentId, attempt);
+            }
+        }
+    }
+
+    /**
+     * Store a state returned by {@link #append} as the payment's snapshot, unless the
+     * stored snapshot already covers more events
+     */
+    public void saveSnapshot(Payment state) {
+        transactionTemplate.executeWithoutResult(status -> paymentRepository.updateSnapshot(
+                state.getId(), state.getStatus(), state.getTransactionId(), state.getGatewayResponse(),
+                state.getFailureReason(), state.getProcessedAt(), state.getRefundedAmount(),
+                state.getPendingRefundAmount(), state.getLedgerVersion(), state.getUpdatedAt()));
+    }
+
+    /**
+     * Rebuild the snapshot of a payment by folding all of its events from the start
+     */
+    public Payment rebuildSnapshot(Long paymentId) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findById(paymentId)
+                    .orElseThrow(() -> new ResourceNotFoundException(PAYMENT_NOT_FOUND_MESSAGE + paymentId));
+            reset(payment);
+            eventRepository.findByPaymentIdOrderBySequence(paymentId).forEach(event -> apply(payment, event));
+            log.info("Rebuilt snapshot of payment {} at version {}", payment.getPaymentId(), payment.getLedgerVersion());
+            return paymentRepository.save(payment);
+        });
+    }
+
+    /**
+     * Get the events of a payment in the order they were recorded
+     */
+    public List<PaymentEvent> history(Long paymentId) {
+        return eventRepository.findByPaymentIdOrderBySequence(paymentId);
+    }
+
+    /**
+     * Fold the events recorded after the payment's snapshot into it
+     */
+    private void catchUp(Payment payment) {
+        eventRepository.findByPaymentIdAndSequenceGreaterThanOrderBySequence(payment.getId(), payment.getLedgerVersion())
+                .forEach(event -> apply(payment, event));
+    }
+
+    private void insert(Payment payment, PaymentEvent event) {
+        event.setPaymentId(payment.getId());
+        event.setSequence(payment.getLedgerVersion() + 1);
+        eventRepository.save(event);
+        apply(payment, event);
+    }
+
+    private static void reset(Payment payment) {
+        payment.setStatus(null);
+        payment.setTransactionId(null);
+        payment.setGatewayResponse(null);
+        payment.setFailureReason(null);
+        payment.setProcessedAt(null);
+        payment.setRefundedAmount(BigDecimal.ZERO);
+        payment.setPendingRefundAmount(BigDecimal.ZERO);
+        payment.setLedgerVersion(0);
+    }
+
+    /**
+     * Fold one event into the state of a payment
+     */
+    static void apply(Payment payment, PaymentEvent event) {
+        switch (event.getType()) {
+            case IMPORTED -> {
+                PaymentStatus status = PaymentStatus.valueOf(event.getDetail());
+                payment.setAmount(event.getAmount());
+                payment.setStatus(status);
+                payment.setTransactionId(event.getTransactionId());
+                payment.setRefundedAmount(status == PaymentStatus.REFUNDED ? event.getAmount() : BigDecimal.ZERO);
+            }
+            case CREATED -> {
+                payment.setAmount(event.getAmount());
+                payment.setStatus(PaymentStatus.PENDING);
+            }
+            case PROCESSING -> payment.setStatus(PaymentStatus.PROCESSING);
+            case CAPTURED -> {
+                payment.setStatus(PaymentStatus.COMPLETED);
+                payment.setTransactionId(event.getTransactionId());
+                payment.setGatewayResponse(event.getDetail());
+                payment.setProcessedAt(event.getCreatedAt());
+            }
+            case FAILED -> {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setGatewayResponse(event.getDetail());
+                payment.setFailureReason(event.getDetail());
+            }
+            case CANCELLED -> {
+                payment.setStatus(PaymentStatus.CANCELLED);
+                payment.setFailureReason(event.getDetail());
+            }
+            case REFUND_REQUESTED -> payment.setPendingRefundAmount(payment.getPendingRefundAmount().add(event.getAmount()));
+            case REFUNDED -> {
+                payment.setPendingRefundAmount(payment.getPendingRefundAmount().subtract(event.getAmount()));
+                payment.setRefundedAmount(payment.getRefundedAmount().add(event.getAmount()));
+                payment.setStatus(payment.getRefundedAmount().compareTo(payment.getAmount()) >= 0
+                        ? PaymentStatus.REFUNDED : PaymentStatus.PARTIALLY_REFUNDED);
+                payment.setGatewayResponse(event.getDetail());
+            }
+            case REFUND_FAILED -> {
+                payment.setPendingRefundAmount(payment.getPendingRefundAmount().subtract(event.getAmount()));
+                payment.setGatewayResponse(event.getDetail());
+            }
+        }
+        payment.setLedgerVersion(event.getSequence());
+        payment.setUpdatedAt(event.getCreatedAt());
+    }
+}
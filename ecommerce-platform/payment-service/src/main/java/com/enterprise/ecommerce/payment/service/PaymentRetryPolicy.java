@@ -0,0 +1,55 @@
+package com.enterprise.ecommerce.payment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When a failed payment is attempted again
+ * <p>
+ * The delay doubles with every attempt up to a ceiling, and the actual delay is drawn
+ * from the upper half of that window so that payments which failed together, e.g.
+ * during a gateway outage, do not come back together. Payments older than the
+ * maximum age, or out of attempts, are not retried.
+ */
+@Component
+public class PaymentRetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Duration maxAge;
+
+    public PaymentRetryPolicy(@Value("${app.payments.retry.max-attempts:5}") int maxAttempts,
+                              @Value("${app.payments.retry.initial-backoff-ms:30000}") long initialBackoffMillis,
+                              @Value("${app.payments.retry.max-backoff-ms:3600000}") long maxBackoffMillis,
+                              @Value("${app.payments.retry.max-age-hours:24}") long maxAgeHours) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+    }
+
+    /**
+     * When to retry a payment that has just failed after the given number of retries,
+     * or null when it should not be retried again
+     */
+    public LocalDateTime nextAttemptAt(int retryCount, LocalDateTime failedAt) {
+        if (retryCount >= maxAttempts) {
+            return null;
+        }
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(retryCount, 30));
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        return failedAt.plus(Duration.ofMillis(delay));
+    }
+
+    /**
+     * Payments created before this instant are no longer retried
+     */
+    public LocalDateTime cutoff(LocalDateTime now) {
+        return now.minus(maxAge);
+    }
+}
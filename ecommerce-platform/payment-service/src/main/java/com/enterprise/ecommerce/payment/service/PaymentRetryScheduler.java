@@ -0,0 +1,123 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries failed payments in the background
+ * <p>
+ * Each scan claims the failed payments whose backoff has elapsed and hands them to the
+ * {@link AsyncPaymentProcessor}, so retries share the gateway pool and its in-flight
+ * cap with new payments. Retries of each payment method are throttled to a per-second
+ * rate on this instance, so a backlog after a gateway outage drains gradually instead
+ * of hitting the provider all at once.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.payments.retry.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PaymentRetryScheduler {
+
+    private final AsyncPaymentProcessor paymentProcessor;
+    private final PaymentService paymentService;
+    private final int batchSize;
+    private final Map<PaymentMethod, RateLimit> rateLimits = new EnumMap<>(PaymentMethod.class);
+    private final AtomicLong dueRetries = new AtomicLong();
+
+    public PaymentRetryScheduler(AsyncPaymentProcessor paymentProcessor,
+                                 PaymentService paymentService,
+                                 @Value("${app.payments.retry.batch-size:100}") int batchSize,
+                                 @Value("${app.payments.retry.max-per-second:20}") double maxPerSecond,
+                                 @Value("${app.payments.retry.max-per-second-by-method:}") String maxPerSecondByMethod,
+                                 MeterRegistry meterRegistry) {
+        this.paymentProcessor = paymentProcessor;
+        this.paymentService = paymentService;
+        this.batchSize = batchSize;
+
+        for (PaymentMethod method : PaymentMethod.values()) {
+            rateLimits.put(method, new RateLimit(maxPerSecond));
+        }
+        // Comma-separated METHOD=rate entries overriding the default rate
+        for (String entry : maxPerSecondByMethod.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid retry rate entry, expected METHOD=rate: " + entry);
+            }
+            rateLimits.put(PaymentMethod.valueOf(parts[0].trim()), new RateLimit(Double.parseDouble(parts[1].trim())));
+        }
+
+        Gauge.builder("payments.retry.queue_depth", dueRetries, AtomicLong::get)
+                .description("Failed payments whose retry is due")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payments.retry.scan-interval-ms:1000}")
+    public void retryDuePayments() {
+        dueRetries.set(paymentService.countDueRetries());
+        if (dueRetries.get() == 0) {
+            return;
+        }
+
+        int dispatched = 0;
+        for (Map.Entry<PaymentMethod, RateLimit> entry : rateLimits.entrySet()) {
+            RateLimit rateLimit = entry.getValue();
+            int permitted = Math.min(batchSize, rateLimit.available());
+            if (permitted == 0) {
+                continue;
+            }
+            int claimed = paymentProcessor.retryDue(entry.getKey(), permitted);
+            rateLimit.consume(claimed);
+            dispatched += claimed;
+        }
+        if (dispatched > 0) {
+            log.info("Dispatched {} payment retries, {} were due", dispatched, dueRetries.get());
+        }
+    }
+
+    /**
+     * Token bucket refilled at a fixed rate and holding one second's worth of tokens, but
+     * at least one so that rates below one per second still release a retry now and
+     * then; only used from the scheduler thread
+     */
+    private static final class RateLimit {
+
+        private final double perSecond;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        RateLimit(double perSecond) {
+            if (!(perSecond > 0)) {
+                throw new IllegalArgumentException("Retry rate must be positive: " + perSecond);
+            }
+            this.perSecond = perSecond;
+            this.capacity = Math.max(1, perSecond);
+            this.tokens = capacity;
+        }
+
+        int available() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / 1e9 * perSecond);
+            refilledAt = now;
+            return (int) tokens;
+        }
+
+        void consume(int count) {
+            tokens -= count;
+        }
+    }
+}
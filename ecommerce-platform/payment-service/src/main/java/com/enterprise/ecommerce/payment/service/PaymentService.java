@@ -4,29 +4,43 @@ import com.enterprise.ecommerce.common.exception.InvalidRequestException;
 import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
 import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
 import com.enterprise.ecommerce.common.events.PaymentProcessedEvent;
+import com.enterprise.ecommerce.common.id.SnowflakeIdGenerator;
+import com.enterprise.ecommerce.payment.dto.PaymentEventResponse;
 import com.enterprise.ecommerce.payment.dto.PaymentResponse;
 import com.enterprise.ecommerce.payment.dto.ProcessPaymentRequest;
+import com.enterprise.ecommerce.payment.entity.OrderProjection;
 import com.enterprise.ecommerce.payment.entity.Payment;
+import com.enterprise.ecommerce.payment.entity.PaymentEvent;
+import com.enterprise.ecommerce.payment.entity.PaymentEventType;
 import com.enterprise.ecommerce.payment.entity.PaymentMethod;
 import com.enterprise.ecommerce.payment.entity.PaymentStatus;
+import com.enterprise.ecommerce.payment.gateway.PaymentGateway;
+import com.enterprise.ecommerce.payment.gateway.PaymentGatewayResponse;
 import com.enterprise.ecommerce.payment.repository.PaymentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 /**
  * Service for payment processing and management
+ * <p>
+ * Payment state changes are recorded in the {@link PaymentLedger}; the payment row is
+ * the snapshot that reads are served from.
  */
 @Service
 @Transactional
@@ -34,25 +48,65 @@ import java.util.UUID;
 public class PaymentService {
 
     private static final String PAYMENT_NOT_FOUND_MESSAGE = "Payment not found with id: ";
+    private static final Set<String> CLOSED_ORDER_STATUSES = Set.of("CANCELLED", "REFUNDED");
 
     private final PaymentRepository paymentRepository;
-    private final RestTemplate restTemplate;
+    private final PaymentLedger paymentLedger;
+    private final OrderProjectionService orderProjectionService;
     private final KafkaProducerService kafkaProducerService;
+    private final SnowflakeIdGenerator idGenerator;
+    private final PaymentGateway paymentGateway;
+    private final PaymentRetryPolicy retryPolicy;
+    private final CacheManager cacheManager;
 
     public PaymentService(PaymentRepository paymentRepository, 
-                        RestTemplate restTemplate,
-                        KafkaProducerService kafkaProducerService) {
+                        PaymentLedger paymentLedger,
+                        OrderProjectionService orderProjectionService,
+                        KafkaProducerService kafkaProducerService,
+                        SnowflakeIdGenerator idGenerator,
+                        PaymentGateway paymentGateway,
+                        PaymentRetryPolicy retryPolicy,
+                        CacheManager cacheManager) {
         this.paymentRepository = paymentRepository;
-        this.restTemplate = restTemplate;
+        this.paymentLedger = paymentLedger;
+        this.orderProjectionService = orderProjectionService;
         this.kafkaProducerService = kafkaProducerService;
+        this.idGenerator = idGenerator;
+        this.paymentGateway = paymentGateway;
+        this.retryPolicy = retryPolicy;
+        this.cacheManager = cacheManager;
     }
 
     /**
-     * Process a payment
+     * Validate a payment request and record it as PROCESSING; the gateway is called
+     * afterwards by {@link AsyncPaymentProcessor}
+     * <p>
+     * The pending payment the checkout saga requested for the order is charged rather
+     * than a second one created. An order whose payment is already processing or
+     * completed is refused.
      */
-    public PaymentResponse processPayment(ProcessPaymentRequest request) {
+    public PaymentResponse createProcessingPayment(ProcessPaymentRequest request) {
         // Validate order exists and amount matches
         validatePaymentRequest(request);
+        orderProjectionService.lockOrder(request.getOrderId());
+
+        List<Payment> existing = paymentRepository.findByOrderId(request.getOrderId());
+        for (Payment payment : existing) {
+            if (payment.getStatus() == PaymentStatus.PROCESSING || payment.getStatus() == PaymentStatus.COMPLETED) {
+                throw new InvalidRequestException("Order " + request.getOrderId() + " already has payment "
+                        + payment.getPaymentId() + " in status " + payment.getStatus());
+            }
+        }
+        Optional<Payment> requested = existing.stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING)
+                .findFirst();
+        if (requested.isPresent()) {
+            Payment payment = requested.get();
+            payment.setPaymentMethod(request.getPaymentMethod());
+            paymentLedger.record(payment, PaymentEvent.of(PaymentEventType.PROCESSING));
+            log.info("Charging requested payment {} for order {}", payment.getPaymentId(), request.getOrderId());
+            return convertToPaymentResponse(paymentRepository.save(payment));
+        }
 
         // Create payment record
         Payment payment = new Payment();
@@ -61,34 +115,63 @@ public class PaymentService {
         payment.setUserId(request.getUserId());
         payment.setAmount(request.getAmount());
         payment.setPaymentMethod(request.getPaymentMethod());
-        payment.setStatus(PaymentStatus.PROCESSING);
+        payment.setStatus(PaymentStatus.PENDING);
 
-        // Save initial payment record
         Payment savedPayment = paymentRepository.save(payment);
+        paymentLedger.record(savedPayment,
+                new PaymentEvent(PaymentEventType.CREATED, request.getAmount(), null, null),
+                PaymentEvent.of(PaymentEventType.PROCESSING));
+        return convertToPaymentResponse(paymentRepository.save(savedPayment));
+    }
 
-        try {
-            // Process payment through gateway
-            PaymentGatewayResponse gatewayResponse = processPaymentThroughGateway(request, savedPayment);
-            
-            // Update payment based on gateway response
-            updatePaymentFromGatewayResponse(savedPayment, gatewayResponse);
-            
-            // Update order status if payment successful
-            if (savedPayment.getStatus() == PaymentStatus.COMPLETED) {
-                updateOrderStatus(request.getOrderId(), "CONFIRMED");
-            }
+    /**
+     * Record the gateway outcome of a PROCESSING payment and publish it
+     * <p>
+     * Runs in its own short transaction after the gateway call. A payment that left
+     * PROCESSING in the meantime, e.g. because it was cancelled, is left as it is.
+     */
+    @CacheEvict(value = "payments", key = "#paymentId")
+    public void completeGatewayPayment(Long paymentId, PaymentGatewayResponse gatewayResponse) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException(PAYMENT_NOT_FOUND_MESSAGE + paymentId));
+        if (payment.getStatus() != PaymentStatus.PROCESSING) {
+            log.warn("Ignoring gateway outcome for payment {} in status {}", payment.getPaymentId(), payment.getStatus());
+            return;
+        }
 
-        } catch (Exception e) {
-            // Handle payment failure
-            savedPayment.setStatus(PaymentStatus.FAILED);
-            savedPayment.setFailureReason(e.getMessage());
-            savedPayment.setUpdatedAt(LocalDateTime.now());
+        updatePaymentFromGatewayResponse(payment, gatewayResponse);
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            updateOrderStatus(payment.getOrderId(), "CONFIRMED");
         }
+        publishProcessed(paymentRepository.save(payment));
+    }
 
-        // Save final payment state
-        Payment finalPayment = paymentRepository.save(savedPayment);
-        
-        // Publish payment processed event
+    /**
+     * Fail up to {@code limit} payments left PROCESSING since before the cutoff, e.g.
+     * because their gateway outcome could not be recorded or the instance died during the
+     * call, so that they enter the retry schedule; returns the number failed
+     */
+    public int failStaleProcessing(LocalDateTime cutoff, int limit) {
+        List<Payment> payments = paymentRepository.findStaleProcessingPayments(cutoff, limit);
+        for (Payment payment : payments) {
+            log.warn("Payment {} has been processing since {}, failing it for retry",
+                    payment.getPaymentId(), payment.getUpdatedAt());
+            updatePaymentFromGatewayResponse(payment,
+                    PaymentGatewayResponse.failure("OUTCOME_UNKNOWN", "No gateway outcome was recorded"));
+            publishProcessed(paymentRepository.save(payment));
+        }
+
+        List<Long> paymentIds = payments.stream().map(Payment::getId).toList();
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache("payments");
+            if (cache != null) {
+                paymentIds.forEach(cache::evict);
+            }
+        });
+        return payments.size();
+    }
+
+    private void publishProcessed(Payment finalPayment) {
         PaymentProcessedEvent event = PaymentProcessedEvent.builder()
                 .paymentId(finalPayment.getId().toString())
                 .orderId(finalPayment.getOrderId().toString())
@@ -99,11 +182,11 @@ public class PaymentService {
                 .status(convertToEventStatus(finalPayment.getStatus()))
                 .processedAt(finalPayment.getUpdatedAt() != null ? finalPayment.getUpdatedAt() : LocalDateTime.now())
                 .build();
-        
-        kafkaProducerService.sendMessage("payment-events", finalPayment.getId().toString(), event);
-        log.info("Published PaymentProcessedEvent for payment: {}", finalPayment.getId());
-        
-        return convertToPaymentResponse(finalPayment);
+
+        afterCommit(() -> {
+            kafkaProducerService.sendMessage("payment-events", finalPayment.getId().toString(), event);
+            log.info("Published PaymentProcessedEvent for payment: {}", finalPayment.getId());
+        });
     }
 
     /**
@@ -160,44 +243,78 @@ public class PaymentService {
     }
 
     /**
-     * Refund a payment
+     * Refund all or part of a completed payment; a payment can be refunded in several
+     * parts until the refunded total reaches the payment amount
+     * <p>
+     * The refund amount is reserved in the ledger before the gateway is called, so that
+     * concurrent refunds of one payment cannot together exceed it, and the reservation is
+     * settled or released with the gateway's answer. No database transaction is held
+     * while the gateway is called.
      */
     @CacheEvict(value = "payments", key = "#paymentId")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse refundPayment(Long paymentId, BigDecimal refundAmount, String reason) {
         if (paymentId == null) {
             throw new IllegalArgumentException("Payment ID cannot be null");
         }
-        Payment payment = paymentRepository.findById(paymentId)
-                .orElseThrow(() -> new ResourceNotFoundException(PAYMENT_NOT_FOUND_MESSAGE + paymentId));
-
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            throw new InvalidRequestException("Cannot refund payment with status: " + payment.getStatus());
+        if (refundAmount == null || refundAmount.signum() <= 0) {
+            throw new InvalidRequestException("Refund amount must be positive");
         }
 
-        if (refundAmount.compareTo(payment.getAmount()) > 0) {
-            throw new InvalidRequestException("Refund amount cannot exceed payment amount");
-        }
+        Payment payment = paymentLedger.append(paymentId, current -> {
+            if (current.getStatus() != PaymentStatus.COMPLETED && current.getStatus() != PaymentStatus.PARTIALLY_REFUNDED) {
+                throw new InvalidRequestException("Cannot refund payment with status: " + current.getStatus());
+            }
+            BigDecimal refundable = current.getAmount()
+                    .subtract(current.getRefundedAmount())
+                    .subtract(current.getPendingRefundAmount());
+            if (refundAmount.compareTo(refundable) > 0) {
+                throw new InvalidRequestException("Refund amount cannot exceed the refundable balance of " + refundable);
+            }
+            return new PaymentEvent(PaymentEventType.REFUND_REQUESTED, refundAmount, null, reason);
+        });
 
+        PaymentGatewayResponse refundResponse;
         try {
-            // Process refund through gateway
-            PaymentGatewayResponse refundResponse = processRefundThroughGateway(payment, refundAmount, reason);
-            
-            // Update payment status
-            if (refundAmount.compareTo(payment.getAmount()) == 0) {
-                payment.setStatus(PaymentStatus.REFUNDED);
-            } else {
-                payment.setStatus(PaymentStatus.PARTIALLY_REFUNDED);
-            }
-            
-            payment.setUpdatedAt(LocalDateTime.now());
-            payment.setGatewayResponse(refundResponse.getResponseMessage());
+            refundResponse = paymentGateway.refund(
+                    payment.getTransactionId(), payment.getPaymentMethod(), refundAmount, reason);
+        } catch (RuntimeException e) {
+            log.error("Refund of payment {} failed at the gateway", payment.getPaymentId(), e);
+            refundResponse = PaymentGatewayResponse.failure("GATEWAY_ERROR", e.getMessage());
+        }
 
-        } catch (Exception e) {
-            throw new InvalidRequestException("Refund processing failed: " + e.getMessage());
+        PaymentGatewayResponse outcome = refundResponse;
+        Payment refunded = paymentLedger.append(paymentId, current -> outcome.isSuccess()
+                ? new PaymentEvent(PaymentEventType.REFUNDED, refundAmount, outcome.getTransactionId(), outcome.getResponseMessage())
+                : new PaymentEvent(PaymentEventType.REFUND_FAILED, refundAmount, null, outcome.getResponseMessage()));
+        paymentLedger.saveSnapshot(refunded);
+
+        if (!outcome.isSuccess()) {
+            throw new InvalidRequestException("Refund processing failed: " + outcome.getResponseMessage());
+        }
+        return convertToPaymentResponse(refunded);
+    }
+
+    /**
+     * Get the ledger of a payment
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentEventResponse> getPaymentEvents(Long paymentId) {
+        if (!paymentRepository.existsById(paymentId)) {
+            throw new ResourceNotFoundException(PAYMENT_NOT_FOUND_MESSAGE + paymentId);
         }
+        return paymentLedger.history(paymentId).stream()
+                .map(PaymentEventResponse::new)
+                .toList();
+    }
 
-        Payment updatedPayment = paymentRepository.save(payment);
-        return convertToPaymentResponse(updatedPayment);
+    /**
+     * Rebuild the snapshot of a payment from its ledger
+     */
+    @CacheEvict(value = "payments", key = "#paymentId")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse rebuildPaymentSnapshot(Long paymentId) {
+        return convertToPaymentResponse(paymentLedger.rebuildSnapshot(paymentId));
     }
 
     /**
@@ -214,18 +331,18 @@ public class PaymentService {
             throw new InvalidRequestException("Cannot cancel payment with status: " + payment.getStatus());
         }
 
-        payment.setStatus(PaymentStatus.CANCELLED);
-        payment.setFailureReason(reason);
-        payment.setUpdatedAt(LocalDateTime.now());
+        paymentLedger.record(payment, PaymentEvent.of(PaymentEventType.CANCELLED, reason));
 
         Payment cancelledPayment = paymentRepository.save(payment);
         return convertToPaymentResponse(cancelledPayment);
     }
 
     /**
-     * Retry a failed payment
+     * Move a failed payment back to PROCESSING for another gateway attempt; the order
+     * was validated on the first attempt and is not checked again
      */
-    public PaymentResponse retryPayment(Long paymentId) {
+    @CacheEvict(value = "payments", key = "#paymentId")
+    public PaymentResponse claimForRetry(Long paymentId) {
         if (paymentId == null) {
             throw new IllegalArgumentException("Payment ID cannot be null");
         }
@@ -236,28 +353,120 @@ public class PaymentService {
             throw new InvalidRequestException("Can only retry failed payments");
         }
 
-        // Create new payment request from existing payment
-        ProcessPaymentRequest retryRequest = new ProcessPaymentRequest();
-        retryRequest.setOrderId(payment.getOrderId());
-        retryRequest.setUserId(payment.getUserId());
-        retryRequest.setAmount(payment.getAmount());
-        retryRequest.setPaymentMethod(payment.getPaymentMethod());
+        markRetrying(payment);
+        return convertToPaymentResponse(paymentRepository.save(payment));
+    }
+
+    /**
+     * Claim up to {@code limit} failed payments of a method whose retry is due and move
+     * them back to PROCESSING. Payments claimed by another instance are skipped.
+     */
+    public List<PaymentResponse> claimDueRetries(PaymentMethod paymentMethod, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> payments = paymentRepository.findRetriableFailedPayments(
+                paymentMethod.name(), now, retryPolicy.cutoff(now), limit);
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+
+        payments.forEach(this::markRetrying);
+        List<Long> paymentIds = payments.stream().map(Payment::getId).toList();
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache("payments");
+            if (cache != null) {
+                paymentIds.forEach(cache::evict);
+            }
+        });
+        return paymentRepository.saveAll(payments).stream()
+                .map(this::convertToPaymentResponse)
+                .toList();
+    }
+
+    /**
+     * Count failed payments whose retry is due
+     */
+    @Transactional(readOnly = true)
+    public long countDueRetries() {
+        LocalDateTime now = LocalDateTime.now();
+        return paymentRepository.countDueRetries(now, retryPolicy.cutoff(now));
+    }
 
-        return processPayment(retryRequest);
+    /**
+     * Request payment for an order placed through the checkout saga.
+     * Creates a pending payment that the payment API charges later instead of creating
+     * another; a repeated request returns the payment created by the first one.
+     */
+    public PaymentResponse requestCheckoutPayment(Long orderId, Long userId, BigDecimal amount, PaymentMethod paymentMethod) {
+        orderProjectionService.lockCheckoutOrder(orderId, userId, amount);
+        List<Payment> existing = paymentRepository.findByOrderId(orderId);
+        if (existing.stream().anyMatch(payment -> payment.getStatus() == PaymentStatus.CANCELLED)) {
+            throw new InvalidRequestException("Payment for order " + orderId + " was already cancelled");
+        }
+        if (!existing.isEmpty()) {
+            return convertToPaymentResponse(existing.get(0));
+        }
+
+        Payment payment = new Payment();
+        payment.setPaymentId(generatePaymentNumber());
+        payment.setOrderId(orderId);
+        payment.setUserId(userId);
+        payment.setAmount(amount);
+        payment.setPaymentMethod(paymentMethod);
+        payment.setStatus(PaymentStatus.PENDING);
+
+        Payment savedPayment = paymentRepository.save(payment);
+        paymentLedger.record(savedPayment, new PaymentEvent(PaymentEventType.CREATED, amount, null, null));
+        log.info("Created pending payment {} for order {}", savedPayment.getPaymentId(), orderId);
+        return convertToPaymentResponse(savedPayment);
+    }
+
+    /**
+     * Cancel the open payments of an order whose checkout is rolled back.
+     * When no payment was created yet, a cancelled one is recorded so that a late
+     * payment request for the order is refused.
+     */
+    public void cancelCheckoutPayment(Long orderId, Long userId, BigDecimal amount, PaymentMethod paymentMethod, String reason) {
+        orderProjectionService.lockCheckoutOrder(orderId, userId, amount);
+        List<Payment> existing = paymentRepository.findByOrderId(orderId);
+        if (existing.isEmpty()) {
+            Payment payment = new Payment();
+            payment.setPaymentId(generatePaymentNumber());
+            payment.setOrderId(orderId);
+            payment.setUserId(userId);
+            payment.setAmount(amount);
+            payment.setPaymentMethod(paymentMethod);
+            payment.setStatus(PaymentStatus.PENDING);
+            paymentLedger.record(paymentRepository.save(payment),
+                    new PaymentEvent(PaymentEventType.CREATED, amount, null, null),
+                    PaymentEvent.of(PaymentEventType.CANCELLED, reason));
+            return;
+        }
+
+        for (Payment payment : existing) {
+            if (payment.getStatus() == PaymentStatus.PENDING || payment.getStatus() == PaymentStatus.PROCESSING) {
+                paymentLedger.record(payment, PaymentEvent.of(PaymentEventType.CANCELLED, reason));
+            } else if (payment.getStatus() == PaymentStatus.COMPLETED) {
+                log.warn("Order {} checkout rolled back after payment {} completed; refund required",
+                         orderId, payment.getPaymentId());
+            }
+        }
     }
 
     // Private helper methods
 
     private void validatePaymentRequest(ProcessPaymentRequest request) {
-        // Validate order exists and get order details
-        try {
-            String orderUrl = "http://order-service/api/orders/" + request.getOrderId();
-            Object order = restTemplate.getForObject(orderUrl, Object.class);
-            if (order == null) {
-                throw new InvalidRequestException("Order not found with id: " + request.getOrderId());
-            }
-        } catch (Exception e) {
-            throw new InvalidRequestException("Order validation failed: " + e.getMessage());
+        // Validate the order against the local projection
+        OrderProjection order = orderProjectionService.findOrder(request.getOrderId())
+                .orElseThrow(() -> new InvalidRequestException("Order not found with id: " + request.getOrderId()));
+        if (!order.getUserId().equals(request.getUserId())) {
+            throw new InvalidRequestException("Order " + request.getOrderId() + " does not belong to user " + request.getUserId());
+        }
+        if (order.getTotalAmount().compareTo(request.getAmount()) != 0) {
+            throw new InvalidRequestException("Payment amount " + request.getAmount()
+                    + " does not match order total " + order.getTotalAmount());
+        }
+        if (CLOSED_ORDER_STATUSES.contains(order.getStatus())) {
+            throw new InvalidRequestException("Cannot pay for order with status: " + order.getStatus());
         }
 
         // Validate payment method specific requirements
@@ -317,63 +526,20 @@ public class PaymentService {
         }
     }
 
-    private PaymentGatewayResponse processPaymentThroughGateway(ProcessPaymentRequest request, Payment payment) {
-        // Mock payment gateway processing
-        // In real implementation, integrate with actual payment gateways like Stripe, PayPal, etc.
-        log.info("Processing payment through gateway for order {} with amount {}", 
-                request.getOrderId(), payment.getAmount());
-        
-        PaymentGatewayResponse response = new PaymentGatewayResponse();
-        
-        try {
-            Thread.sleep(1000); // Simulate processing time
-            
-            // Mock success/failure logic (90% success rate)
-            if (Math.random() < 0.9) {
-                response.setSuccess(true);
-                response.setTransactionId("TXN-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
-                response.setResponseMessage("Payment processed successfully");
-                response.setGatewayReference("GW-" + System.currentTimeMillis());
-            } else {
-                response.setSuccess(false);
-                response.setResponseMessage("Payment declined by bank");
-                response.setErrorCode("DECLINED");
-            }
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Restore interrupted status
-            response.setSuccess(false);
-            response.setResponseMessage("Payment processing timeout");
-            response.setErrorCode("TIMEOUT");
-        }
-        
-        return response;
-    }
-
-    private PaymentGatewayResponse processRefundThroughGateway(Payment payment, BigDecimal refundAmount, String reason) {
-        // Mock refund processing
-        log.info("Processing refund through gateway for payment {} with amount {} and reason: {}", 
-                payment.getId(), refundAmount, reason);
-        
-        PaymentGatewayResponse response = new PaymentGatewayResponse();
-        response.setSuccess(true);
-        response.setTransactionId("REFUND-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase());
-        response.setResponseMessage("Refund processed successfully");
-        return response;
-    }
-
     private void updatePaymentFromGatewayResponse(Payment payment, PaymentGatewayResponse response) {
         if (response.isSuccess()) {
-            payment.setStatus(PaymentStatus.COMPLETED);
-            payment.setTransactionId(response.getTransactionId());
-            payment.setProcessedAt(LocalDateTime.now());
+            paymentLedger.record(payment, new PaymentEvent(PaymentEventType.CAPTURED, payment.getAmount(),
+                    response.getTransactionId(), response.getResponseMessage()));
         } else {
-            payment.setStatus(PaymentStatus.FAILED);
-            payment.setFailureReason(response.getResponseMessage());
+            paymentLedger.record(payment, PaymentEvent.of(PaymentEventType.FAILED, response.getResponseMessage()));
+            payment.setNextRetryAt(retryPolicy.nextAttemptAt(payment.getRetryCount(), LocalDateTime.now()));
         }
-        
-        payment.setGatewayResponse(response.getResponseMessage());
-        payment.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void markRetrying(Payment payment) {
+        paymentLedger.record(payment, PaymentEvent.of(PaymentEventType.PROCESSING));
+        payment.setRetryCount(payment.getRetryCount() + 1);
+        payment.setNextRetryAt(null);
     }
 
     private void updateOrderStatus(Long orderId, String status) {
@@ -385,9 +551,17 @@ public class PaymentService {
         }
     }
 
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private String generatePaymentNumber() {
-        return "PAY-" + System.currentTimeMillis() + "-" + 
-               UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return idGenerator.nextId("PAY-");
     }
 
     private PaymentResponse convertToPaymentResponse(Payment payment) {
@@ -397,6 +571,7 @@ public class PaymentService {
         response.setOrderId(payment.getOrderId());
         response.setUserId(payment.getUserId());
         response.setAmount(payment.getAmount());
+        response.setRefundedAmount(payment.getRefundedAmount());
         response.setStatus(payment.getStatus());
         response.setPaymentMethod(payment.getPaymentMethod());
         response.setTransactionId(payment.getTransactionId());
@@ -418,27 +593,4 @@ public class PaymentService {
             default -> PaymentProcessedEvent.PaymentStatus.PENDING;
         };
     }
-
-    // Inner class for gateway response
-    private static class PaymentGatewayResponse {
-        private boolean success;
-        private String transactionId;
-        private String responseMessage;
-        private String errorCode;
-        private String gatewayReference;
-
-        // Getters and setters
-        public boolean isSuccess() { return success; }
-        public void setSuccess(boolean success) { this.success = success; }
-        public String getTransactionId() { return transactionId; }
-        public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
-        public String getResponseMessage() { return responseMessage; }
-        public void setResponseMessage(String responseMessage) { this.responseMessage = responseMessage; }
-        @SuppressWarnings("unused")
-        public String getErrorCode() { return errorCode; }
-        public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
-        @SuppressWarnings("unused")
-        public String getGatewayReference() { return gatewayReference; }
-        public void setGatewayReference(String gatewayReference) { this.gatewayReference = gatewayReference; }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly reconciliation of the previous day's settlement file
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.payments.reconciliation.enabled", havingValue = "true")
+@Slf4j
+public class ReconciliationScheduler {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationScheduler(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @Scheduled(cron = "${app.payments.reconciliation.cron:0 30 2 * * *}")
+    public void reconcileYesterday() {
+        LocalDate settlementDate = LocalDate.now().minusDays(1);
+        try {
+            reconciliationService.start(settlementDate, null);
+        } catch (BusinessException e) {
+            log.warn("Skipping reconciliation of {}: {}", settlementDate, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
+import com.enterprise.ecommerce.payment.entity.ReconciliationMismatch;
+import com.enterprise.ecommerce.payment.entity.ReconciliationRun;
+import com.enterprise.ecommerce.payment.entity.ReconciliationStatus;
+import com.enterprise.ecommerce.payment.reconciliation.ReconciliationStats;
+import com.enterprise.ecommerce.payment.reconciliation.SettledPayment;
+import com.enterprise.ecommerce.payment.reconciliation.SettlementFile;
+import com.enterprise.ecommerce.payment.reconciliation.SettlementMerger;
+import com.enterprise.ecommerce.payment.repository.PaymentRepository;
+import com.enterprise.ecommerce.payment.repository.ReconciliationMismatchRepository;
+import com.enterprise.ecommerce.payment.repository.ReconciliationRunRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles payments against gateway settlement files
+ * <p>
+ * A run cuts the settlement file into transaction id ranges and merges each range with
+ * the payments of the same range on a pool of worker threads. Each range is one
+ * sort-merge pass over a memory-mapped slice of the file and a database cursor over
+ * payments, so memory use stays flat however large the file is. Discrepancies are
+ * written to {@code reconciliation_mismatches} as they are found, in the transaction
+ * that streams the range. One run executes at a time, in the background.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+
+    private final PaymentRepository paymentRepository;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Path inbox;
+    private final String filePattern;
+    private final int threads;
+    private final int segmentsPerThread;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reconciliation-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReconciliationService(PaymentRepository paymentRepository,
+                                 ReconciliationRunRepository runRepository,
+                                 ReconciliationMismatchRepository mismatchRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.payments.reconciliation.inbox:settlements}") String inbox,
+                                 @Value("${app.payments.reconciliation.file-pattern:settlement-%s.csv}") String filePattern,
+                                 @Value("${app.payments.reconciliation.threads:4}") int threads,
+                                 @Value("${app.payments.reconciliation.segments-per-thread:4}") int segmentsPerThread,
+                                 @Value("${app.payments.reconciliation.batch-size:500}") int batchSize) {
+        this.paymentRepository = paymentRepository;
+        this.runRepository = runRepository;
+        this.mismatchRepository = mismatchRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inbox = Paths.get(inbox).toAbsolutePath().normalize();
+        this.filePattern = filePattern;
+        this.threads = Math.max(1, threads);
+        this.segmentsPerThread = Math.max(1, segmentsPerThread);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Start reconciling the settlement file of a date from the inbox; {@code fileName}
+     * overrides the configured file name pattern
+     */
+    public ReconciliationRun start(LocalDate settlementDate, String fileName) {
+        Path file = resolveSettlementFile(settlementDate, fileName);
+        if (!Files.isReadable(file)) {
+            throw new ResourceNotFoundException("Settlement file not found: " + inbox.relativize(file));
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidRequestException("A reconciliation is already running");
+        }
+
+        ReconciliationRun run;
+        try {
+            run = runRepository.save(new ReconciliationRun(file.toString(), settlementDate));
+            runner.execute(() -> execute(run, file));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * Get a reconciliation run by ID
+     */
+    public ReconciliationRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found with id: " + runId));
+    }
+
+    /**
+     * Get the discrepancies found by a run
+     */
+    public Page<ReconciliationMismatch> getMismatches(Long runId, Pageable pageable) {
+        return mismatchRepository.findByRunIdOrderById(getRun(runId).getId(), pageable);
+    }
+
+    Path resolveSettlementFile(LocalDate settlementDate, String fileName) {
+        String name = fileName != null && !fileName.isBlank() ? fileName : String.format(filePattern, settlementDate);
+        Path file = inbox.resolve(name).normalize();
+        if (!file.startsWith(inbox)) {
+            throw new InvalidRequestException("Settlement file must be inside the settlement inbox");
+        }
+        return file;
+    }
+
+    private void execute(ReconciliationRun run, Path file) {
+        ReconciliationStats total = new ReconciliationStats();
+        long started = System.nanoTime();
+        try (SettlementFile settlementFile = SettlementFile.open(file)) {
+            List<SettlementFile.Segment> segments = settlementFile.split(threads * segmentsPerThread);
+            LocalDateTime from = run.getSettlementDate().atStartOfDay();
+            LocalDateTime to = from.plusDays(1);
+
+            AtomicInteger workerCount = new AtomicInteger();
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, segments.size()), runnable ->
+                    new Thread(runnable, "reconciliation-" + run.getId() + "-" + workerCount.incrementAndGet()));
+            try {
+                List<Future<ReconciliationStats>> results = new ArrayList<>(segments.size());
+                for (SettlementFile.Segment segment : segments) {
+                    results.add(workers.submit(() -> reconcileSegment(run.getId(), settlementFile, segment, from, to)));
+                }
+                for (Future<ReconciliationStats> result : results) {
+                    total.add(result.get());
+                }
+            } finally {
+                workers.shutdownNow();
+            }
+
+            finish(run, ReconciliationStatus.COMPLETED, total, null);
+            log.info("Reconciled {} ({} bytes, {} segments) in {} ms: {}", file, settlementFile.size(), segments.size(),
+                    (System.nanoTime() - started) / 1_000_000, total);
+        } catch (ExecutionException e) {
+            log.error("Reconciliation run {} of {} failed", run.getId(), file, e.getCause());
+            finish(run, ReconciliationStatus.FAILED, total, String.valueOf(e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(run, ReconciliationStatus.FAILED, total, "Interrupted");
+        } catch (IOException | RuntimeException e) {
+            log.error("Reconciliation run {} of {} failed", run.getId(), file, e);
+            finish(run, ReconciliationStatus.FAILED, total, String.valueOf(e.getMessage()));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationStats reconcileSegment(Long runId, SettlementFile settlementFile, SettlementFile.Segment segment,
+                                                 LocalDateTime from, LocalDateTime to) {
+        return transactionTemplate.execute(status -> {
+            List<ReconciliationMismatch> pending = new ArrayList<>(batchSize);
+            SettlementMerger merger = new SettlementMerger(mismatch -> {
+                pending.add(new ReconciliationMismatch(runId, mismatch));
+                if (pending.size() >= batchSize) {
+                    flush(pending);
+                }
+            });
+            try (Stream<SettledPayment> payments = paymentRepository.streamSettledPayments(
+                    segment.fromKey(), segment.toKey(), from, to)) {
+                merger.merge(settlementFile.read(segment, merger::reportMalformed), payments.iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            flush(pending);
+            return merger.getStats();
+        });
+    }
+
+    private void flush(List<ReconciliationMismatch> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        mismatchRepository.saveAll(pending);
+        entityManager.flush();
+        entityManager.clear();
+        pending.clear();
+    }
+
+    private void finish(ReconciliationRun run, ReconciliationStatus status, ReconciliationStats stats, String errorMessage) {
+        run.setStatus(status);
+        run.setSettlementRows(stats.getSettlementRows());
+        run.setPaymentRows(stats.getPaymentRows());
+        run.setMatchedRows(stats.getMatched());
+        run.setMismatchCount(stats.getMismatches());
+        run.setErrorMessage(errorMessage);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
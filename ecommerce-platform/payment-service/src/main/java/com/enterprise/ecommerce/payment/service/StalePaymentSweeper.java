@@ -0,0 +1,61 @@
+package com.enterprise.ecommerce.payment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fails payments stuck in PROCESSING so that they are retried
+ * <p>
+ * A payment stays PROCESSING when the outcome of its gateway call could not be
+ * recorded, when the instance died during the call, or when shutdown dropped the call.
+ * Payments PROCESSING for longer than {@code after-ms}, well past the gateway timeout,
+ * are failed in batches and enter the schedule of the {@link PaymentRetryScheduler}. A
+ * retry charges under the same payment number, so the gateway can recognise a charge
+ * that did go through.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.payments.stale-processing.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StalePaymentSweeper {
+
+    private final PaymentService paymentService;
+    private final long staleAfterMillis;
+    private final int batchSize;
+    private final Counter failed;
+
+    public StalePaymentSweeper(PaymentService paymentService,
+                               @Value("${app.payments.stale-processing.after-ms:120000}") long staleAfterMillis,
+                               @Value("${app.payments.stale-processing.batch-size:100}") int batchSize,
+                               MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.staleAfterMillis = staleAfterMillis;
+        this.batchSize = batchSize;
+        this.failed = Counter.builder("payments.stale_processing.failed")
+                .description("Payments failed for retry after being stuck in PROCESSING")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payments.stale-processing.scan-interval-ms:30000}")
+    public void failStalePayments() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000L);
+        int total = 0;
+        int count;
+        do {
+            count = paymentService.failStaleProcessing(cutoff, batchSize);
+            failed.increment(count);
+            total += count;
+        } while (count == batchSize);
+        if (total > 0) {
+            log.info("Failed {} payments stuck in processing for retry", total);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Automatic retries of failed payments: attempts made so far and when the next one is due
+ALTER TABLE payments ADD COLUMN retry_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN next_retry_at TIMESTAMP;
+
+-- Only failed payments with a retry scheduled are ever scanned
+CREATE INDEX idx_payments_retry_due ON payments(payment_method, next_retry_at)
+    WHERE payment_status = 'FAILED' AND next_retry_at IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Local copy of the order fields payment validation needs, maintained from order-events
+CREATE TABLE order_projections (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    total_amount DECIMAL(12,2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
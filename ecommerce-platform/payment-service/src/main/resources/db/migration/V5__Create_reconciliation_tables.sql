@@ -0,0 +1,32 @@
+-- Settlement reconciliation: one row per run, one row per discrepancy found
+
+CREATE TABLE reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    settlement_file VARCHAR(500) NOT NULL,
+    settlement_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    settlement_rows BIGINT NOT NULL DEFAULT 0,
+    payment_rows BIGINT NOT NULL DEFAULT 0,
+    matched_rows BIGINT NOT NULL DEFAULT 0,
+    mismatch_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+CREATE TABLE reconciliation_mismatches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL REFERENCES reconciliation_runs(id) ON DELETE CASCADE,
+    mismatch_type VARCHAR(30) NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_id BIGINT,
+    payment_amount DECIMAL(12,2),
+    settled_amount DECIMAL(12,2),
+    detail TEXT
+);
+
+CREATE INDEX idx_reconciliation_mismatches_run_id ON reconciliation_mismatches(run_id, mismatch_type);
+
+-- Payments are merged with settlement files in byte order of transaction_id
+CREATE INDEX idx_payments_transaction_id ON payments(transaction_id COLLATE "C")
+    WHERE transaction_id IS NOT NULL;
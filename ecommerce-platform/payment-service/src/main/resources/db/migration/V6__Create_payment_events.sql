@@ -0,0 +1,30 @@
+-- Append-only payment ledger: every state change of a payment is one event, numbered
+-- per payment. The payments row is the current-state snapshot folded from the events.
+
+CREATE TABLE payment_events (
+    id BIGSERIAL PRIMARY KEY,
+    payment_id BIGINT NOT NULL REFERENCES payments(id),
+    sequence INTEGER NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    amount DECIMAL(12,2),
+    transaction_id VARCHAR(255),
+    detail TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Concurrent writers of one payment race for the next sequence; the loser retries
+    CONSTRAINT uk_payment_events_sequence UNIQUE (payment_id, sequence)
+);
+
+-- Snapshot bookkeeping: last event folded in, and refund totals
+ALTER TABLE payments ADD COLUMN ledger_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN refunded_amount DECIMAL(12,2) NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN pending_refund_amount DECIMAL(12,2) NOT NULL DEFAULT 0;
+
+-- Existing payments start their ledger from the state they are in. How much of a
+-- partially refunded payment was returned was never recorded, so it starts at zero.
+INSERT INTO payment_events (payment_id, sequence, event_type, amount, transaction_id, detail, created_at)
+SELECT id, 1, 'IMPORTED', amount, transaction_id, payment_status, COALESCE(updated_at, created_at)
+FROM payments;
+
+UPDATE payments
+SET ledger_version = 1,
+    refunded_amount = CASE WHEN payment_status = 'REFUNDED' THEN amount ELSE 0 END;
@@ -0,0 +1,122 @@
+package com.enterprise.ecommerce.payment.service;
+
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.common.id.SnowflakeIdGenerator;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import com.enterprise.ecommerce.payment.dto.PaymentResponse;
+import com.enterprise.ecommerce.payment.dto.ProcessPaymentRequest;
+import com.enterprise.ecommerce.payment.entity.OrderProjection;
+import com.enterprise.ecommerce.payment.entity.Payment;
+import com.enterprise.ecommerce.payment.entity.PaymentEvent;
+import com.enterprise.ecommerce.payment.entity.PaymentEventType;
+import com.enterprise.ecommerce.payment.entity.PaymentMethod;
+import com.enterprise.ecommerce.payment.entity.PaymentStatus;
+import com.enterprise.ecommerce.payment.gateway.PaymentGateway;
+import com.enterprise.ecommerce.payment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that an order paid through the checkout saga and then the payment API ends up
+ * with a single payment, using an in-memory payment table rather than a database.
+ */
+class PaymentServiceCheckoutTest {
+
+    private static final Long ORDER_ID = 42L;
+    private static final Long USER_ID = 7L;
+    private static final BigDecimal TOTAL = new BigDecimal("59.90");
+
+    private final List<Payment> payments = new ArrayList<>();
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            if (payment.getId() == null) {
+                payment.setId((long) payments.size() + 1);
+                payments.add(payment);
+            }
+            return payment;
+        });
+        when(paymentRepository.findByOrderId(anyLong())).thenAnswer(invocation -> payments.stream()
+                .filter(payment -> payment.getOrderId().equals(invocation.getArgument(0)))
+                .toList());
+
+        // The ledger folds status events into the payment
+        PaymentLedger paymentLedger = mock(PaymentLedger.class);
+        doAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            for (Object argument : invocation.getArguments()) {
+                if (argument instanceof PaymentEvent event && event.getType() == PaymentEventType.PROCESSING) {
+                    payment.setStatus(PaymentStatus.PROCESSING);
+                }
+            }
+            return null;
+        }).when(paymentLedger).record(any(Payment.class), any(PaymentEvent[].class));
+
+        OrderProjectionService orderProjectionService = mock(OrderProjectionService.class);
+        when(orderProjectionService.findOrder(ORDER_ID))
+                .thenReturn(Optional.of(new OrderProjection(ORDER_ID, USER_ID, TOTAL, "PENDING")));
+
+        paymentService = new PaymentService(paymentRepository, paymentLedger, orderProjectionService,
+                mock(KafkaProducerService.class), new SnowflakeIdGenerator(1), mock(PaymentGateway.class),
+                mock(PaymentRetryPolicy.class), mock(CacheManager.class));
+    }
+
+    @Test
+    void chargesTheSagaPaymentInsteadOfCreatingAnother() {
+        PaymentResponse requested = paymentService.requestCheckoutPayment(ORDER_ID, USER_ID, TOTAL,
+                PaymentMethod.CASH_ON_DELIVERY);
+
+        PaymentResponse processing = paymentService.createProcessingPayment(paymentRequest());
+
+        assertEquals(1, payments.size());
+        assertEquals(requested.getId(), processing.getId());
+        assertEquals(PaymentStatus.PROCESSING, processing.getStatus());
+    }
+
+    @Test
+    void refusesToChargeAnOrderWhosePaymentIsProcessing() {
+        paymentService.requestCheckoutPayment(ORDER_ID, USER_ID, TOTAL, PaymentMethod.CASH_ON_DELIVERY);
+        paymentService.createProcessingPayment(paymentRequest());
+
+        assertThrows(InvalidRequestException.class, () -> paymentService.createProcessingPayment(paymentRequest()));
+        assertEquals(1, payments.size());
+    }
+
+    @Test
+    void repeatedSagaRequestAfterPaymentApiReturnsTheSamePayment() {
+        PaymentResponse processing = paymentService.createProcessingPayment(paymentRequest());
+
+        PaymentResponse requested = paymentService.requestCheckoutPayment(ORDER_ID, USER_ID, TOTAL,
+                PaymentMethod.CASH_ON_DELIVERY);
+
+        assertEquals(1, payments.size());
+        assertEquals(processing.getId(), requested.getId());
+    }
+
+    private static ProcessPaymentRequest paymentRequest() {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setOrderId(ORDER_ID);
+        request.setUserId(USER_ID);
+        request.setAmount(TOTAL);
+        request.setPaymentMethod(PaymentMethod.CASH_ON_DELIVERY);
+        return request;
+    }
+}
@@ -0,0 +1,92 @@
+package com.enterprise.ecommerce.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a 50-line basket with a compiled rule set of regional tax, tiered shipping and
+ * promotions, next to the BigDecimal arithmetic of the former fixed-rate order pricing.
+ * {@code compile} shows the one-off cost paid per rule set (re)load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private static final int LINES = 50;
+
+    private static final String RULES = """
+            tax when region in ("US-CA", "US-NY") then 8.875%
+            tax when country == "US" then 6%
+            tax when country in ("DE", "FR", "NL") then 20%
+            tax then 8%
+            shipping when country != "US" and subtotal < 150.00 then 24.99
+            shipping when subtotal >= 100.00 or items >= 20 then 0.00
+            shipping when subtotal >= 50.00 then 4.99
+            shipping then 9.99
+            discount "SAVE10" when promo == "SAVE10" and subtotal >= 50.00 then 10%
+            discount "FLAT5" when promo == "FLAT5" then 5.00
+            discount "BULK" per line when quantity >= 5 and not (product in (3, 17, 29)) then 5%
+            discount "CLEARANCE" per line when product in (11, 12, 13) and price >= 10.00 then 1.50
+            """;
+
+    private static final BigDecimal TAX_RATE = BigDecimal.valueOf(0.08);
+    private static final BigDecimal SHIPPING_RATE = BigDecimal.valueOf(9.99);
+    private static final BigDecimal FREE_SHIPPING_THRESHOLD = BigDecimal.valueOf(100.00);
+
+    private CompiledRuleSet rules;
+    private Basket basket;
+    private List<BigDecimal> lineSubtotals;
+
+    @Setup
+    public void setUp() {
+        rules = CompiledRuleSet.compile("benchmark", RULES);
+
+        Random random = new Random(42);
+        List<BasketLine> lines = new ArrayList<>(LINES);
+        lineSubtotals = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            int quantity = 1 + random.nextInt(8);
+            long unitPrice = 199 + random.nextInt(20_000);
+            lines.add(new BasketLine(i + 1, quantity, unitPrice));
+            lineSubtotals.add(Money.toDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        }
+        basket = new Basket(lines, "US", "CA", List.of("SAVE10"));
+    }
+
+    @Benchmark
+    public PriceQuote compiledRules() {
+        return rules.price(basket);
+    }
+
+    @Benchmark
+    public BigDecimal fixedRateBigDecimal() {
+        BigDecimal subtotal = lineSubtotals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal tax = subtotal.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal shipping = subtotal.compareTo(FREE_SHIPPING_THRESHOLD) >= 0 ? BigDecimal.ZERO : SHIPPING_RATE;
+        return subtotal.add(tax).add(shipping);
+    }
+
+    @Benchmark
+    public CompiledRuleSet compile() {
+        return CompiledRuleSet.compile("benchmark", RULES);
+    }
+}
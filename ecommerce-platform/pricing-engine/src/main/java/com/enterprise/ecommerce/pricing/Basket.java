@@ -0,0 +1,102 @@
+package com.enterprise.ecommerce.pricing;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Everything a rule set prices: the lines, the destination and the promo codes entered
+ * <p>
+ * Country, region and promo codes are upper-cased once here so that rule evaluation only
+ * compares strings. The region is the country and state joined by a dash, e.g. {@code US-CA}.
+ */
+public final class Basket {
+
+    private final List<BasketLine> lines;
+    private final String country;
+    private final String region;
+    private final String[] promoCodes;
+    private final long manualDiscount;
+    private final long subtotal;
+    private final long itemCount;
+
+    public Basket(List<BasketLine> lines, String country, String state,
+                  Collection<String> promoCodes, long manualDiscount) {
+        this.lines = List.copyOf(lines);
+        this.country = normalize(country);
+        this.region = this.country != null && normalize(state) != null
+                ? this.country + "-" + normalize(state)
+                : null;
+        this.promoCodes = promoCodes == null ? new String[0] : promoCodes.stream()
+                .map(Basket::normalize)
+                .filter(code -> code != null)
+                .distinct()
+                .toArray(String[]::new);
+        this.manualDiscount = Math.max(0L, manualDiscount);
+
+        long subtotal = 0L;
+        long itemCount = 0L;
+        for (BasketLine line : this.lines) {
+            subtotal = Math.addExact(subtotal, line.amount());
+            itemCount += line.quantity();
+        }
+        this.subtotal = subtotal;
+        this.itemCount = itemCount;
+    }
+
+    public Basket(List<BasketLine> lines, String country, String state, Collection<String> promoCodes) {
+        this(lines, country, state, promoCodes, 0L);
+    }
+
+    public List<BasketLine> getLines() {
+        return lines;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Whether the given upper-case promo code was entered
+     */
+    public boolean hasPromoCode(String code) {
+        for (String promoCode : promoCodes) {
+            if (promoCode.equals(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Discount granted outside the rules, e.g. by customer service, in minor units
+     */
+    public long getManualDiscount() {
+        return manualDiscount;
+    }
+
+    /**
+     * Sum of line totals before any discount, in minor units
+     */
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Number of units across all lines
+     */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,23 @@
+package com.enterprise.ecommerce.pricing;
+
+/**
+ * One product line of a basket, with its unit price in minor units
+ */
+public record BasketLine(long productId, int quantity, long unitPrice) {
+
+    public BasketLine {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        if (unitPrice < 0) {
+            throw new IllegalArgumentException("Unit price must not be negative: " + unitPrice);
+        }
+    }
+
+    /**
+     * Line total in minor units
+     */
+    public long amount() {
+        return Math.multiplyExact(unitPrice, (long) quantity);
+    }
+}
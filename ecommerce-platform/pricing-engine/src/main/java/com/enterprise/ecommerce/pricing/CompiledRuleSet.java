@@ -0,0 +1,105 @@
+package com.enterprise.ecommerce.pricing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, ready-to-evaluate form of a pricing rule set
+ * <p>
+ * Pricing a basket:
+ * <ol>
+ *   <li>every matching discount rule applies, capped at the subtotal;</li>
+ *   <li>the first matching shipping rule sets the shipping charge;</li>
+ *   <li>the first matching tax rule taxes the subtotal less rule discounts;</li>
+ *   <li>the basket's manual discount comes off the total last.</li>
+ * </ol>
+ * Conditions always see the subtotal before discounts. All arithmetic is on long minor
+ * units; instances are safe to share between threads.
+ */
+public final class CompiledRuleSet {
+
+    private final String origin;
+    private final PricingRule[] discountRules;
+    private final PricingRule[] shippingRules;
+    private final PricingRule[] taxRules;
+
+    CompiledRuleSet(String origin, List<PricingRule> rules) {
+        this.origin = origin;
+        this.discountRules = ofKind(rules, PricingRule.Kind.DISCOUNT);
+        this.shippingRules = ofKind(rules, PricingRule.Kind.SHIPPING);
+        this.taxRules = ofKind(rules, PricingRule.Kind.TAX);
+    }
+
+    /**
+     * Compile rule set source text
+     *
+     * @param origin where the source came from, for messages
+     * @throws PricingRuleException when the source is not a valid rule set
+     */
+    public static CompiledRuleSet compile(String origin, String source) {
+        return new CompiledRuleSet(origin, new RuleParser(source).parse());
+    }
+
+    /**
+     * Price a basket
+     */
+    public PriceQuote price(Basket basket) {
+        long subtotal = basket.getSubtotal();
+
+        long discount = 0L;
+        List<String> applied = List.of();
+        for (PricingRule rule : discountRules) {
+            long granted = rule.discount(basket);
+            if (granted > 0) {
+                discount += granted;
+                if (applied.isEmpty()) {
+                    applied = new ArrayList<>(2);
+                }
+                applied.add(rule.label());
+            }
+        }
+        discount = Math.min(discount, subtotal);
+
+        long shipping = 0L;
+        for (PricingRule rule : shippingRules) {
+            if (rule.appliesTo(basket)) {
+                shipping = rule.value();
+                break;
+            }
+        }
+
+        long taxable = subtotal - discount;
+        long tax = 0L;
+        for (PricingRule rule : taxRules) {
+            if (rule.appliesTo(basket)) {
+                tax = Money.applyRate(taxable, rule.value());
+                break;
+            }
+        }
+
+        long beforeManual = taxable + shipping + tax;
+        long manualDiscount = Math.min(basket.getManualDiscount(), beforeManual);
+        return new PriceQuote(subtotal, discount, manualDiscount, shipping, tax,
+                beforeManual - manualDiscount, applied.isEmpty() ? applied : List.copyOf(applied));
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public int getRuleCount() {
+        return discountRules.length + shippingRules.length + taxRules.length;
+    }
+
+    private static PricingRule[] ofKind(List<PricingRule> rules, PricingRule.Kind kind) {
+        return rules.stream()
+                .filter(rule -> rule.kind() == kind)
+                .toArray(PricingRule[]::new);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRuleSet{origin='" + origin + "', discounts=" + discountRules.length +
+               ", shipping=" + shippingRules.length + ", tax=" + taxRules.length + "}";
+    }
+}
@@ -0,0 +1,128 @@
+package com.enterprise.ecommerce.pricing;
+
+/**
+ * Node of a compiled rule condition
+ * <p>
+ * Nodes are immutable and built once by {@link RuleParser}; literals are already converted
+ * to minor units or upper case, so evaluation does no parsing and allocates nothing.
+ */
+interface Condition {
+
+    Condition ALWAYS = (basket, line) -> true;
+
+    /**
+     * Evaluate against the basket and, for per-line rules, the current line
+     */
+    boolean test(Basket basket, BasketLine line);
+
+    enum Comparison {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Comparison of(String symbol) {
+            for (Comparison comparison : values()) {
+                if (comparison.symbol.equals(symbol)) {
+                    return comparison;
+                }
+            }
+            return null;
+        }
+
+        boolean test(long left, long right) {
+            return switch (this) {
+                case EQ -> left == right;
+                case NE -> left != right;
+                case LT -> left < right;
+                case LE -> left <= right;
+                case GT -> left > right;
+                case GE -> left >= right;
+            };
+        }
+    }
+
+    record And(Condition[] operands) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            for (Condition operand : operands) {
+                if (!operand.test(basket, line)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    record Or(Condition[] operands) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            for (Condition operand : operands) {
+                if (operand.test(basket, line)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    record Not(Condition operand) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            return !operand.test(basket, line);
+        }
+    }
+
+    record NumberCompare(Variable variable, Comparison comparison, long operand) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            return comparison.test(variable.number(basket, line), operand);
+        }
+    }
+
+    record NumberIn(Variable variable, long[] operands) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            long value = variable.number(basket, line);
+            for (long operand : operands) {
+                if (operand == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Equality of country or region with any of the operands; an unknown value matches nothing */
+    record TextIn(Variable variable, String[] operands) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            String value = variable.text(basket);
+            if (value == null) {
+                return false;
+            }
+            for (String operand : operands) {
+                if (operand.equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** True when any of the operands was entered as a promo code */
+    record PromoIn(String[] operands) implements Condition {
+        @Override
+        public boolean test(Basket basket, BasketLine line) {
+            for (String operand : operands) {
+                if (basket.hasPromoCode(operand)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
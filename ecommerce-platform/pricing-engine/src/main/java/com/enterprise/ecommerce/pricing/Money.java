@@ -0,0 +1,43 @@
+package com.enterprise.ecommerce.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts and the long minor units (cents) the engine computes in
+ */
+public final class Money {
+
+    /** Digits after the decimal point of every amount the engine handles */
+    public static final int SCALE = 2;
+
+    /** Rates are held in parts per million, so 7.25% is 72500 */
+    static final long RATE_ONE = 1_000_000L;
+
+    private Money() {
+    }
+
+    /**
+     * Convert a decimal amount to minor units, rounding half up beyond two decimals
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert minor units back to a decimal amount with two decimals
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Apply a rate in parts per million to a non-negative amount, rounding half up
+     */
+    static long applyRate(long amount, long ratePpm) {
+        return (Math.multiplyExact(amount, ratePpm) + RATE_ONE / 2) / RATE_ONE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.enterprise.ecommerce.pricing;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of pricing a basket; all amounts are in minor units
+ *
+ * @param subtotal          sum of line totals
+ * @param promotionDiscount discount granted by rules
+ * @param manualDiscount    discount requested with the basket, capped so the total stays non-negative
+ * @param shipping          shipping charge
+ * @param tax               tax on the subtotal after rule discounts
+ * @param total             amount to charge
+ * @param appliedDiscounts  labels of the discount rules that granted a discount
+ */
+public record PriceQuote(long subtotal, long promotionDiscount, long manualDiscount, long shipping,
+                         long tax, long total, List<String> appliedDiscounts) {
+
+    /**
+     * Rule and manual discount together
+     */
+    public long discount() {
+        return promotionDiscount + manualDiscount;
+    }
+
+    public BigDecimal subtotalAmount() {
+        return Money.toDecimal(subtotal);
+    }
+
+    public BigDecimal discountAmount() {
+        return Money.toDecimal(discount());
+    }
+
+    public BigDecimal promotionDiscountAmount() {
+        return Money.toDecimal(promotionDiscount);
+    }
+
+    public BigDecimal shippingAmount() {
+        return Money.toDecimal(shipping);
+    }
+
+    public BigDecimal taxAmount() {
+        return Money.toDecimal(tax);
+    }
+
+    public BigDecimal totalAmount() {
+        return Money.toDecimal(total);
+    }
+}
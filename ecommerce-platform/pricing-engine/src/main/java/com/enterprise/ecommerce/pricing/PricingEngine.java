@@ -0,0 +1,88 @@
+package com.enterprise.ecommerce.pricing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prices baskets with the rule set at {@code app.pricing.rules-location}
+ * <p>
+ * The rule set is compiled once and swapped atomically when the file changes, so pricing
+ * never parses and never blocks on a reload. A rule set that fails to compile on reload is
+ * logged and ignored, keeping the last good one in force; at startup it fails the context.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class PricingEngine {
+
+    private final Resource rulesResource;
+
+    private volatile CompiledRuleSet rules;
+    private volatile long lastModified;
+
+    public PricingEngine(@Value("${app.pricing.rules-location:classpath:pricing/default.rules}") String rulesLocation,
+                         ResourceLoader resourceLoader) {
+        this.rulesResource = resourceLoader.getResource(rulesLocation);
+        this.lastModified = lastModified();
+        this.rules = load();
+        log.info("Loaded pricing rules {}", rules);
+    }
+
+    /**
+     * Price a basket with the current rule set
+     */
+    public PriceQuote price(Basket basket) {
+        return rules.price(basket);
+    }
+
+    public CompiledRuleSet getRules() {
+        return rules;
+    }
+
+    /**
+     * Recompile the rule set if its file was modified since it was last loaded
+     */
+    @Scheduled(fixedDelayString = "${app.pricing.reload-interval-ms:10000}",
+               initialDelayString = "${app.pricing.reload-interval-ms:10000}")
+    public void reloadIfModified() {
+        long modified = lastModified();
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            rules = load();
+            log.info("Reloaded pricing rules {}", rules);
+        } catch (PricingRuleException | UncheckedIOException e) {
+            log.error("Keeping previous pricing rules; {} could not be loaded: {}",
+                    rulesResource.getDescription(), e.getMessage());
+        }
+    }
+
+    private CompiledRuleSet load() {
+        try (InputStream input = rulesResource.getInputStream()) {
+            String source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            return CompiledRuleSet.compile(rulesResource.getDescription(), source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read pricing rules from " + rulesResource.getDescription(), e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return rulesResource.lastModified();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.enterprise.ecommerce.pricing;
+
+/**
+ * A compiled rule: when its condition holds, it contributes a rate or a fixed amount
+ *
+ * @param kind      what the rule prices
+ * @param label     name reported for applied discounts; null for tax and shipping
+ * @param perLine   whether the rule is evaluated once per basket line
+ * @param condition when the rule applies
+ * @param percent   whether {@code value} is a rate in parts per million rather than minor units
+ * @param value     the rate or amount
+ */
+record PricingRule(Kind kind, String label, boolean perLine, Condition condition, boolean percent, long value) {
+
+    enum Kind {
+        TAX, SHIPPING, DISCOUNT
+    }
+
+    boolean appliesTo(Basket basket) {
+        return condition.test(basket, null);
+    }
+
+    /**
+     * Discount this rule grants on the basket, in minor units
+     */
+    long discount(Basket basket) {
+        if (!perLine) {
+            if (!condition.test(basket, null)) {
+                return 0L;
+            }
+            return percent ? Money.applyRate(basket.getSubtotal(), value) : value;
+        }
+
+        long discount = 0L;
+        for (BasketLine line : basket.getLines()) {
+            if (condition.test(basket, line)) {
+                long amount = line.amount();
+                discount += percent
+                        ? Money.applyRate(amount, value)
+                        : Math.min(amount, Math.multiplyExact(value, (long) line.quantity()));
+            }
+        }
+        return discount;
+    }
+}
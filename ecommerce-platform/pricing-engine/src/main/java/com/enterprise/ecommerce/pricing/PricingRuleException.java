@@ -0,0 +1,18 @@
+package com.enterprise.ecommerce.pricing;
+
+/**
+ * Thrown when a rule set cannot be compiled; carries the offending line
+ */
+public class PricingRuleException extends RuntimeException {
+
+    private final int line;
+
+    public PricingRuleException(int line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,307 @@
+package com.enterprise.ecommerce.pricing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiles pricing rule source into {@link PricingRule}s
+ * <p>
+ * One statement per line; {@code #} starts a comment:
+ * <pre>
+ * tax      [when &lt;condition&gt;] then &lt;rate&gt;%
+ * shipping [when &lt;condition&gt;] then &lt;amount&gt;
+ * discount "&lt;label&gt;" [per line] [when &lt;condition&gt;] then &lt;rate&gt;% | &lt;amount&gt;
+ *
+ * condition  := or
+ * or         := and ("or" and)*
+ * and        := unary ("and" unary)*
+ * unary      := "not" unary | "(" or ")" | variable operator literal | variable "in" "(" literal ("," literal)* ")"
+ * </pre>
+ * Variables are {@code subtotal}, {@code items}, {@code country}, {@code region} and
+ * {@code promo}, plus {@code product}, {@code quantity}, {@code price} and {@code amount} in
+ * per-line discounts. Variables are type-checked against their literals here, so a rule set
+ * that compiles cannot fail at evaluation time.
+ */
+final class RuleParser {
+
+    private static final long MAX_RATE = Money.RATE_ONE;
+
+    private final String source;
+
+    private List<Token> tokens;
+    private int position;
+    private int lineNumber;
+    private boolean perLine;
+
+    RuleParser(String source) {
+        this.source = source;
+    }
+
+    List<PricingRule> parse() {
+        List<PricingRule> rules = new ArrayList<>();
+        String[] lines = source.split("\\R", -1);
+        for (int i = 0; i < lines.length; i++) {
+            lineNumber = i + 1;
+            tokens = tokenize(lines[i]);
+            position = 0;
+            if (!tokens.isEmpty()) {
+                rules.add(statement());
+            }
+        }
+        return rules;
+    }
+
+    private PricingRule statement() {
+        String keyword = expectWord();
+        PricingRule.Kind kind = switch (keyword) {
+            case "tax" -> PricingRule.Kind.TAX;
+            case "shipping" -> PricingRule.Kind.SHIPPING;
+            case "discount" -> PricingRule.Kind.DISCOUNT;
+            default -> throw error("expected tax, shipping or discount but found '" + keyword + "'");
+        };
+
+        String label = null;
+        perLine = false;
+        if (kind == PricingRule.Kind.DISCOUNT) {
+            label = expect(TokenType.STRING, "a quoted discount label").text;
+            if (acceptWord("per")) {
+                expectWord("line");
+                perLine = true;
+            }
+        }
+
+        Condition condition = Condition.ALWAYS;
+        if (acceptWord("when")) {
+            condition = or();
+        }
+        expectWord("then");
+
+        Token number = expect(TokenType.NUMBER, "a rate or amount");
+        boolean percent = accept(TokenType.PERCENT);
+        long value;
+        if (percent) {
+            value = decimal(number.text, 4, "rate");
+            if (value > MAX_RATE) {
+                throw error("rate " + number.text + "% exceeds 100%");
+            }
+        } else {
+            value = decimal(number.text, Money.SCALE, "amount");
+        }
+        if (kind == PricingRule.Kind.TAX && !percent) {
+            throw error("tax must be a rate, e.g. 8%");
+        }
+        if (kind == PricingRule.Kind.SHIPPING && percent) {
+            throw error("shipping must be an amount, e.g. 9.99");
+        }
+        if (position < tokens.size()) {
+            throw error("unexpected '" + tokens.get(position).text + "'");
+        }
+        return new PricingRule(kind, label, perLine, condition, percent, value);
+    }
+
+    private Condition or() {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(and());
+        while (acceptWord("or")) {
+            operands.add(and());
+        }
+        return operands.size() == 1 ? operands.get(0) : new Condition.Or(operands.toArray(new Condition[0]));
+    }
+
+    private Condition and() {
+        List<Condition> operands = new ArrayList<>();
+        operands.add(unary());
+        while (acceptWord("and")) {
+            operands.add(unary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new Condition.And(operands.toArray(new Condition[0]));
+    }
+
+    private Condition unary() {
+        if (acceptWord("not")) {
+            return new Condition.Not(unary());
+        }
+        if (accept(TokenType.LPAREN)) {
+            Condition inner = or();
+            expect(TokenType.RPAREN, "')'");
+            return inner;
+        }
+        return comparison();
+    }
+
+    private Condition comparison() {
+        String name = expectWord();
+        Variable variable;
+        try {
+            variable = Variable.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error("unknown variable '" + name + "'");
+        }
+        if (variable.isLineScoped() && !perLine) {
+            throw error("'" + name + "' is only available in per line discounts");
+        }
+
+        if (acceptWord("in")) {
+            expect(TokenType.LPAREN, "'('");
+            List<Token> literals = new ArrayList<>();
+            do {
+                literals.add(literal(variable));
+            } while (accept(TokenType.COMMA));
+            expect(TokenType.RPAREN, "')'");
+            return membership(variable, literals);
+        }
+
+        Token operator = expect(TokenType.OPERATOR, "a comparison operator");
+        Condition.Comparison comparison = Condition.Comparison.of(operator.text);
+        Token literal = literal(variable);
+        if (variable.getType() == Variable.Type.TEXT) {
+            if (comparison != Condition.Comparison.EQ && comparison != Condition.Comparison.NE) {
+                throw error("'" + name + "' can only be compared with == or !=");
+            }
+            Condition equals = membership(variable, List.of(literal));
+            return comparison == Condition.Comparison.EQ ? equals : new Condition.Not(equals);
+        }
+        return new Condition.NumberCompare(variable, comparison, number(variable, literal));
+    }
+
+    private Condition membership(Variable variable, List<Token> literals) {
+        if (variable.getType() == Variable.Type.TEXT) {
+            String[] operands = literals.stream()
+                    .map(literal -> literal.text.toUpperCase(Locale.ROOT))
+                    .toArray(String[]::new);
+            return variable == Variable.PROMO
+                    ? new Condition.PromoIn(operands)
+                    : new Condition.TextIn(variable, operands);
+        }
+        long[] operands = literals.stream()
+                .mapToLong(literal -> number(variable, literal))
+                .toArray();
+        return new Condition.NumberIn(variable, operands);
+    }
+
+    private Token literal(Variable variable) {
+        boolean text = variable.getType() == Variable.Type.TEXT;
+        return expect(text ? TokenType.STRING : TokenType.NUMBER,
+                text ? "a quoted string for " + variable.name().toLowerCase(Locale.ROOT)
+                     : "a number for " + variable.name().toLowerCase(Locale.ROOT));
+    }
+
+    private long number(Variable variable, Token literal) {
+        return variable.getType() == Variable.Type.MONEY
+                ? decimal(literal.text, Money.SCALE, "amount")
+                : decimal(literal.text, 0, "whole number");
+    }
+
+    private long decimal(String text, int scale, String what) {
+        try {
+            return new BigDecimal(text).movePointRight(scale).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw error(text + " is not a valid " + what + (scale > 0 ? " (at most " + scale + " decimals)" : ""));
+        }
+    }
+
+    private boolean acceptWord(String word) {
+        if (position < tokens.size() && tokens.get(position).isWord(word)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectWord(String word) {
+        if (!acceptWord(word)) {
+            throw error("expected '" + word + "'" + found());
+        }
+    }
+
+    private String expectWord() {
+        return expect(TokenType.WORD, "a keyword or variable").text.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean accept(TokenType type) {
+        if (position < tokens.size() && tokens.get(position).type == type) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token expect(TokenType type, String description) {
+        if (position < tokens.size() && tokens.get(position).type == type) {
+            return tokens.get(position++);
+        }
+        throw error("expected " + description + found());
+    }
+
+    private String found() {
+        return position < tokens.size() ? " but found '" + tokens.get(position).text + "'" : " at end of line";
+    }
+
+    private PricingRuleException error(String message) {
+        return new PricingRuleException(lineNumber, message);
+    }
+
+    private List<Token> tokenize(String line) {
+        List<Token> result = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '#') {
+                break;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < line.length() && (Character.isLetterOrDigit(line.charAt(i)) || line.charAt(i) == '_')) {
+                    i++;
+                }
+                result.add(new Token(TokenType.WORD, line.substring(start, i)));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < line.length() && (Character.isDigit(line.charAt(i)) || line.charAt(i) == '.')) {
+                    i++;
+                }
+                result.add(new Token(TokenType.NUMBER, line.substring(start, i)));
+            } else if (c == '"') {
+                int end = line.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw error("unterminated string");
+                }
+                result.add(new Token(TokenType.STRING, line.substring(i + 1, end)));
+                i = end + 1;
+            } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+                boolean twoChars = i + 1 < line.length() && line.charAt(i + 1) == '=';
+                String operator = line.substring(i, i + (twoChars ? 2 : 1));
+                if (Condition.Comparison.of(operator) == null) {
+                    throw error("unknown operator '" + operator + "'");
+                }
+                result.add(new Token(TokenType.OPERATOR, operator));
+                i += operator.length();
+            } else if (c == '%' || c == '(' || c == ')' || c == ',') {
+                TokenType type = switch (c) {
+                    case '%' -> TokenType.PERCENT;
+                    case '(' -> TokenType.LPAREN;
+                    case ')' -> TokenType.RPAREN;
+                    default -> TokenType.COMMA;
+                };
+                result.add(new Token(type, String.valueOf(c)));
+                i++;
+            } else {
+                throw error("unexpected character '" + c + "'");
+            }
+        }
+        return result;
+    }
+
+    private enum TokenType {
+        WORD, NUMBER, STRING, OPERATOR, PERCENT, LPAREN, RPAREN, COMMA
+    }
+
+    private record Token(TokenType type, String text) {
+        boolean isWord(String word) {
+            return type == TokenType.WORD && text.equalsIgnoreCase(word);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.enterprise.ecommerce.pricing;
+
+/**
+ * Facts a rule condition can test
+ * <p>
+ * Line variables are only available to {@code per line} discounts; the compiler rejects
+ * them anywhere else, so {@code line} is never null when they are read.
+ */
+enum Variable {
+
+    SUBTOTAL(Type.MONEY, false) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return basket.getSubtotal();
+        }
+    },
+    ITEMS(Type.COUNT, false) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return basket.getItemCount();
+        }
+    },
+    COUNTRY(Type.TEXT, false) {
+        @Override
+        String text(Basket basket) {
+            return basket.getCountry();
+        }
+    },
+    REGION(Type.TEXT, false) {
+        @Override
+        String text(Basket basket) {
+            return basket.getRegion();
+        }
+    },
+    PROMO(Type.TEXT, false),
+    PRODUCT(Type.COUNT, true) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return line.productId();
+        }
+    },
+    QUANTITY(Type.COUNT, true) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return line.quantity();
+        }
+    },
+    PRICE(Type.MONEY, true) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return line.unitPrice();
+        }
+    },
+    AMOUNT(Type.MONEY, true) {
+        @Override
+        long number(Basket basket, BasketLine line) {
+            return line.amount();
+        }
+    };
+
+    enum Type {
+        /** Amounts written as decimals and held in minor units */
+        MONEY,
+        /** Whole numbers */
+        COUNT,
+        /** Case-insensitive strings */
+        TEXT
+    }
+
+    private final Type type;
+    private final boolean lineScoped;
+
+    Variable(Type type, boolean lineScoped) {
+        this.type = type;
+        this.lineScoped = lineScoped;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    boolean isLineScoped() {
+        return lineScoped;
+    }
+
+    long number(Basket basket, BasketLine line) {
+        throw new UnsupportedOperationException(name() + " is not numeric");
+    }
+
+    String text(Basket basket) {
+        throw new UnsupportedOperationException(name() + " is not a single text value");
+    }
+}
@@ -0,0 +1,131 @@
+package com.enterprise.ecommerce.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prices baskets with compiled rule sets, including the default rules shipped with the
+ * module.
+ */
+class CompiledRuleSetTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0.01", "0.06", "0.07", "12.34", "56.25", "99.99", "100.00", "100.01", "250.55", "1234.56"})
+    void defaultRulesReproduceFlatTaxAndShipping(String subtotal) throws IOException {
+        // Before the rule engine: 8% tax rounded half up, 9.99 shipping, free from 100.00
+        BigDecimal amount = new BigDecimal(subtotal);
+        BigDecimal expectedTax = amount.multiply(BigDecimal.valueOf(0.08)).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal expectedShipping = amount.compareTo(BigDecimal.valueOf(100.00)) >= 0
+                ? BigDecimal.ZERO.setScale(2)
+                : new BigDecimal("9.99");
+
+        PriceQuote quote = defaultRules().price(basket(Money.toMinorUnits(amount)));
+
+        assertEquals(amount, quote.subtotalAmount());
+        assertEquals(expectedTax, quote.taxAmount());
+        assertEquals(expectedShipping, quote.shippingAmount());
+        assertEquals(amount.add(expectedTax).add(expectedShipping), quote.totalAmount());
+        assertEquals(List.of(), quote.appliedDiscounts());
+    }
+
+    @Test
+    void firstMatchingTaxAndShippingRuleWins() {
+        CompiledRuleSet rules = CompiledRuleSet.compile("test", """
+                tax when region == "US-CA" then 7.25%
+                tax then 8%
+                shipping when country != "US" then 24.99
+                shipping then 9.99
+                """);
+
+        PriceQuote california = rules.price(new Basket(List.of(new BasketLine(1L, 1, 100_00L)), "US", "CA", List.of()));
+        PriceQuote abroad = rules.price(new Basket(List.of(new BasketLine(1L, 1, 100_00L)), "DE", null, List.of()));
+
+        assertEquals(7_25L, california.tax());
+        assertEquals(9_99L, california.shipping());
+        assertEquals(8_00L, abroad.tax());
+        assertEquals(24_99L, abroad.shipping());
+    }
+
+    @Test
+    void discountsStackAndTaxAppliesAfterThem() {
+        CompiledRuleSet rules = CompiledRuleSet.compile("test", """
+                tax then 10%
+                discount "SAVE10" when promo == "SAVE10" and subtotal >= 50.00 then 10%
+                discount "FIVE" then 5.00
+                discount "BULK" per line when quantity >= 10 then 0.50
+                """);
+        Basket basket = new Basket(List.of(
+                new BasketLine(1L, 10, 4_00L),
+                new BasketLine(2L, 1, 20_00L)), "US", null, List.of("save10"));
+
+        PriceQuote quote = rules.price(basket);
+
+        // 10% of 60.00 + 5.00 + 10 x 0.50 on the first line
+        assertEquals(60_00L, quote.subtotal());
+        assertEquals(16_00L, quote.promotionDiscount());
+        assertEquals(List.of("SAVE10", "FIVE", "BULK"), quote.appliedDiscounts());
+        assertEquals(4_40L, quote.tax());
+        assertEquals(48_40L, quote.total());
+    }
+
+    @Test
+    void discountsAreCappedAtTheSubtotal() {
+        CompiledRuleSet rules = CompiledRuleSet.compile("test", """
+                tax then 8%
+                discount "HUGE" then 500.00
+                shipping then 9.99
+                """);
+
+        PriceQuote quote = rules.price(basket(20_00L));
+
+        assertEquals(20_00L, quote.promotionDiscount());
+        assertEquals(0L, quote.tax());
+        assertEquals(9_99L, quote.total());
+    }
+
+    @Test
+    void perLineFixedDiscountNeverExceedsTheLine() {
+        CompiledRuleSet rules = CompiledRuleSet.compile("test", "discount \"OFF\" per line when price < 1.00 then 2.00");
+
+        PriceQuote quote = rules.price(new Basket(List.of(new BasketLine(1L, 3, 50L)), null, null, List.of()));
+
+        assertEquals(1_50L, quote.promotionDiscount());
+        assertEquals(0L, quote.total());
+    }
+
+    @Test
+    void manualDiscountComesOffTheTotalLast() {
+        CompiledRuleSet rules = CompiledRuleSet.compile("test", """
+                tax then 8%
+                shipping then 9.99
+                """);
+        Basket basket = new Basket(List.of(new BasketLine(1L, 1, 50_00L)), null, null, List.of(), 100_00L);
+
+        PriceQuote quote = rules.price(basket);
+
+        // Tax is still charged on the full subtotal; the total does not go negative
+        assertEquals(4_00L, quote.tax());
+        assertEquals(63_99L, quote.manualDiscount());
+        assertEquals(0L, quote.total());
+    }
+
+    private static CompiledRuleSet defaultRules() throws IOException {
+        try (InputStream input = CompiledRuleSetTest.class.getResourceAsStream("/pricing/default.rules")) {
+            return CompiledRuleSet.compile("default.rules", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Basket basket(long subtotal) {
+        return new Basket(List.of(new BasketLine(1L, 1, subtotal)), "US", null, List.of());
+    }
+}
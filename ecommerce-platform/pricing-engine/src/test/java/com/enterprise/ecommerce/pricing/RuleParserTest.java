@@ -0,0 +1,111 @@
+package com.enterprise.ecommerce.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles rule source and checks both the rules it yields and the errors it reports.
+ */
+class RuleParserTest {
+
+    @Test
+    void skipsCommentsAndBlankLines() {
+        List<PricingRule> rules = new RuleParser("""
+                # a comment
+
+                tax then 8%   # trailing comment
+                """).parse();
+
+        assertEquals(1, rules.size());
+        PricingRule tax = rules.get(0);
+        assertEquals(PricingRule.Kind.TAX, tax.kind());
+        assertTrue(tax.percent());
+        assertEquals(80_000L, tax.value());
+        assertEquals(Condition.ALWAYS, tax.condition());
+    }
+
+    @Test
+    void parsesRatesToPartsPerMillionAndAmountsToMinorUnits() {
+        List<PricingRule> rules = new RuleParser("""
+                tax when region == "US-CA" then 7.25%
+                shipping then 9.99
+                discount "TEN" then 10.00
+                """).parse();
+
+        assertEquals(72_500L, rules.get(0).value());
+        assertEquals(999L, rules.get(1).value());
+        assertFalse(rules.get(1).percent());
+        assertEquals("TEN", rules.get(2).label());
+        assertEquals(1_000L, rules.get(2).value());
+    }
+
+    @Test
+    void parsesPerLineDiscounts() {
+        PricingRule rule = new RuleParser("discount \"BULK\" per line when quantity >= 10 then 5%").parse().get(0);
+
+        assertEquals(PricingRule.Kind.DISCOUNT, rule.kind());
+        assertEquals("BULK", rule.label());
+        assertTrue(rule.perLine());
+    }
+
+    @Test
+    void evaluatesOperatorPrecedenceAndParentheses() {
+        // and binds tighter than or; parentheses override it
+        List<PricingRule> rules = new RuleParser("""
+                shipping when country == "DE" or country == "US" and subtotal >= 50.00 then 1.00
+                shipping when (country == "DE" or country == "US") and subtotal >= 50.00 then 2.00
+                """).parse();
+        Basket smallGerman = basket("DE", null, 10_00L);
+
+        assertTrue(rules.get(0).appliesTo(smallGerman));
+        assertFalse(rules.get(1).appliesTo(smallGerman));
+    }
+
+    @Test
+    void comparesTextCaseInsensitively() {
+        PricingRule rule = new RuleParser("tax when country in (\"us\", \"ca\") and not region == \"us-or\" then 5%")
+                .parse().get(0);
+
+        assertTrue(rule.appliesTo(basket("US", "ca", 1_00L)));
+        assertFalse(rule.appliesTo(basket("US", "or", 1_00L)));
+        assertFalse(rule.appliesTo(basket("MX", null, 1_00L)));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "fee then 1.00                                  | expected tax, shipping or discount but found 'fee'",
+        "tax then 8                                     | tax must be a rate",
+        "shipping then 5%                               | shipping must be an amount",
+        "tax then 101%                                  | exceeds 100%",
+        "shipping then 9.999                            | not a valid amount",
+        "tax when subtotal > \"ten\" then 8%            | expected a number for subtotal",
+        "tax when country < \"US\" then 8%              | can only be compared with == or !=",
+        "tax when quantity > 1 then 8%                  | only available in per line discounts",
+        "tax when weight > 1 then 8%                    | unknown variable 'weight'",
+        "discount \"X\" when promo == \"X\" 1%         | expected 'then'",
+        "discount \"X then 1%                           | unterminated string",
+        "tax when (subtotal > 1.00 then 8%              | expected ')'",
+        "tax then 8% extra                              | unexpected 'extra'",
+        "tax when subtotal => 1.00 then 8%              | unknown operator '='",
+        "tax then 8% ;                                  | unexpected character ';'",
+    })
+    void rejectsInvalidRules(String source, String message) {
+        PricingRuleException e = assertThrows(PricingRuleException.class,
+                () -> new RuleParser("# header\n" + source).parse());
+
+        assertEquals(2, e.getLine());
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    private static Basket basket(String country, String state, long unitPrice) {
+        return new Basket(List.of(new BasketLine(1L, 1, unitPrice)), country, state, List.of());
+    }
+}
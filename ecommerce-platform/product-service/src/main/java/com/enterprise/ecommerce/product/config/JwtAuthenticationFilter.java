@@ -1,6 +1,9 @@
 package com.enterprise.ecommerce.product.config;
 
+import com.enterprise.ecommerce.common.security.GatewayIdentity;
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
 import com.enterprise.ecommerce.common.security.JwtUtil;
+import com.enterprise.ecommerce.common.security.TokenClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,30 +18,51 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter for Product Service
+ * <p>
+ * With {@code app.security.gateway-identity.enabled}, an identity asserted by the API
+ * gateway, which has already verified the token, is trusted instead of the token.
+ * Revocation is enforced by the gateway, which refuses requests while it cannot read
+ * token epochs; this service holds no epochs of its own.
  */
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
     
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
                                   @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
         
+        Optional<GatewayIdentity> asserted = gatewayIdentityVerifier.verify(request);
+        if (asserted.isPresent()) {
+            GatewayIdentity identity = asserted.get();
+            List<SimpleGrantedAuthority> authorities = identity.roles().stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                    .toList();
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(identity.username(), null, authorities));
+            
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
         String authHeader = request.getHeader("Authorization");
         
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             
             try {
-                String username = jwtUtil.extractUsername(token);
-                if (Boolean.TRUE.equals(jwtUtil.validateToken(token, username))) {
-                    String role = jwtUtil.extractRole(token);
+                TokenClaims claims = jwtUtil.verify(token);
+                String username = claims.username();
+                if (username != null) {
+                    String role = claims.role();
                     
                     List<SimpleGrantedAuthority> authorities = List.of(
                             new SimpleGrantedAuthority("ROLE_" + role)
@@ -0,0 +1,32 @@
+package com.enterprise.ecommerce.product.config;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.kafka.JsonListenerContainerFactories;
+import com.enterprise.ecommerce.product.dto.OrderEventMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Kafka consumer configuration for checkout commands and order events
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id:product-service}")
+    private String groupId;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CheckoutCommand> checkoutCommandListenerContainerFactory() {
+        return JsonListenerContainerFactories.create(bootstrapServers, groupId, CheckoutCommand.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEventMessage> orderEventsListenerContainerFactory() {
+        return JsonListenerContainerFactories.create(bootstrapServers, groupId, OrderEventMessage.class);
+    }
+}
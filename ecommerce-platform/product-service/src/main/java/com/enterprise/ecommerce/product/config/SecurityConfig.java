@@ -1,7 +1,9 @@
 package com.enterprise.ecommerce.product.config;
 
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
 import com.enterprise.ecommerce.common.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,6 +17,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 /**
@@ -28,6 +31,15 @@ public class SecurityConfig {
     
     private final JwtUtil jwtUtil;
     
+    @Value("${app.security.gateway-identity.enabled:false}")
+    private boolean gatewayIdentityEnabled;
+    
+    @Value("${app.security.gateway-identity.secret:}")
+    private String gatewayIdentitySecret;
+    
+    @Value("${app.security.gateway-identity.max-age-ms:30000}")
+    private long gatewayIdentityMaxAgeMillis;
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -63,11 +75,20 @@ public class SecurityConfig {
             );
         
         // Add JWT filter
-        http.addFilterBefore(new JwtAuthenticationFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new JwtAuthenticationFilter(jwtUtil, gatewayIdentityVerifier()), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
     
+    /**
+     * Checks identities asserted by the API gateway; when disabled every request is
+     * authenticated from its JWT
+     */
+    @Bean
+    public GatewayIdentityVerifier gatewayIdentityVerifier() {
+        return new GatewayIdentityVerifier(gatewayIdentityEnabled, gatewayIdentitySecret, Duration.ofMillis(gatewayIdentityMaxAgeMillis));
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
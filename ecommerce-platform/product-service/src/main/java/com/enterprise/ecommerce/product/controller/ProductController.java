@@ -62,6 +62,18 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(response, "Product retrieved successfully"));
     }
     
+    /**
+     * Get products by IDs
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieves several products by their IDs in one call")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByIds(
+            @RequestParam List<Long> ids) {
+        
+        List<ProductResponse> response = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(response, "Products retrieved successfully"));
+    }
+    
     /**
      * Get product by SKU
      */
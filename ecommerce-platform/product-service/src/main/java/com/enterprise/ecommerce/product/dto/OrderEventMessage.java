@@ -0,0 +1,30 @@
+package com.enterprise.ecommerce.product.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Order event as read from the order-events topic
+ * <p>
+ * The topic carries both OrderPlacedEvent and OrderStatusChangedEvent without type
+ * headers. Both are read into this class, keeping only the fields stock settlement
+ * needs: a placed event carries a total, a status change carries a status.
+ */
+@Data
+@NoArgsConstructor
+public class OrderEventMessage {
+
+    private String orderId;
+    private BigDecimal totalAmount;
+    private String status;
+
+    public boolean isPlacedEvent() {
+        return totalAmount != null;
+    }
+
+    public boolean isStatusChange() {
+        return status != null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.enterprise.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock reservation held for an order during checkout
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class StockReservation {
+
+    @Id
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    /** Reserved quantity by product ID, kept so the stock can be settled once the order is decided */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_items", joinColumns = @JoinColumn(name = "order_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    @Builder.Default
+    private Map<Long, Integer> quantities = new HashMap<>();
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        /** Stock is held for the order */
+        RESERVED,
+        /** Stock could not be reserved; later reserve commands are refused */
+        REJECTED,
+        /** Held stock was given back; later reserve commands are refused */
+        RELEASED,
+        /** The order completed and the held stock was taken out of the stock quantity */
+        CONFIRMED,
+        /** The completed order was cancelled or refunded and its stock was put back */
+        RESTOCKED
+    }
+}
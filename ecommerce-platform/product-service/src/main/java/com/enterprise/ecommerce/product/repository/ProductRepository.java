@@ -4,11 +4,13 @@ import com.enterprise.ecommerce.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -160,4 +162,57 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT DISTINCT p.brand FROM Product p WHERE p.brand IS NOT NULL AND p.active = true ORDER BY p.brand")
     List<String> findDistinctBrands();
-}
\ No newline at end of file
+    
+    /**
+     * Find products by IDs with their category loaded
+     * @param ids product IDs
+     * @return list of matching products
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllByIdWithCategory(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Reserve stock of an active product if enough is available
+     * @param productId product ID
+     * @param quantity quantity to reserve
+     * @return number of updated rows, 0 when the product cannot cover the quantity
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity " +
+           "WHERE p.id = :productId AND p.active = true AND p.stockQuantity - p.reservedQuantity >= :quantity")
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+    
+    /**
+     * Release previously reserved stock
+     * @param productId product ID
+     * @param quantity quantity to release
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = CASE WHEN p.reservedQuantity > :quantity " +
+           "THEN p.reservedQuantity - :quantity ELSE 0 END WHERE p.id = :productId")
+    int releaseStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+    
+    /**
+     * Take reserved stock out of the stock quantity once its order has completed
+     * @param productId product ID
+     * @param quantity quantity reserved by the order
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = CASE WHEN p.stockQuantity > :quantity " +
+           "THEN p.stockQuantity - :quantity ELSE 0 END, " +
+           "p.reservedQuantity = CASE WHEN p.reservedQuantity > :quantity " +
+           "THEN p.reservedQuantity - :quantity ELSE 0 END WHERE p.id = :productId")
+    int confirmStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+    
+    /**
+     * Put the stock of a cancelled or refunded order back
+     * @param productId product ID
+     * @param quantity quantity taken by the order
+     * @return number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :productId")
+    int restockStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+}
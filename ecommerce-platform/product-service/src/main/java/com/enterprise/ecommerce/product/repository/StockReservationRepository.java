@@ -0,0 +1,27 @@
+package com.enterprise.ecommerce.product.repository;
+
+import com.enterprise.ecommerce.product.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for StockReservation entity
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Find the reservation of an order, locking it against concurrent commands for the same order
+     * @param orderId order ID
+     * @return Optional containing the reservation if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId")
+    Optional<StockReservation> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,51 @@
+package com.enterprise.ecommerce.product.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.exception.BusinessException;
+import com.enterprise.ecommerce.common.kafka.KafkaProducerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Handles the stock reservation step of the checkout saga
+ */
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutCommandListener {
+
+    private final StockReservationService reservationService;
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * Handle a checkout command addressed to the stock step
+     * @param command checkout command
+     */
+    @KafkaListener(topics = CheckoutCommand.TOPIC, containerFactory = "checkoutCommandListenerContainerFactory")
+    public void onCheckoutCommand(CheckoutCommand command) {
+        if (command == null || command.getStep() != CheckoutCommand.Step.RESERVE_STOCK) {
+            return;
+        }
+
+        CheckoutReply reply;
+        if (command.getAction() == CheckoutCommand.Action.COMPENSATE) {
+            reservationService.release(command);
+            reply = CheckoutReply.succeeded(command);
+        } else {
+            try {
+                reply = CheckoutReply.succeeded(command);
+                reply.setItems(reservationService.reserve(command));
+            } catch (BusinessException e) {
+                log.info("Stock reservation for order {} refused: {}", command.getOrderId(), e.getMessage());
+                reservationService.reject(command);
+                reply = CheckoutReply.failed(command, e.getMessage());
+            }
+        }
+        kafkaProducerService.sendMessage(CheckoutReply.TOPIC, command.getOrderId(), reply);
+    }
+}
@@ -0,0 +1,42 @@
+package com.enterprise.ecommerce.product.service;
+
+import com.enterprise.ecommerce.product.dto.OrderEventMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Settles the stock reserved by checkout once the order is decided: a placed order
+ * takes its reserved stock out of the stock quantity, a cancelled or refunded order
+ * gives it back
+ */
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class OrderEventListener {
+
+    private static final Set<String> RETURNING_STATUSES = Set.of("CANCELLED", "REFUNDED");
+
+    private final StockReservationService reservationService;
+
+    /**
+     * Handle an event of the order-events topic
+     * @param event placed order or order status change
+     */
+    @KafkaListener(topics = "order-events", containerFactory = "orderEventsListenerContainerFactory")
+    public void onOrderEvent(OrderEventMessage event) {
+        if (event == null || event.getOrderId() == null) {
+            return;
+        }
+
+        Long orderId = Long.valueOf(event.getOrderId());
+        if (event.isPlacedEvent()) {
+            reservationService.confirm(orderId);
+        } else if (event.isStatusChange() && RETURNING_STATUSES.contains(event.getStatus())) {
+            reservationService.cancel(orderId);
+        }
+    }
+}
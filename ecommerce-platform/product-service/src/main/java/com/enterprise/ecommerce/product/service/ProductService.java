@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -35,6 +36,7 @@ import java.util.List;
 public class ProductService {
     
     private static final String PRODUCT_NOT_FOUND_MESSAGE = "Product not found with ID: ";
+    private static final int MAX_BATCH_SIZE = 200;
     
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
@@ -114,6 +116,24 @@ public class ProductService {
         return mapToProductResponse(product);
     }
     
+    /**
+     * Get products by IDs in a single query
+     * @param productIds product IDs
+     * @return product responses for the IDs that exist
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        if (productIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_SIZE + " product IDs can be requested at once");
+        }
+        return productRepository.findAllByIdWithCategory(productIds).stream()
+                .map(this::mapToProductResponse)
+                .toList();
+    }
+    
     /**
      * Get product by SKU
      * @param sku product SKU
@@ -327,20 +347,7 @@ public class ProductService {
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully: {}", updatedProduct.getName());
         
-        // Publish product updated event
-        ProductUpdatedEvent event = ProductUpdatedEvent.builder()
-                .productId(updatedProduct.getId().toString())
-                .name(updatedProduct.getName())
-                .description(updatedProduct.getDescription())
-                .price(updatedProduct.getPrice())
-                .stockQuantity(updatedProduct.getStockQuantity())
-                .category(updatedProduct.getCategory().getName())
-                .available(updatedProduct.getActive())
-                .updatedAt(updatedProduct.getUpdatedAt())
-                .build();
-        
-        kafkaProducerService.sendMessage("product-events", updatedProduct.getId().toString(), event);
-        log.info("Published ProductUpdatedEvent for product: {}", updatedProduct.getId());
+        publishProductUpdatedEvent(updatedProduct);
         
         return mapToProductResponse(updatedProduct);
     }
@@ -365,6 +372,9 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        productRepository.flush();
+        // Carts holding the product mark its lines unavailable
+        publishProductUpdatedEvent(product, false);
         log.info("Product deleted successfully: {}", product.getName());
     }
     
@@ -389,6 +399,7 @@ public class ProductService {
         Product updatedProduct = productRepository.save(product);
         
         log.info("Stock updated successfully for product: {}", updatedProduct.getName());
+        publishProductUpdatedEvent(updatedProduct);
         return mapToProductResponse(updatedProduct);
     }
     
@@ -425,6 +436,36 @@ public class ProductService {
         return productRepository.existsBySku(sku);
     }
     
+    /**
+     * Publish a product updated event so carts can refresh price and availability
+     * @param product updated product
+     */
+    private void publishProductUpdatedEvent(Product product) {
+        publishProductUpdatedEvent(product, Boolean.TRUE.equals(product.getActive()) && product.isInStock());
+    }
+
+    /**
+     * Publish a product updated event with the given availability
+     * @param product updated or deleted product
+     * @param available whether carts may keep offering the product
+     */
+    private void publishProductUpdatedEvent(Product product, boolean available) {
+        ProductUpdatedEvent event = ProductUpdatedEvent.builder()
+                .productId(product.getId().toString())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .effectivePrice(product.getEffectivePrice())
+                .stockQuantity(product.getStockQuantity())
+                .category(product.getCategory().getName())
+                .available(available)
+                .updatedAt(product.getUpdatedAt())
+                .build();
+        
+        kafkaProducerService.sendMessage("product-events", product.getId().toString(), event);
+        log.info("Published ProductUpdatedEvent for product: {}", product.getId());
+    }
+    
     /**
      * Map Product entity to ProductResponse DTO
      * @param product product entity
@@ -0,0 +1,198 @@
+package com.enterprise.ecommerce.product.service;
+
+import com.enterprise.ecommerce.common.events.CheckoutCommand;
+import com.enterprise.ecommerce.common.events.CheckoutReply;
+import com.enterprise.ecommerce.common.exception.InvalidRequestException;
+import com.enterprise.ecommerce.product.entity.Product;
+import com.enterprise.ecommerce.product.entity.StockReservation;
+import com.enterprise.ecommerce.product.repository.ProductRepository;
+import com.enterprise.ecommerce.product.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Service holding product stock for orders in checkout.
+ * Every order has at most one reservation record, so reserve and release commands can be
+ * redelivered safely, and a reserve command arriving after the release is refused.
+ * Once the order completes its reserved stock is confirmed, i.e. taken out of the stock
+ * quantity, and a cancellation or refund of the completed order puts it back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Reserve the stock of every item of an order, or of none of them
+     * @param command reserve command
+     * @return catalog data of the reserved products
+     * @throws InvalidRequestException when an item is inactive or out of stock
+     */
+    public List<CheckoutReply.PricedItem> reserve(CheckoutCommand command) {
+        Long orderId = Long.valueOf(command.getOrderId());
+        Map<Long, Integer> quantities = quantitiesByProduct(command);
+
+        Optional<StockReservation> existing = reservationRepository.findByOrderIdForUpdate(orderId);
+        if (existing.isPresent()) {
+            StockReservation.Status status = existing.get().getStatus();
+            if (status != StockReservation.Status.RESERVED) {
+                throw new InvalidRequestException("Stock for order " + orderId + " was already " + status.name().toLowerCase());
+            }
+            return pricedItems(quantities.keySet());
+        }
+
+        // Rows are updated in ascending product order so concurrent checkouts cannot deadlock
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new InvalidRequestException("Insufficient stock for product: " + entry.getKey());
+            }
+        }
+        reservationRepository.save(StockReservation.builder()
+                .orderId(orderId)
+                .status(StockReservation.Status.RESERVED)
+                .quantities(new HashMap<>(quantities))
+                .build());
+        evictProducts(quantities.keySet());
+
+        log.info("Reserved stock of {} products for order {}", quantities.size(), orderId);
+        return pricedItems(quantities.keySet());
+    }
+
+    /**
+     * Record that the stock of an order could not be reserved
+     * @param command reserve command that failed
+     */
+    public void reject(CheckoutCommand command) {
+        Long orderId = Long.valueOf(command.getOrderId());
+        if (!reservationRepository.existsById(orderId)) {
+            reservationRepository.save(StockReservation.builder()
+                    .orderId(orderId)
+                    .status(StockReservation.Status.REJECTED)
+                    .build());
+        }
+    }
+
+    /**
+     * Release the stock held for an order; releasing twice or before reserving is a no-op
+     * @param command release command
+     */
+    public void release(CheckoutCommand command) {
+        Long orderId = Long.valueOf(command.getOrderId());
+        Optional<StockReservation> existing = reservationRepository.findByOrderIdForUpdate(orderId);
+        if (existing.isPresent() && existing.get().getStatus() != StockReservation.Status.RESERVED) {
+            return;
+        }
+
+        if (existing.isPresent()) {
+            StockReservation reservation = existing.get();
+            Map<Long, Integer> quantities = reservation.getQuantities().isEmpty()
+                    ? quantitiesByProduct(command)
+                    : new TreeMap<>(reservation.getQuantities());
+            quantities.forEach(productRepository::releaseStock);
+            reservation.setStatus(StockReservation.Status.RELEASED);
+            reservationRepository.save(reservation);
+            evictProducts(quantities.keySet());
+            log.info("Released stock of {} products for order {}", quantities.size(), orderId);
+            return;
+        }
+        // Saved even without a reservation so that a late reserve command is refused
+        reservationRepository.save(StockReservation.builder()
+                .orderId(orderId)
+                .status(StockReservation.Status.RELEASED)
+                .build());
+    }
+
+    /**
+     * Take the stock held for a completed order out of the stock quantity; confirming
+     * twice or an order without a reservation is a no-op
+     * @param orderId order ID
+     */
+    public void confirm(Long orderId) {
+        Optional<StockReservation> existing = reservationRepository.findByOrderIdForUpdate(orderId);
+        if (existing.isEmpty() || existing.get().getStatus() != StockReservation.Status.RESERVED) {
+            return;
+        }
+
+        StockReservation reservation = existing.get();
+        Map<Long, Integer> quantities = new TreeMap<>(reservation.getQuantities());
+        quantities.forEach(productRepository::confirmStock);
+        reservation.setStatus(StockReservation.Status.CONFIRMED);
+        reservationRepository.save(reservation);
+        evictProducts(quantities.keySet());
+        log.info("Confirmed stock of {} products for order {}", quantities.size(), orderId);
+    }
+
+    /**
+     * Give back the stock of a cancelled or refunded order: held stock is released,
+     * confirmed stock is put back into the stock quantity
+     * @param orderId order ID
+     */
+    public void cancel(Long orderId) {
+        Optional<StockReservation> existing = reservationRepository.findByOrderIdForUpdate(orderId);
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        StockReservation reservation = existing.get();
+        Map<Long, Integer> quantities = new TreeMap<>(reservation.getQuantities());
+        switch (reservation.getStatus()) {
+            case RESERVED -> {
+                quantities.forEach(productRepository::releaseStock);
+                reservation.setStatus(StockReservation.Status.RELEASED);
+            }
+            case CONFIRMED -> {
+                quantities.forEach(productRepository::restockStock);
+                reservation.setStatus(StockReservation.Status.RESTOCKED);
+            }
+            default -> {
+                return;
+            }
+        }
+        reservationRepository.save(reservation);
+        evictProducts(quantities.keySet());
+        log.info("Returned stock of {} products for order {}, reservation now {}",
+                quantities.size(), orderId, reservation.getStatus());
+    }
+
+    private Map<Long, Integer> quantitiesByProduct(CheckoutCommand command) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutCommand.Item item : command.getItems()) {
+            quantities.merge(Long.valueOf(item.getProductId()), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private List<CheckoutReply.PricedItem> pricedItems(Collection<Long> productIds) {
+        return productRepository.findAllById(productIds).stream()
+                .map((Product product) -> CheckoutReply.PricedItem.builder()
+                        .productId(product.getId().toString())
+                        .productName(product.getName())
+                        .imageUrl(product.getImageUrl())
+                        .unitPrice(product.getEffectivePrice())
+                        .build())
+                .toList();
+    }
+
+    private void evictProducts(Collection<Long> productIds) {
+        Cache products = cacheManager.getCache("products");
+        if (products != null) {
+            productIds.forEach(products::evict);
+        }
+    }
+}
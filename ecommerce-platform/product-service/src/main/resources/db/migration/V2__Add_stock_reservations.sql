@@ -0,0 +1,14 @@
+-- Stock held for orders going through the checkout saga.
+-- One row per order makes reserve and release idempotent when commands are redelivered.
+CREATE TABLE stock_reservations (
+    order_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_stock_reservations_status ON stock_reservations(status);
+
+CREATE TRIGGER update_stock_reservations_updated_at
+    BEFORE UPDATE ON stock_reservations
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,8 @@
+-- Quantities held by each reservation, so that completing, cancelling or refunding the
+-- order can settle the stock without the order events having to carry the items.
+CREATE TABLE stock_reservation_items (
+    order_id BIGINT NOT NULL REFERENCES stock_reservations(order_id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    PRIMARY KEY (order_id, product_id)
+);
@@ -1,6 +1,12 @@
 package com.enterprise.ecommerce.user.config;
 
-import com.enterprise.ecommerce.common.security.JwtUtil;
+import com.enterprise.ecommerce.common.security.GatewayIdentity;
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
+import com.enterprise.ecommerce.common.security.TokenClaims;
+import com.enterprise.ecommerce.common.security.VerifiedTokenCache;
+import com.enterprise.ecommerce.user.service.CustomUserDetailsService.UserPrincipal;
+import com.enterprise.ecommerce.user.service.TokenEpochService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,25 +16,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter
+ * <p>
+ * The principal is built from the token's claims; the user is not loaded from the
+ * database. A token is verified once and then served from the {@link VerifiedTokenCache},
+ * and is accepted only while it carries its user's current token epoch.
+ * <p>
+ * With {@code app.security.gateway-identity.enabled}, an identity asserted by the API
+ * gateway, which has already verified the token, is trusted instead of the token, but its
+ * epoch is still checked here so revocation does not depend on the gateway seeing it.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenEpochService tokenEpochService;
     
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -36,18 +50,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         
         try {
+            Optional<GatewayIdentity> asserted = gatewayIdentityVerifier.verify(request);
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && Boolean.TRUE.equals(jwtUtil.validateToken(jwt, jwtUtil.extractUsername(jwt)))) {
-                String username = jwtUtil.extractUsername(jwt);
+            if (asserted.isPresent()) {
+                GatewayIdentity identity = asserted.get();
+                if (tokenEpochService.isCurrent(identity.userId(), identity.epoch())) {
+                    authenticate(request, UserPrincipal.create(identity));
+                } else {
+                    log.debug("Rejected revoked token of user {} asserted by the gateway", identity.username());
+                }
+            } else if (StringUtils.hasText(jwt)) {
+                TokenClaims claims = verifiedTokenCache.verify(jwt);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (claims.userId() != null && tokenEpochService.isCurrent(claims.userId(), claims.epoch())) {
+                    authenticate(request, UserPrincipal.create(claims));
+                } else {
+                    log.debug("Rejected revoked token of user {}", claims.username());
+                }
             }
+        } catch (JwtException ex) {
+            log.debug("Rejected invalid JWT: {}", ex.getMessage());
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
         }
@@ -55,6 +78,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private static void authenticate(HttpServletRequest request, UserPrincipal principal) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -62,4 +93,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.enterprise.ecommerce.user.config;
+
+import com.enterprise.ecommerce.common.security.GatewayIdentityVerifier;
+import com.enterprise.ecommerce.common.security.JwtUtil;
+import com.enterprise.ecommerce.common.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * JWT verification configuration for the User Service
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Cache of verified tokens shared by all requests of this instance
+     */
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache(JwtUtil jwtUtil,
+                                                 @Value("${app.security.verified-token-cache.max-entries:10000}") int maxEntries,
+                                                 @Value("${app.security.verified-token-cache.ttl-ms:60000}") long ttlMillis) {
+        return new VerifiedTokenCache(jwtUtil, maxEntries, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * Checks identities asserted by the API gateway; when disabled every request is
+     * authenticated from its JWT
+     */
+    @Bean
+    public GatewayIdentityVerifier gatewayIdentityVerifier(@Value("${app.security.gateway-identity.enabled:false}") boolean enabled,
+                                                           @Value("${app.security.gateway-identity.secret:}") String secret,
+                                                           @Value("${app.security.gateway-identity.max-age-ms:30000}") long maxAgeMillis) {
+        return new GatewayIdentityVerifier(enabled, secret, Duration.ofMillis(maxAgeMillis));
+    }
+}
@@ -1,6 +1,8 @@
 package com.enterprise.ecommerce.user.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,13 +36,28 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+    
+    @Value("${app.security.password-hashing.queue-capacity:32}")
+    private int passwordHashingQueueCapacity;
+    
+    @Value("${app.security.password-hashing.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
     
     /**
-     * Password encoder bean
+     * Password encoder bean; BCrypt runs on a bounded pool of its own, by default half
+     * of the processors, so login bursts cannot take every request thread
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = passwordHashingThreads > 0
+                ? passwordHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, passwordHashingQueueCapacity,
+                passwordHashingRetryAfterSeconds, meterRegistry);
     }
     
     /**
@@ -1,6 +1,7 @@
 package com.enterprise.ecommerce.user.controller;
 
 import com.enterprise.ecommerce.common.dto.ApiResponse;
+import com.enterprise.ecommerce.common.exception.TooManyRequestsException;
 import com.enterprise.ecommerce.user.dto.*;
 import com.enterprise.ecommerce.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST Controller for user management operations
  */
@@ -47,6 +50,8 @@ public class UserController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Registration failed for username: {}", request.getUsername(), e);
             
@@ -80,6 +85,8 @@ public class UserController {
             
             return ResponseEntity.ok(response);
             
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Authentication failed for: {}", request.getUsernameOrEmail(), e);
             
@@ -124,6 +131,38 @@ public class UserController {
         }
     }
     
+    /**
+     * Get the profiles of several users at once
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Get users by IDs", description = "Retrieve the profiles of up to 500 users in one call; unknown IDs are skipped")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<UserResponse>>> getUsersByIds(
+            @Valid @RequestBody UserBatchRequest request) {
+        
+        try {
+            List<UserResponse> users = userService.getUsersByIds(request.getUserIds());
+            
+            ApiResponse<List<UserResponse>> response = ApiResponse.<List<UserResponse>>builder()
+                    .success(true)
+                    .message("Users retrieved successfully")
+                    .data(users)
+                    .build();
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Failed to retrieve {} users", request.getUserIds().size(), e);
+            
+            ApiResponse<List<UserResponse>> response = ApiResponse.<List<UserResponse>>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build();
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
     /**
      * Get user profile by username
      */
@@ -219,6 +258,37 @@ public class UserController {
         }
     }
     
+    /**
+     * Revoke all tokens of a user
+     */
+    @PostMapping("/{userId}/tokens/revoke")
+    @Operation(summary = "Revoke user tokens", description = "Invalidate every token issued to the user so far")
+    @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal.id")
+    public ResponseEntity<ApiResponse<Void>> revokeTokens(
+            @Parameter(description = "User ID") @PathVariable Long userId) {
+        
+        try {
+            userService.revokeTokens(userId);
+            
+            ApiResponse<Void> response = ApiResponse.<Void>builder()
+                    .success(true)
+                    .message("User tokens revoked successfully")
+                    .build();
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Failed to revoke tokens of user with ID: {}", userId, e);
+            
+            ApiResponse<Void> response = ApiResponse.<Void>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .build();
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
     /**
      * Check if username exists
      */
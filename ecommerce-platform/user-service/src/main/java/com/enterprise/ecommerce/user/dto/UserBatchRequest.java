@@ -0,0 +1,25 @@
+package com.enterprise.ecommerce.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for looking up several users at once
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchRequest {
+    
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 500, message = "At most 500 users can be looked up at once")
+    private List<@NotNull Long> userIds;
+}
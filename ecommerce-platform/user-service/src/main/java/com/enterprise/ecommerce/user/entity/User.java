@@ -75,6 +75,10 @@ public class User {
     @Column(nullable = false)
     private Boolean credentialsNonExpired = true;
     
+    @Builder.Default
+    @Column(nullable = false)
+    private Long tokenEpoch = 0L;
+    
     @Enumerated(EnumType.STRING)
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
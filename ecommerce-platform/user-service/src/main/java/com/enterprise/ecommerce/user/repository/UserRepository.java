@@ -2,10 +2,13 @@ package com.enterprise.ecommerce.user.repository;
 
 import com.enterprise.ecommerce.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -57,4 +60,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Optional containing the enabled user if found
      */
     Optional<User> findByUsernameAndEnabledTrue(String username);
-}
\ No newline at end of file
+    
+    /**
+     * Find users by ID together with their roles, in one query
+     * @param ids the user IDs
+     * @return the users found, in no particular order
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find the current token epoch of a user
+     * @param id the user ID
+     * @return Optional containing the epoch if the user exists
+     */
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenEpochById(@Param("id") Long id);
+    
+    /**
+     * Move a user's token epoch on, revoking the tokens issued before
+     * @param id the user ID
+     * @return number of users updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :id")
+    int incrementTokenEpoch(@Param("id") Long id);
+}
@@ -1,5 +1,7 @@
 package com.enterprise.ecommerce.user.service;
 
+import com.enterprise.ecommerce.common.security.GatewayIdentity;
+import com.enterprise.ecommerce.common.security.TokenClaims;
 import com.enterprise.ecommerce.user.entity.User;
 import com.enterprise.ecommerce.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -57,6 +59,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         private boolean accountNonExpired;
         private boolean accountNonLocked;
         private boolean credentialsNonExpired;
+        private long tokenEpoch;
         
         private UserPrincipal(Builder builder) {
             this.id = builder.id;
@@ -68,6 +71,7 @@ public class CustomUserDetailsService implements UserDetailsService {
             this.accountNonExpired = builder.accountNonExpired;
             this.accountNonLocked = builder.accountNonLocked;
             this.credentialsNonExpired = builder.credentialsNonExpired;
+            this.tokenEpoch = builder.tokenEpoch;
         }
         
         public static UserPrincipal create(User user) {
@@ -85,6 +89,36 @@ public class CustomUserDetailsService implements UserDetailsService {
                     .accountNonExpired(user.getAccountNonExpired())
                     .accountNonLocked(user.getAccountNonLocked())
                     .credentialsNonExpired(user.getCredentialsNonExpired())
+                    .tokenEpoch(user.getTokenEpoch())
+                    .build();
+        }
+        
+        /**
+         * Build a principal from the claims of a verified token, without a database
+         * lookup; it carries no password or email
+         */
+        public static UserPrincipal create(TokenClaims claims) {
+            return new Builder()
+                    .id(claims.userId())
+                    .username(claims.username())
+                    .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + claims.role())))
+                    .tokenEpoch(claims.epoch())
+                    .build();
+        }
+        
+        /**
+         * Build a principal from an identity asserted by the API gateway
+         */
+        public static UserPrincipal create(GatewayIdentity identity) {
+            List<GrantedAuthority> authorities = identity.roles().stream()
+                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                    .toList();
+            
+            return new Builder()
+                    .id(identity.userId())
+                    .username(identity.username())
+                    .tokenEpoch(identity.epoch())
+                    .authorities(authorities)
                     .build();
         }
         
@@ -96,6 +130,10 @@ public class CustomUserDetailsService implements UserDetailsService {
             return email;
         }
         
+        public long getTokenEpoch() {
+            return tokenEpoch;
+        }
+        
         @Override
         public String getUsername() {
             return username;
@@ -144,6 +182,7 @@ public class CustomUserDetailsService implements UserDetailsService {
             private boolean accountNonExpired = true;
             private boolean accountNonLocked = true;
             private boolean credentialsNonExpired = true;
+            private long tokenEpoch;
             
             public Builder id(Long id) {
                 this.id = id;
@@ -190,6 +229,11 @@ public class CustomUserDetailsService implements UserDetailsService {
                 return this;
             }
             
+            public Builder tokenEpoch(long tokenEpoch) {
+                this.tokenEpoch = tokenEpoch;
+                return this;
+            }
+            
             public UserPrincipal build() {
                 return new UserPrincipal(this);
             }
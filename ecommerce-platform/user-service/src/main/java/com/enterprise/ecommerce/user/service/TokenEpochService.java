@@ -0,0 +1,129 @@
+package com.enterprise.ecommerce.user.service;
+
+import com.enterprise.ecommerce.common.exception.ResourceNotFoundException;
+import com.enterprise.ecommerce.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-user token epochs used to revoke JWTs
+ * <p>
+ * Every token carries the epoch its user had when it was issued, and only tokens of the
+ * current epoch are accepted; revoking a user's tokens moves the epoch on. Epochs are
+ * read by primary key and kept in memory for {@code cache-ttl-ms}, so authenticating a
+ * request costs at most one lookup per user and period. A revocation takes effect
+ * immediately on the instance that made it and within that period on the others.
+ * <p>
+ * Moved epochs are also published to Redis for the API gateway, which refuses revoked
+ * tokens at the edge. A publish that fails is retried every {@code republish-interval-ms}
+ * until it succeeds; meanwhile this service still refuses the revoked tokens itself, as
+ * the gateway forwards each token's epoch.
+ */
+@Service
+@Slf4j
+public class TokenEpochService {
+
+    private static final long UNKNOWN_USER = -1L;
+    private static final String EPOCH_KEY_PREFIX = "auth:token-epoch:";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrentMap<Long, CachedEpoch> epochs = new ConcurrentHashMap<>();
+    private final Set<Long> unpublished = ConcurrentHashMap.newKeySet();
+    private final long cacheTtlNanos;
+    private final int maxEntries;
+
+    public TokenEpochService(UserRepository userRepository,
+                             StringRedisTemplate redisTemplate,
+                             @Value("${app.security.token-epoch.cache-ttl-ms:5000}") long cacheTtlMillis,
+                             @Value("${app.security.token-epoch.max-entries:100000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.cacheTtlNanos = cacheTtlMillis * 1_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    private record CachedEpoch(long epoch, long expiresAt) {
+    }
+
+    /**
+     * Check whether a token issued at the given epoch is still valid for the user
+     */
+    public boolean isCurrent(Long userId, long epoch) {
+        return currentEpoch(userId) == epoch;
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     * @return the user's new epoch
+     */
+    @Transactional
+    public long revoke(Long userId) {
+        if (userRepository.incrementTokenEpoch(userId) == 0) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+        epochs.remove(userId);
+        long epoch = currentEpoch(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(userId, epoch, false);
+            }
+        });
+        log.info("Revoked tokens of user {}", userId);
+        return epoch;
+    }
+
+    /**
+     * Retry the epochs that could not be published to Redis. The epoch is read again, so
+     * a retry never publishes an epoch older than one published since; a user deleted
+     * meanwhile gets an epoch no token carries.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-epoch.republish-interval-ms:1000}")
+    public void republish() {
+        for (Long userId : unpublished) {
+            unpublished.remove(userId);
+            long epoch = userRepository.findTokenEpochById(userId).orElse(Long.MAX_VALUE);
+            publish(userId, epoch, true);
+        }
+    }
+
+    private void publish(Long userId, long epoch, boolean retry) {
+        try {
+            redisTemplate.opsForValue().set(EPOCH_KEY_PREFIX + userId, String.valueOf(epoch));
+        } catch (DataAccessException e) {
+            unpublished.add(userId);
+            if (!retry) {
+                log.warn("Could not publish token epoch of user {}, retrying: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private long currentEpoch(Long userId) {
+        long now = System.nanoTime();
+        CachedEpoch cached = epochs.get(userId);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.epoch();
+        }
+
+        long epoch = userRepository.findTokenEpochById(userId).orElse(UNKNOWN_USER);
+        if (epochs.size() >= maxEntries) {
+            epochs.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        }
+        if (epochs.size() < maxEntries) {
+            epochs.put(userId, new CachedEpoch(epoch, now + cacheTtlNanos));
+        }
+        return epoch;
+    }
+}
@@ -8,15 +8,34 @@ import com.enterprise.ecommerce.common.security.JwtUtil;
 import com.enterprise.ecommerce.user.dto.*;
 import com.enterprise.ecommerce.user.entity.User;
 import com.enterprise.ecommerce.user.repository.UserRepository;
+import com.enterprise.ecommerce.user.service.CustomUserDetailsService.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Service class for user management operations
@@ -28,12 +47,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
     
     private static final String USER_NOT_FOUND_MESSAGE = "User not found with ID: ";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String USERS_CACHE = "users";
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final TokenEpochService tokenEpochService;
     private final KafkaProducerService kafkaProducerService;
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
     
     /**
      * Register a new user
@@ -91,35 +115,37 @@ public class UserService {
     
     /**
      * Authenticate user and generate JWT token
+     * <p>
+     * Runs outside a transaction, so no database connection is held while the password
+     * is verified.
      * @param request login request
      * @return authentication response with JWT token
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse authenticateUser(LoginRequest request) {
         log.info("Attempting to authenticate user: {}", request.getUsernameOrEmail());
         
-        // Authenticate user
-        authenticationManager.authenticate(
+        // Authenticate user; the principal is the user loaded for the password check
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsernameOrEmail(),
                         request.getPassword()
                 )
         );
-        
-        // Find user by username or email
-        User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail(), request.getUsernameOrEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        String role = principal.getAuthorities().get(0).getAuthority().substring(ROLE_PREFIX.length());
         
         // Generate JWT token
-        String jwt = jwtUtil.generateToken(user.getUsername(), user.getRoles().iterator().next().name(), user.getId());
+        String jwt = jwtUtil.generateToken(principal.getUsername(), role, principal.getId(), principal.getTokenEpoch());
         
-        log.info("User authenticated successfully: {}", user.getUsername());
+        log.info("User authenticated successfully: {}", principal.getUsername());
         
         return AuthResponse.builder()
                 .token(jwt)
-                .userId(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .role(user.getRoles().iterator().next().name())
+                .userId(principal.getId())
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .role(role)
                 .build();
     }
     
@@ -140,6 +166,36 @@ public class UserService {
         return mapToUserResponse(user);
     }
     
+    /**
+     * Get several users by ID in one call
+     * <p>
+     * Users in the users cache are read from it in one round trip, and the others are
+     * loaded with a single query and cached by ID.
+     * @param userIds user IDs
+     * @return the users found, in the order of the request; unknown IDs are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByIds(List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        
+        Map<Long, UserResponse> users = getCachedUsers(ids);
+        List<Long> misses = ids.stream().filter(id -> !users.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            Cache cache = cacheManager.getCache(USERS_CACHE);
+            for (User user : userRepository.findAllWithRolesByIdIn(misses)) {
+                UserResponse userResponse = mapToUserResponse(user);
+                users.put(user.getId(), userResponse);
+                if (cache != null) {
+                    cache.put(user.getId(), userResponse);
+                }
+            }
+        }
+        log.debug("Looked up {} users, {} from the cache", ids.size(), ids.size() - misses.size());
+        
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+    
     /**
      * Get user by username
      * @param username username
@@ -160,7 +216,6 @@ public class UserService {
      * @param request user update request
      * @return updated user response
      */
-    @CacheEvict(value = "users", allEntries = true)
     public UserResponse updateUser(Long userId, UserRegistrationRequest request) {
         if (userId == null) {
             throw new InvalidRequestException("User ID cannot be null");
@@ -184,6 +239,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        evictCachedUser(updatedUser.getId(), updatedUser.getUsername());
         log.info("User updated successfully: {}", updatedUser.getUsername());
         
         return mapToUserResponse(updatedUser);
@@ -193,7 +249,6 @@ public class UserService {
      * Delete user by ID
      * @param userId user ID
      */
-    @CacheEvict(value = "users", allEntries = true)
     public void deleteUser(Long userId) {
         if (userId == null) {
             throw new InvalidRequestException("User ID cannot be null");
@@ -202,11 +257,25 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_MESSAGE + userId));
         
         if (user != null) {
+            // Tokens of the deleted user must also be refused at the gateway
+            tokenEpochService.revoke(userId);
             userRepository.delete(user);
+            evictCachedUser(userId, user.getUsername());
             log.info("User deleted successfully: {}", user.getUsername());
         }
     }
     
+    /**
+     * Revoke every token issued to a user so far
+     * @param userId user ID
+     */
+    public void revokeTokens(Long userId) {
+        if (userId == null) {
+            throw new InvalidRequestException("User ID cannot be null");
+        }
+        tokenEpochService.revoke(userId);
+    }
+    
     /**
      * Check if user exists by username
      * @param username username
@@ -227,6 +296,73 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
     
+    /**
+     * Read the cached responses of the users, in one round trip when the cache is Redis;
+     * a failed read counts as a miss for every user
+     */
+    private Map<Long, UserResponse> getCachedUsers(Set<Long> userIds) {
+        Map<Long, UserResponse> users = new HashMap<>();
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        if (cache == null || userIds.isEmpty()) {
+            return users;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            userIds.forEach(userId -> {
+                UserResponse cached = cache.get(userId, UserResponse.class);
+                if (cached != null) {
+                    users.put(userId, cached);
+                }
+            });
+            return users;
+        }
+        
+        String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(USERS_CACHE);
+        List<Long> ids = new ArrayList<>(userIds);
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(userId -> prefix + userId).toList());
+        } catch (DataAccessException e) {
+            log.warn("Could not read {} cached users: {}", ids.size(), e.getMessage());
+            return users;
+        }
+        if (values == null) {
+            return users;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            String value = values.get(i);
+            if (value != null && redisCache.getCacheConfiguration().getValueSerializationPair()
+                    .read(ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8))) instanceof UserResponse cached) {
+                users.put(ids.get(i), cached);
+            }
+        }
+        return users;
+    }
+    
+    /**
+     * Remove the cached responses of a user, under its ID and its username, once the
+     * change is committed
+     */
+    private void evictCachedUser(Long userId, String username) {
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        Runnable evict = () -> {
+            cache.evict(userId);
+            cache.evict(username);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+    
     /**
      * Map User entity to UserResponse DTO
      * @param user user entity
@@ -0,0 +1,3 @@
+-- Tokens carry the epoch current when they were issued; moving a user's epoch on
+-- revokes every token issued before
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,147 @@
+package com.enterprise.ecommerce.user.config;
+
+import com.enterprise.ecommerce.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Floods the encoder with concurrent logins and checks its admission limits: at most
+ * {@code threads} hashes run at once, at most {@code queueCapacity} wait, and everything
+ * beyond is turned away with a {@link TooManyRequestsException}.
+ */
+class BoundedPasswordEncoderTest {
+
+    private static final int HASHING_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int LOGINS = 64;
+    private static final long HASH_MILLIS = 50;
+
+    @Test
+    void turnsAwayLoginsBeyondThreadsAndQueue() throws Exception {
+        SlowEncoder delegate = new SlowEncoder();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, HASHING_THREADS, QUEUE_CAPACITY, 1,
+                registry);
+        ExecutorService callers = Executors.newFixedThreadPool(LOGINS);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        AtomicInteger maxQueued = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                int queued = (int) registry.get("users.password_hashing.queued").gauge().value();
+                maxQueued.accumulateAndGet(queued, Math::max);
+                LockSupport.parkNanos(100_000);
+            }
+        });
+        try {
+            sampler.start();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                logins.add(callers.submit(() -> {
+                    start.await();
+                    return login(encoder);
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            int rejected = 0;
+            for (Future<Boolean> login : logins) {
+                if (login.get(1, TimeUnit.MINUTES)) {
+                    accepted++;
+                } else {
+                    rejected++;
+                }
+            }
+
+            assertTrue(accepted >= HASHING_THREADS + QUEUE_CAPACITY,
+                    "only " + accepted + " logins were admitted before the limit");
+            assertTrue(rejected > 0, "the flood never reached the admission limit");
+            assertEquals(rejected, registry.get("users.password_hashing.rejected").counter().count());
+            assertTrue(delegate.maxActive.get() <= HASHING_THREADS,
+                    delegate.maxActive.get() + " hashes ran at once");
+            assertTrue(maxQueued.get() <= QUEUE_CAPACITY, maxQueued.get() + " hashes were queued at once");
+        } finally {
+            sampling.set(false);
+            sampler.join();
+            callers.shutdownNow();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void propagatesDelegateFailures() throws Exception {
+        PasswordEncoder failing = new SlowEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("malformed hash");
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(failing, HASHING_THREADS, QUEUE_CAPACITY, 1,
+                new SimpleMeterRegistry());
+        try {
+            assertThrows(IllegalArgumentException.class, () -> encoder.matches("secret", "hash"));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    private static boolean login(PasswordEncoder encoder) {
+        try {
+            if (!encoder.matches("secret", "hash")) {
+                throw new IllegalStateException("password did not match");
+            }
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stands in for BCrypt with a fixed hashing time, recording how many hashes run at once
+     */
+    private static class SlowEncoder implements PasswordEncoder {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hash();
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hash();
+            return "hash".equals(encodedPassword);
+        }
+
+        private void hash() {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(HASH_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}